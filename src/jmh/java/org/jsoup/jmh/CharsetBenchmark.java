@@ -0,0 +1,52 @@
+package org.jsoup.jmh;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks parsing from bytes, via {@link Jsoup#parse(java.io.InputStream, String, String)}, where the charset is
+ detected from the input: a {@code <meta charset>} declaring the charset, or no declaration (so the default UTF-8).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class CharsetBenchmark {
+    @Param({"news-com-au-home.html.gz", "large.html", Corpus.SyntheticText})
+    public String page;
+
+    @Param({"declared-windows-1252", "undeclared-utf-8"})
+    public String charset;
+
+    private byte[] bytes;
+
+    @Setup public void setup() {
+        String html = Corpus.load(page);
+        if (charset.equals("declared-windows-1252"))
+            bytes = ("<meta charset=windows-1252>" + html).getBytes(Charset.forName("windows-1252"));
+        else
+            bytes = html.replaceAll("(?i)<meta[^>]*charset[^>]*>", "").getBytes(Charset.forName("UTF-8"));
+    }
+
+    @Benchmark public Document parse() throws IOException {
+        return Jsoup.parse(new ByteArrayInputStream(bytes), null, "https://example.com/");
+    }
+}
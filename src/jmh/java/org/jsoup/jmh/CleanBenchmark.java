@@ -0,0 +1,49 @@
+package org.jsoup.jmh;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks {@link Cleaner#clean(Document)} over a pre-parsed document, using the relaxed safelist.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class CleanBenchmark {
+    @Param({"news-com-au-home.html.gz", "nyt-article-1.html.gz", Corpus.SyntheticText})
+    public String page;
+
+    private Document doc;
+    private Cleaner cleaner;
+
+    @Setup public void setup() {
+        doc = Jsoup.parse(Corpus.load(page), "https://example.com/");
+        cleaner = new Cleaner(Safelist.relaxed());
+    }
+
+    @Benchmark public Document clean() {
+        return cleaner.clean(doc);
+    }
+
+    @Benchmark public boolean isValid() {
+        return cleaner.isValid(doc);
+    }
+}
@@ -0,0 +1,247 @@
+package org.jsoup.jmh;
+
+import org.jsoup.helper.DataUtil;
+import org.jsoup.integration.ParseTest;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+/**
+ Input documents for the benchmarks. Named pages are the real-world captures in the test resources'
+ {@code htmltests} folder; the {@code synthetic-*} pages are generated, so that we have larger inputs with a known
+ shape.
+ */
+final class Corpus {
+    static final String SyntheticTable = "synthetic-table";
+    static final String SyntheticText = "synthetic-text";
+    static final String SyntheticAttributes = "synthetic-attributes";
+    static final String SyntheticScripts = "synthetic-scripts";
+    static final String SyntheticNested = "synthetic-nested";
+    static final String SyntheticXhtml = "synthetic-xhtml";
+    static final String SyntheticEntities = "synthetic-entities";
+    static final String SyntheticSitemap = "synthetic-sitemap";
+    static final String SyntheticFeed = "synthetic-feed";
+
+    private Corpus() {}
+
+    /**
+     Load the named page as a String.
+     @param name a file name in {@code /htmltests/}, or one of the synthetic page names
+     @return the page content
+     */
+    static String load(String name) {
+        switch (name) {
+            case SyntheticTable:
+                return syntheticTable(10000);
+            case SyntheticText:
+                return syntheticText(2000);
+            case SyntheticAttributes:
+                return syntheticAttributes(5000);
+            case SyntheticScripts:
+                return syntheticScripts(20);
+            case SyntheticNested:
+                return syntheticNested(20000);
+            case SyntheticXhtml:
+                return syntheticXhtml(5000);
+            case SyntheticEntities:
+                return syntheticEntities(2000);
+            case SyntheticSitemap:
+                return syntheticSitemap(20000);
+            case SyntheticFeed:
+                return syntheticFeed(5000);
+            default:
+                return loadResource(name);
+        }
+    }
+
+    private static String loadResource(String name) {
+        File file = ParseTest.getFile("/htmltests/" + name);
+        try (InputStream in = name.endsWith(".gz") ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(file)) {
+            ByteBuffer bytes = DataUtil.readToByteBuffer(in, 0);
+            return new String(bytes.array(), 0, bytes.limit(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** A large data table, as in a report export: many rows of short cells, links, and attributes. */
+    static String syntheticTable(int rows) {
+        Random random = new Random(1); // fixed seed, so runs are comparable
+        StringBuilder sb = new StringBuilder(rows * 200);
+        sb.append("<!doctype html><html><head><title>Report</title></head><body><table class=report><thead><tr>");
+        for (int col = 0; col < 5; col++)
+            sb.append("<th>Column ").append(col).append("</th>");
+        sb.append("</tr></thead><tbody>\n");
+        for (int row = 0; row < rows; row++) {
+            sb.append("<tr class=\"").append(row % 2 == 0 ? "even" : "odd").append("\" data-row=\"").append(row).append("\">");
+            sb.append("<td><a href=\"/items/").append(row).append("?ref=report&amp;page=").append(row / 50).append("\">Item ").append(row).append("</a></td>");
+            sb.append("<td>").append(random.nextInt(100000)).append("</td>");
+            sb.append("<td class=num>").append(random.nextDouble()).append("</td>");
+            sb.append("<td>R&amp;D &lt;").append(random.nextInt(10)).append("&gt;</td>");
+            sb.append("<td><span class=\"tag tag-").append(random.nextInt(8)).append("\">ok</span></td>");
+            sb.append("</tr>\n");
+        }
+        sb.append("</tbody></table></body></html>");
+        return sb.toString();
+    }
+
+    /** Generated markup with long attribute runs, as from front-end frameworks: inline styles, data and JSON props. */
+    static String syntheticAttributes(int elements) {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder(elements * 400);
+        sb.append("<!doctype html><html><head><title>App</title></head><body><div id=app>\n");
+        for (int i = 0; i < elements; i++) {
+            sb.append("<div class=\"card card-").append(random.nextInt(12)).append(" elevation-2 rounded-lg d-flex flex-column\"")
+                .append(" style=\"margin: 0 auto; padding: 8px 16px; background-color: #").append(Integer.toHexString(random.nextInt(0xffffff)))
+                .append("; font-family: Helvetica, Arial, sans-serif\"")
+                .append(" data-props='{\"id\":").append(i).append(",\"title\":\"Card number ").append(i)
+                .append("\",\"tags\":[\"one\",\"two\",\"three\"],\"visible\":true}'")
+                .append(" data-v-").append(Integer.toHexString(random.nextInt())).append(" aria-label=Card").append(i).append(">")
+                .append("<img src=\"https://cdn.example.com/images/").append(random.nextInt(100000)).append("/thumbnail-large.jpg\"")
+                .append(" srcset=\"https://cdn.example.com/images/a.jpg 1x, https://cdn.example.com/images/b.jpg 2x\" alt=\"\">")
+                .append("</div>\n");
+        }
+        sb.append("</div></body></html>");
+        return sb.toString();
+    }
+
+    /** A page dominated by inline script bundles and styles, as from bundlers and server-side rendering. */
+    static String syntheticScripts(int bundles) {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder(bundles * 110000);
+        sb.append("<!doctype html><html><head><title>App</title><style>\n");
+        for (int i = 0; i < 2000; i++)
+            sb.append(".c").append(i).append(" { margin: ").append(random.nextInt(20)).append("px; color: #")
+                .append(Integer.toHexString(random.nextInt(0xffffff))).append(" }\n");
+        sb.append("</style></head><body>\n");
+        for (int b = 0; b < bundles; b++) {
+            sb.append("<div class=\"section c").append(b).append("\"><h2>Section ").append(b).append("</h2>")
+                .append("<p>Some <a href=\"/s/").append(b).append("\">content</a> for section ").append(b).append(".</p></div>\n");
+            sb.append("<script>\n");
+            for (int i = 0; i < 1000; i++)
+                sb.append("function f").append(b).append('_').append(i).append("(a, b) { return a < b && b > ")
+                    .append(random.nextInt(1000)).append(" ? '<span>' + a + '</span>' : null; }\n");
+            sb.append("</script>\n");
+        }
+        sb.append("</body></html>");
+        return sb.toString();
+    }
+
+    /** Pathological markup, as from a broken generator: deeply nested unclosed blocks and formatting elements. */
+    static String syntheticNested(int depth) {
+        StringBuilder sb = new StringBuilder(depth * 30);
+        sb.append("<!doctype html><html><head><title>Broken</title></head><body>\n");
+        for (int i = 0; i < depth; i++) {
+            sb.append("<div><p>").append(i);
+            if (i % 4 == 0)
+                sb.append("<b class=b").append(i).append(">");
+        }
+        sb.append("</body></html>");
+        return sb.toString();
+    }
+
+    /** Machine-generated, well-formed markup, as from a templating engine: every element closed, nothing misnested. */
+    static String syntheticXhtml(int items) {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder(items * 300);
+        sb.append("<!DOCTYPE html><html><head><title>Listing</title></head><body><div id=\"results\">\n");
+        for (int i = 0; i < items; i++) {
+            sb.append("<div class=\"result\"><h3><a href=\"/item/").append(i).append("\">Item ").append(i).append("</a></h3>")
+                .append("<p>Rated <b>").append(random.nextInt(5)).append("</b> by <em>").append(random.nextInt(1000))
+                .append(" <i>reviewers</i></em>.</p><ul><li><span class=\"label\">Price</span> <code>")
+                .append(random.nextInt(10000)).append("</code></li><li><span class=\"label\">Stock</span> ")
+                .append(random.nextInt(50)).append("</li></ul><img src=\"/thumb/").append(i).append(".jpg\" alt=\"\"/><br/></div>\n");
+        }
+        sb.append("</div></body></html>");
+        return sb.toString();
+    }
+
+    /** A long text document: paragraphs of prose with inline formatting and entities. */
+    static String syntheticText(int paragraphs) {
+        String[] words = {"the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "caf&eacute;", "na&iuml;ve",
+            "&copy;", "&mdash;", "&quot;quoted&quot;", "2 &lt; 3", "&amp;", "résumé", "日本語", "lorem", "ipsum", "dolor"};
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder(paragraphs * 600);
+        sb.append("<!doctype html><html><head><title>Article</title></head><body><article>\n");
+        for (int p = 0; p < paragraphs; p++) {
+            if (p % 10 == 0)
+                sb.append("<h2 id=\"s").append(p).append("\">Section ").append(p / 10).append("</h2>\n");
+            sb.append("<p>");
+            for (int w = 0; w < 80; w++) {
+                String word = words[random.nextInt(words.length)];
+                int style = random.nextInt(20);
+                if (style == 0) sb.append("<b>").append(word).append("</b>");
+                else if (style == 1) sb.append("<a href=\"https://example.com/").append(word).append("\">").append(word).append("</a>");
+                else if (style == 2) sb.append("<i>").append(word).append("</i>");
+                else sb.append(word);
+                sb.append(' ');
+            }
+            sb.append("</p>\n");
+        }
+        sb.append("</article></body></html>");
+        return sb.toString();
+    }
+
+    /** An entity dense document, as in math, legal, and translated text: named and numeric references in text and links. */
+    static String syntheticEntities(int paragraphs) {
+        String[] words = {"&sum;", "&int;", "&alpha;&beta;", "x&sup2;", "&le;", "&ne;", "&infin;", "&rarr;", "&sect;",
+            "&para;", "&copy;", "&ldquo;quoted&rdquo;", "&NotNestedLessLess;", "&fjlig;", "&eacute;t&eacute;",
+            "&#x3c0;", "&#8364;", "&amp;", "&nbsp;", "&lt;x&gt;", "term", "&frac12;", "&times;", "&hellip;"};
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder(paragraphs * 800);
+        sb.append("<!doctype html><html><head><title>Proofs</title></head><body>\n");
+        for (int p = 0; p < paragraphs; p++) {
+            sb.append("<p>");
+            for (int w = 0; w < 60; w++) {
+                String word = words[random.nextInt(words.length)];
+                if (random.nextInt(20) == 0)
+                    sb.append("<a href=\"/s?q=").append(p).append("&amp;sect=").append(w).append("&lang=fr\">").append(word).append("</a>");
+                else
+                    sb.append(word);
+                sb.append(' ');
+            }
+            sb.append("</p>\n");
+        }
+        sb.append("</body></html>");
+        return sb.toString();
+    }
+
+    /** An XML sitemap: a flat list of url records, each of a few short elements. */
+    static String syntheticSitemap(int urls) {
+        StringBuilder sb = new StringBuilder(urls * 160);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+        for (int i = 0; i < urls; i++) {
+            sb.append("<url><loc>https://example.com/products/").append(i).append("?ref=sitemap&amp;v=2</loc><lastmod>2021-0")
+                .append(i % 9 + 1).append("-1").append(i % 10).append("</lastmod><changefreq>weekly</changefreq><priority>0.")
+                .append(i % 10).append("</priority></url>\n");
+        }
+        sb.append("</urlset>");
+        return sb.toString();
+    }
+
+    /** A Media RSS feed, with elements in the Atom, Media RSS, and Dublin Core namespaces, and a redeclared prefix. */
+    static String syntheticFeed(int items) {
+        StringBuilder sb = new StringBuilder(items * 500);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss version=\"2.0\" xmlns:media=\"http://search.yahoo.com/mrss/\" ")
+            .append("xmlns:atom=\"http://www.w3.org/2005/Atom\" xmlns:dc=\"http://purl.org/dc/elements/1.1/\"><channel>")
+            .append("<title>Feed</title><atom:link href=\"https://example.com/feed\" rel=\"self\"/>\n");
+        for (int i = 0; i < items; i++) {
+            sb.append("<item><title>Item ").append(i).append("</title><link>https://example.com/").append(i)
+                .append("</link><dc:creator>Author ").append(i % 50).append("</dc:creator><media:group>")
+                .append("<media:content url=\"https://example.com/").append(i).append(".jpg\" medium=\"image\" width=\"640\"/>")
+                .append("<media:thumbnail url=\"https://example.com/").append(i).append("-t.jpg\"/></media:group>");
+            if (i % 10 == 0)
+                sb.append("<m:credit xmlns:m=\"http://search.yahoo.com/mrss/\" role=\"author\">Credit</m:credit>");
+            sb.append("</item>\n");
+        }
+        sb.append("</channel></rss>");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package org.jsoup.jmh;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.DocumentCodec;
+import org.jsoup.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks loading a document with the {@link DocumentCodec}, against parsing its input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class DocumentCodecBenchmark {
+    @Param({"news-com-au-home.html.gz", "yahoo-jp.html.gz", Corpus.SyntheticTable})
+    public String page;
+
+    private String html;
+    private Document doc;
+    private byte[] encoded;
+    private byte[] compressed;
+
+    @Setup public void setup() throws IOException {
+        html = Corpus.load(page);
+        doc = Parser.htmlParser().parseInput(html, "https://example.com/");
+        encoded = write(false);
+        compressed = write(true);
+    }
+
+    private byte[] write(boolean compress) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DocumentCodec.write(doc, out, compress);
+        return out.toByteArray();
+    }
+
+    @Benchmark public Document parse() {
+        return Parser.htmlParser().parseInput(html, "https://example.com/");
+    }
+
+    @Benchmark public Document read() throws IOException {
+        return DocumentCodec.read(new ByteArrayInputStream(encoded));
+    }
+
+    @Benchmark public Document readCompressed() throws IOException {
+        return DocumentCodec.read(new ByteArrayInputStream(compressed));
+    }
+
+    @Benchmark public byte[] write() throws IOException {
+        return write(false);
+    }
+}
@@ -0,0 +1,62 @@
+package org.jsoup.jmh;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Entities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks {@link Entities#escape(String, Document.OutputSettings)} and {@link Entities#unescape(String)}, on entity
+ dense text; and parsing an entity dense document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EntitiesBenchmark {
+    @Param({"base", "extended", "xhtml"})
+    public String escapeMode;
+
+    @Param({"UTF-8", "US-ASCII"})
+    public String charset;
+
+    private String escaped;
+    private String unescaped;
+    private Document.OutputSettings out;
+    private String entityDense;
+
+    @Setup public void setup() {
+        escaped = Corpus.syntheticText(200);
+        unescaped = Entities.unescape(escaped);
+        out = new Document.OutputSettings()
+            .escapeMode(Entities.EscapeMode.valueOf(escapeMode))
+            .charset(charset);
+        entityDense = Corpus.load(Corpus.SyntheticEntities);
+    }
+
+    @Benchmark public String escape() {
+        return Entities.escape(unescaped, out);
+    }
+
+    @Benchmark public String unescape() {
+        return Entities.unescape(escaped);
+    }
+
+    @Benchmark public Document parseEntityDense() {
+        return Jsoup.parse(entityDense);
+    }
+}
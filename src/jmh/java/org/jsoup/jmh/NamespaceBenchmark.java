@@ -0,0 +1,66 @@
+package org.jsoup.jmh;
+
+import org.jsoup.helper.W3CDom;
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks a {@link Parser#setNamespaceAware(boolean) namespace aware} XML parse of a namespace heavy feed, against a
+ plain XML parse; and selecting and converting to a W3C DOM with the resolved namespaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class NamespaceBenchmark {
+    private static final String MediaRss = "http://search.yahoo.com/mrss/";
+
+    private String xml;
+    private Document plain;
+    private Document aware;
+
+    @Setup public void setup() {
+        xml = Corpus.load(Corpus.SyntheticFeed);
+        plain = Parser.xmlParser().parseInput(xml, "");
+        aware = Parser.xmlParser().setNamespaceAware(true).parseInput(xml, "");
+    }
+
+    @Benchmark public Document parse() {
+        return Parser.xmlParser().parseInput(xml, "");
+    }
+
+    @Benchmark public Document parseNamespaceAware() {
+        return Parser.xmlParser().setNamespaceAware(true).parseInput(xml, "");
+    }
+
+    @Benchmark public Elements selectByPrefix() {
+        return plain.select("media|content");
+    }
+
+    @Benchmark public Elements selectByNamespace() {
+        return aware.getElementsByTagNS(MediaRss, "content");
+    }
+
+    @Benchmark public org.w3c.dom.Document toW3c() {
+        return W3CDom.convert(plain);
+    }
+
+    @Benchmark public org.w3c.dom.Document toW3cNamespaceAware() {
+        return W3CDom.convert(aware);
+    }
+}
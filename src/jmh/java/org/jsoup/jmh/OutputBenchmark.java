@@ -0,0 +1,50 @@
+package org.jsoup.jmh;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks serializing a document back to HTML, with {@link org.jsoup.nodes.Element#outerHtml()}, in both pretty-print
+ and compact modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class OutputBenchmark {
+    @Param({"news-com-au-home.html.gz", "large.html", Corpus.SyntheticTable, Corpus.SyntheticText})
+    public String page;
+
+    @Param({"true", "false"})
+    public boolean prettyPrint;
+
+    private Document doc;
+
+    @Setup public void setup() {
+        doc = Jsoup.parse(Corpus.load(page), "https://example.com/");
+        doc.outputSettings().prettyPrint(prettyPrint);
+    }
+
+    @Benchmark public String outerHtml() {
+        return doc.outerHtml();
+    }
+
+    @Benchmark public String text() {
+        return doc.text();
+    }
+}
@@ -0,0 +1,52 @@
+package org.jsoup.jmh;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks a {@link Parser#parallel(java.util.concurrent.ExecutorService, int) parallel} parse of a large document
+ against a sequential parse. The speed-up depends on the available processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 4)
+@Fork(1)
+public class ParallelParseBenchmark {
+    @Param({"50000", "200000"})
+    public int rows;
+
+    @Param({"262144", "1048576"})
+    public int chunkSize;
+
+    private String html;
+    private Parser parallel;
+
+    @Setup public void setup() {
+        html = Corpus.syntheticTable(rows);
+        parallel = Parser.htmlParser().parallel(ForkJoinPool.commonPool(), chunkSize);
+    }
+
+    @Benchmark public Document sequential() {
+        return Parser.htmlParser().parseInput(html, "https://example.com/");
+    }
+
+    @Benchmark public Document parallel() {
+        return parallel.parseInput(html, "https://example.com/");
+    }
+}
@@ -0,0 +1,64 @@
+package org.jsoup.jmh;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StringInterner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks HTML parsing, via {@link Parser#parseInput(java.io.Reader, String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ParseBenchmark {
+    @Param({"news-com-au-home.html.gz", "nyt-article-1.html.gz", "yahoo-jp.html.gz", "large.html",
+        Corpus.SyntheticTable, Corpus.SyntheticText, Corpus.SyntheticXhtml})
+    public String page;
+
+    private String html;
+
+    @Setup public void setup() {
+        html = Corpus.load(page);
+    }
+
+    @Benchmark public Document parse() {
+        return Parser.htmlParser().parseInput(new StringReader(html), "https://example.com/");
+    }
+
+    @Benchmark public Document parseWithErrorTracking() {
+        return Parser.htmlParser().setTrackErrors(100).parseInput(new StringReader(html), "https://example.com/");
+    }
+
+    @Benchmark public Document parseWithErrorCounting() {
+        return Parser.htmlParser().setCountErrors(true).parseInput(new StringReader(html), "https://example.com/");
+    }
+
+    @Benchmark public Document parseWithPositionTracking() {
+        return Parser.htmlParser().setTrackPosition(true).parseInput(new StringReader(html), "https://example.com/");
+    }
+
+    @Benchmark public Document parseWithSharedInterner() {
+        return Parser.htmlParser().interner(StringInterner.shared()).parseInput(new StringReader(html), "https://example.com/");
+    }
+
+    @Benchmark public Document parseXml() {
+        return Parser.xmlParser().parseInput(new StringReader(html), "https://example.com/");
+    }
+}
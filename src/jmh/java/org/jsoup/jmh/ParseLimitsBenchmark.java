@@ -0,0 +1,48 @@
+package org.jsoup.jmh;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks parsing with the parser's {@link Parser#setMaxDepth(int) depth} and {@link Parser#setMaxNodes(int) node}
+ limits: their overhead on typical pages, and their bound on the time spent on pathological ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ParseLimitsBenchmark {
+    @Param({"news-com-au-home.html.gz", Corpus.SyntheticTable, Corpus.SyntheticNested})
+    public String page;
+
+    @Param({"false", "true"})
+    public boolean limited;
+
+    private String html;
+
+    @Setup public void setup() {
+        html = Corpus.load(page);
+    }
+
+    @Benchmark public Document parseDocument() {
+        Parser parser = Parser.htmlParser();
+        if (limited)
+            parser.setMaxDepth(512).setMaxNodes(1000000);
+        return parser.parseInput(html, "https://example.com/");
+    }
+}
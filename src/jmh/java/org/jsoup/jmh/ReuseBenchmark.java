@@ -0,0 +1,58 @@
+package org.jsoup.jmh;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.ParserPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks parsing small documents with a new parser per parse, vs a {@link Parser#setReusable(boolean) reusable}
+ parser, and a {@link ParserPool}. Run with {@code -prof gc} (the profile default) to compare allocation per parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ReuseBenchmark {
+    @Param({"snippet", "feed-item"})
+    public String input;
+
+    private String html;
+    private final Parser reusable = Parser.htmlParser().setReusable(true);
+    private final ParserPool pool = new ParserPool(Parser.htmlParser());
+
+    @Setup public void setup() {
+        if (input.equals("snippet"))
+            html = "<p>Hello <b>there</b>, <a href='/one'>one</a> &amp; <i>two</i>.</p>";
+        else
+            html = "<div class=item><h2><a href='https://example.com/2021/06/item'>An item title</a></h2>" +
+                "<p class=meta>Posted by <span class=author>Someone</span> on <time datetime=2021-06-01>June 1</time></p>" +
+                "<p>Some summary text of the item, with a <a href='/link'>link</a> &amp; an image <img src=/a.png alt=''></p></div>";
+    }
+
+    @Benchmark public Document newParser() {
+        return Parser.htmlParser().parseInput(html, "https://example.com/");
+    }
+
+    @Benchmark public Document reusableParser() {
+        return reusable.parseInput(html, "https://example.com/");
+    }
+
+    @Benchmark public Document pooledParser() {
+        return pool.parseInput(html, "https://example.com/");
+    }
+}
@@ -0,0 +1,53 @@
+package org.jsoup.jmh;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks the tokeniser's character scanning, over inputs dominated by long text, attribute, comment, and script
+ runs. The tree building on these inputs is light, so the results mostly track the CharacterReader consume methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ScanBenchmark {
+    @Param({"text", "attributes", "comments", "script"})
+    public String runs;
+
+    private String html;
+
+    @Setup public void setup() {
+        switch (runs) {
+            case "text":
+                html = Corpus.syntheticText(2000);
+                break;
+            case "attributes":
+                html = Corpus.syntheticAttributes(5000);
+                break;
+            default:
+                String text = Corpus.syntheticText(200).replace('<', '[').replace('>', ']'); // a long run, without tags
+                html = runs.equals("comments") ? "<!--" + text + "-->" : "<script>" + text + "</script>";
+        }
+    }
+
+    @Benchmark public Document parse() {
+        return Parser.htmlParser().parseInput(new StringReader(html), "https://example.com/");
+    }
+}
@@ -0,0 +1,42 @@
+package org.jsoup.jmh;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks parsing pages where the tree builder checks the stack of open elements, and the scope of the elements on
+ it, often: typical pages, and deeply nested ones where those checks walked far down the stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ScopeBenchmark {
+    @Param({"news-com-au-home.html.gz", Corpus.SyntheticTable, Corpus.SyntheticNested})
+    public String page;
+
+    private String html;
+
+    @Setup public void setup() {
+        html = Corpus.load(page);
+    }
+
+    @Benchmark public Document parseDocument() {
+        return Parser.htmlParser().parseInput(html, "https://example.com/");
+    }
+}
@@ -0,0 +1,54 @@
+package org.jsoup.jmh;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks {@link org.jsoup.nodes.Element#select(String)} over a parsed document, both including the query parse and
+ with a pre-parsed {@link Evaluator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SelectBenchmark {
+    @Param({"news-com-au-home.html.gz", "yahoo-jp.html.gz", Corpus.SyntheticTable})
+    public String page;
+
+    @Param({"a[href]", "meta[property^=og:]", "div > p", "tr.odd td:eq(1)", "body *:containsOwn(the)"})
+    public String query;
+
+    private Document doc;
+    private Evaluator evaluator;
+
+    @Setup public void setup() {
+        doc = Jsoup.parse(Corpus.load(page), "https://example.com/");
+        evaluator = QueryParser.parse(query);
+    }
+
+    @Benchmark public Elements select() {
+        return doc.select(query);
+    }
+
+    @Benchmark public Elements selectParsed() {
+        return doc.select(evaluator);
+    }
+}
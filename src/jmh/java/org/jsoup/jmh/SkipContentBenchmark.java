@@ -0,0 +1,57 @@
+package org.jsoup.jmh;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks parsing with the content of script and style elements {@link Parser#setSkipContent(String...) skipped},
+ against the usual parse that builds their data nodes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SkipContentBenchmark {
+    @Param({"news-com-au-home.html.gz", "yahoo-jp.html.gz", Corpus.SyntheticScripts})
+    public String page;
+
+    @Param({"false", "true"})
+    public boolean skip;
+
+    private String html;
+
+    @Setup public void setup() {
+        html = Corpus.load(page);
+    }
+
+    private Document parse() {
+        Parser parser = Parser.htmlParser();
+        if (skip)
+            parser.setSkipContent("script", "style");
+        return parser.parseInput(html, "https://example.com/");
+    }
+
+    @Benchmark public Document parseDocument() {
+        return parse();
+    }
+
+    @Benchmark public Elements parseAndSelectLinks() {
+        return parse().select("a[href]");
+    }
+}
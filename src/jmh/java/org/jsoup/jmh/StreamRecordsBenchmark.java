@@ -0,0 +1,55 @@
+package org.jsoup.jmh;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks streaming the records of an XML sitemap with {@link Parser#streamRecords}, against parsing the full
+ document and then selecting them, and against {@link Parser#streamSelect}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class StreamRecordsBenchmark {
+    private String xml;
+
+    @Setup public void setup() {
+        xml = Corpus.load(Corpus.SyntheticSitemap);
+    }
+
+    @Benchmark public Elements parseThenSelect() {
+        return Jsoup.parse(xml, "", Parser.xmlParser()).select("url");
+    }
+
+    @Benchmark public List<Element> streamSelect() {
+        List<Element> records = new ArrayList<>();
+        Parser.xmlParser().streamSelect(new StringReader(xml), "", "url", records::add);
+        return records;
+    }
+
+    @Benchmark public List<Element> streamRecords() {
+        List<Element> records = new ArrayList<>();
+        Parser.xmlParser().streamRecords(new StringReader(xml), "", "url", records::add);
+        return records;
+    }
+}
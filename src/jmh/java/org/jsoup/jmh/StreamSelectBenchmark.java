@@ -0,0 +1,59 @@
+package org.jsoup.jmh;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks a single pass {@link Parser#streamSelect} against parsing the full document and then selecting from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class StreamSelectBenchmark {
+    @Param({"news-com-au-home.html.gz", "yahoo-jp.html.gz", Corpus.SyntheticTable})
+    public String page;
+
+    @Param({"a[href]", "meta[property^=og:]", "div > p", "tr:nth-child(2n) td"})
+    public String query;
+
+    private String html;
+    private Evaluator evaluator;
+
+    @Setup public void setup() {
+        html = Corpus.load(page);
+        evaluator = QueryParser.parse(query);
+    }
+
+    @Benchmark public Elements parseThenSelect() {
+        return Jsoup.parse(html, "https://example.com/").select(evaluator);
+    }
+
+    @Benchmark public List<Element> streamSelect() {
+        List<Element> matches = new ArrayList<>();
+        Parser.htmlParser().streamSelect(new StringReader(html), "https://example.com/", evaluator, matches::add);
+        return matches;
+    }
+}
@@ -0,0 +1,52 @@
+package org.jsoup.jmh;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmarks rebuilding a document from a {@link Parser#parseRecording token log}, against parsing its input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TokenLogBenchmark {
+    @Param({"news-com-au-home.html.gz", "yahoo-jp.html.gz", Corpus.SyntheticTable})
+    public String page;
+
+    private String html;
+    private byte[] log;
+
+    @Setup public void setup() {
+        html = Corpus.load(page);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Parser.htmlParser().parseRecording(new StringReader(html), "https://example.com/", out);
+        log = out.toByteArray();
+    }
+
+    @Benchmark public Document parse() {
+        return Parser.htmlParser().parseInput(html, "https://example.com/");
+    }
+
+    @Benchmark public Document replayTokenLog() {
+        return Parser.htmlParser().parseTokenLog(new ByteArrayInputStream(log), "https://example.com/");
+    }
+}
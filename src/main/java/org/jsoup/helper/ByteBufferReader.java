@@ -0,0 +1,114 @@
+package org.jsoup.helper;
+
+import org.jsoup.internal.Normalizer;
+
+import javax.annotation.Nullable;
+
+import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ A Reader that decodes bytes directly from a (heap, direct, or memory mapped) ByteBuffer into the caller's char array,
+ vs reading them through an InputStream into the intermediate byte buffer of an InputStreamReader.
+ <p>Only used for UTF-8 and ASCII, whose decoders hold no state between chars.</p>
+ */
+final class ByteBufferReader extends Reader {
+    private static final int stagingSize = 1024 * 8;
+
+    private final ByteBuffer bytes;
+    private final @Nullable ByteBuffer staging; // for direct buffers: chunks are copied to the heap, where decoding is faster
+    private final CharsetDecoder decoder;
+    private final CharBuffer pairBuf = CharBuffer.allocate(2);
+    private int pending = -1; // the low half of a surrogate pair that was decoded, but did not fit in the last read
+
+    /**
+     Create a reader over the buffer's remaining bytes. The buffer's position is advanced as chars are read.
+     */
+    ByteBufferReader(ByteBuffer bytes, Charset charset) {
+        Validate.isTrue(canDecode(charset), "Unsupported charset " + charset);
+        this.bytes = bytes;
+        if (bytes.hasArray()) {
+            staging = null;
+        } else {
+            staging = ByteBuffer.allocate(stagingSize);
+            ((Buffer) staging).flip(); // empty, ready to read
+        }
+        decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /** Test if the charset can be read with a ByteBufferReader. */
+    static boolean canDecode(Charset charset) {
+        String name = Normalizer.lowerCase(charset.name());
+        return name.equals("utf-8") || name.equals("us-ascii");
+    }
+
+    @Override public int read(char[] cbuf, int off, int len) {
+        if (len == 0)
+            return 0;
+        final CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        if (pending != -1) {
+            out.put((char) pending);
+            pending = -1;
+        }
+
+        while (out.hasRemaining()) {
+            final ByteBuffer in;
+            if (staging != null) {
+                if (staging.remaining() < 4 && bytes.hasRemaining()) // empty, or holds only a partial char
+                    stage();
+                in = staging;
+            } else {
+                in = bytes;
+            }
+            if (!in.hasRemaining())
+                break;
+
+            final boolean endOfInput = staging == null || !bytes.hasRemaining(); // a heap buffer holds all the input
+            CoderResult result = decoder.decode(in, out, endOfInput);
+            if (result.isOverflow()) {
+                if (out.remaining() == 1) {
+                    // a surrogate pair that doesn't fit; decode it aside, and hold the low half for the next read
+                    ((Buffer) pairBuf).clear();
+                    decoder.decode(in, pairBuf, endOfInput);
+                    out.put(pairBuf.get(0));
+                    if (pairBuf.position() > 1)
+                        pending = pairBuf.get(1);
+                }
+                break;
+            }
+            if (endOfInput) {
+                decoder.flush(out);
+                break;
+            }
+        }
+
+        final int read = out.position() - off;
+        return read == 0 ? -1 : read;
+    }
+
+    private void stage() {
+        staging.compact();
+        final int len = Math.min(staging.remaining(), bytes.remaining());
+        final ByteBuffer chunk = bytes.duplicate();
+        ((Buffer) chunk).limit(chunk.position() + len);
+        staging.put(chunk);
+        ((Buffer) bytes).position(bytes.position() + len);
+        ((Buffer) staging).flip();
+    }
+
+    @Override public boolean ready() {
+        return pending != -1 || bytes.hasRemaining() || (staging != null && staging.hasRemaining());
+    }
+
+    @Override public void close() {
+        // nothing to release; the buffer belongs to the caller
+    }
+}
@@ -0,0 +1,264 @@
+package org.jsoup.helper;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ Finds the charset declared in the first bytes of an HTML (or XML) document, without decoding them or parsing a
+ document. Follows the HTML encoding sniffing algorithm's <a
+ href="https://html.spec.whatwg.org/multipage/parsing.html#prescan-a-byte-stream-to-determine-its-encoding">prescan</a>:
+ the first {@code <meta charset>}, or {@code <meta http-equiv=content-type>} with a charset in its content, is found by
+ stepping over comments and the attributes of other tags; and then looks for an XML declaration's encoding.
+ */
+final class CharsetSniffer {
+    private final ByteBuffer bytes;
+    private final int end;
+    private int pos;
+    private final StringBuilder name = new StringBuilder(); // the name and value of the attribute last got
+    private final StringBuilder value = new StringBuilder();
+
+    private CharsetSniffer(ByteBuffer bytes) {
+        this.bytes = bytes;
+        end = bytes.limit();
+    }
+
+    /**
+     Find the charset declared in the bytes.
+     @param bytes the first bytes of the input; their position is not modified
+     @return the declared charset name (which may not be supported); or null if none was found
+     */
+    static @Nullable String declaredCharset(ByteBuffer bytes) {
+        final CharsetSniffer sniffer = new CharsetSniffer(bytes);
+        final String charset = sniffer.prescan();
+        return charset != null ? charset : sniffer.xmlEncoding();
+    }
+
+    private @Nullable String prescan() {
+        for (pos = bytes.position(); pos < end; pos++) {
+            if (at(pos) != '<')
+                continue;
+            final char next = at(pos + 1);
+            if (next == '!' && matches("<!--")) {
+                pos = indexOf("-->", pos + 2); // may end <!-->
+                if (pos == -1)
+                    return null;
+                pos += 2;
+            } else if ((next == 'm' || next == 'M') && matchesIgnoreCase("<meta") && (isSpace(at(pos + 5)) || at(pos + 5) == '/')) {
+                pos += 5;
+                final String charset = meta();
+                if (charset != null)
+                    return charset;
+            } else if (isLetter(next) || next == '/' && isLetter(at(pos + 2))) {
+                while (pos < end && !isSpace(at(pos)) && at(pos) != '>') // the tag name
+                    pos++;
+                //noinspection StatementWithEmptyBody
+                while (attribute()) {
+                    // skip attributes, so a > in a value doesn't end the tag
+                }
+            } else if (next == '!' || next == '/' || next == '?') {
+                pos = indexOf(">", pos + 2);
+                if (pos == -1)
+                    return null;
+            }
+        }
+        return null;
+    }
+
+    /** Get the charset declared by a meta tag's attributes, or null if it doesn't declare one. */
+    private @Nullable String meta() {
+        final ArrayList<String> seen = new ArrayList<>(4);
+        boolean gotPragma = false;
+        Boolean needPragma = null; // null until a charset is found, then if it needs a http-equiv content type
+        String charset = null;
+        while (attribute()) {
+            final String attrName = name.toString();
+            if (seen.contains(attrName))
+                continue;
+            seen.add(attrName);
+            switch (attrName) {
+                case "http-equiv":
+                    if (value.toString().equals("content-type"))
+                        gotPragma = true;
+                    break;
+                case "content":
+                    if (charset == null) {
+                        charset = DataUtil.getCharsetFromContentType(value.toString());
+                        if (charset != null)
+                            needPragma = Boolean.TRUE;
+                    }
+                    break;
+                case "charset":
+                    if (charset == null) {
+                        charset = value.toString().trim();
+                        needPragma = Boolean.FALSE;
+                    }
+                    break;
+            }
+        }
+        if (needPragma == null || needPragma && !gotPragma || charset == null || charset.isEmpty())
+            return null;
+        if (charset.startsWith("utf-16")) // these bytes were read as ASCII, so the document can't be UTF-16
+            return "utf-8";
+        return charset;
+    }
+
+    /** Get the encoding of an XML declaration at the start of the bytes, or null if there is none. */
+    private @Nullable String xmlEncoding() {
+        pos = bytes.position();
+        while (pos < end && isSpace(at(pos)))
+            pos++;
+        if (!matchesIgnoreCase("<?xml") || !isSpace(at(pos + 5)))
+            return null;
+        pos += 5;
+        while (attribute()) {
+            if (name.toString().equals("encoding") && value.length() > 0)
+                return value.toString();
+        }
+        return null;
+    }
+
+    /**
+     Get the attribute at the position, into {@link #name} and {@link #value} (lower cased), and advance past it.
+     @return true if an attribute was got; false if at the end of the tag (at its {@code >}), or of the bytes
+     */
+    private boolean attribute() {
+        while (pos < end && (isSpace(at(pos)) || at(pos) == '/'))
+            pos++;
+        if (pos >= end || at(pos) == '>')
+            return false;
+        name.setLength(0);
+        value.setLength(0);
+
+        // the name
+        while (true) {
+            if (pos >= end)
+                return false;
+            final char c = at(pos);
+            if (c == '=' && name.length() > 0) {
+                pos++;
+                break;
+            } else if (isSpace(c)) {
+                while (pos < end && isSpace(at(pos)))
+                    pos++;
+                if (at(pos) != '=')
+                    return pos < end; // an attribute without a value
+                pos++;
+                break;
+            } else if (c == '/' || c == '>') {
+                return true;
+            }
+            name.append(lowerCase(c));
+            pos++;
+        }
+
+        // the value
+        while (pos < end && isSpace(at(pos)))
+            pos++;
+        if (pos >= end)
+            return false;
+        final char quote = at(pos);
+        if (quote == '"' || quote == '\'') {
+            for (pos++; pos < end; pos++) {
+                final char c = at(pos);
+                if (c == quote) {
+                    pos++;
+                    return true;
+                }
+                value.append(lowerCase(c));
+            }
+            return false;
+        }
+        if (quote == '>')
+            return true;
+        for (; pos < end; pos++) {
+            final char c = at(pos);
+            if (isSpace(c) || c == '>')
+                return true;
+            value.append(lowerCase(c));
+        }
+        return false;
+    }
+
+    /** The byte at the index, as a char; or 0 if past the end. */
+    private char at(int index) {
+        return index < end ? (char) (bytes.get(index) & 0xff) : 0;
+    }
+
+    private boolean matches(String seq) {
+        return matches(seq, pos);
+    }
+
+    private boolean matches(String seq, int index) {
+        for (int i = 0; i < seq.length(); i++) {
+            if (at(index + i) != seq.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private boolean matchesIgnoreCase(String seq) { // seq is lower case
+        for (int i = 0; i < seq.length(); i++) {
+            if (lowerCase(at(pos + i)) != seq.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /** Find the index of the sequence from the index; or -1 if not found. */
+    private int indexOf(String seq, int from) {
+        for (int i = from; i < end; i++) {
+            if (matches(seq, i))
+                return i;
+        }
+        return -1;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static char lowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     Test if the bytes are valid UTF-8 (which includes ASCII). Bytes in a legacy single or double byte charset are very
+     unlikely to be, once they use any non-ASCII chars. A sequence cut off by the end of the bytes is allowed, as they
+     may be the start of a longer input.
+     @param bytes the bytes to test; their position is not modified
+     @return true if valid UTF-8
+     */
+    static boolean isUtf8(ByteBuffer bytes) {
+        final int end = bytes.limit();
+        int i = bytes.position();
+        while (i < end) {
+            final int b = bytes.get(i) & 0xff;
+            final int continuations;
+            if (b < 0x80) {
+                i++;
+                continue;
+            } else if (b >= 0xc2 && b <= 0xdf) {
+                continuations = 1;
+            } else if (b >= 0xe0 && b <= 0xef) {
+                continuations = 2;
+            } else if (b >= 0xf0 && b <= 0xf4) {
+                continuations = 3;
+            } else {
+                return false; // a continuation without a lead, an overlong lead, or out of range
+            }
+            for (int c = 1; c <= continuations; c++) {
+                if (i + c >= end)
+                    return true; // cut off
+                if ((bytes.get(i + c) & 0xc0) != 0x80)
+                    return false;
+            }
+            i += continuations + 1;
+        }
+        return true;
+    }
+}
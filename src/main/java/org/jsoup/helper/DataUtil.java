@@ -4,26 +4,22 @@ import org.jsoup.UncheckedIOException;
 import org.jsoup.internal.ConstrainableInputStream;
 import org.jsoup.internal.Normalizer;
 import org.jsoup.internal.StringUtil;
-import org.jsoup.nodes.Comment;
 import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.nodes.Node;
-import org.jsoup.nodes.XmlDeclaration;
 import org.jsoup.parser.Parser;
-import org.jsoup.select.Elements;
 
 import javax.annotation.Nullable;
-import java.io.BufferedReader;
-import java.io.CharArrayReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
 import java.util.Locale;
@@ -41,8 +37,10 @@ public final class DataUtil {
     private static final Pattern charsetPattern = Pattern.compile("(?i)\\bcharset=\\s*(?:[\"'])?([^\\s,;\"']*)");
     public static final Charset UTF_8 = Charset.forName("UTF-8"); // Don't use StandardCharsets, as those only appear in Android API 19, and we target 10.
     static final String defaultCharsetName = UTF_8.name(); // used if not found in header or meta charset
+    static final String legacyCharsetName = Charset.isSupported("windows-1252") ? "windows-1252" : "ISO-8859-1"; // if detected; the web's default for legacy content
     private static final int firstReadBufferSize = 1024 * 5;
     static final int bufferSize = 1024 * 32;
+    static final int mappedFileThreshold = 1024 * 1024; // files larger than this are memory mapped when loaded
     private static final char[] mimeBoundaryChars =
             "-_1234567890abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
     static final int boundaryLength = 32;
@@ -61,15 +59,37 @@ public final class DataUtil {
      * @throws IOException on IO error
      */
     public static Document load(File in, @Nullable String charsetName, String baseUri) throws IOException {
-        InputStream stream = new FileInputStream(in);
         String name = Normalizer.lowerCase(in.getName());
         if (name.endsWith(".gz") || name.endsWith(".z")) {
+            InputStream stream = new FileInputStream(in);
             // unfortunately file input streams don't support marks (why not?), so we will close and reopen after read
             boolean zipped = (stream.read() == 0x1f && stream.read() == 0x8b); // gzip magic bytes
             stream.close();
-            stream = zipped ? new GZIPInputStream(new FileInputStream(in)) : new FileInputStream(in);
+            if (zipped)
+                return parseInputStream(new GZIPInputStream(new FileInputStream(in)), charsetName, baseUri, Parser.htmlParser());
+        }
+        return parseByteData(readFile(in), charsetName, baseUri, Parser.htmlParser());
+    }
+
+    /**
+     Reads a file into a byte buffer. Files up to {@link #mappedFileThreshold} are read onto the heap in a single read;
+     larger files are memory mapped, so that they are paged in by the OS as they are parsed, without being copied.
+     */
+    static ByteBuffer readFile(File file) throws IOException {
+        try (FileInputStream stream = new FileInputStream(file)) {
+            FileChannel channel = stream.getChannel();
+            long size = channel.size();
+            Validate.isTrue(size <= Integer.MAX_VALUE, "File is too large to parse");
+            if (size > mappedFileThreshold)
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size); // remains valid after the channel is closed
+
+            ByteBuffer bytes = ByteBuffer.allocate((int) size);
+            while (bytes.hasRemaining() && channel.read(bytes) != -1) {
+                // (a single read, unless the file is growing)
+            }
+            ((Buffer) bytes).flip();
+            return bytes;
         }
-        return parseInputStream(stream, charsetName, baseUri, Parser.htmlParser());
     }
 
     /**
@@ -116,91 +136,115 @@ public final class DataUtil {
             return new Document(baseUri);
         input = ConstrainableInputStream.wrap(input, bufferSize, 0);
 
-        @Nullable Document doc = null;
-
         // read the start of the stream and look for a BOM or meta charset
         input.mark(bufferSize);
-        ByteBuffer firstBytes = readToByteBuffer(input, firstReadBufferSize - 1); // -1 because we read one more to see if completed. First read is < buffer size, so can't be invalid.
-        boolean fullyRead = (input.read() == -1);
+        ByteBuffer firstBytes = readToByteBuffer(input, firstReadBufferSize);
         input.reset();
 
+        DetectedCharset detected = detectCharset(firstBytes, charsetName, parser);
+        Reader reader = new InputStreamReader(input, detected.charsetName);
+        if (detected.skipBom) { // creating the reader ignores the input pos, so must skip here
+            long skipped = reader.skip(1);
+            Validate.isTrue(skipped == 1); // WTF if this fails.
+        }
+        Document doc = parseReader(reader, detected.charsetName, baseUri, parser);
+        input.close();
+        return doc;
+    }
+
+    /**
+     Parses a Document from bytes that have already been read into a buffer, such as a buffered HTTP response body.
+     When the charset is UTF-8 or ASCII, the bytes are decoded directly into the parser's char buffer, without the copy
+     through an InputStreamReader. The buffer's position is not modified.
+     */
+    static Document parseByteData(ByteBuffer byteData, @Nullable String charsetName, String baseUri, Parser parser) throws IOException {
+        final ByteBuffer bytes = byteData.duplicate();
+        final ByteBuffer firstBytes = bytes.duplicate();
+        ((Buffer) firstBytes).limit(firstBytes.position() + Math.min(firstBytes.remaining(), firstReadBufferSize));
+
+        DetectedCharset detected = detectCharset(firstBytes, charsetName, parser);
+        final Charset charset;
+        try {
+            charset = Charset.forName(detected.charsetName);
+        } catch (IllegalArgumentException e) { // illegal or unsupported; throw as would the InputStreamReader
+            throw new UnsupportedEncodingException(detected.charsetName);
+        }
+        final Reader reader;
+        if (ByteBufferReader.canDecode(charset)) {
+            if (detected.skipBom)
+                ((Buffer) bytes).position(bytes.position() + 3); // the UTF-8 BOM
+            reader = new ByteBufferReader(bytes, charset);
+        } else {
+            // other charsets go via the stream decoder, which handles stateful (e.g. UTF-16 BOM) decoding
+            final int len = bytes.remaining();
+            final byte[] array;
+            final int offset;
+            if (bytes.hasArray()) {
+                array = bytes.array();
+                offset = bytes.arrayOffset() + bytes.position();
+            } else {
+                array = new byte[len];
+                bytes.get(array);
+                offset = 0;
+            }
+            reader = new InputStreamReader(new ByteArrayInputStream(array, offset, len), charset);
+            if (detected.skipBom) {
+                long skipped = reader.skip(1);
+                Validate.isTrue(skipped == 1);
+            }
+        }
+        return parseReader(reader, detected.charsetName, baseUri, parser);
+    }
+
+    /** The charset to decode the input with, and if its BOM is to be skipped. */
+    private static final class DetectedCharset {
+        private final String charsetName;
+        private final boolean skipBom;
+
+        DetectedCharset(String charsetName, boolean skipBom) {
+            this.charsetName = charsetName;
+            this.skipBom = skipBom;
+        }
+    }
+
+    /**
+     Detect the input's charset, from (in order) a BOM; the given charset (e.g. from the content type header); a meta
+     charset or XML declaration in the first bytes, found by a byte level prescan, so that the input is decoded and
+     parsed once; or, if the parser is set to {@link Parser#setDetectLegacyCharset(boolean) detect legacy charsets}
+     and the first bytes are not valid UTF-8, windows-1252. Otherwise, UTF-8.
+     */
+    private static DetectedCharset detectCharset(ByteBuffer firstBytes, @Nullable String charsetName, Parser parser) {
         // look for BOM - overrides any other header or input
         BomCharset bomCharset = detectCharsetFromBom(firstBytes);
         if (bomCharset != null)
             charsetName = bomCharset.charset;
 
-        if (charsetName == null) { // determine from meta. safe first parse as UTF-8
-            try {
-                CharBuffer defaultDecoded = UTF_8.decode(firstBytes);
-                if (defaultDecoded.hasArray())
-                    doc = parser.parseInput(new CharArrayReader(defaultDecoded.array(), defaultDecoded.arrayOffset(), defaultDecoded.limit()), baseUri);
-                else
-                    doc = parser.parseInput(defaultDecoded.toString(), baseUri);
-            } catch (UncheckedIOException e) {
-                throw e.ioException();
-            }
-
-            // look for <meta http-equiv="Content-Type" content="text/html;charset=gb2312"> or HTML5 <meta charset="gb2312">
-            Elements metaElements = doc.select("meta[http-equiv=content-type], meta[charset]");
-            String foundCharset = null; // if not found, will keep utf-8 as best attempt
-            for (Element meta : metaElements) {
-                if (meta.hasAttr("http-equiv"))
-                    foundCharset = getCharsetFromContentType(meta.attr("content"));
-                if (foundCharset == null && meta.hasAttr("charset"))
-                    foundCharset = meta.attr("charset");
-                if (foundCharset != null)
-                    break;
-            }
-
-            // look for <?xml encoding='ISO-8859-1'?>
-            if (foundCharset == null && doc.childNodeSize() > 0) {
-                Node first = doc.childNode(0);
-                XmlDeclaration decl = null;
-                if (first instanceof XmlDeclaration)
-                    decl = (XmlDeclaration) first;
-                else if (first instanceof Comment) {
-                    Comment comment = (Comment) first;
-                    if (comment.isXmlDeclaration())
-                        decl = comment.asXmlDeclaration();
-                }
-                if (decl != null) {
-                    if (decl.name().equalsIgnoreCase("xml"))
-                        foundCharset = decl.attr("encoding");
-                }
-            }
-            foundCharset = validateCharset(foundCharset);
-            if (foundCharset != null && !foundCharset.equalsIgnoreCase(defaultCharsetName)) { // need to re-decode. (case insensitive check here to match how validate works)
-                foundCharset = foundCharset.trim().replaceAll("[\"']", "");
-                charsetName = foundCharset;
-                doc = null;
-            } else if (!fullyRead) {
-                doc = null;
-            }
+        if (charsetName == null) { // determine from meta, or an xml declaration
+            charsetName = validateCharset(CharsetSniffer.declaredCharset(firstBytes));
+            if (charsetName == null && parser.isDetectLegacyCharset() && !CharsetSniffer.isUtf8(firstBytes))
+                charsetName = legacyCharsetName;
         } else { // specified by content type header (or by user on file load)
             Validate.notEmpty(charsetName, "Must set charset arg to character set of file to parse. Set to null to attempt to detect from HTML");
         }
-        if (doc == null) {
-            if (charsetName == null)
-                charsetName = defaultCharsetName;
-            BufferedReader reader = new BufferedReader(new InputStreamReader(input, charsetName), bufferSize);
-            if (bomCharset != null && bomCharset.offset) { // creating the buffered reader ignores the input pos, so must skip here
-                long skipped = reader.skip(1);
-                Validate.isTrue(skipped == 1); // WTF if this fails.
-            }
-            try {
-                doc = parser.parseInput(reader, baseUri);
-            } catch (UncheckedIOException e) {
-                // io exception when parsing (not seen before because reading the stream as we go)
-                throw e.ioException();
-            }
-            Charset charset = charsetName.equals(defaultCharsetName) ? UTF_8 : Charset.forName(charsetName);
-            doc.outputSettings().charset(charset);
-            if (!charset.canEncode()) {
-                // some charsets can read but not encode; switch to an encodable charset and update the meta el
-                doc.charset(UTF_8);
-            }
+        if (charsetName == null)
+            charsetName = defaultCharsetName;
+        return new DetectedCharset(charsetName, bomCharset != null && bomCharset.offset);
+    }
+
+    private static Document parseReader(Reader reader, String charsetName, String baseUri, Parser parser) throws IOException {
+        final Document doc;
+        try {
+            doc = parser.parseInput(reader, baseUri);
+        } catch (UncheckedIOException e) {
+            // io exception when parsing (not seen before because reading the stream as we go)
+            throw e.ioException();
+        }
+        Charset charset = charsetName.equals(defaultCharsetName) ? UTF_8 : Charset.forName(charsetName);
+        doc.outputSettings().charset(charset);
+        if (!charset.canEncode()) {
+            // some charsets can read but not encode; switch to an encodable charset and update the meta el
+            doc.charset(UTF_8);
         }
-        input.close();
         return doc;
     }
 
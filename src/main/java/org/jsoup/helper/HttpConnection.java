@@ -15,7 +15,6 @@ import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLSocketFactory;
 import java.io.BufferedInputStream;
 import java.io.BufferedWriter;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -948,12 +947,13 @@ public class HttpConnection implements Connection {
 
         public Document parse() throws IOException {
             Validate.isTrue(executed, "Request must be executed (with .execute(), .get(), or .post() before parsing response");
-            if (byteData != null) { // bytes have been read in to the buffer, parse that
-                bodyStream = new ByteArrayInputStream(byteData.array());
-                inputStreamRead = false; // ok to reparse if in bytes
+            final Document doc;
+            if (byteData != null) { // bytes have been read in to the buffer, parse that. ok to reparse if in bytes
+                doc = DataUtil.parseByteData(byteData, charset, url.toExternalForm(), req.parser());
+            } else {
+                Validate.isFalse(inputStreamRead, "Input stream already read and parsed, cannot re-read.");
+                doc = DataUtil.parseInputStream(bodyStream, charset, url.toExternalForm(), req.parser());
             }
-            Validate.isFalse(inputStreamRead, "Input stream already read and parsed, cannot re-read.");
-            Document doc = DataUtil.parseInputStream(bodyStream, charset, url.toExternalForm(), req.parser());
             doc.connection(new HttpConnection(req, this)); // because we're static, don't have the connection obj. // todo - maybe hold in the req?
             charset = doc.outputSettings().charset().name(); // update charset from meta-equiv, possibly
             inputStreamRead = true;
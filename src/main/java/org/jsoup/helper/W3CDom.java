@@ -2,7 +2,6 @@ package org.jsoup.helper;
 
 import org.jsoup.internal.StringUtil;
 import org.jsoup.nodes.Attribute;
-import org.jsoup.nodes.Attributes;
 import org.jsoup.select.NodeTraversor;
 import org.jsoup.select.NodeVisitor;
 import org.w3c.dom.Comment;
@@ -203,12 +202,14 @@ public class W3CDom {
         }
 
         public void head(org.jsoup.nodes.Node source, int depth) {
-            namespacesStack.push(new HashMap<>(namespacesStack.peek())); // inherit from above on the stack
+            namespacesStack.push(namespacesStack.peek()); // inherit from above on the stack; copied if updated
             if (source instanceof org.jsoup.nodes.Element) {
                 org.jsoup.nodes.Element sourceEl = (org.jsoup.nodes.Element) source;
 
                 String prefix = updateNamespaces(sourceEl);
-                String namespace = namespacesStack.peek().get(prefix);
+                String namespace = sourceEl.namespace(); // as resolved in a namespace aware parse
+                if (namespace.isEmpty())
+                    namespace = namespacesStack.peek().get(prefix);
                 String tagName = sourceEl.tagName();
 
                 /* Tag names in XML are quite, but less, permissive than HTML. Rather than reimplement the validation,
@@ -268,8 +269,8 @@ public class W3CDom {
         private String updateNamespaces(org.jsoup.nodes.Element el) {
             // scan the element for namespace declarations
             // like: xmlns="blah" or xmlns:prefix="blah"
-            Attributes attributes = el.attributes();
-            for (Attribute attr : attributes) {
+            HashMap<String, String> namespaces = null; // copied from the parent's on the first declaration
+            for (Attribute attr : el.attributes()) {
                 String key = attr.getKey();
                 String prefix;
                 if (key.equals(xmlnsKey)) {
@@ -279,10 +280,16 @@ public class W3CDom {
                 } else {
                     continue;
                 }
-                namespacesStack.peek().put(prefix, attr.getValue());
+                if (namespaces == null) {
+                    namespaces = new HashMap<>(namespacesStack.pop());
+                    namespacesStack.push(namespaces);
+                }
+                namespaces.put(prefix, attr.getValue());
             }
 
-            // get the element prefix if any
+            // get the element prefix if any; not needed if the namespace was resolved in the parse
+            if (!el.namespace().isEmpty())
+                return "";
             int pos = el.tagName().indexOf(":");
             return pos > 0 ? el.tagName().substring(0, pos) : "";
         }
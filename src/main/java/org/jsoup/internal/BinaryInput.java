@@ -0,0 +1,127 @@
+package org.jsoup.internal;
+
+import org.jsoup.UncheckedIOException;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import static org.jsoup.internal.BinaryOutput.MaxNames;
+import static org.jsoup.internal.BinaryOutput.MaxValueLength;
+
+/**
+ Reads the primitives written by {@link BinaryOutput}. The stream is read in buffered blocks, so may be read beyond the
+ end of the data. Malformed input throws an {@link UncheckedIOException}. Jsoup internal use only, please don't depend
+ on this API.
+ */
+public final class BinaryInput {
+    private final InputStream in;
+    private final byte[] buf = new byte[8192];
+    private int pos = 0;
+    private int limit = 0;
+    private char[] chars = new char[256];
+    private final ArrayList<String> names = new ArrayList<>();
+
+    public BinaryInput(InputStream in) {
+        this.in = in;
+    }
+
+    public int readByte() {
+        if (pos == limit) {
+            try {
+                limit = in.read(buf, 0, buf.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                throw invalid("Unexpected end of input");
+            }
+        }
+        return buf[pos++] & 0xFF;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public int readVarint() {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw invalid("Malformed varint");
+    }
+
+    public String readString() {
+        return readChars(readVarint());
+    }
+
+    public @Nullable String readNullableString() {
+        final int length = readVarint();
+        return length == 0 ? null : readChars(length - 1);
+    }
+
+    /** Read a name written by {@link BinaryOutput#writeName(String)}. */
+    public String readName() {
+        final int index = readVarint();
+        if (index > 0)
+            return name(index - 1);
+        final String name = readString();
+        if (names.size() < MaxNames)
+            names.add(name);
+        return name;
+    }
+
+    /** Read a value written by {@link BinaryOutput#writeValue(String)}. */
+    public @Nullable String readValue() {
+        final int index = readVarint();
+        if (index == 0)
+            return null;
+        if (index > 1)
+            return name(index - 2);
+        final String value = readString();
+        if (value.length() <= MaxValueLength && names.size() < MaxNames)
+            names.add(value);
+        return value;
+    }
+
+    private String name(int index) {
+        if (index >= names.size())
+            throw invalid("Unknown name index " + index);
+        return names.get(index);
+    }
+
+    private String readChars(int length) {
+        if (length > chars.length)
+            chars = new char[Math.max(length, chars.length * 2)];
+        final char[] chars = this.chars;
+        final byte[] buf = this.buf;
+        int i = 0;
+        while (i < length) {
+            // copy the run of single byte (ASCII) chars in the buffer, then decode a varint char or refill
+            int p = pos;
+            final int end = Math.min(limit, p + length - i);
+            while (p < end && buf[p] >= 0)
+                chars[i++] = (char) buf[p++];
+            pos = p;
+            if (i < length)
+                chars[i++] = (char) readVarint();
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     Create an exception for invalid input.
+     @param message the problem with the input
+     @return an exception to throw
+     */
+    public static UncheckedIOException invalid(String message) {
+        return new UncheckedIOException(new IOException(message));
+    }
+}
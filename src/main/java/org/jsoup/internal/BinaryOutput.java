@@ -0,0 +1,139 @@
+package org.jsoup.internal;
+
+import org.jsoup.UncheckedIOException;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+
+/**
+ Writes the primitives of jsoup's binary formats (the parser's token log, and the document codec) to a stream: unsigned
+ varints, strings of varint chars (so ASCII takes a byte per char), and names that are written once, then referenced
+ by their index in a table. Jsoup internal use only, please don't depend on this API.
+ @see BinaryInput
+ */
+public final class BinaryOutput {
+    /** The maximum number of entries in the name table, which bounds its memory for unusual inputs. */
+    public static final int MaxNames = 4096;
+    /** Attribute values up to this length are added to the name table, to be referenced when repeated. */
+    public static final int MaxValueLength = 32;
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[8192];
+    private int len = 0;
+    private final HashMap<String, Integer> names = new HashMap<>();
+
+    public BinaryOutput(OutputStream out) {
+        this.out = out;
+    }
+
+    public void writeByte(int b) {
+        if (len == buf.length)
+            flushBuffer();
+        buf[len++] = (byte) b;
+    }
+
+    public void writeBytes(byte[] bytes) {
+        for (byte b : bytes)
+            writeByte(b);
+    }
+
+    public void writeBoolean(boolean b) {
+        writeByte(b ? 1 : 0);
+    }
+
+    public void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    public void writeString(String s) {
+        writeVarint(s.length());
+        writeChars(s);
+    }
+
+    public void writeNullableString(@Nullable String s) {
+        if (s == null) {
+            writeVarint(0);
+        } else {
+            writeVarint(s.length() + 1);
+            writeChars(s);
+        }
+    }
+
+    /**
+     Write a name (e.g. a tag or attribute name): in full on first use, and then as a reference to it.
+     */
+    public void writeName(String name) {
+        final Integer index = names.get(name);
+        if (index != null) {
+            writeVarint(index + 1);
+        } else {
+            writeVarint(0);
+            writeString(name);
+            if (names.size() < MaxNames)
+                names.put(name, names.size());
+        }
+    }
+
+    /**
+     Write an attribute value, which may be null. Short values are added to the name table, as class names and the like
+     are often repeated.
+     */
+    public void writeValue(@Nullable String value) {
+        if (value == null) {
+            writeVarint(0);
+            return;
+        }
+        if (value.length() <= MaxValueLength) {
+            final Integer index = names.get(value);
+            if (index != null) {
+                writeVarint(index + 2);
+                return;
+            }
+            if (names.size() < MaxNames)
+                names.put(value, names.size());
+        }
+        writeVarint(1);
+        writeString(value);
+    }
+
+    /**
+     Write any buffered bytes to the stream, and flush it.
+     */
+    public void flush() {
+        flushBuffer();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeChars(String s) {
+        final int length = s.length();
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) { // inlined, for the common case
+                if (len == buf.length)
+                    flushBuffer();
+                buf[len++] = (byte) c;
+            } else {
+                writeVarint(c);
+            }
+        }
+    }
+
+    private void flushBuffer() {
+        try {
+            out.write(buf, 0, len);
+            len = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.jsoup.internal;
+
+import org.jsoup.helper.Validate;
+
+import java.io.IOException;
+
+/**
+ A view of a range of a string, without copying it. Used to hold the text of nodes as views over the parse input, when
+ the parser retains it. Jsoup internal use only, please don't depend on this API.
+ */
+public final class CharSlice implements CharSequence {
+    private final String string;
+    private final int start;
+    private final int end;
+
+    /**
+     Create a view of the string, from start (inclusive) to end (exclusive).
+     @param string the string to view
+     @param start the start index
+     @param end the end index
+     */
+    public CharSlice(String string, int start, int end) {
+        Validate.notNull(string);
+        Validate.isTrue(start >= 0 && start <= end && end <= string.length(), "Invalid range");
+        this.string = string;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start)
+            throw new IndexOutOfBoundsException("Index " + index + ", length " + (end - start));
+        return string.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        Validate.isTrue(start >= 0 && start <= end && end <= length(), "Invalid range");
+        return new CharSlice(string, this.start + start, this.start + end);
+    }
+
+    /**
+     Tests if this slice is empty or only whitespace, without copying it.
+     @see StringUtil#isBlank(String)
+     */
+    public boolean isBlank() {
+        for (int i = start; i < end; i++) {
+            if (!StringUtil.isWhitespace(string.charAt(i)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     Append this slice to the appendable, without copying it to a string first.
+     @param accum the appendable to append to
+     @throws IOException if thrown by the appendable
+     */
+    public void appendTo(Appendable accum) throws IOException {
+        accum.append(string, start, end);
+    }
+
+    /**
+     Copies the slice to a string.
+     */
+    @Override
+    public String toString() {
+        return string.substring(start, end);
+    }
+}
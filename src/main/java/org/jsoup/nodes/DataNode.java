@@ -1,5 +1,7 @@
 package org.jsoup.nodes;
 
+import org.jsoup.internal.CharSlice;
+
 import java.io.IOException;
 
 /**
@@ -39,7 +41,11 @@ public class DataNode extends LeafNode {
     }
 
 	void outerHtmlHead(Appendable accum, int depth, Document.OutputSettings out) throws IOException {
-        accum.append(getWholeData()); // data is not escaped in return from data nodes, so " in script, style is plain
+        // data is not escaped in return from data nodes, so " in script, style is plain
+        if (value instanceof CharSlice)
+            ((CharSlice) value).appendTo(accum);
+        else
+            accum.append(getWholeData());
     }
 
 	void outerHtmlTail(Appendable accum, int depth, Document.OutputSettings out) {}
@@ -64,4 +70,17 @@ public class DataNode extends LeafNode {
         String data = Entities.unescape(encodedData);
         return new DataNode(data);
     }
+
+    /**
+     Create a new DataNode, holding its data as a view of the parse input, until the data is changed or {@link
+     #getWholeData()} is called. (An internal method, visible for the parser.)
+     @param data the data, in the retained input
+     @return new DataNode
+     @see org.jsoup.parser.Parser#setRetainInput(boolean)
+     */
+    public static DataNode createFromInput(CharSlice data) {
+        DataNode node = new DataNode("");
+        node.value = data;
+        return node;
+    }
 }
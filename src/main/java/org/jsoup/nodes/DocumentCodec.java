@@ -0,0 +1,446 @@
+package org.jsoup.nodes;
+
+import org.jsoup.UncheckedIOException;
+import org.jsoup.helper.Validate;
+import org.jsoup.internal.BinaryInput;
+import org.jsoup.internal.BinaryOutput;
+import org.jsoup.parser.ParseSettings;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.Tag;
+import org.jsoup.parser.XmlTreeBuilder;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import static org.jsoup.internal.BinaryInput.invalid;
+
+/**
+ A compact binary serialization of a Document, that can be read back into an equal Document much faster than the HTML
+ can be parsed; e.g. to pass a parsed document between processing stages, or to cache it.
+ <p>Usage example:</p>
+ <pre>{@code
+ DocumentCodec.write(doc, out);
+ ...
+ Document copy = DocumentCodec.read(in);
+ }</pre>
+ <p>The document's nodes (elements, form elements, text, data, comments, CDATA, doctypes and XML declarations) and
+ their attributes are written in document order, with each element's child count and any namespace. Tags, attribute
+ names, and namespaces are written once to a table, and then referenced by index. The document's location, base URIs,
+ output settings, quirks mode, and parser type and settings are kept; its connection is not. The output may be
+ compressed with deflate.</p>
+ */
+public final class DocumentCodec {
+    private static final byte[] Magic = {'j', 's', 'd', 'c'};
+    private static final int Version = 1;
+    private static final int Compressed = 1; // header flag
+
+    // node kinds
+    private static final int ElementNode = 0;
+    private static final int FormNode = 1;
+    private static final int TextNode = 2;
+    private static final int CDataNode = 3;
+    private static final int DataNode = 4;
+    private static final int CommentNode = 5;
+    private static final int DocumentTypeNode = 6;
+    private static final int DeclarationNode = 7;
+    private static final int NamespacedElementNode = 8; // an element with a namespace, which precedes its tag
+
+    private DocumentCodec() {}
+
+    /**
+     Write the document to the output stream, uncompressed.
+     @param doc the document to write
+     @param out the stream to write to. It is flushed, but not closed.
+     @throws IOException if the stream could not be written
+     */
+    public static void write(Document doc, OutputStream out) throws IOException {
+        write(doc, out, false);
+    }
+
+    /**
+     Write the document to the output stream.
+     @param doc the document to write
+     @param out the stream to write to. It is flushed, but not closed.
+     @param compress true to compress the document with deflate; typically a third of the uncompressed size, but slower
+     to write and read
+     @throws IOException if the stream could not be written
+     */
+    public static void write(Document doc, OutputStream out, boolean compress) throws IOException {
+        Validate.notNull(doc);
+        Validate.notNull(out);
+        out.write(Magic);
+        out.write(Version);
+        out.write(compress ? Compressed : 0);
+
+        Deflater deflater = null;
+        try {
+            final OutputStream target;
+            if (compress) {
+                deflater = new Deflater(Deflater.BEST_SPEED);
+                target = new DeflaterOutputStream(out, deflater, 8192);
+            } else {
+                target = out;
+            }
+            final BinaryOutput output = new BinaryOutput(target);
+            new Writer(output).write(doc);
+            output.flush();
+            if (target instanceof DeflaterOutputStream) {
+                ((DeflaterOutputStream) target).finish();
+                out.flush();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.ioException();
+        } finally {
+            if (deflater != null)
+                deflater.end();
+        }
+    }
+
+    /**
+     Read a document that was written with {@link #write(Document, OutputStream, boolean)}.
+     @param in the stream to read from. It is buffered, so may be read beyond the end of the document; it is not closed.
+     @return the document
+     @throws IOException if the stream could not be read, or does not hold a valid document
+     */
+    public static Document read(InputStream in) throws IOException {
+        Validate.notNull(in);
+        for (byte b : Magic) {
+            if (in.read() != b)
+                throw new IOException("Not a serialized document");
+        }
+        final int version = in.read();
+        if (version != Version)
+            throw new IOException("Unsupported serialized document version " + version);
+        final int flags = in.read();
+        if (flags == -1)
+            throw new IOException("Unexpected end of input");
+
+        Inflater inflater = null;
+        try {
+            final InputStream source;
+            if ((flags & Compressed) != 0) {
+                inflater = new Inflater();
+                source = new InflaterInputStream(in, inflater, 8192);
+            } else {
+                source = in;
+            }
+            return new Reader(new BinaryInput(source)).read();
+        } catch (UncheckedIOException e) {
+            throw e.ioException();
+        } finally {
+            if (inflater != null)
+                inflater.end();
+        }
+    }
+
+    private static final class Writer implements NodeVisitor {
+        private final BinaryOutput out;
+        private final HashMap<Tag, Integer> tags = new HashMap<>(); // by value, as unknown tags are new per element
+        private @Nullable IdentityHashMap<Element, Integer> formIndexes; // forms and their controls, by element index
+        private int elementIndex = 0; // of elements in document order, to refer to form controls
+
+        Writer(BinaryOutput out) {
+            this.out = out;
+        }
+
+        void write(Document doc) {
+            final BinaryOutput out = this.out;
+            out.writeString(doc.location());
+            out.writeString(doc.quirksMode().name());
+            out.writeBoolean(doc.updateMetaCharsetElement());
+
+            final Document.OutputSettings settings = doc.outputSettings();
+            out.writeString(settings.escapeMode().name());
+            out.writeString(settings.charset().name());
+            out.writeBoolean(settings.prettyPrint());
+            out.writeBoolean(settings.outline());
+            out.writeVarint(settings.indentAmount());
+            out.writeString(settings.syntax().name());
+
+            final Parser parser = doc.parser();
+            out.writeBoolean(parser.getTreeBuilder() instanceof XmlTreeBuilder);
+            out.writeBoolean(parser.settings().preserveTagCase());
+            out.writeBoolean(parser.settings().preserveAttributeCase());
+
+            final List<FormElement> forms = forms(doc);
+            out.writeBoolean(!forms.isEmpty());
+            writeAttributes(doc.hasAttributes() ? doc.attributes() : null);
+            out.writeVarint(doc.childNodeSize());
+            for (Node child : doc.childNodes)
+                NodeTraversor.traverse(this, child);
+
+            if (!forms.isEmpty()) { // the controls associated with each form, by their index in document order
+                out.writeVarint(forms.size());
+                for (FormElement form : forms) {
+                    final ArrayList<Integer> controls = new ArrayList<>();
+                    for (Element control : form.elements()) {
+                        final int index = formIndexes.get(control);
+                        if (index != -1)
+                            controls.add(index);
+                    }
+                    out.writeVarint(formIndexes.get(form));
+                    out.writeVarint(controls.size());
+                    for (int index : controls)
+                        out.writeVarint(index);
+                }
+            }
+        }
+
+        /** Find the forms with controls, and track their (and their controls') indexes as they are written. */
+        private List<FormElement> forms(Document doc) {
+            final List<FormElement> forms = new ArrayList<>();
+            for (Element el : doc.getElementsByTag("form")) {
+                if (el instanceof FormElement && !((FormElement) el).elements().isEmpty()) {
+                    if (formIndexes == null)
+                        formIndexes = new IdentityHashMap<>();
+                    forms.add((FormElement) el);
+                    formIndexes.put(el, -1);
+                    for (Element control : ((FormElement) el).elements())
+                        formIndexes.put(control, -1); // -1 until written; stays so if not in the document
+                }
+            }
+            return forms;
+        }
+
+        @Override public void head(Node node, int depth) {
+            final BinaryOutput out = this.out;
+            if (node instanceof Element) {
+                final Element el = (Element) node;
+                final String namespace = el.namespace();
+                if (el instanceof FormElement) {
+                    out.writeByte(FormNode);
+                } else if (namespace.isEmpty()) {
+                    out.writeByte(ElementNode);
+                } else {
+                    out.writeByte(NamespacedElementNode);
+                    out.writeName(namespace);
+                }
+                writeTag(el.tag());
+                writeAttributes(el.hasAttributes() ? el.attributes() : null);
+                out.writeVarint(el.childNodeSize());
+                if (formIndexes != null && formIndexes.containsKey(el))
+                    formIndexes.put(el, elementIndex);
+                elementIndex++;
+            } else if (node instanceof LeafNode) {
+                final LeafNode leaf = (LeafNode) node;
+                if (leaf instanceof CDataNode)
+                    out.writeByte(CDataNode);
+                else if (leaf instanceof TextNode)
+                    out.writeByte(TextNode);
+                else if (leaf instanceof DataNode)
+                    out.writeByte(DataNode);
+                else if (leaf instanceof Comment)
+                    out.writeByte(CommentNode);
+                else if (leaf instanceof DocumentType)
+                    out.writeByte(DocumentTypeNode);
+                else if (leaf instanceof XmlDeclaration) {
+                    out.writeByte(DeclarationNode);
+                    out.writeBoolean(((XmlDeclaration) leaf).isProcessingInstruction);
+                } else
+                    throw new IllegalArgumentException("Unsupported node type " + node.getClass().getName());
+
+                if (leaf.value instanceof Attributes) {
+                    out.writeBoolean(true);
+                    writeAttributes((Attributes) leaf.value);
+                } else {
+                    out.writeBoolean(false);
+                    out.writeString(leaf.coreText());
+                }
+            } else {
+                throw new IllegalArgumentException("Unsupported node type " + node.getClass().getName());
+            }
+        }
+
+        @Override public void tail(Node node, int depth) {
+            // children are counted in the head
+        }
+
+        private void writeTag(Tag tag) {
+            final Integer index = tags.get(tag);
+            if (index != null) {
+                out.writeVarint(index + 1);
+            } else {
+                out.writeVarint(0);
+                out.writeName(tag.getName());
+                out.writeBoolean(tag.isSelfClosing() && !tag.isEmpty()); // an unknown tag self closed in the input
+                tags.put(tag, tags.size());
+            }
+        }
+
+        private void writeAttributes(@Nullable Attributes attributes) {
+            if (attributes == null) {
+                out.writeVarint(0);
+                return;
+            }
+            final int size = attributes.size; // including internal keys, like the base URI
+            out.writeVarint(size);
+            for (int i = 0; i < size; i++) {
+                out.writeName(attributes.keys[i]);
+                out.writeValue(attributes.vals[i]);
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final BinaryInput in;
+        private final ArrayList<Tag> tags = new ArrayList<>();
+
+        Reader(BinaryInput in) {
+            this.in = in;
+        }
+
+        Document read() {
+            final BinaryInput in = this.in;
+            final Document doc = new Document(in.readString());
+            doc.quirksMode(Document.QuirksMode.valueOf(in.readString()));
+            doc.updateMetaCharsetElement(in.readBoolean());
+
+            final Document.OutputSettings settings = doc.outputSettings();
+            settings.escapeMode(Entities.EscapeMode.valueOf(in.readString()));
+            settings.charset(Charset.forName(in.readString()));
+            settings.prettyPrint(in.readBoolean());
+            settings.outline(in.readBoolean());
+            settings.indentAmount(in.readVarint());
+            settings.syntax(Document.OutputSettings.Syntax.valueOf(in.readString()));
+
+            final Parser parser = in.readBoolean() ? Parser.xmlParser() : Parser.htmlParser();
+            final boolean preserveTagCase = in.readBoolean();
+            doc.parser(parser.settings(new ParseSettings(preserveTagCase, in.readBoolean())));
+
+            final boolean hasForms = in.readBoolean();
+            final Attributes rootAttributes = readAttributes();
+            if (rootAttributes != null)
+                doc.attributes().addAll(rootAttributes);
+            final List<Element> elements = hasForms ? new ArrayList<>() : null;
+            readChildren(doc, elements);
+
+            if (elements != null) {
+                final int forms = in.readVarint();
+                for (int f = 0; f < forms; f++) {
+                    final Element form = element(elements, in.readVarint());
+                    if (!(form instanceof FormElement))
+                        throw invalid("Not a form element");
+                    final int count = in.readVarint();
+                    for (int i = 0; i < count; i++)
+                        ((FormElement) form).addElement(element(elements, in.readVarint()));
+                }
+            }
+            return doc;
+        }
+
+        /** Reads the nodes in document order, appending each to its parent; without recursion, for deep documents. */
+        private void readChildren(Document doc, @Nullable List<Element> elements) {
+            final ArrayList<Element> parents = new ArrayList<>();
+            int[] remaining = new int[32];
+            parents.add(doc);
+            remaining[0] = in.readVarint();
+            int depth = 1;
+
+            while (depth > 0) {
+                if (remaining[depth - 1] == 0) {
+                    parents.remove(--depth);
+                    continue;
+                }
+                remaining[depth - 1]--;
+                final Element parent = parents.get(depth - 1);
+                final int kind = in.readByte();
+                if (kind == ElementNode || kind == FormNode || kind == NamespacedElementNode) {
+                    final String namespace = kind == NamespacedElementNode ? in.readName() : null;
+                    final Tag tag = readTag();
+                    final Attributes attributes = readAttributes();
+                    final Element el = kind == FormNode ? new FormElement(tag, null, attributes) : new Element(tag, null, attributes);
+                    if (namespace != null)
+                        el.namespace(namespace);
+                    parent.appendChild(el);
+                    if (elements != null)
+                        elements.add(el);
+                    final int children = in.readVarint();
+                    if (children > 0) {
+                        if (depth == remaining.length)
+                            remaining = Arrays.copyOf(remaining, depth * 2);
+                        parents.add(el);
+                        remaining[depth++] = children;
+                    }
+                } else {
+                    parent.appendChild(readLeaf(kind));
+                }
+            }
+        }
+
+        private LeafNode readLeaf(int kind) {
+            final LeafNode leaf;
+            switch (kind) {
+                case TextNode:
+                    leaf = new TextNode("");
+                    break;
+                case CDataNode:
+                    leaf = new CDataNode("");
+                    break;
+                case DataNode:
+                    leaf = new DataNode("");
+                    break;
+                case CommentNode:
+                    leaf = new Comment("");
+                    break;
+                case DocumentTypeNode:
+                    leaf = new DocumentType("", "", "");
+                    break;
+                case DeclarationNode:
+                    leaf = new XmlDeclaration("", in.readBoolean());
+                    break;
+                default:
+                    throw invalid("Unknown node kind " + kind);
+            }
+            if (in.readBoolean()) {
+                final Attributes attributes = readAttributes();
+                leaf.value = attributes != null ? attributes : new Attributes();
+            } else {
+                leaf.value = in.readString();
+            }
+            return leaf;
+        }
+
+        private Tag readTag() {
+            final int index = in.readVarint();
+            if (index > 0) {
+                if (index > tags.size())
+                    throw invalid("Unknown tag index " + index);
+                return tags.get(index - 1);
+            }
+            final String name = in.readName();
+            final Tag tag = in.readBoolean() ? Tag.valueOfSelfClosing(name) : Tag.valueOf(name, ParseSettings.preserveCase);
+            tags.add(tag);
+            return tag;
+        }
+
+        private @Nullable Attributes readAttributes() {
+            final int size = in.readVarint();
+            if (size == 0)
+                return null;
+            final Attributes attributes = new Attributes();
+            for (int i = 0; i < size; i++)
+                attributes.add(in.readName(), in.readValue());
+            return attributes;
+        }
+
+        private static Element element(List<Element> elements, int index) {
+            if (index >= elements.size())
+                throw invalid("Unknown element index " + index);
+            return elements.get(index);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.jsoup.helper.ChangeNotifyingArrayList;
 import org.jsoup.helper.Validate;
 import org.jsoup.internal.NonnullByDefault;
 import org.jsoup.internal.StringUtil;
+import org.jsoup.parser.LazyAttributes;
 import org.jsoup.parser.ParseSettings;
 import org.jsoup.parser.Tag;
 import org.jsoup.select.Collector;
@@ -48,6 +49,9 @@ public class Element extends Node {
     private @Nullable WeakReference<List<Element>> shadowChildrenRef; // points to child elements shadowed from node children
     List<Node> childNodes;
     private @Nullable Attributes attributes; // field is nullable but all methods for attributes are non null
+    private @Nullable LazyAttributes lazyAttributes; // in a lazy parse, the attributes until first accessed (when attributes is null)
+    private @Nullable String namespace; // the namespace URI, if resolved in a namespace aware parse or set
+    private @Nullable SourceRanges sourceRanges; // the tag and attribute ranges in the input, if tracked in the parse
 
     /**
      * Create a new, standalone element.
@@ -102,16 +106,33 @@ public class Element extends Node {
 
     @Override
     protected boolean hasAttributes() {
-        return attributes != null;
+        return attributes != null || lazyAttributes != null;
     }
 
     @Override
     public Attributes attributes() {
-        if (attributes == null) // not using hasAttributes, as doesn't clear warning
-            attributes = new Attributes();
+        if (attributes == null) { // not using hasAttributes, as doesn't clear warning
+            if (lazyAttributes != null) {
+                attributes = lazyAttributes.parse();
+                lazyAttributes = null;
+            } else {
+                attributes = new Attributes();
+            }
+        }
         return attributes;
     }
 
+    /**
+     Set this element's attributes to be parsed from their source on first access. (An internal method, visible for the
+     parser, in a {@link org.jsoup.parser.Parser#setLazyAttributes(boolean) lazy attribute} parse.)
+     @param lazyAttributes the unparsed attributes
+     */
+    public void lazyAttributes(LazyAttributes lazyAttributes) {
+        Validate.isTrue(attributes == null || attributes.isEmpty(), "Element already has attributes");
+        attributes = null;
+        this.lazyAttributes = lazyAttributes;
+    }
+
     @Override
     public String baseUri() {
         return searchUpForAttribute(this, BaseUriKey);
@@ -119,7 +140,7 @@ public class Element extends Node {
 
     private static String searchUpForAttribute(final Element start, final String key) {
         Element el = start;
-        while (el != null) {
+        while (el != null) { // unparsed lazy attributes are skipped, as the key is internal
             if (el.attributes != null && el.attributes.hasKey(key))
                 return el.attributes.get(key);
             el = el.parent();
@@ -162,6 +183,150 @@ public class Element extends Node {
         return tag.normalName();
     }
 
+    /**
+     Get the namespace URI of this element; e.g. {@code http://www.w3.org/2005/Atom} for an Atom {@code <entry>}. That is
+     resolved from the {@code xmlns} declarations in scope when the element is parsed by a {@link
+     org.jsoup.parser.Parser#setNamespaceAware(boolean) namespace aware} XML parser, or may be set.
+     @return the namespace URI, or an empty string if the element is in no namespace, or its namespace was not resolved
+     */
+    public String namespace() {
+        return namespace != null ? namespace : "";
+    }
+
+    /**
+     Set the namespace URI of this element. Its tag name (and any prefix) is not changed.
+     @param namespace the namespace URI, or an empty string for no namespace
+     @return this element, for chaining
+     */
+    public Element namespace(String namespace) {
+        Validate.notNull(namespace);
+        this.namespace = namespace;
+        return this;
+    }
+
+    /**
+     Get the local name of this element: its tag name, without any namespace prefix. E.g. {@code link} for {@code
+     <atom:link>}.
+     @return the local name
+     */
+    public String localName() {
+        final String name = tag.getName();
+        final int prefixEnd = name.indexOf(':');
+        return prefixEnd == -1 ? name : name.substring(prefixEnd + 1);
+    }
+
+    /**
+     Get the source range of this element's start tag in the input it was parsed from; e.g. {@code 1,1:0-1,12:11} for
+     {@code <p class=a>}. Ranges are recorded when the parser is set to {@link
+     org.jsoup.parser.Parser#setTrackPosition(boolean) track positions}.
+     @return the range of the start tag; or {@link Range#Untracked} if not tracked, or the element was created implicitly
+     (e.g. an {@code <html>} or {@code <tbody>} the input did not have)
+     */
+    public Range sourceRange() {
+        return sourceRanges != null ? sourceRanges.start : Range.Untracked;
+    }
+
+    /**
+     Get the source range of this element's end tag in the input it was parsed from.
+     @return the range of the end tag; or {@link Range#Untracked} if not tracked, or the element had no end tag (e.g. it
+     was void, self-closing, or closed implicitly)
+     @see #sourceRange()
+     */
+    public Range endSourceRange() {
+        return sourceRanges != null ? sourceRanges.end : Range.Untracked;
+    }
+
+    /**
+     Get the source range of an attribute in this element's start tag, from the start of its name to the end of its value
+     (including any closing quote).
+     @param key the attribute key, as normalized by the parser (e.g. lower case in HTML)
+     @return the range of the attribute; or {@link Range#Untracked} if not tracked, or this element has no such attribute
+     from its source
+     @see #sourceRange()
+     */
+    public Range attributeSourceRange(String key) {
+        Validate.notNull(key);
+        return sourceRanges != null ? sourceRanges.attribute(key) : Range.Untracked;
+    }
+
+    /**
+     Set the source range of this element's start tag. (An internal method, visible for the parser, when tracking
+     positions.)
+     @param range the range of the start tag
+     */
+    public void sourceRange(Range range) {
+        ensureSourceRanges().start = range;
+    }
+
+    /**
+     Set the source range of this element's end tag. (An internal method, visible for the parser, when tracking
+     positions.)
+     @param range the range of the end tag
+     */
+    public void endSourceRange(Range range) {
+        ensureSourceRanges().end = range;
+    }
+
+    /**
+     Set the source range of an attribute, if not already set (so that, as with duplicate attributes, the first is kept).
+     (An internal method, visible for the parser, when tracking positions.)
+     @param key the normalized attribute key
+     @param range the range of the attribute
+     */
+    public void attributeSourceRange(String key, Range range) {
+        ensureSourceRanges().addAttribute(key, range);
+    }
+
+    private SourceRanges ensureSourceRanges() {
+        if (sourceRanges == null)
+            sourceRanges = new SourceRanges();
+        return sourceRanges;
+    }
+
+    /** The source ranges of an element's tags and attributes. Attributes are few, so are searched in order. */
+    private static final class SourceRanges {
+        Range start = Range.Untracked;
+        Range end = Range.Untracked;
+        private @Nullable String[] attributeKeys;
+        private @Nullable Range[] attributeRanges;
+        private int attributeCount;
+
+        Range attribute(String key) {
+            for (int i = 0; i < attributeCount; i++) {
+                if (attributeKeys[i].equals(key))
+                    return attributeRanges[i];
+            }
+            return Range.Untracked;
+        }
+
+        void addAttribute(String key, Range range) {
+            if (attribute(key).isTracked())
+                return;
+            if (attributeKeys == null) {
+                attributeKeys = new String[4];
+                attributeRanges = new Range[4];
+            } else if (attributeCount == attributeKeys.length) {
+                attributeKeys = Arrays.copyOf(attributeKeys, attributeCount * 2);
+                attributeRanges = Arrays.copyOf(attributeRanges, attributeCount * 2);
+            }
+            attributeKeys[attributeCount] = key;
+            attributeRanges[attributeCount] = range;
+            attributeCount++;
+        }
+
+        SourceRanges copy() {
+            final SourceRanges copy = new SourceRanges();
+            copy.start = start;
+            copy.end = end;
+            if (attributeKeys != null) {
+                copy.attributeKeys = attributeKeys.clone();
+                copy.attributeRanges = attributeRanges.clone();
+                copy.attributeCount = attributeCount;
+            }
+            return copy;
+        }
+    }
+
     /**
      * Change (rename) the tag of this element. For example, convert a {@code <span>} to a {@code <div>} with
      * {@code el.tagName("div");}.
@@ -201,7 +366,7 @@ public class Element extends Node {
      * @return The id attribute, if present, or an empty string if not.
      */
     public String id() {
-        return attributes != null ? attributes.getIgnoreCase("id") :"";
+        return hasAttributes() ? attributes().getIgnoreCase("id") :"";
     }
 
     /**
@@ -937,6 +1102,23 @@ public class Element extends Node {
         return Collector.collect(new Evaluator.Tag(tagName), this);
     }
 
+    /**
+     Finds elements, including and recursively under this element, with the specified namespace and local name; as
+     resolved by a {@link org.jsoup.parser.Parser#setNamespaceAware(boolean) namespace aware} parse. E.g. {@code
+     getElementsByTagNS("http://search.yahoo.com/mrss/", "content")} finds {@code <media:content>} elements, with
+     whatever prefix their feed declares.
+     @param namespace the namespace URI, or {@code *} for any namespace
+     @param localName the local name (case sensitively), or {@code *} for any element in the namespace
+     @return a matching unmodifiable list of elements. Will be empty if this element and none of its children match.
+     */
+    public Elements getElementsByTagNS(String namespace, String localName) {
+        Validate.notNull(namespace);
+        Validate.notEmpty(localName);
+        if (localName.equals("*"))
+            return Collector.collect(namespace.equals("*") ? new Evaluator.AllElements() : new Evaluator.Namespace(namespace), this);
+        return Collector.collect(new Evaluator.NamespacedTag(namespace, localName), this);
+    }
+
     /**
      * Find an element by ID, including or under this element.
      * <p>
@@ -1250,7 +1432,7 @@ public class Element extends Node {
             public void head(Node node, int depth) {
                 if (node instanceof TextNode) {
                     TextNode textNode = (TextNode) node;
-                    accum.append(textNode.getWholeText());
+                    accum.append(textNode.coreText());
                 }
             }
 
@@ -1290,7 +1472,7 @@ public class Element extends Node {
     }
 
     private static void appendNormalisedText(StringBuilder accum, TextNode textNode) {
-        String text = textNode.getWholeText();
+        String text = textNode.coreText();
 
         if (preserveWhitespace(textNode.parentNode) || textNode instanceof CDataNode)
             accum.append(text);
@@ -1373,7 +1555,7 @@ public class Element extends Node {
         for (Node childNode : childNodes) {
             if (childNode instanceof DataNode) {
                 DataNode data = (DataNode) childNode;
-                sb.append(data.getWholeData());
+                sb.append(data.coreText());
             } else if (childNode instanceof Comment) {
                 Comment comment = (Comment) childNode;
                 sb.append(comment.getData());
@@ -1436,10 +1618,10 @@ public class Element extends Node {
      */
     // performance sensitive
     public boolean hasClass(String className) {
-        if (attributes == null)
+        if (!hasAttributes())
             return false;
 
-        final String classAttr = attributes.getIgnoreCase("class");
+        final String classAttr = attributes().getIgnoreCase("class");
         final int len = classAttr.length();
         final int wantLen = className.length();
 
@@ -1563,7 +1745,7 @@ public class Element extends Node {
             }
         }
         accum.append('<').append(tagName());
-        if (attributes != null) attributes.html(accum, out);
+        if (hasAttributes()) attributes().html(accum, out);
 
         // selfclosing includes unknown tags, isEmpty defines tags that are always empty
         if (childNodes.isEmpty() && tag.isSelfClosing()) {
@@ -1629,13 +1811,17 @@ public class Element extends Node {
     @Override
     public Element shallowClone() {
         // simpler than implementing a clone version with no child copy
-        return new Element(tag, baseUri(), attributes == null ? null : attributes.clone());
+        final Element clone = new Element(tag, baseUri(), hasAttributes() ? attributes().clone() : null);
+        clone.namespace = namespace;
+        clone.sourceRanges = sourceRanges != null ? sourceRanges.copy() : null;
+        return clone;
     }
 
     @Override
     protected Element doClone(@Nullable Node parent) {
         Element clone = (Element) super.doClone(parent);
-        clone.attributes = attributes != null ? attributes.clone() : null;
+        clone.attributes = attributes != null ? attributes.clone() : null; // lazyAttributes are immutable, so shared
+        clone.sourceRanges = sourceRanges != null ? sourceRanges.copy() : null;
         clone.childNodes = new NodeList(clone, childNodes.size());
         clone.childNodes.addAll(childNodes); // the children then get iterated and cloned in Node.clone
 
@@ -1649,6 +1835,7 @@ public class Element extends Node {
             super.clearAttributes();
             attributes = null;
         }
+        lazyAttributes = null;
 
         return this;
     }
@@ -128,6 +128,100 @@ public class Entities {
         return 0;
     }
 
+    /**
+     Get the codepoints of the named character reference spelled by a run of chars, without creating a string for the
+     name. (An internal method, visible for the tokeniser.)
+     @param chars the chars holding the possible name
+     @param offset the offset of the name in the chars
+     @param length the length of the name
+     @param terminated if the name is followed by a semicolon. If not, only names in the base set (those valid without
+     the semicolon) are matched.
+     @param codepoints a holder for the codepoints, of at least length 2
+     @return the number of codepoints (1 or 2), or 0 if not a named entity
+     */
+    public static int codepointsForName(final char[] chars, final int offset, final int length, final boolean terminated,
+                                        final int[] codepoints) {
+        final int index = NameTrie.find(chars, offset, length);
+        if (index == empty || (!terminated && !NameTrie.base[index]))
+            return 0;
+        codepoints[0] = extended.codeVals[index];
+        final int second = NameTrie.secondCodepoints[index];
+        if (second == empty)
+            return 1;
+        codepoints[1] = second;
+        return 2;
+    }
+
+    /**
+     A trie of the extended entity names, to match a name directly from the tokeniser's buffer. The children of each
+     node are contiguous and sorted by char, and as the nodes are numbered breadth first, the children of node {@code n}
+     are those from {@code firstChild[n]} to {@code firstChild[n + 1]}. Built on first use.
+     */
+    private static final class NameTrie {
+        private static final char[] labels; // the char leading to each node
+        private static final int[] firstChild;
+        private static final int[] entities; // the index in extended of the name ending at each node, or empty
+        static final boolean[] base; // by extended index, if the name is also in the base set
+        static final int[] secondCodepoints; // by extended index, the second codepoint of a multipoint, or empty
+
+        static {
+            final String[] names = extended.nameKeys; // sorted, so names sharing a prefix are contiguous
+            int max = 1;
+            for (String name : names)
+                max += name.length();
+            final char[] label = new char[max];
+            final int[] first = new int[max + 1];
+            final int[] entity = new int[max];
+            final int[] from = new int[max], to = new int[max], depth = new int[max]; // the names under each node
+
+            to[0] = names.length;
+            int size = 1;
+            for (int node = 0; node < size; node++) {
+                final int d = depth[node];
+                int i = from[node];
+                entity[node] = empty;
+                if (i < to[node] && names[i].length() == d) // the name ending here sorts before those it prefixes
+                    entity[node] = i++;
+                first[node] = size;
+                while (i < to[node]) {
+                    final char c = names[i].charAt(d);
+                    int j = i + 1;
+                    while (j < to[node] && names[j].charAt(d) == c)
+                        j++;
+                    label[size] = c;
+                    from[size] = i;
+                    to[size] = j;
+                    depth[size] = d + 1;
+                    size++;
+                    i = j;
+                }
+            }
+            first[size] = size;
+            labels = Arrays.copyOf(label, size);
+            firstChild = Arrays.copyOf(first, size + 1);
+            entities = Arrays.copyOf(entity, size);
+
+            base = new boolean[names.length];
+            secondCodepoints = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                base[i] = EscapeMode.base.codepointForName(names[i]) != empty;
+                final String multipoint = multipoints.get(names[i]);
+                secondCodepoints[i] = multipoint != null ? multipoint.codePointAt(multipoint.offsetByCodePoints(0, 1)) : empty;
+            }
+        }
+
+        /** Find the index in extended of the name, or empty if not a name. */
+        static int find(final char[] chars, final int offset, final int length) {
+            int node = 0;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                node = Arrays.binarySearch(labels, firstChild[node], firstChild[node + 1], chars[i]);
+                if (node < 0)
+                    return empty;
+            }
+            return entities[node];
+        }
+    }
+
     /**
      * HTML escape an input string. That is, {@code <} is returned as {@code &lt;}
      *
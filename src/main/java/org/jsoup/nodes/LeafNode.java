@@ -1,12 +1,13 @@
 package org.jsoup.nodes;
 
 import org.jsoup.helper.Validate;
+import org.jsoup.internal.CharSlice;
 
 import java.util.Collections;
 import java.util.List;
 
 abstract class LeafNode extends Node {
-    Object value; // either a string value, or an attribute map (in the rare case multiple attributes are set)
+    Object value; // either a string value, a view of the retained parse input, or an attribute map (in the rare case multiple attributes are set)
 
     protected final boolean hasAttributes() {
         return value instanceof Attributes;
@@ -24,7 +25,7 @@ abstract class LeafNode extends Node {
             Attributes attributes = new Attributes();
             value = attributes;
             if (coreValue != null)
-                attributes.put(nodeName(), (String) coreValue);
+                attributes.put(nodeName(), coreValue.toString()); // copies a view
         }
     }
 
@@ -36,11 +37,23 @@ abstract class LeafNode extends Node {
         attr(nodeName(), value);
     }
 
+    /**
+     Get the core value to read (e.g. in output), without copying a view of the retained parse input into this node, as
+     {@link #coreValue()} does.
+     */
+    final String coreText() {
+        return value instanceof CharSlice ? value.toString() : coreValue();
+    }
+
     @Override
     public String attr(String key) {
         Validate.notNull(key);
         if (!hasAttributes()) {
-            return key.equals(nodeName()) ? (String) value : EmptyString;
+            if (!key.equals(nodeName()))
+                return EmptyString;
+            if (value instanceof CharSlice)
+                value = value.toString(); // copied from the input on first use
+            return (String) value;
         }
         return super.attr(key);
     }
@@ -0,0 +1,144 @@
+package org.jsoup.nodes;
+
+import javax.annotation.Nullable;
+
+/**
+ A Range of a node's source in the input it was parsed from; e.g. of an element's start tag. Ranges are recorded when
+ the parser is set to {@link org.jsoup.parser.Parser#setTrackPosition(boolean) track positions}.
+ */
+public final class Range {
+    private static final Position UntrackedPos = new Position(-1, -1, -1);
+    /** The range of a node that was not parsed from the input, or was parsed without tracking positions. */
+    public static final Range Untracked = new Range(UntrackedPos, UntrackedPos);
+
+    private final Position start, end;
+
+    /**
+     Create a new Range.
+     @param start the start position
+     @param end the end position (exclusive)
+     */
+    public Range(Position start, Position end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     Get the start position of this range.
+     @return the start position
+     */
+    public Position start() {
+        return start;
+    }
+
+    /**
+     Get the end position of this range; the position just after its last character.
+     @return the end position
+     */
+    public Position end() {
+        return end;
+    }
+
+    /**
+     Test if this range was tracked in the parse.
+     @return true if tracked; false if not, in which case its positions are all -1
+     */
+    public boolean isTracked() {
+        return this != Untracked;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Range range = (Range) o;
+        return start.equals(range.start) && end.equals(range.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * start.hashCode() + end.hashCode();
+    }
+
+    /**
+     Gets a String presentation of this Range, in the format {@code line,column:pos-line,column:pos}.
+     @return a String
+     */
+    @Override
+    public String toString() {
+        return start + "-" + end;
+    }
+
+    /**
+     A Position in the input: its offset, and its line and column numbers.
+     */
+    public static final class Position {
+        private final int pos, lineNumber, columnNumber;
+
+        /**
+         Create a new Position.
+         @param pos the offset in the input, counting from 0
+         @param lineNumber the line number, counting from 1
+         @param columnNumber the column number in the line, counting from 1
+         */
+        public Position(int pos, int lineNumber, int columnNumber) {
+            this.pos = pos;
+            this.lineNumber = lineNumber;
+            this.columnNumber = columnNumber;
+        }
+
+        /**
+         Get the offset of this position in the input.
+         @return the offset, counting from 0; or -1 if not tracked
+         */
+        public int pos() {
+            return pos;
+        }
+
+        /**
+         Get the line number of this position. A newline is in the line that it ends.
+         @return the line number, counting from 1; or -1 if not tracked
+         */
+        public int lineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         Get the column number of this position in its line.
+         @return the column number, counting from 1; or -1 if not tracked
+         */
+        public int columnNumber() {
+            return columnNumber;
+        }
+
+        /**
+         Test if this position was tracked in the parse.
+         @return true if tracked
+         */
+        public boolean isTracked() {
+            return this != UntrackedPos;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Position position = (Position) o;
+            return pos == position.pos && lineNumber == position.lineNumber && columnNumber == position.columnNumber;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * pos + lineNumber) + columnNumber;
+        }
+
+        /**
+         Gets a String presentation of this Position, in the format {@code line,column:pos}.
+         @return a String
+         */
+        @Override
+        public String toString() {
+            return lineNumber + "," + columnNumber + ":" + pos;
+        }
+    }
+}
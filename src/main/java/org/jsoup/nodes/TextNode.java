@@ -1,5 +1,6 @@
 package org.jsoup.nodes;
 
+import org.jsoup.internal.CharSlice;
 import org.jsoup.internal.StringUtil;
 import org.jsoup.helper.Validate;
 
@@ -30,7 +31,7 @@ public class TextNode extends LeafNode {
      * @see TextNode#getWholeText()
      */
     public String text() {
-        return StringUtil.normaliseWhitespace(getWholeText());
+        return StringUtil.normaliseWhitespace(coreText());
     }
     
     /**
@@ -56,7 +57,7 @@ public class TextNode extends LeafNode {
      @return true if this document is empty or only whitespace, false if it contains any text content.
      */
     public boolean isBlank() {
-        return StringUtil.isBlank(coreValue());
+        return value instanceof CharSlice ? ((CharSlice) value).isBlank() : StringUtil.isBlank(coreValue());
     }
 
     /**
@@ -87,7 +88,7 @@ public class TextNode extends LeafNode {
 
         final boolean normaliseWhite = prettyPrint && !Element.preserveWhitespace(parentNode);
         final boolean stripWhite = prettyPrint && parentNode instanceof Document;
-        Entities.escape(accum, coreValue(), out, false, normaliseWhite, stripWhite);
+        Entities.escape(accum, coreText(), out, false, normaliseWhite, stripWhite);
     }
 
 	void outerHtmlTail(Appendable accum, int depth, Document.OutputSettings out) {}
@@ -112,6 +113,19 @@ public class TextNode extends LeafNode {
         return new TextNode(text);
     }
 
+    /**
+     Create a new TextNode, holding its text as a view of the parse input, until the text is changed or {@link #getWholeText()} is
+     called. (An internal method, visible for the parser.)
+     @param text the text, in the retained input
+     @return new TextNode
+     @see org.jsoup.parser.Parser#setRetainInput(boolean)
+     */
+    public static TextNode createFromInput(CharSlice text) {
+        TextNode node = new TextNode("");
+        node.value = text;
+        return node;
+    }
+
     static String normaliseWhitespace(String text) {
         text = StringUtil.normaliseWhitespace(text);
         return text;
@@ -11,7 +11,7 @@ import java.io.IOException;
  */
 public class XmlDeclaration extends LeafNode {
     // todo this impl isn't really right, the data shouldn't be attributes, just a run of text after the name
-    private final boolean isProcessingInstruction; // <! if true, <? if false, declaration (and last data char should be ?)
+    final boolean isProcessingInstruction; // <! if true, <? if false, declaration (and last data char should be ?)
 
     /**
      * Create a new XML declaration
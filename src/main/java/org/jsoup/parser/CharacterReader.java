@@ -2,6 +2,9 @@ package org.jsoup.parser;
 
 import org.jsoup.UncheckedIOException;
 import org.jsoup.helper.Validate;
+import org.jsoup.nodes.Entities;
+
+import javax.annotation.Nullable;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -17,7 +20,7 @@ public final class CharacterReader {
     private static final int maxStringCacheLen = 12;
     static final int maxBufferLen = 1024 * 32; // visible for testing
     static final int readAheadLimit = (int) (maxBufferLen * 0.75); // visible for testing
-    private static final int minReadAheadLen = 1024; // the minimum mark length supported. No HTML entities can be larger than this.
+    static final int minReadAheadLen = 1024; // the minimum mark length supported. No HTML entities can be larger than this.
 
     private char[] charBuf;
     private Reader reader;
@@ -27,11 +30,14 @@ public final class CharacterReader {
     private int readerPos;
     private int bufMark = -1;
     private static final int stringCacheSize = 512;
-    private String[] stringCache = new String[stringCacheSize]; // holds reused strings in this doc, to lessen garbage
+    private StringInterner stringCache = new StringInterner(stringCacheSize, maxStringCacheLen); // holds reused strings in this doc (unless shared), to lessen garbage
+    private boolean sharedCache; // if the string cache was set from outside, vs this reader's own
+    private int cacheHits, cacheMisses; // recorded to the cache on close, vs contending on a shared cache's counters
+    private boolean containsMissed; // if a containsIgnoreCase lookahead did not find its target
+    private @Nullable LineIndex lines; // indexes the newlines as the buffer is filled, if line numbers are wanted
 
     public CharacterReader(Reader input, int sz) {
         Validate.notNull(input);
-        Validate.isTrue(input.markSupported());
         reader = input;
         charBuf = new char[Math.min(sz, maxBufferLen)];
         bufferUp();
@@ -45,7 +51,36 @@ public final class CharacterReader {
         this(new StringReader(input), input.length());
     }
 
+    /**
+     Create a reader over a chunk of input that starts at {@code startPos} in the overall content, so that positions
+     are reported relative to the whole input. Used in incremental and parallel parsing.
+     */
+    CharacterReader(Reader input, int sz, int startPos) {
+        this(input, sz);
+        readerPos = startPos;
+    }
+
+    CharacterReader(String input, int startPos) {
+        this(new StringReader(input), input.length(), startPos);
+    }
+
+    /**
+     For a parallel parse, where this is an empty reader standing in while tokens read elsewhere are replayed: set the
+     position to report, e.g. in parse errors.
+     */
+    void replayPos(int pos) {
+        readerPos = pos - bufPos;
+    }
+
     public void close() {
+        release();
+        charBuf = null;
+    }
+
+    /**
+     Close the underlying reader, but retain this reader's buffer and string cache, to be reused by {@link #reset}.
+     */
+    void release() {
         if (reader == null)
             return;
         try {
@@ -53,31 +88,101 @@ public final class CharacterReader {
         } catch (IOException ignored) {
         } finally {
             reader = null;
-            charBuf = null;
-            stringCache = null;
+            stringCache.record(cacheHits, cacheMisses);
+            cacheHits = cacheMisses = 0;
+        }
+    }
+
+    /**
+     For a reusable parser: reset this reader to read new input, reusing the char buffer (if it is large enough), and the
+     string cache.
+     @param input the new input
+     @param sz the size of buffer wanted (e.g. the input length, if known)
+     */
+    void reset(Reader input, int sz) {
+        Validate.notNull(input);
+        release();
+        reader = input;
+        final int len = Math.min(sz, maxBufferLen);
+        if (charBuf == null || charBuf.length < len)
+            charBuf = new char[len];
+        bufLength = 0;
+        bufSplitPoint = 0;
+        bufPos = 0;
+        readerPos = 0;
+        bufMark = -1;
+        containsMissed = false;
+        readFully = false;
+        lines = null;
+        bufferUp();
+    }
+
+    /**
+     Set the string cache (interner) to use for consumed strings, in place of this reader's own. Used to share a cache
+     across readers and parses.
+     @param cache the cache to use; or null to use this reader's own (e.g. when reset for a parser without a shared cache)
+     */
+    void stringCache(@Nullable StringInterner cache) {
+        if (cache != null) {
+            stringCache = cache;
+            sharedCache = true;
+        } else if (sharedCache) {
+            stringCache = new StringInterner(stringCacheSize, maxStringCacheLen);
+            sharedCache = false;
         }
     }
 
+    StringInterner stringCache() {
+        return stringCache;
+    }
+
+    /**
+     Index the newlines in the input as it is read, into the line index, so that the line and column of positions can be
+     found (e.g. for parse errors). The index may be shared with the reader that this one continues from.
+     @param lines the index; or null to not index
+     */
+    void trackLines(@Nullable LineIndex lines) {
+        this.lines = lines;
+        if (lines != null)
+            lines.index(charBuf, 0, bufLength, readerPos);
+    }
+
+    @Nullable LineIndex lines() {
+        return lines;
+    }
+
+    /**
+     Get the line number of the current position, counting from 1.
+     @return the line number, or -1 if lines are not tracked
+     */
+    int lineNumber() {
+        return lines != null ? lines.lineNumber(pos()) : -1;
+    }
+
+    /**
+     Get the column number of the current position, counting from 1.
+     @return the column number, or -1 if lines are not tracked
+     */
+    int columnNumber() {
+        return lines != null ? lines.columnNumber(pos()) : -1;
+    }
+
     private boolean readFully; // if the underlying stream has been completely read, no value in further buffering
     private void bufferUp() {
         if (readFully || bufPos < bufSplitPoint)
             return;
 
-        final int pos;
-        final int offset;
-        if (bufMark != -1) {
-            pos = bufMark;
-            offset = bufPos - bufMark;
-        } else {
-            pos = bufPos;
-            offset = 0;
-        }
+        final int keep = bufMark != -1 ? bufPos - bufMark : Math.min(bufPos, 1); // chars before bufPos to keep: to the mark, or one to unconsume
+        final int pos = bufPos - keep;
 
         try {
-            final long skipped = reader.skip(pos);
-            reader.mark(maxBufferLen);
-            int read = 0;
-            while (read <= minReadAheadLen) {
+            // move the kept and unread chars to the start of the buffer, and fill the rest. The reader is read through
+            // once, so doesn't need to support mark / reset, or to buffer itself
+            final int kept = bufLength - pos;
+            if (pos > 0)
+                System.arraycopy(charBuf, pos, charBuf, 0, kept);
+            int read = kept;
+            while (read <= minReadAheadLen || read == kept) { // read at least once
                 int thisRead = reader.read(charBuf, read, charBuf.length - read);
                 if (thisRead == -1)
                     readFully = true;
@@ -85,21 +190,29 @@ public final class CharacterReader {
                     break;
                 read += thisRead;
             }
-            reader.reset();
-            if (read > 0) {
-                Validate.isTrue(skipped == pos); // Previously asserted that there is room in buf to skip, so this will be a WTF
-                bufLength = read;
-                readerPos += pos;
-                bufPos = offset;
-                if (bufMark != -1)
-                    bufMark = 0;
-                bufSplitPoint = Math.min(bufLength, readAheadLimit);
-            }
+            bufLength = read;
+            readerPos += pos;
+            if (lines != null)
+                lines.index(charBuf, kept, read - kept, readerPos + kept);
+            bufPos = keep;
+            if (bufMark != -1)
+                bufMark = 0;
+            bufSplitPoint = Math.min(bufLength, readAheadLimit);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     Discard the rest of the input, so that the reader is empty; e.g. when a parse limit is exceeded. The underlying
+     reader is not read further.
+     */
+    void discardRemaining() {
+        bufLength = bufPos;
+        bufSplitPoint = bufPos;
+        readFully = true;
+    }
+
     /**
      * Gets the current cursor position in the content.
      * @return current position
@@ -220,7 +333,7 @@ public final class CharacterReader {
     public String consumeTo(char c) {
         int offset = nextIndexOf(c);
         if (offset != -1) {
-            String consumed = cacheString(charBuf, stringCache, bufPos, offset);
+            String consumed = cacheString(charBuf, bufPos, offset);
             bufPos += offset;
             return consumed;
         } else {
@@ -231,7 +344,7 @@ public final class CharacterReader {
     String consumeTo(String seq) {
         int offset = nextIndexOf(seq);
         if (offset != -1) {
-            String consumed = cacheString(charBuf, stringCache, bufPos, offset);
+            String consumed = cacheString(charBuf, bufPos, offset);
             bufPos += offset;
             return consumed;
         } else if (bufLength - bufPos < seq.length()) {
@@ -241,7 +354,7 @@ public final class CharacterReader {
             // the string we're looking for may be straddling a buffer boundary, so keep (length - 1) characters
             // unread in case they contain the beginning of the search string
             int endPos = bufLength - seq.length() + 1;
-            String consumed = cacheString(charBuf, stringCache, bufPos, endPos - bufPos);
+            String consumed = cacheString(charBuf, bufPos, endPos - bufPos);
             bufPos = endPos;
             return consumed;
         }
@@ -270,126 +383,165 @@ public final class CharacterReader {
         }
 
         bufPos = pos;
-        return pos > start ? cacheString(charBuf, stringCache, start, pos -start) : "";
+        return pos > start ? cacheString(charBuf, start, pos -start) : "";
     }
 
-    String consumeToAnySorted(final char... chars) {
+    /**
+     Read characters until the first of the delimiters is found. Faster than {@link #consumeToAny(char...)} for a fixed
+     set of delimiters, as each char is checked against a precomputed lookup table.
+     @param delimiters delimiters to scan for
+     @return characters read up to the matched delimiter.
+     */
+    String consumeToAny(final Delimiters delimiters) {
         bufferUp();
-        int pos = bufPos;
-        final int start = pos;
-        final int remaining = bufLength;
-        final char[] val = charBuf;
-
-        while (pos < remaining) {
-            if (Arrays.binarySearch(chars, val[pos]) >= 0)
-                break;
-            pos++;
-        }
-        bufPos = pos;
-        return bufPos > start ? cacheString(charBuf, stringCache, start, pos -start) : "";
+        return consumeScan(delimiters);
     }
 
+    private static final Delimiters dataDelims = new Delimiters('&', '<', TokeniserState.nullChar);
+    private static final Delimiters rawDataDelims = new Delimiters('<', TokeniserState.nullChar);
+    private static final Delimiters attributeSingleDelims = new Delimiters('&', '\'', TokeniserState.nullChar);
+    private static final Delimiters attributeDoubleDelims = new Delimiters('&', '"', TokeniserState.nullChar);
+    // NOTE: out of spec, added '<' to fix common author bugs
+    private static final Delimiters tagNameDelims = new Delimiters('\t', '\n', '\r', '\f', ' ', '/', '>', '<', TokeniserState.nullChar);
+
     String consumeData() {
-        // &, <, null
         //bufferUp(); // no need to bufferUp, just called consume()
-        int pos = bufPos;
-        final int start = pos;
-        final int remaining = bufLength;
-        final char[] val = charBuf;
-
-        OUTER: while (pos < remaining) {
-            switch (val[pos]) {
-                case '&':
-                case '<':
-                case TokeniserState.nullChar:
-                    break OUTER;
-                default:
-                    pos++;
-            }
-        }
-        bufPos = pos;
-        return pos > start ? cacheString(charBuf, stringCache, start, pos -start) : "";
+        return consumeScan(dataDelims);
     }
 
     String consumeAttributeQuoted(final boolean single) {
-        // null, " or ', &
         //bufferUp(); // no need to bufferUp, just called consume()
-        int pos = bufPos;
-        final int start = pos;
-        final int remaining = bufLength;
-        final char[] val = charBuf;
-
-        OUTER: while (pos < remaining) {
-            switch (val[pos]) {
-                case '&':
-                case TokeniserState.nullChar:
-                    break OUTER;
-                case '\'':
-                    if (single) break OUTER;
-                case '"':
-                    if (!single) break OUTER;
-                default:
-                    pos++;
-            }
-        }
-        bufPos = pos;
-        return pos > start ? cacheString(charBuf, stringCache, start, pos -start) : "";
+        return consumeScan(single ? attributeSingleDelims : attributeDoubleDelims);
     }
 
-
     String consumeRawData() {
-        // <, null
         //bufferUp(); // no need to bufferUp, just called consume()
-        int pos = bufPos;
-        final int start = pos;
-        final int remaining = bufLength;
-        final char[] val = charBuf;
+        return consumeScan(rawDataDelims);
+    }
 
-        OUTER: while (pos < remaining) {
-            switch (val[pos]) {
-                case '<':
-                case TokeniserState.nullChar:
-                    break OUTER;
-                default:
-                    pos++;
-            }
-        }
-        bufPos = pos;
-        return pos > start ? cacheString(charBuf, stringCache, start, pos -start) : "";
+    /**
+     Skip over raw data, as {@link #consumeRawData()} would consume it, without copying it to a string.
+     @return the number of chars skipped
+     */
+    int skipRawData() {
+        final int start = bufPos;
+        bufPos = rawDataDelims.scan(charBuf, start, bufLength);
+        return bufPos - start;
     }
 
     String consumeTagName() {
-        // '\t', '\n', '\r', '\f', ' ', '/', '>', nullChar
-        // NOTE: out of spec, added '<' to fix common author bugs
         bufferUp();
-        int pos = bufPos;
-        final int start = pos;
-        final int remaining = bufLength;
-        final char[] val = charBuf;
+        return consumeScan(tagNameDelims);
+    }
 
-        OUTER: while (pos < remaining) {
-            switch (val[pos]) {
-                case '\t':
-                case '\n':
-                case '\r':
-                case '\f':
-                case ' ':
-                case '/':
-                case '>':
-                case '<':
-                case TokeniserState.nullChar:
-                    break OUTER;
+    // states of the attribute source scan, following the tokeniser's attribute states
+    private static final int BeforeName = 0, Name = 1, AfterName = 2, BeforeValue = 3, Unquoted = 4, DoubleQuoted = 5,
+        SingleQuoted = 6, AfterQuoted = 7, SelfClosing = 8;
+
+    /**
+     For lazy attribute parsing: consume a start tag's attributes as their source, without tokenising them, from the
+     before attribute name state to the end of the tag. The tokeniser's attribute states are followed to find the end,
+     which is left unconsumed: a {@code "/>"}, a {@code '>'}, or a {@code '<'} that ends the tag. Character references
+     only consume name chars, so can't end an attribute, and are passed over.
+     @return the attributes' source; empty if the tag has no attributes; or null (consuming nothing) if the end of the tag
+     is not in the buffer, or the input ends within the tag
+     */
+    @Nullable String consumeAttributeSource() {
+        if (bufLength - bufPos < minReadAheadLen) // fill the buffer, as in mark()
+            bufSplitPoint = 0;
+        bufferUp();
+
+        final char[] buf = charBuf;
+        final int start = bufPos;
+        final int length = bufLength;
+        int state = BeforeName;
+        boolean hasAttribute = false;
+        for (int pos = start; pos < length; pos++) {
+            final char c = buf[pos];
+            final boolean space = c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+            switch (state) {
+                case BeforeName:
+                    if (c == '>' || c == '<')
+                        return attributeSource(start, pos, hasAttribute);
+                    else if (c == '/')
+                        state = SelfClosing;
+                    else if (!space) {
+                        state = Name;
+                        hasAttribute = true;
+                    }
+                    break;
+                case Name:
+                case AfterName:
+                    if (c == '>')
+                        return attributeSource(start, pos, true);
+                    else if (c == '/')
+                        state = SelfClosing;
+                    else if (c == '=')
+                        state = BeforeValue;
+                    else
+                        state = space ? AfterName : Name;
+                    break;
+                case BeforeValue:
+                    if (c == '>')
+                        return attributeSource(start, pos, true);
+                    else if (c == '"')
+                        state = DoubleQuoted;
+                    else if (c == '\'')
+                        state = SingleQuoted;
+                    else if (!space)
+                        state = Unquoted;
+                    break;
+                case Unquoted:
+                    if (c == '>')
+                        return attributeSource(start, pos, true);
+                    else if (space)
+                        state = BeforeName;
+                    break;
+                case DoubleQuoted:
+                    if (c == '"')
+                        state = AfterQuoted;
+                    break;
+                case SingleQuoted:
+                    if (c == '\'')
+                        state = AfterQuoted;
+                    break;
+                case AfterQuoted:
+                    if (c == '>')
+                        return attributeSource(start, pos, true);
+                    else if (c == '/')
+                        state = SelfClosing;
+                    else {
+                        state = BeforeName;
+                        if (!space)
+                            pos--; // reconsume
+                    }
+                    break;
+                case SelfClosing:
+                    if (c == '>')
+                        return attributeSource(start, pos - 1, hasAttribute); // leaves the "/>"
+                    state = BeforeName;
+                    pos--; // reconsume
+                    break;
             }
-            pos++;
         }
+        return null;
+    }
 
+    private String attributeSource(int start, int end, boolean hasAttribute) {
+        bufPos = end;
+        return hasAttribute ? new String(charBuf, start, end - start) : "";
+    }
+
+    private String consumeScan(final Delimiters delimiters) {
+        final int start = bufPos;
+        final int pos = delimiters.scan(charBuf, start, bufLength);
         bufPos = pos;
-        return pos > start ? cacheString(charBuf, stringCache, start, pos -start) : "";
+        return pos > start ? cacheString(charBuf, start, pos - start) : "";
     }
 
     String consumeToEnd() {
         bufferUp();
-        String data = cacheString(charBuf, stringCache, bufPos, bufLength - bufPos);
+        String data = cacheString(charBuf, bufPos, bufLength - bufPos);
         bufPos = bufLength;
         return data;
     }
@@ -405,7 +557,7 @@ public final class CharacterReader {
                 break;
         }
 
-        return cacheString(charBuf, stringCache, start, bufPos - start);
+        return cacheString(charBuf, start, bufPos - start);
     }
 
     String consumeLetterThenDigitSequence() {
@@ -426,7 +578,36 @@ public final class CharacterReader {
                 break;
         }
 
-        return cacheString(charBuf, stringCache, start, bufPos - start);
+        return cacheString(charBuf, start, bufPos - start);
+    }
+
+    /**
+     Consume a letter then digit sequence, as {@link #consumeLetterThenDigitSequence()}, and get the codepoints of the
+     named character reference that it spells, without creating a string for the name.
+     @param codepoints a holder for the codepoints, of at least length 2
+     @return the number of codepoints (1 or 2), or 0 if not a named entity (or, if not followed by a semicolon, not one
+     in the base set)
+     @see Entities#codepointsForName(char[], int, int, boolean, int[])
+     */
+    int consumeEntityName(int[] codepoints) {
+        bufferUp();
+        int start = bufPos;
+        while (bufPos < bufLength) {
+            char c = charBuf[bufPos];
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || Character.isLetter(c))
+                bufPos++;
+            else
+                break;
+        }
+        while (bufPos < bufLength) {
+            char c = charBuf[bufPos];
+            if (c >= '0' && c <= '9')
+                bufPos++;
+            else
+                break;
+        }
+        boolean terminated = bufPos < bufLength && charBuf[bufPos] == ';';
+        return Entities.codepointsForName(charBuf, start, bufPos - start, terminated, codepoints);
     }
 
     String consumeHexSequence() {
@@ -439,7 +620,7 @@ public final class CharacterReader {
             else
                 break;
         }
-        return cacheString(charBuf, stringCache, start, bufPos - start);
+        return cacheString(charBuf, start, bufPos - start);
     }
 
     String consumeDigitSequence() {
@@ -452,7 +633,7 @@ public final class CharacterReader {
             else
                 break;
         }
-        return cacheString(charBuf, stringCache, start, bufPos - start);
+        return cacheString(charBuf, start, bufPos - start);
     }
 
     boolean matches(char c) {
@@ -542,7 +723,18 @@ public final class CharacterReader {
         // used to check presence of </title>, </style>. only finds consistent case.
         String loScan = seq.toLowerCase(Locale.ENGLISH);
         String hiScan = seq.toUpperCase(Locale.ENGLISH);
-        return (nextIndexOf(loScan) > -1) || (nextIndexOf(hiScan) > -1);
+        boolean found = (nextIndexOf(loScan) > -1) || (nextIndexOf(hiScan) > -1);
+        if (!found)
+            containsMissed = true;
+        return found;
+    }
+
+    /**
+     Check if a {@link #containsIgnoreCase(String)} lookahead has failed to find its target. In an incremental parse,
+     that target may still be in input that has not arrived yet.
+     */
+    boolean containsMissed() {
+        return containsMissed;
     }
 
     @Override
@@ -553,42 +745,28 @@ public final class CharacterReader {
     }
 
     /**
-     * Caches short strings, as a flywheel pattern, to reduce GC load. Just for this doc, to prevent leaks.
+     * Caches short strings, as a flywheel pattern, to reduce GC load. Just for this doc, to prevent leaks, unless a
+     * shared (bounded) {@link StringInterner} has been set on the parser.
      * <p />
      * Simplistic, and on hash collisions just falls back to creating a new string, vs a full HashMap with Entry list.
      * That saves both having to create objects as hash keys, and running through the entry list, at the expense of
      * some more duplicates.
      */
-    private static String cacheString(final char[] charBuf, final String[] stringCache, final int start, final int count) {
+    private String cacheString(final char[] charBuf, final int start, final int count) {
         // limit (no cache):
-        if (count > maxStringCacheLen)
+        if (count > stringCache.maxLength())
             return new String(charBuf, start, count);
         if (count < 1)
             return "";
 
-        // calculate hash:
-        int hash = 31 * count;
-        int offset = start;
-        for (int i = 0; i < count; i++) {
-            hash = 31 * hash + charBuf[offset++];
+        final int hash = StringInterner.hash(charBuf, start, count);
+        final String cached = stringCache.find(charBuf, start, count, hash);
+        if (cached != null) {
+            cacheHits++;
+            return cached;
         }
-
-        // get from cache
-        final int index = hash & stringCacheSize - 1;
-        String cached = stringCache[index];
-
-        if (cached == null) { // miss, add
-            cached = new String(charBuf, start, count);
-            stringCache[index] = cached;
-        } else { // hashcode hit, check equality
-            if (rangeEquals(charBuf, start, count, cached)) { // hit
-                return cached;
-            } else { // hashcode conflict
-                cached = new String(charBuf, start, count);
-                stringCache[index] = cached; // update the cache, as recently used strings are more likely to show up again
-            }
-        }
-        return cached;
+        cacheMisses++;
+        return stringCache.add(charBuf, start, count, hash);
     }
 
     /**
@@ -611,4 +789,44 @@ public final class CharacterReader {
     boolean rangeEquals(final int start, final int count, final String cached) {
         return rangeEquals(charBuf, start, count, cached);
     }
+
+    /**
+     A fixed set of ASCII delimiter chars to scan for, as a lookup table indexed by char. Each char is tested with one
+     bounds comparison and (if it's below the largest delimiter) one table read, vs a comparison per delimiter or a
+     binary search. The table only extends to the largest delimiter, so most text chars are passed over by the bounds
+     comparison alone.
+     */
+    static final class Delimiters {
+        private final boolean[] table;
+
+        Delimiters(final char... chars) {
+            char max = 0;
+            for (char c : chars) {
+                Validate.isTrue(c < 128, "Delimiters must be ASCII");
+                if (c > max) max = c;
+            }
+            table = new boolean[max + 1];
+            for (char c : chars)
+                table[c] = true;
+        }
+
+        boolean contains(final char c) {
+            return c < table.length && table[c];
+        }
+
+        /**
+         Find the first delimiter in the buffer range.
+         @return the index of the delimiter, or {@code end} if none was found
+         */
+        int scan(final char[] val, int pos, final int end) {
+            final boolean[] table = this.table;
+            final int len = table.length;
+            for (; pos < end; pos++) {
+                final char c = val[pos];
+                if (c < len && table[c])
+                    return pos;
+            }
+            return end;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package org.jsoup.parser;
 
 import org.jsoup.helper.Validate;
+import org.jsoup.internal.CharSlice;
 import org.jsoup.internal.StringUtil;
 import org.jsoup.nodes.CDataNode;
 import org.jsoup.nodes.Comment;
@@ -20,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.jsoup.internal.StringUtil.inSorted;
+import static org.jsoup.parser.HtmlTreeBuilderState.Constants.*;
 
 /**
  * HTML Tree Builder; creates a DOM from Tokens.
@@ -40,6 +42,9 @@ public class HtmlTreeBuilder extends TreeBuilder {
         "noembed", "noframes", "noscript", "object", "ol", "p", "param", "plaintext", "pre", "script",
         "section", "select", "style", "summary", "table", "tbody", "td", "textarea", "tfoot", "th", "thead",
         "title", "tr", "ul", "wbr", "xmp"};
+    // and as TagId sets, to test elements against by their tag's id
+    private static final long EndTagsSet = TagId.set(TagSearchEndTags);
+    private static final long SpecialSet = TagId.set(TagSearchSpecial);
 
     public static final int MaxScopeSearchDepth = 100; // prevents the parser bogging down in exceptionally broken pages
 
@@ -57,6 +62,8 @@ public class HtmlTreeBuilder extends TreeBuilder {
     private boolean framesetOk; // if ok to go into frameset
     private boolean fosterInserts; // if next inserts should be fostered
     private boolean fragmentParsing; // if parsing a fragment of html
+    private boolean wellFormed; // if the active formatting elements are all on the stack, so the well-formed path can be taken
+    boolean wellFormedPath = true; // if the well-formed path is used; visible for testing against the full construction
 
     ParseSettings defaultSettings() {
         return ParseSettings.htmlDefault;
@@ -78,12 +85,18 @@ public class HtmlTreeBuilder extends TreeBuilder {
         headElement = null;
         formElement = null;
         contextElement = null;
-        formattingElements = new ArrayList<>();
-        pendingTableCharacters = new ArrayList<>();
-        emptyEnd = new Token.EndTag();
+        if (parser.isReusable() && formattingElements != null) {
+            formattingElements.clear();
+            pendingTableCharacters.clear();
+        } else {
+            formattingElements = new ArrayList<>();
+            pendingTableCharacters = new ArrayList<>();
+            emptyEnd = new Token.EndTag();
+        }
         framesetOk = true;
         fosterInserts = false;
         fragmentParsing = false;
+        wellFormed = wellFormedPath;
     }
 
     List<Node> parseFragment(String inputFragment, @Nullable Element context, String baseUri, Parser parser) {
@@ -146,7 +159,86 @@ public class HtmlTreeBuilder extends TreeBuilder {
     @Override
     protected boolean process(Token token) {
         currentToken = token;
-        return this.state.process(token, this);
+        final Element closing = trackPosition && token.type == Token.TokenType.EndTag ?
+            getFromStack(token.asEndTag().normalName()) : null;
+        final boolean processed;
+        if (wellFormed && state == HtmlTreeBuilderState.InBody && !fosterInserts && processWellFormed(token)) {
+            processed = true;
+        } else {
+            wellFormed = false;
+            processed = this.state.process(token, this);
+            wellFormed = wellFormedPath && formattingElements.isEmpty(); // the full construction may leave them to reconstruct
+        }
+        if (closing != null && !onStack(closing)) // closed by this end tag; elements closed implicitly have no end range
+            trackEndPosition(closing, token.asEndTag());
+        return processed;
+    }
+
+    /**
+     Process the token in the body by a short path, if it is one that the full tree construction would simply insert, or
+     close by popping the current element. That covers most tokens of well-formed input, and skips the dispatch, scope
+     checks, and adoption agency steps for them. Only taken while every active formatting element is on the stack, so
+     there is nothing to reconstruct, and the tree, errors, and builder state are the same as from the full construction.
+     Any other token falls back to the full construction, from the same state.
+     @return true if the token was processed; false if it needs the full construction
+     */
+    private boolean processWellFormed(Token token) {
+        switch (token.type) {
+            case Character:
+                final Token.Character c = token.asCharacter();
+                final String data = c.getData();
+                if (data.length() == 1 && data.charAt(0) == '\u0000')
+                    return false; // an error, so the full construction drops it
+                insert(c);
+                if (framesetOk && !StringUtil.isBlank(data))
+                    framesetOk = false;
+                return true;
+            case Comment:
+                insert(token.asComment());
+                return true;
+            case StartTag:
+                return processWellFormed(token.asStartTag());
+            case EndTag:
+                return processWellFormed(token.asEndTag());
+            default:
+                return false;
+        }
+    }
+
+    private boolean processWellFormed(Token.StartTag startTag) {
+        final int id = startTag.id();
+        if (id == TagId.Unknown || id == TagId.Span) {
+            insert(startTag);
+        } else if (TagId.in(id, Formatters) || (id == TagId.A && getActiveFormattingElement("a") == null)) {
+            pushActiveFormattingElements(insert(startTag));
+        } else if (TagId.in(id, InBodyStartPClosers) && !inButtonScope("p")) {
+            insert(startTag);
+        } else if (TagId.in(id, InBodyStartEmptyFormatters)) {
+            insertEmpty(startTag);
+            framesetOk = false;
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean processWellFormed(Token.EndTag endTag) {
+        final Element current = currentElement();
+        if (current == null || !current.normalName().equals(endTag.normalName()))
+            return false;
+
+        final int id = endTag.id();
+        if (TagId.in(id, InBodyEndAdoptionFormatters)) {
+            // the adoption agency closes the current element if it is the last formatting element
+            if (lastFormattingElement() != current)
+                return false;
+            removeLastFormattingElement();
+        } else if (!(id == TagId.Unknown || id == TagId.Span || id == TagId.P || id == TagId.Li || TagId.in(id, DdDt)
+            || TagId.in(id, Headings) || TagId.in(id, InBodyEndClosers))) {
+            return false;
+        }
+        pop();
+        return true;
     }
 
     boolean process(Token token, HtmlTreeBuilderState state) {
@@ -203,8 +295,9 @@ public class HtmlTreeBuilder extends TreeBuilder {
     }
 
     void error(HtmlTreeBuilderState state) {
-        if (parser.getErrors().canAddError())
-            parser.getErrors().add(new ParseError(reader.pos(), "Unexpected token [%s] when in state [%s]", currentToken.tokenType(), state));
+        final ParseErrorList errors = parser.getErrors();
+        if (errors.isTracking())
+            errors.report(reader, ParseError.Code.UnexpectedToken, currentToken.tokenType(), state);
     }
 
     Element insert(final Token.StartTag startTag) {
@@ -212,7 +305,7 @@ public class HtmlTreeBuilder extends TreeBuilder {
         if (startTag.hasAttributes() && !startTag.attributes.isEmpty()) {
             int dupes = startTag.attributes.deduplicate(settings);
             if (dupes > 0) {
-                error("Duplicate attribute");
+                error(ParseError.Code.DuplicateAttribute);
             }
         }
 
@@ -227,7 +320,10 @@ public class HtmlTreeBuilder extends TreeBuilder {
         }
 
         Element el = new Element(Tag.valueOf(startTag.name(), settings), null, settings.normalizeAttributes(startTag.attributes));
+        lazyAttributes(el, startTag);
+        trackPosition(el, startTag);
         insert(el);
+        skipContent(el);
         return el;
     }
 
@@ -245,11 +341,13 @@ public class HtmlTreeBuilder extends TreeBuilder {
     Element insertEmpty(Token.StartTag startTag) {
         Tag tag = Tag.valueOf(startTag.name(), settings);
         Element el = new Element(tag, null, settings.normalizeAttributes(startTag.attributes));
+        lazyAttributes(el, startTag);
+        trackPosition(el, startTag);
         insertNode(el);
         if (startTag.isSelfClosing()) {
             if (tag.isKnownTag()) {
                 if (!tag.isEmpty())
-                    tokeniser.error("Tag cannot be self closing; not a void tag");
+                    tokeniser.error(ParseError.Code.SelfClosingNonVoidTag);
             }
             else // unknown tag, remember this is self closing for output
                 tag.setSelfClosing();
@@ -260,6 +358,8 @@ public class HtmlTreeBuilder extends TreeBuilder {
     FormElement insertForm(Token.StartTag startTag, boolean onStack) {
         Tag tag = Tag.valueOf(startTag.name(), settings);
         FormElement el = new FormElement(tag, null, settings.normalizeAttributes(startTag.attributes));
+        lazyAttributes(el, startTag);
+        trackPosition(el, startTag);
         setFormElement(el);
         insertNode(el);
         if (onStack)
@@ -280,16 +380,21 @@ public class HtmlTreeBuilder extends TreeBuilder {
         final String tagName = el.normalName();
         final String data = characterToken.getData();
 
-        if (characterToken.isCData())
+        if (characterToken.isCData()) {
             node = new CDataNode(data);
-        else if (isContentForTagData(tagName))
-            node = new DataNode(data);
-        else
-            node = new TextNode(data);
+        } else {
+            final CharSlice view = inputView(characterToken);
+            if (isContentForTagData(tagName))
+                node = view != null ? DataNode.createFromInput(view) : new DataNode(data);
+            else
+                node = view != null ? TextNode.createFromInput(view) : new TextNode(data);
+        }
         el.appendChild(node); // doesn't use insertNode, because we don't foster these; and will always have a stack.
+        nodes++;
     }
 
     private void insertNode(Node node) {
+        nodes++;
         // if the stack hasn't been set up yet, elements (doctype, comments) go into the doc
         if (stack.isEmpty())
             doc.appendChild(node);
@@ -318,8 +423,17 @@ public class HtmlTreeBuilder extends TreeBuilder {
         return stack;
     }
 
+    @Override
+    OpenElementStack newStack() {
+        return new OpenElementStack();
+    }
+
+    private OpenElementStack openElements() {
+        return (OpenElementStack) stack;
+    }
+
     boolean onStack(Element el) {
-        return isElementInQueue(stack, el);
+        return openElements().lastIndexOfElement(el) != -1;
     }
 
     private boolean isElementInQueue(ArrayList<Element> queue, Element element) {
@@ -333,24 +447,16 @@ public class HtmlTreeBuilder extends TreeBuilder {
     }
 
     Element getFromStack(String elName) {
-        for (int pos = stack.size() -1; pos >= 0; pos--) {
-            Element next = stack.get(pos);
-            if (next.normalName().equals(elName)) {
-                return next;
-            }
-        }
-        return null;
+        final int pos = openElements().lastIndexOfName(elName);
+        return pos != -1 ? stack.get(pos) : null;
     }
 
     boolean removeFromStack(Element el) {
-        for (int pos = stack.size() -1; pos >= 0; pos--) {
-            Element next = stack.get(pos);
-            if (next == el) {
-                stack.remove(pos);
-                return true;
-            }
-        }
-        return false;
+        final int pos = openElements().lastIndexOfElement(el);
+        if (pos == -1)
+            return false;
+        stack.remove(pos);
+        return true;
     }
 
     Element popStackToClose(String elName) {
@@ -408,23 +514,20 @@ public class HtmlTreeBuilder extends TreeBuilder {
 
     Element aboveOnStack(Element el) {
         assert onStack(el);
-        for (int pos = stack.size() -1; pos >= 0; pos--) {
-            Element next = stack.get(pos);
-            if (next == el) {
-                return stack.get(pos-1);
-            }
-        }
-        return null;
+        final int pos = openElements().lastIndexOfElement(el);
+        return pos != -1 ? stack.get(pos-1) : null;
     }
 
     void insertOnStackAfter(Element after, Element in) {
-        int i = stack.lastIndexOf(after);
+        int i = openElements().lastIndexOfElement(after);
         Validate.isTrue(i != -1);
         stack.add(i+1, in);
     }
 
     void replaceOnStack(Element out, Element in) {
-        replaceInQueue(stack, out, in);
+        int i = openElements().lastIndexOfElement(out);
+        Validate.isTrue(i != -1);
+        stack.set(i, in);
     }
 
     private void replaceInQueue(ArrayList<Element> queue, Element out, Element in) {
@@ -482,70 +585,32 @@ public class HtmlTreeBuilder extends TreeBuilder {
         }
     }
 
-    // todo: tidy up in specific scope methods
-    private String[] specificScopeTarget = {null};
-
-    private boolean inSpecificScope(String targetName, String[] baseTypes, String[] extraTypes) {
-        specificScopeTarget[0] = targetName;
-        return inSpecificScope(specificScopeTarget, baseTypes, extraTypes);
-    }
-
-    private boolean inSpecificScope(String[] targetNames, String[] baseTypes, String[] extraTypes) {
-        // https://html.spec.whatwg.org/multipage/parsing.html#has-an-element-in-the-specific-scope
-        final int bottom = stack.size() -1;
-        final int top = bottom > MaxScopeSearchDepth ? bottom - MaxScopeSearchDepth : 0;
-        // don't walk too far up the tree
-
-        for (int pos = bottom; pos >= top; pos--) {
-            final String elName = stack.get(pos).normalName();
-            if (inSorted(elName, targetNames))
-                return true;
-            if (inSorted(elName, baseTypes))
-                return false;
-            if (extraTypes != null && inSorted(elName, extraTypes))
-                return false;
-        }
-        //Validate.fail("Should not be reachable"); // would end up false because hitting 'html' at root (basetypes)
-        return false;
-    }
-
+    // the scope checks use the stack's index, and (other than the select scope) don't look further than
+    // MaxScopeSearchDepth down the stack, as the linear search did to not bog down in exceptionally broken pages
     boolean inScope(String[] targetNames) {
-        return inSpecificScope(targetNames, TagsSearchInScope, null);
+        return openElements().inScope(targetNames, OpenElementStack.DefaultScope, MaxScopeSearchDepth);
     }
 
     boolean inScope(String targetName) {
-        return inScope(targetName, null);
-    }
-
-    boolean inScope(String targetName, String[] extras) {
-        return inSpecificScope(targetName, TagsSearchInScope, extras);
+        return openElements().inScope(targetName, OpenElementStack.DefaultScope, MaxScopeSearchDepth);
         // todo: in mathml namespace: mi, mo, mn, ms, mtext annotation-xml
         // todo: in svg namespace: forignOjbect, desc, title
     }
 
     boolean inListItemScope(String targetName) {
-        return inScope(targetName, TagSearchList);
+        return openElements().inScope(targetName, OpenElementStack.ListItemScope, MaxScopeSearchDepth);
     }
 
     boolean inButtonScope(String targetName) {
-        return inScope(targetName, TagSearchButton);
+        return openElements().inScope(targetName, OpenElementStack.ButtonScope, MaxScopeSearchDepth);
     }
 
     boolean inTableScope(String targetName) {
-        return inSpecificScope(targetName, TagSearchTableScope, null);
+        return openElements().inScope(targetName, OpenElementStack.TableScope, MaxScopeSearchDepth);
     }
 
     boolean inSelectScope(String targetName) {
-        for (int pos = stack.size() -1; pos >= 0; pos--) {
-            Element el = stack.get(pos);
-            String elName = el.normalName();
-            if (elName.equals(targetName))
-                return true;
-            if (!inSorted(elName, TagSearchSelectScope)) // all elements except
-                return false;
-        }
-        Validate.fail("Should not be reachable");
-        return false;
+        return openElements().inScope(targetName, OpenElementStack.SelectScope, -1);
     }
 
     void setHeadElement(Element headElement) {
@@ -591,7 +656,7 @@ public class HtmlTreeBuilder extends TreeBuilder {
      */
     void generateImpliedEndTags(String excludeTag) {
         while ((excludeTag != null && !currentElement().normalName().equals(excludeTag)) &&
-                inSorted(currentElement().normalName(), TagSearchEndTags))
+                TagId.in(currentElement().tag().id(), EndTagsSet))
             pop();
     }
 
@@ -602,8 +667,7 @@ public class HtmlTreeBuilder extends TreeBuilder {
     boolean isSpecial(Element el) {
         // todo: mathml's mi, mo, mn
         // todo: svg's foreigObject, desc, title
-        String name = el.normalName();
-        return inSorted(name, TagSearchSpecial);
+        return TagId.in(el.tag().id(), SpecialSet);
     }
 
     Element lastFormattingElement() {
@@ -746,6 +810,25 @@ public class HtmlTreeBuilder extends TreeBuilder {
             fosterParent.appendChild(in);
     }
 
+    @Override
+    boolean canStreamStart(Element el) {
+        switch (el.normalName()) {
+            case "html":
+                return stack.size() > 1; // until the body starts, content may still be added to the closed head
+            case "body":
+                return !framesetOk; // may still be replaced by a frameset
+            case "table":
+                return false; // content may be foster parented in before the table
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    boolean canStreamDescendants(Element el) {
+        return !isInActiveFormattingElements(el); // the adoption agency may move open children out of formatting elements
+    }
+
     @Override
     public String toString() {
         return "TreeBuilder{" +
@@ -758,4 +841,33 @@ public class HtmlTreeBuilder extends TreeBuilder {
     protected boolean isContentForTagData(final String normalName) {
         return (normalName.equals("script") || normalName.equals("style"));
     }
+
+    @Override
+    TokeniserState speculateState(Token.StartTag startTag) {
+        if (startTag.isSelfClosing()) // insert() transitions back to data, and emits the end tag
+            return TokeniserState.Data;
+        switch (startTag.normalName()) {
+            case "title":
+            case "textarea":
+                return TokeniserState.Rcdata;
+            case "iframe":
+            case "noembed":
+            case "noframes":
+            case "style":
+            case "xmp":
+                return TokeniserState.Rawtext;
+            case "script":
+                return TokeniserState.ScriptData;
+            case "plaintext":
+                return TokeniserState.PLAINTEXT;
+            default:
+                return TokeniserState.Data;
+        }
+    }
+
+    @Override
+    boolean speculateSkipsNewline(Token.StartTag startTag) {
+        final String name = startTag.normalName();
+        return name.equals("pre") || name.equals("listing");
+    }
 }
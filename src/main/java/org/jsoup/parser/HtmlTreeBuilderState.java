@@ -12,6 +12,7 @@ import java.util.ArrayList;
 
 import static org.jsoup.internal.StringUtil.inSorted;
 import static org.jsoup.parser.HtmlTreeBuilderState.Constants.*;
+import static org.jsoup.parser.TagId.*;
 
 /**
  * The Tree Builder's current state. Each state embodies the processing for the state, and transitions to other states.
@@ -51,10 +52,10 @@ enum HtmlTreeBuilderState {
                 tb.insert(t.asComment());
             } else if (isWhitespace(t)) {
                 tb.insert(t.asCharacter()); // out of spec - include whitespace
-            } else if (t.isStartTag() && t.asStartTag().normalName().equals("html")) {
+            } else if (t.isStartTag() && t.asStartTag().id() == Html) {
                 tb.insert(t.asStartTag());
                 tb.transition(BeforeHead);
-            } else if (t.isEndTag() && (inSorted(t.asEndTag().normalName(), BeforeHtmlToHead))) {
+            } else if (t.isEndTag() && (in(t.asEndTag().id(), BeforeHtmlToHead))) {
                 return anythingElse(t, tb);
             } else if (t.isEndTag()) {
                 tb.error(this);
@@ -80,13 +81,13 @@ enum HtmlTreeBuilderState {
             } else if (t.isDoctype()) {
                 tb.error(this);
                 return false;
-            } else if (t.isStartTag() && t.asStartTag().normalName().equals("html")) {
+            } else if (t.isStartTag() && t.asStartTag().id() == Html) {
                 return InBody.process(t, tb); // does not transition
-            } else if (t.isStartTag() && t.asStartTag().normalName().equals("head")) {
+            } else if (t.isStartTag() && t.asStartTag().id() == Head) {
                 Element head = tb.insert(t.asStartTag());
                 tb.setHeadElement(head);
                 tb.transition(InHead);
-            } else if (t.isEndTag() && (inSorted(t.asEndTag().normalName(), BeforeHtmlToHead))) {
+            } else if (t.isEndTag() && (in(t.asEndTag().id(), BeforeHtmlToHead))) {
                 tb.processStartTag("head");
                 return tb.process(t);
             } else if (t.isEndTag()) {
@@ -114,33 +115,33 @@ enum HtmlTreeBuilderState {
                     return false;
                 case StartTag:
                     Token.StartTag start = t.asStartTag();
-                    String name = start.normalName();
-                    if (name.equals("html")) {
+                    int id = start.id();
+                    if (id == Html) {
                         return InBody.process(t, tb);
-                    } else if (inSorted(name, InHeadEmpty)) {
+                    } else if (in(id, InHeadEmpty)) {
                         Element el = tb.insertEmpty(start);
                         // jsoup special: update base the first time it is seen
-                        if (name.equals("base") && el.hasAttr("href"))
+                        if (id == Base && el.hasAttr("href"))
                             tb.maybeSetBaseUri(el);
-                    } else if (name.equals("meta")) {
+                    } else if (id == Meta) {
                         Element meta = tb.insertEmpty(start);
                         // todo: charset switches
-                    } else if (name.equals("title")) {
+                    } else if (id == Title) {
                         handleRcData(start, tb);
-                    } else if (inSorted(name, InHeadRaw)) {
+                    } else if (in(id, InHeadRaw)) {
                         handleRawtext(start, tb);
-                    } else if (name.equals("noscript")) {
+                    } else if (id == Noscript) {
                         // else if noscript && scripting flag = true: rawtext (jsoup doesn't run script, to handle as noscript)
                         tb.insert(start);
                         tb.transition(InHeadNoscript);
-                    } else if (name.equals("script")) {
+                    } else if (id == Script) {
                         // skips some script rules as won't execute them
 
                         tb.tokeniser.transition(TokeniserState.ScriptData);
                         tb.markInsertionMode();
                         tb.transition(Text);
                         tb.insert(start);
-                    } else if (name.equals("head")) {
+                    } else if (id == Head) {
                         tb.error(this);
                         return false;
                     } else {
@@ -149,11 +150,11 @@ enum HtmlTreeBuilderState {
                     break;
                 case EndTag:
                     Token.EndTag end = t.asEndTag();
-                    name = end.normalName();
-                    if (name.equals("head")) {
+                    id = end.id();
+                    if (id == Head) {
                         tb.pop();
                         tb.transition(AfterHead);
-                    } else if (inSorted(name, Constants.InHeadEnd)) {
+                    } else if (in(id, InHeadEnd)) {
                         return anythingElse(t, tb);
                     } else {
                         tb.error(this);
@@ -175,17 +176,17 @@ enum HtmlTreeBuilderState {
         boolean process(Token t, HtmlTreeBuilder tb) {
             if (t.isDoctype()) {
                 tb.error(this);
-            } else if (t.isStartTag() && t.asStartTag().normalName().equals("html")) {
+            } else if (t.isStartTag() && t.asStartTag().id() == Html) {
                 return tb.process(t, InBody);
-            } else if (t.isEndTag() && t.asEndTag().normalName().equals("noscript")) {
+            } else if (t.isEndTag() && t.asEndTag().id() == Noscript) {
                 tb.pop();
                 tb.transition(InHead);
-            } else if (isWhitespace(t) || t.isComment() || (t.isStartTag() && inSorted(t.asStartTag().normalName(),
+            } else if (isWhitespace(t) || t.isComment() || (t.isStartTag() && in(t.asStartTag().id(),
                     InHeadNoScriptHead))) {
                 return tb.process(t, InHead);
-            } else if (t.isEndTag() && t.asEndTag().normalName().equals("br")) {
+            } else if (t.isEndTag() && t.asEndTag().id() == Br) {
                 return anythingElse(t, tb);
-            } else if ((t.isStartTag() && inSorted(t.asStartTag().normalName(), InHeadNoscriptIgnore)) || t.isEndTag()) {
+            } else if ((t.isStartTag() && in(t.asStartTag().id(), InHeadNoscriptIgnore)) || t.isEndTag()) {
                 tb.error(this);
                 return false;
             } else {
@@ -213,30 +214,30 @@ enum HtmlTreeBuilderState {
                 tb.error(this);
             } else if (t.isStartTag()) {
                 Token.StartTag startTag = t.asStartTag();
-                String name = startTag.normalName();
-                if (name.equals("html")) {
+                int id = startTag.id();
+                if (id == Html) {
                     return tb.process(t, InBody);
-                } else if (name.equals("body")) {
+                } else if (id == Body) {
                     tb.insert(startTag);
                     tb.framesetOk(false);
                     tb.transition(InBody);
-                } else if (name.equals("frameset")) {
+                } else if (id == Frameset) {
                     tb.insert(startTag);
                     tb.transition(InFrameset);
-                } else if (inSorted(name, InBodyStartToHead)) {
+                } else if (in(id, InBodyStartToHead)) {
                     tb.error(this);
                     Element head = tb.getHeadElement();
                     tb.push(head);
                     tb.process(t, InHead);
                     tb.removeFromStack(head);
-                } else if (name.equals("head")) {
+                } else if (id == Head) {
                     tb.error(this);
                     return false;
                 } else {
                     anythingElse(t, tb);
                 }
             } else if (t.isEndTag()) {
-                if (inSorted(t.asEndTag().normalName(), AfterHeadBody)) {
+                if (in(t.asEndTag().id(), AfterHeadBody)) {
                     anythingElse(t, tb);
                 } else {
                     tb.error(this);
@@ -295,12 +296,12 @@ enum HtmlTreeBuilderState {
 
         private boolean inBodyStartTag(Token t, HtmlTreeBuilder tb) {
             final Token.StartTag startTag = t.asStartTag();
-            final String name = startTag.normalName();
+            final int id = startTag.id();
             final ArrayList<Element> stack;
             Element el;
 
-            switch (name) {
-                case "a":
+            switch (id) {
+                case A:
                     if (tb.getActiveFormattingElement("a") != null) {
                         tb.error(this);
                         tb.processEndTag("a");
@@ -316,12 +317,12 @@ enum HtmlTreeBuilderState {
                     el = tb.insert(startTag);
                     tb.pushActiveFormattingElements(el);
                     break;
-                case "span":
+                case Span:
                     // same as final else, but short circuits lots of checks
                     tb.reconstructFormattingElements();
                     tb.insert(startTag);
                     break;
-                case "li":
+                case Li:
                     tb.framesetOk(false);
                     stack = tb.getStack();
                     for (int i = stack.size() - 1; i > 0; i--) {
@@ -330,7 +331,7 @@ enum HtmlTreeBuilderState {
                             tb.processEndTag("li");
                             break;
                         }
-                        if (tb.isSpecial(el) && !inSorted(el.normalName(), Constants.InBodyStartLiBreakers))
+                        if (tb.isSpecial(el) && !in(el.tag().id(), InBodyStartLiBreakers))
                             break;
                     }
                     if (tb.inButtonScope("p")) {
@@ -338,7 +339,7 @@ enum HtmlTreeBuilderState {
                     }
                     tb.insert(startTag);
                     break;
-                case "html":
+                case Html:
                     tb.error(this);
                     // merge attributes onto real html
                     Element html = tb.getStack().get(0);
@@ -349,7 +350,7 @@ enum HtmlTreeBuilderState {
                         }
                     }
                     break;
-                case "body":
+                case Body:
                     tb.error(this);
                     stack = tb.getStack();
                     if (stack.size() == 1 || (stack.size() > 2 && !stack.get(1).normalName().equals("body"))) {
@@ -366,7 +367,7 @@ enum HtmlTreeBuilderState {
                         }
                     }
                     break;
-                case "frameset":
+                case Frameset:
                     tb.error(this);
                     stack = tb.getStack();
                     if (stack.size() == 1 || (stack.size() > 2 && !stack.get(1).normalName().equals("body"))) {
@@ -385,7 +386,7 @@ enum HtmlTreeBuilderState {
                         tb.transition(InFrameset);
                     }
                     break;
-                case "form":
+                case Form:
                     if (tb.getFormElement() != null) {
                         tb.error(this);
                         return false;
@@ -395,14 +396,14 @@ enum HtmlTreeBuilderState {
                     }
                     tb.insertForm(startTag, true);
                     break;
-                case "plaintext":
+                case Plaintext:
                     if (tb.inButtonScope("p")) {
                         tb.processEndTag("p");
                     }
                     tb.insert(startTag);
                     tb.tokeniser.transition(TokeniserState.PLAINTEXT); // once in, never gets out
                     break;
-                case "button":
+                case Button:
                     if (tb.inButtonScope("button")) {
                         // close and reprocess
                         tb.error(this);
@@ -414,7 +415,7 @@ enum HtmlTreeBuilderState {
                         tb.framesetOk(false);
                     }
                     break;
-                case "nobr":
+                case Nobr:
                     tb.reconstructFormattingElements();
                     if (tb.inScope("nobr")) {
                         tb.error(this);
@@ -424,7 +425,7 @@ enum HtmlTreeBuilderState {
                     el = tb.insert(startTag);
                     tb.pushActiveFormattingElements(el);
                     break;
-                case "table":
+                case Table:
                     if (tb.getDocument().quirksMode() != Document.QuirksMode.quirks && tb.inButtonScope("p")) {
                         tb.processEndTag("p");
                     }
@@ -432,26 +433,26 @@ enum HtmlTreeBuilderState {
                     tb.framesetOk(false);
                     tb.transition(InTable);
                     break;
-                case "input":
+                case Input:
                     tb.reconstructFormattingElements();
                     el = tb.insertEmpty(startTag);
                     if (!el.attr("type").equalsIgnoreCase("hidden"))
                         tb.framesetOk(false);
                     break;
-                case "hr":
+                case Hr:
                     if (tb.inButtonScope("p")) {
                         tb.processEndTag("p");
                     }
                     tb.insertEmpty(startTag);
                     tb.framesetOk(false);
                     break;
-                case "image":
+                case Image:
                     if (tb.getFromStack("svg") == null)
                         return tb.process(startTag.name("img")); // change <image> to <img>, unless in svg
                     else
                         tb.insert(startTag);
                     break;
-                case "isindex":
+                case Isindex:
                     // how much do we care about the early 90s?
                     tb.error(this);
                     if (tb.getFormElement() != null)
@@ -485,7 +486,7 @@ enum HtmlTreeBuilderState {
                     tb.processStartTag("hr");
                     tb.processEndTag("form");
                     break;
-                case "textarea":
+                case Textarea:
                     tb.insert(startTag);
                     if (!startTag.isSelfClosing()) {
                         tb.tokeniser.transition(TokeniserState.Rcdata);
@@ -494,7 +495,7 @@ enum HtmlTreeBuilderState {
                         tb.transition(Text);
                     }
                     break;
-                case "xmp":
+                case Xmp:
                     if (tb.inButtonScope("p")) {
                         tb.processEndTag("p");
                     }
@@ -502,15 +503,15 @@ enum HtmlTreeBuilderState {
                     tb.framesetOk(false);
                     handleRawtext(startTag, tb);
                     break;
-                case "iframe":
+                case Iframe:
                     tb.framesetOk(false);
                     handleRawtext(startTag, tb);
                     break;
-                case "noembed":
+                case Noembed:
                     // also handle noscript if script enabled
                     handleRawtext(startTag, tb);
                     break;
-                case "select":
+                case Select:
                     tb.reconstructFormattingElements();
                     tb.insert(startTag);
                     tb.framesetOk(false);
@@ -521,54 +522,54 @@ enum HtmlTreeBuilderState {
                     else
                         tb.transition(InSelect);
                     break;
-                case "math":
+                case Math:
                     tb.reconstructFormattingElements();
                     // todo: handle A start tag whose tag name is "math" (i.e. foreign, mathml)
                     tb.insert(startTag);
                     break;
-                case "svg":
+                case Svg:
                     tb.reconstructFormattingElements();
                     // todo: handle A start tag whose tag name is "svg" (xlink, svg)
                     tb.insert(startTag);
                     break;
                 // static final String[] Headings = new String[]{"h1", "h2", "h3", "h4", "h5", "h6"};
-                case "h1":
-                case "h2":
-                case "h3":
-                case "h4":
-                case "h5":
-                case "h6":
+                case H1:
+                case H2:
+                case H3:
+                case H4:
+                case H5:
+                case H6:
                     if (tb.inButtonScope("p")) {
                         tb.processEndTag("p");
                     }
-                    if (inSorted(tb.currentElement().normalName(), Constants.Headings)) {
+                    if (in(tb.currentElement().tag().id(), Headings)) {
                         tb.error(this);
                         tb.pop();
                     }
                     tb.insert(startTag);
                     break;
                 // static final String[] InBodyStartPreListing = new String[]{"listing", "pre"};
-                case "pre":
-                case "listing":
+                case Pre:
+                case Listing:
                     if (tb.inButtonScope("p")) {
                         tb.processEndTag("p");
                     }
                     tb.insert(startTag);
-                    tb.reader.matchConsume("\n"); // ignore LF if next token
+                    tb.skipNewline(); // ignore LF if next token
                     tb.framesetOk(false);
                     break;
                 // static final String[] DdDt = new String[]{"dd", "dt"};
-                case "dd":
-                case "dt":
+                case Dd:
+                case Dt:
                     tb.framesetOk(false);
                     stack = tb.getStack();
                     for (int i = stack.size() - 1; i > 0; i--) {
                         el = stack.get(i);
-                        if (inSorted(el.normalName(), Constants.DdDt)) {
+                        if (in(el.tag().id(), DdDt)) {
                             tb.processEndTag(el.normalName());
                             break;
                         }
-                        if (tb.isSpecial(el) && !inSorted(el.normalName(), Constants.InBodyStartLiBreakers))
+                        if (tb.isSpecial(el) && !in(el.tag().id(), InBodyStartLiBreakers))
                             break;
                     }
                     if (tb.inButtonScope("p")) {
@@ -577,16 +578,16 @@ enum HtmlTreeBuilderState {
                     tb.insert(startTag);
                     break;
                 // static final String[] InBodyStartOptions = new String[]{"optgroup", "option"};
-                case "optgroup":
-                case "option":
+                case Optgroup:
+                case Option:
                     if (tb.currentElement().normalName().equals("option"))
                         tb.processEndTag("option");
                     tb.reconstructFormattingElements();
                     tb.insert(startTag);
                     break;
                 // static final String[] InBodyStartRuby = new String[]{"rp", "rt"};
-                case "rp":
-                case "rt":
+                case Rp:
+                case Rt:
                     if (tb.inScope("ruby")) {
                         tb.generateImpliedEndTags();
                         if (!tb.currentElement().normalName().equals("ruby")) {
@@ -599,29 +600,29 @@ enum HtmlTreeBuilderState {
                     break;
                 default:
                     // todo - bring scan groups in if desired
-                    if (inSorted(name, Constants.InBodyStartEmptyFormatters)) {
+                    if (in(id, InBodyStartEmptyFormatters)) {
                         tb.reconstructFormattingElements();
                         tb.insertEmpty(startTag);
                         tb.framesetOk(false);
-                    } else if (inSorted(name, Constants.InBodyStartPClosers)) {
+                    } else if (in(id, InBodyStartPClosers)) {
                         if (tb.inButtonScope("p")) {
                             tb.processEndTag("p");
                         }
                         tb.insert(startTag);
-                    } else if (inSorted(name, Constants.InBodyStartToHead)) {
+                    } else if (in(id, InBodyStartToHead)) {
                         return tb.process(t, InHead);
-                    } else if (inSorted(name, Constants.Formatters)) {
+                    } else if (in(id, Formatters)) {
                         tb.reconstructFormattingElements();
                         el = tb.insert(startTag);
                         tb.pushActiveFormattingElements(el);
-                    } else if (inSorted(name, Constants.InBodyStartApplets)) {
+                    } else if (in(id, InBodyStartApplets)) {
                         tb.reconstructFormattingElements();
                         tb.insert(startTag);
                         tb.insertMarkerToFormattingElements();
                         tb.framesetOk(false);
-                    } else if (inSorted(name, Constants.InBodyStartMedia)) {
+                    } else if (in(id, InBodyStartMedia)) {
                         tb.insertEmpty(startTag);
-                    } else if (inSorted(name, Constants.InBodyStartDrop)) {
+                    } else if (in(id, InBodyStartDrop)) {
                         tb.error(this);
                         return false;
                     } else {
@@ -635,13 +636,14 @@ enum HtmlTreeBuilderState {
         private boolean inBodyEndTag(Token t, HtmlTreeBuilder tb) {
             final Token.EndTag endTag = t.asEndTag();
             final String name = endTag.normalName();
+            final int id = endTag.id();
 
-            switch (name) {
-                case "sarcasm": // *sigh*
-                case "span":
+            switch (id) {
+                case Sarcasm: // *sigh*
+                case Span:
                     // same as final fall through, but saves short circuit
                     return anyOtherEndTag(t, tb);
-                case "li":
+                case Li:
                     if (!tb.inListItemScope(name)) {
                         tb.error(this);
                         return false;
@@ -652,7 +654,7 @@ enum HtmlTreeBuilderState {
                         tb.popStackToClose(name);
                     }
                     break;
-                case "body":
+                case Body:
                     if (!tb.inScope("body")) {
                         tb.error(this);
                         return false;
@@ -661,12 +663,12 @@ enum HtmlTreeBuilderState {
                         tb.transition(AfterBody);
                     }
                     break;
-                case "html":
+                case Html:
                     boolean notIgnored = tb.processEndTag("body");
                     if (notIgnored)
                         return tb.process(endTag);
                     break;
-                case "form":
+                case Form:
                     Element currentForm = tb.getFormElement();
                     tb.setFormElement(null);
                     if (currentForm == null || !tb.inScope(name)) {
@@ -680,7 +682,7 @@ enum HtmlTreeBuilderState {
                         tb.removeFromStack(currentForm);
                     }
                     break;
-                case "p":
+                case P:
                     if (!tb.inButtonScope(name)) {
                         tb.error(this);
                         tb.processStartTag(name); // if no p to close, creates an empty <p></p>
@@ -692,8 +694,8 @@ enum HtmlTreeBuilderState {
                         tb.popStackToClose(name);
                     }
                     break;
-                case "dd":
-                case "dt":
+                case Dd:
+                case Dt:
                     if (!tb.inScope(name)) {
                         tb.error(this);
                         return false;
@@ -704,31 +706,31 @@ enum HtmlTreeBuilderState {
                         tb.popStackToClose(name);
                     }
                     break;
-                case "h1":
-                case "h2":
-                case "h3":
-                case "h4":
-                case "h5":
-                case "h6":
-                    if (!tb.inScope(Constants.Headings)) {
+                case H1:
+                case H2:
+                case H3:
+                case H4:
+                case H5:
+                case H6:
+                    if (!tb.inScope(HeadingNames)) {
                         tb.error(this);
                         return false;
                     } else {
                         tb.generateImpliedEndTags(name);
                         if (!tb.currentElement().normalName().equals(name))
                             tb.error(this);
-                        tb.popStackToClose(Constants.Headings);
+                        tb.popStackToClose(HeadingNames);
                     }
                     break;
-                case "br":
+                case Br:
                     tb.error(this);
                     tb.processStartTag("br");
                     return false;
                 default:
                     // todo - move rest to switch if desired
-                    if (inSorted(name, Constants.InBodyEndAdoptionFormatters)) {
+                    if (in(id, InBodyEndAdoptionFormatters)) {
                         return inBodyEndTagAdoption(t, tb);
-                    } else if (inSorted(name, Constants.InBodyEndClosers)) {
+                    } else if (in(id, InBodyEndClosers)) {
                         if (!tb.inScope(name)) {
                             // nothing to close
                             tb.error(this);
@@ -739,7 +741,7 @@ enum HtmlTreeBuilderState {
                                 tb.error(this);
                             tb.popStackToClose(name);
                         }
-                    } else if (inSorted(name, Constants.InBodyStartApplets)) {
+                    } else if (in(id, InBodyStartApplets)) {
                         if (!tb.inScope("name")) {
                             if (!tb.inScope(name)) {
                                 tb.error(this);
@@ -853,7 +855,7 @@ enum HtmlTreeBuilderState {
                     lastNode = node;
                 }
 
-                if (inSorted(commonAncestor.normalName(), Constants.InBodyEndTableFosters)) {
+                if (in(commonAncestor.tag().id(), InBodyEndTableFosters)) {
                     if (lastNode.parent() != null)
                         lastNode.remove();
                     tb.insertInFosterParent(lastNode);
@@ -912,40 +914,40 @@ enum HtmlTreeBuilderState {
                 return false;
             } else if (t.isStartTag()) {
                 Token.StartTag startTag = t.asStartTag();
-                String name = startTag.normalName();
-                if (name.equals("caption")) {
+                int id = startTag.id();
+                if (id == Caption) {
                     tb.clearStackToTableContext();
                     tb.insertMarkerToFormattingElements();
                     tb.insert(startTag);
                     tb.transition(InCaption);
-                } else if (name.equals("colgroup")) {
+                } else if (id == Colgroup) {
                     tb.clearStackToTableContext();
                     tb.insert(startTag);
                     tb.transition(InColumnGroup);
-                } else if (name.equals("col")) {
+                } else if (id == Col) {
                     tb.processStartTag("colgroup");
                     return tb.process(t);
-                } else if (inSorted(name, InTableToBody)) {
+                } else if (in(id, InTableToBody)) {
                     tb.clearStackToTableContext();
                     tb.insert(startTag);
                     tb.transition(InTableBody);
-                } else if (inSorted(name, InTableAddBody)) {
+                } else if (in(id, InTableAddBody)) {
                     tb.processStartTag("tbody");
                     return tb.process(t);
-                } else if (name.equals("table")) {
+                } else if (id == Table) {
                     tb.error(this);
                     boolean processed = tb.processEndTag("table");
                     if (processed) // only ignored if in fragment
                         return tb.process(t);
-                } else if (inSorted(name, InTableToHead)) {
+                } else if (in(id, InTableToHead)) {
                     return tb.process(t, InHead);
-                } else if (name.equals("input")) {
+                } else if (id == Input) {
                     if (!(startTag.hasAttributes() && startTag.attributes.get("type").equalsIgnoreCase("hidden"))) {
                         return anythingElse(t, tb);
                     } else {
                         tb.insertEmpty(startTag);
                     }
-                } else if (name.equals("form")) {
+                } else if (id == Form) {
                     tb.error(this);
                     if (tb.getFormElement() != null)
                         return false;
@@ -959,8 +961,9 @@ enum HtmlTreeBuilderState {
             } else if (t.isEndTag()) {
                 Token.EndTag endTag = t.asEndTag();
                 String name = endTag.normalName();
+                int id = endTag.id();
 
-                if (name.equals("table")) {
+                if (id == Table) {
                     if (!tb.inTableScope(name)) {
                         tb.error(this);
                         return false;
@@ -968,7 +971,7 @@ enum HtmlTreeBuilderState {
                         tb.popStackToClose("table");
                     }
                     tb.resetInsertionMode();
-                } else if (inSorted(name, InTableEndErr)) {
+                } else if (in(id, InTableEndErr)) {
                     tb.error(this);
                     return false;
                 } else {
@@ -986,7 +989,7 @@ enum HtmlTreeBuilderState {
         boolean anythingElse(Token t, HtmlTreeBuilder tb) {
             tb.error(this);
             boolean processed;
-            if (inSorted(tb.currentElement().normalName(), InTableFoster)) {
+            if (in(tb.currentElement().tag().id(), InTableFoster)) {
                 tb.setFosterInserts(true);
                 processed = tb.process(t, InBody);
                 tb.setFosterInserts(false);
@@ -1012,7 +1015,7 @@ enum HtmlTreeBuilderState {
                         if (!isWhitespace(character)) {
                             // InTable anything else section:
                             tb.error(this);
-                            if (inSorted(tb.currentElement().normalName(), InTableFoster)) {
+                            if (in(tb.currentElement().tag().id(), InTableFoster)) {
                                 tb.setFosterInserts(true);
                                 tb.process(new Token.Character().data(character), InBody);
                                 tb.setFosterInserts(false);
@@ -1032,7 +1035,7 @@ enum HtmlTreeBuilderState {
     },
     InCaption {
         boolean process(Token t, HtmlTreeBuilder tb) {
-            if (t.isEndTag() && t.asEndTag().normalName().equals("caption")) {
+            if (t.isEndTag() && t.asEndTag().id() == Caption) {
                 Token.EndTag endTag = t.asEndTag();
                 String name = endTag.normalName();
                 if (!tb.inTableScope(name)) {
@@ -1047,14 +1050,14 @@ enum HtmlTreeBuilderState {
                     tb.transition(InTable);
                 }
             } else if ((
-                    t.isStartTag() && inSorted(t.asStartTag().normalName(), InCellCol) ||
-                            t.isEndTag() && t.asEndTag().normalName().equals("table"))
+                    t.isStartTag() && in(t.asStartTag().id(), InCellCol) ||
+                            t.isEndTag() && t.asEndTag().id() == Table)
                     ) {
                 tb.error(this);
                 boolean processed = tb.processEndTag("caption");
                 if (processed)
                     return tb.process(t);
-            } else if (t.isEndTag() && inSorted(t.asEndTag().normalName(), InCaptionIgnore)) {
+            } else if (t.isEndTag() && in(t.asEndTag().id(), InCaptionIgnore)) {
                 tb.error(this);
                 return false;
             } else {
@@ -1078,10 +1081,10 @@ enum HtmlTreeBuilderState {
                     break;
                 case StartTag:
                     Token.StartTag startTag = t.asStartTag();
-                    switch (startTag.normalName()) {
-                        case "html":
+                    switch (startTag.id()) {
+                        case Html:
                             return tb.process(t, InBody);
-                        case "col":
+                        case Col:
                             tb.insertEmpty(startTag);
                             break;
                         default:
@@ -1090,7 +1093,7 @@ enum HtmlTreeBuilderState {
                     break;
                 case EndTag:
                     Token.EndTag endTag = t.asEndTag();
-                    if (endTag.normalName.equals("colgroup")) {
+                    if (endTag.id() == Colgroup) {
                         if (tb.currentElement().normalName().equals("html")) { // frag case
                             tb.error(this);
                             return false;
@@ -1124,26 +1127,27 @@ enum HtmlTreeBuilderState {
             switch (t.type) {
                 case StartTag:
                     Token.StartTag startTag = t.asStartTag();
-                    String name = startTag.normalName();
-                    if (name.equals("template")) {
+                    int id = startTag.id();
+                    if (id == Template) {
                         tb.insert(startTag);
-                    } else if (name.equals("tr")) {
+                    } else if (id == Tr) {
                         tb.clearStackToTableBodyContext();
                         tb.insert(startTag);
                         tb.transition(InRow);
-                    } else if (inSorted(name, InCellNames)) {
+                    } else if (in(id, InCellNames)) {
                         tb.error(this);
                         tb.processStartTag("tr");
                         return tb.process(startTag);
-                    } else if (inSorted(name, InTableBodyExit)) {
+                    } else if (in(id, InTableBodyExit)) {
                         return exitTableBody(t, tb);
                     } else
                         return anythingElse(t, tb);
                     break;
                 case EndTag:
                     Token.EndTag endTag = t.asEndTag();
-                    name = endTag.normalName();
-                    if (inSorted(name, InTableEndIgnore)) {
+                    String name = endTag.normalName();
+                    id = endTag.id();
+                    if (in(id, InTableEndIgnore)) {
                         if (!tb.inTableScope(name)) {
                             tb.error(this);
                             return false;
@@ -1152,9 +1156,9 @@ enum HtmlTreeBuilderState {
                             tb.pop();
                             tb.transition(InTable);
                         }
-                    } else if (name.equals("table")) {
+                    } else if (id == Table) {
                         return exitTableBody(t, tb);
-                    } else if (inSorted(name, InTableBodyEndIgnore)) {
+                    } else if (in(id, InTableBodyEndIgnore)) {
                         tb.error(this);
                         return false;
                     } else
@@ -1185,16 +1189,16 @@ enum HtmlTreeBuilderState {
         boolean process(Token t, HtmlTreeBuilder tb) {
             if (t.isStartTag()) {
                 Token.StartTag startTag = t.asStartTag();
-                String name = startTag.normalName();
+                int id = startTag.id();
 
-                if (name.equals("template")) {
+                if (id == Template) {
                     tb.insert(startTag);
-                } else if (inSorted(name, InCellNames)) {
+                } else if (in(id, InCellNames)) {
                     tb.clearStackToTableRowContext();
                     tb.insert(startTag);
                     tb.transition(InCell);
                     tb.insertMarkerToFormattingElements();
-                } else if (inSorted(name, InRowMissing)) {
+                } else if (in(id, InRowMissing)) {
                     return handleMissingTr(t, tb);
                 } else {
                     return anythingElse(t, tb);
@@ -1202,8 +1206,9 @@ enum HtmlTreeBuilderState {
             } else if (t.isEndTag()) {
                 Token.EndTag endTag = t.asEndTag();
                 String name = endTag.normalName();
+                int id = endTag.id();
 
-                if (name.equals("tr")) {
+                if (id == Tr) {
                     if (!tb.inTableScope(name)) {
                         tb.error(this); // frag
                         return false;
@@ -1211,16 +1216,16 @@ enum HtmlTreeBuilderState {
                     tb.clearStackToTableRowContext();
                     tb.pop(); // tr
                     tb.transition(InTableBody);
-                } else if (name.equals("table")) {
+                } else if (id == Table) {
                     return handleMissingTr(t, tb);
-                } else if (inSorted(name, InTableToBody)) {
+                } else if (in(id, InTableToBody)) {
                     if (!tb.inTableScope(name)) {
                         tb.error(this);
                         return false;
                     }
                     tb.processEndTag("tr");
                     return tb.process(t);
-                } else if (inSorted(name, InRowIgnore)) {
+                } else if (in(id, InRowIgnore)) {
                     tb.error(this);
                     return false;
                 } else {
@@ -1249,8 +1254,9 @@ enum HtmlTreeBuilderState {
             if (t.isEndTag()) {
                 Token.EndTag endTag = t.asEndTag();
                 String name = endTag.normalName();
+                int id = endTag.id();
 
-                if (inSorted(name, Constants.InCellNames)) {
+                if (in(id, InCellNames)) {
                     if (!tb.inTableScope(name)) {
                         tb.error(this);
                         tb.transition(InRow); // might not be in scope if empty: <td /> and processing fake end tag
@@ -1262,10 +1268,10 @@ enum HtmlTreeBuilderState {
                     tb.popStackToClose(name);
                     tb.clearFormattingElementsToLastMarker();
                     tb.transition(InRow);
-                } else if (inSorted(name, Constants.InCellBody)) {
+                } else if (in(id, InCellBody)) {
                     tb.error(this);
                     return false;
-                } else if (inSorted(name, Constants.InCellTable)) {
+                } else if (in(id, InCellTable)) {
                     if (!tb.inTableScope(name)) {
                         tb.error(this);
                         return false;
@@ -1276,7 +1282,7 @@ enum HtmlTreeBuilderState {
                     return anythingElse(t, tb);
                 }
             } else if (t.isStartTag() &&
-                    inSorted(t.asStartTag().normalName(), Constants.InCellCol)) {
+                    in(t.asStartTag().id(), InCellCol)) {
                 if (!(tb.inTableScope("td") || tb.inTableScope("th"))) {
                     tb.error(this);
                     return false;
@@ -1320,29 +1326,29 @@ enum HtmlTreeBuilderState {
                     return false;
                 case StartTag:
                     Token.StartTag start = t.asStartTag();
-                    String name = start.normalName();
-                    if (name.equals("html"))
+                    int id = start.id();
+                    if (id == Html)
                         return tb.process(start, InBody);
-                    else if (name.equals("option")) {
+                    else if (id == Option) {
                         if (tb.currentElement().normalName().equals("option"))
                             tb.processEndTag("option");
                         tb.insert(start);
-                    } else if (name.equals("optgroup")) {
+                    } else if (id == Optgroup) {
                         if (tb.currentElement().normalName().equals("option"))
                             tb.processEndTag("option"); // pop option and flow to pop optgroup
                         if (tb.currentElement().normalName().equals("optgroup"))
                             tb.processEndTag("optgroup");
                         tb.insert(start);
-                    } else if (name.equals("select")) {
+                    } else if (id == Select) {
                         tb.error(this);
                         return tb.processEndTag("select");
-                    } else if (inSorted(name, InSelectEnd)) {
+                    } else if (in(id, InSelectEnd)) {
                         tb.error(this);
                         if (!tb.inSelectScope("select"))
                             return false; // frag
                         tb.processEndTag("select");
                         return tb.process(start);
-                    } else if (name.equals("script")) {
+                    } else if (id == Script) {
                         return tb.process(t, InHead);
                     } else {
                         return anythingElse(t, tb);
@@ -1350,9 +1356,10 @@ enum HtmlTreeBuilderState {
                     break;
                 case EndTag:
                     Token.EndTag end = t.asEndTag();
-                    name = end.normalName();
-                    switch (name) {
-                        case "optgroup":
+                    String name = end.normalName();
+                    id = end.id();
+                    switch (id) {
+                        case Optgroup:
                             if (tb.currentElement().normalName().equals("option") && tb.aboveOnStack(tb.currentElement()) != null && tb.aboveOnStack(tb.currentElement()).normalName().equals("optgroup"))
                                 tb.processEndTag("option");
                             if (tb.currentElement().normalName().equals("optgroup"))
@@ -1360,13 +1367,13 @@ enum HtmlTreeBuilderState {
                             else
                                 tb.error(this);
                             break;
-                        case "option":
+                        case Option:
                             if (tb.currentElement().normalName().equals("option"))
                                 tb.pop();
                             else
                                 tb.error(this);
                             break;
-                        case "select":
+                        case Select:
                             if (!tb.inSelectScope(name)) {
                                 tb.error(this);
                                 return false;
@@ -1396,11 +1403,11 @@ enum HtmlTreeBuilderState {
     },
     InSelectInTable {
         boolean process(Token t, HtmlTreeBuilder tb) {
-            if (t.isStartTag() && inSorted(t.asStartTag().normalName(), InSelecTableEnd)) {
+            if (t.isStartTag() && in(t.asStartTag().id(), InSelecTableEnd)) {
                 tb.error(this);
                 tb.processEndTag("select");
                 return tb.process(t);
-            } else if (t.isEndTag() && inSorted(t.asEndTag().normalName(),InSelecTableEnd )) {
+            } else if (t.isEndTag() && in(t.asEndTag().id(), InSelecTableEnd)) {
                 tb.error(this);
                 if (tb.inTableScope(t.asEndTag().normalName())) {
                     tb.processEndTag("select");
@@ -1421,9 +1428,9 @@ enum HtmlTreeBuilderState {
             } else if (t.isDoctype()) {
                 tb.error(this);
                 return false;
-            } else if (t.isStartTag() && t.asStartTag().normalName().equals("html")) {
+            } else if (t.isStartTag() && t.asStartTag().id() == Html) {
                 return tb.process(t, InBody);
-            } else if (t.isEndTag() && t.asEndTag().normalName().equals("html")) {
+            } else if (t.isEndTag() && t.asEndTag().id() == Html) {
                 if (tb.isFragmentParsing()) {
                     tb.error(this);
                     return false;
@@ -1451,22 +1458,22 @@ enum HtmlTreeBuilderState {
                 return false;
             } else if (t.isStartTag()) {
                 Token.StartTag start = t.asStartTag();
-                switch (start.normalName()) {
-                    case "html":
+                switch (start.id()) {
+                    case Html:
                         return tb.process(start, InBody);
-                    case "frameset":
+                    case Frameset:
                         tb.insert(start);
                         break;
-                    case "frame":
+                    case Frame:
                         tb.insertEmpty(start);
                         break;
-                    case "noframes":
+                    case Noframes:
                         return tb.process(start, InHead);
                     default:
                         tb.error(this);
                         return false;
                 }
-            } else if (t.isEndTag() && t.asEndTag().normalName().equals("frameset")) {
+            } else if (t.isEndTag() && t.asEndTag().id() == Frameset) {
                 if (tb.currentElement().normalName().equals("html")) { // frag
                     tb.error(this);
                     return false;
@@ -1497,11 +1504,11 @@ enum HtmlTreeBuilderState {
             } else if (t.isDoctype()) {
                 tb.error(this);
                 return false;
-            } else if (t.isStartTag() && t.asStartTag().normalName().equals("html")) {
+            } else if (t.isStartTag() && t.asStartTag().id() == Html) {
                 return tb.process(t, InBody);
-            } else if (t.isEndTag() && t.asEndTag().normalName().equals("html")) {
+            } else if (t.isEndTag() && t.asEndTag().id() == Html) {
                 tb.transition(AfterAfterFrameset);
-            } else if (t.isStartTag() && t.asStartTag().normalName().equals("noframes")) {
+            } else if (t.isStartTag() && t.asStartTag().id() == Noframes) {
                 return tb.process(t, InHead);
             } else if (t.isEOF()) {
                 // cool your heels, we're complete
@@ -1516,7 +1523,7 @@ enum HtmlTreeBuilderState {
         boolean process(Token t, HtmlTreeBuilder tb) {
             if (t.isComment()) {
                 tb.insert(t.asComment());
-            } else if (t.isDoctype() || (t.isStartTag() && t.asStartTag().normalName().equals("html"))) {
+            } else if (t.isDoctype() || (t.isStartTag() && t.asStartTag().id() == Html)) {
                 return tb.process(t, InBody);
             } else if (isWhitespace(t)) {
                 // allows space after </html>, and put the body back on stack to allow subsequent tags if any
@@ -1540,11 +1547,11 @@ enum HtmlTreeBuilderState {
         boolean process(Token t, HtmlTreeBuilder tb) {
             if (t.isComment()) {
                 tb.insert(t.asComment());
-            } else if (t.isDoctype() || isWhitespace(t) || (t.isStartTag() && t.asStartTag().normalName().equals("html"))) {
+            } else if (t.isDoctype() || isWhitespace(t) || (t.isStartTag() && t.asStartTag().id() == Html)) {
                 return tb.process(t, InBody);
             } else if (t.isEOF()) {
                 // nice work chuck
-            } else if (t.isStartTag() && t.asStartTag().normalName().equals("noframes")) {
+            } else if (t.isStartTag() && t.asStartTag().id() == Noframes) {
                 return tb.process(t, InHead);
             } else {
                 tb.error(this);
@@ -1590,49 +1597,50 @@ enum HtmlTreeBuilderState {
         tb.insert(startTag);
     }
 
-    // lists of tags to search through
+    // sets of tags to test, as masks of TagId sets; and the names of the headings, to search the stack for
     static final class Constants {
-        static final String[] InHeadEmpty = new String[]{"base", "basefont", "bgsound", "command", "link"};
-        static final String[] InHeadRaw = new String[]{"noframes", "style"};
-        static final String[] InHeadEnd = new String[]{"body", "br", "html"};
-        static final String[] AfterHeadBody = new String[]{"body", "html"};
-        static final String[] BeforeHtmlToHead = new String[]{"body", "br", "head", "html", };
-        static final String[] InHeadNoScriptHead = new String[]{"basefont", "bgsound", "link", "meta", "noframes", "style"};
-        static final String[] InBodyStartToHead = new String[]{"base", "basefont", "bgsound", "command", "link", "meta", "noframes", "script", "style", "title"};
-        static final String[] InBodyStartPClosers = new String[]{"address", "article", "aside", "blockquote", "center", "details", "dir", "div", "dl",
+        static final long InHeadEmpty = set("base", "basefont", "bgsound", "command", "link");
+        static final long InHeadRaw = set("noframes", "style");
+        static final long InHeadEnd = set("body", "br", "html");
+        static final long AfterHeadBody = set("body", "html");
+        static final long BeforeHtmlToHead = set("body", "br", "head", "html");
+        static final long InHeadNoScriptHead = set("basefont", "bgsound", "link", "meta", "noframes", "style");
+        static final long InBodyStartToHead = set("base", "basefont", "bgsound", "command", "link", "meta", "noframes", "script", "style", "title");
+        static final long InBodyStartPClosers = set("address", "article", "aside", "blockquote", "center", "details", "dir", "div", "dl",
             "fieldset", "figcaption", "figure", "footer", "header", "hgroup", "menu", "nav", "ol",
-            "p", "section", "summary", "ul"};
-        static final String[] Headings = new String[]{"h1", "h2", "h3", "h4", "h5", "h6"};
-        static final String[] InBodyStartLiBreakers = new String[]{"address", "div", "p"};
-        static final String[] DdDt = new String[]{"dd", "dt"};
-        static final String[] Formatters = new String[]{"b", "big", "code", "em", "font", "i", "s", "small", "strike", "strong", "tt", "u"};
-        static final String[] InBodyStartApplets = new String[]{"applet", "marquee", "object"};
-        static final String[] InBodyStartEmptyFormatters = new String[]{"area", "br", "embed", "img", "keygen", "wbr"};
-        static final String[] InBodyStartMedia = new String[]{"param", "source", "track"};
+            "p", "section", "summary", "ul");
+        static final String[] HeadingNames = new String[]{"h1", "h2", "h3", "h4", "h5", "h6"};
+        static final long Headings = set(HeadingNames);
+        static final long InBodyStartLiBreakers = set("address", "div", "p");
+        static final long DdDt = set("dd", "dt");
+        static final long Formatters = set("b", "big", "code", "em", "font", "i", "s", "small", "strike", "strong", "tt", "u");
+        static final long InBodyStartApplets = set("applet", "marquee", "object");
+        static final long InBodyStartEmptyFormatters = set("area", "br", "embed", "img", "keygen", "wbr");
+        static final long InBodyStartMedia = set("param", "source", "track");
         static final String[] InBodyStartInputAttribs = new String[]{"action", "name", "prompt"};
-        static final String[] InBodyStartDrop = new String[]{"caption", "col", "colgroup", "frame", "head", "tbody", "td", "tfoot", "th", "thead", "tr"};
-        static final String[] InBodyEndClosers = new String[]{"address", "article", "aside", "blockquote", "button", "center", "details", "dir", "div",
+        static final long InBodyStartDrop = set("caption", "col", "colgroup", "frame", "head", "tbody", "td", "tfoot", "th", "thead", "tr");
+        static final long InBodyEndClosers = set("address", "article", "aside", "blockquote", "button", "center", "details", "dir", "div",
             "dl", "fieldset", "figcaption", "figure", "footer", "header", "hgroup", "listing", "menu",
-            "nav", "ol", "pre", "section", "summary", "ul"};
-        static final String[] InBodyEndAdoptionFormatters = new String[]{"a", "b", "big", "code", "em", "font", "i", "nobr", "s", "small", "strike", "strong", "tt", "u"};
-        static final String[] InBodyEndTableFosters = new String[]{"table", "tbody", "tfoot", "thead", "tr"};
-        static final String[] InTableToBody = new String[]{"tbody", "tfoot", "thead"};
-        static final String[] InTableAddBody = new String[]{"td", "th", "tr"};
-        static final String[] InTableToHead = new String[]{"script", "style"};
-        static final String[] InCellNames = new String[]{"td", "th"};
-        static final String[] InCellBody = new String[]{"body", "caption", "col", "colgroup", "html"};
-        static final String[] InCellTable = new String[]{ "table", "tbody", "tfoot", "thead", "tr"};
-        static final String[] InCellCol = new String[]{"caption", "col", "colgroup", "tbody", "td", "tfoot", "th", "thead", "tr"};
-        static final String[] InTableEndErr = new String[]{"body", "caption", "col", "colgroup", "html", "tbody", "td", "tfoot", "th", "thead", "tr"};
-        static final String[] InTableFoster = new String[]{"table", "tbody", "tfoot", "thead", "tr"};
-        static final String[] InTableBodyExit = new String[]{"caption", "col", "colgroup", "tbody", "tfoot", "thead"};
-        static final String[] InTableBodyEndIgnore = new String[]{"body", "caption", "col", "colgroup", "html", "td", "th", "tr"};
-        static final String[] InRowMissing = new String[]{"caption", "col", "colgroup", "tbody", "tfoot", "thead", "tr"};
-        static final String[] InRowIgnore = new String[]{"body", "caption", "col", "colgroup", "html", "td", "th"};
-        static final String[] InSelectEnd = new String[]{"input", "keygen", "textarea"};
-        static final String[] InSelecTableEnd = new String[]{"caption", "table", "tbody", "td", "tfoot", "th", "thead", "tr"};
-        static final String[] InTableEndIgnore = new String[]{"tbody", "tfoot", "thead"};
-        static final String[] InHeadNoscriptIgnore = new String[]{"head", "noscript"};
-        static final String[] InCaptionIgnore = new String[]{"body", "col", "colgroup", "html", "tbody", "td", "tfoot", "th", "thead", "tr"};
+            "nav", "ol", "pre", "section", "summary", "ul");
+        static final long InBodyEndAdoptionFormatters = set("a", "b", "big", "code", "em", "font", "i", "nobr", "s", "small", "strike", "strong", "tt", "u");
+        static final long InBodyEndTableFosters = set("table", "tbody", "tfoot", "thead", "tr");
+        static final long InTableToBody = set("tbody", "tfoot", "thead");
+        static final long InTableAddBody = set("td", "th", "tr");
+        static final long InTableToHead = set("script", "style");
+        static final long InCellNames = set("td", "th");
+        static final long InCellBody = set("body", "caption", "col", "colgroup", "html");
+        static final long InCellTable = set("table", "tbody", "tfoot", "thead", "tr");
+        static final long InCellCol = set("caption", "col", "colgroup", "tbody", "td", "tfoot", "th", "thead", "tr");
+        static final long InTableEndErr = set("body", "caption", "col", "colgroup", "html", "tbody", "td", "tfoot", "th", "thead", "tr");
+        static final long InTableFoster = set("table", "tbody", "tfoot", "thead", "tr");
+        static final long InTableBodyExit = set("caption", "col", "colgroup", "tbody", "tfoot", "thead");
+        static final long InTableBodyEndIgnore = set("body", "caption", "col", "colgroup", "html", "td", "th", "tr");
+        static final long InRowMissing = set("caption", "col", "colgroup", "tbody", "tfoot", "thead", "tr");
+        static final long InRowIgnore = set("body", "caption", "col", "colgroup", "html", "td", "th");
+        static final long InSelectEnd = set("input", "keygen", "textarea");
+        static final long InSelecTableEnd = set("caption", "table", "tbody", "td", "tfoot", "th", "thead", "tr");
+        static final long InTableEndIgnore = set("tbody", "tfoot", "thead");
+        static final long InHeadNoscriptIgnore = set("head", "noscript");
+        static final long InCaptionIgnore = set("body", "col", "colgroup", "html", "tbody", "td", "tfoot", "th", "thead", "tr");
     }
 }
@@ -0,0 +1,165 @@
+package org.jsoup.parser;
+
+import org.jsoup.helper.DataUtil;
+import org.jsoup.helper.Validate;
+import org.jsoup.nodes.Document;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ A push based parser, that is fed input in chunks as it becomes available (e.g. as bytes arrive from a non-blocking
+ network channel), rather than pulling input from a blocking {@link java.io.Reader}. Each {@code feed} call parses as
+ much of the input as can be definitely processed, and returns without waiting for more. Call {@link #finish()} once all
+ input has been supplied, to complete the parse and retrieve the document.
+ <p>The resulting document is the same as if the full input was parsed in one go with {@link
+ Parser#parseInput(String, String)}.</p>
+ <p>Usage example:</p>
+ <pre>{@code
+ IncrementalParser parser = Parser.htmlParser().newIncremental("https://example.com/");
+ while (...) parser.feed(chunk); // as each chunk arrives
+ Document doc = parser.finish();
+ }</pre>
+ <p>An IncrementalParser is not thread-safe; but it may be fed from different threads, as long as calls are not
+ concurrent (e.g. from an event loop).</p>
+ */
+public class IncrementalParser {
+    private final TreeBuilder treeBuilder;
+    private final StringBuilder pending = new StringBuilder(); // input received but not yet processed into the tree
+    private int pendingPos = 0; // the position in the input of the start of pending
+    private int minParseLen = 0; // don't re-attempt a stalled parse until pending is at least this long (amortizes long tokens)
+    private Charset charset = DataUtil.UTF_8;
+    private CharsetDecoder decoder; // created on first byte feed
+    private ByteBuffer undecoded; // trailing bytes of the last byte feed, that did not complete a character
+    private boolean finished = false;
+
+    IncrementalParser(Parser parser, String baseUri) {
+        Validate.notNull(baseUri);
+        this.treeBuilder = parser.getTreeBuilder();
+        treeBuilder.initialiseParse(new StringReader(""), baseUri, parser);
+    }
+
+    /**
+     Set the charset to decode byte input with, in {@link #feed(ByteBuffer)}. Defaults to UTF-8. Must be set before
+     any bytes are fed. (Unlike {@link org.jsoup.Jsoup#parse(java.io.InputStream, String, String)}, the charset is not
+     detected from the content's {@code meta} tags.)
+     @param charset the input charset
+     @return this parser, for chaining
+     */
+    public IncrementalParser charset(Charset charset) {
+        Validate.notNull(charset);
+        Validate.isTrue(decoder == null, "Charset must be set before bytes are fed");
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     Feed a chunk of characters to the parser, and parse as much of the input as is available.
+     @param chars characters to parse
+     @param offset the offset of the first char to read from the array
+     @param len the number of chars to read
+     @return this parser, for chaining
+     */
+    public IncrementalParser feed(char[] chars, int offset, int len) {
+        Validate.isFalse(finished, "Parse has already finished");
+        pending.append(chars, offset, len);
+        parsePending();
+        return this;
+    }
+
+    /**
+     Feed a chunk of characters to the parser, and parse as much of the input as is available. A {@link CharBuffer}
+     may be supplied; its remaining chars are read, and its position is not modified.
+     @param chars characters to parse
+     @return this parser, for chaining
+     */
+    public IncrementalParser feed(CharSequence chars) {
+        Validate.isFalse(finished, "Parse has already finished");
+        pending.append(chars);
+        parsePending();
+        return this;
+    }
+
+    /**
+     Feed a chunk of bytes to the parser, decoding them with the {@link #charset(Charset)}, and parse as much of the
+     input as is available. Multi-byte characters may be split across chunks. The buffer's remaining bytes are read,
+     and its position is advanced to its limit.
+     @param bytes bytes to parse
+     @return this parser, for chaining
+     */
+    public IncrementalParser feed(ByteBuffer bytes) {
+        Validate.isFalse(finished, "Parse has already finished");
+        decode(bytes, false);
+        parsePending();
+        return this;
+    }
+
+    /**
+     Get the document being parsed. Until the parse is finished, the document will only contain content up to
+     (approximately) the last input that has been fed, and may be modified by later feeds.
+     @return the document
+     */
+    public Document document() {
+        return treeBuilder.doc;
+    }
+
+    /**
+     Complete the parse, processing all remaining input through to the end of file.
+     @return the parsed document
+     */
+    public Document finish() {
+        Validate.isFalse(finished, "Parse has already finished");
+        if (decoder != null)
+            decode(ByteBuffer.allocate(0), true);
+        finished = true;
+        CharacterReader reader = new CharacterReader(pending.toString(), pendingPos);
+        treeBuilder.runParser(reader, pendingPos + pending.length(), true);
+        pending.setLength(0);
+        return treeBuilder.completeParse();
+    }
+
+    private void parsePending() {
+        int len = pending.length();
+        if (len < minParseLen)
+            return;
+
+        CharacterReader reader = new CharacterReader(pending.toString(), pendingPos);
+        int processedPos = treeBuilder.runParser(reader, pendingPos + len, false);
+        pending.delete(0, processedPos - pendingPos);
+        pendingPos = processedPos;
+
+        // if the remaining input was not parsed because it holds an incomplete long token, wait for it to double in
+        // size before trying again, vs re-reading it on every feed
+        minParseLen = Math.max(CharacterReader.minReadAheadLen, pending.length()) * 2;
+    }
+
+    private void decode(ByteBuffer bytes, boolean endOfInput) {
+        if (decoder == null)
+            decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        ByteBuffer in = bytes;
+        if (undecoded != null) { // prepend the partial character from the last feed
+            in = ByteBuffer.allocate(undecoded.remaining() + bytes.remaining());
+            in.put(undecoded).put(bytes).flip();
+            undecoded = null;
+        }
+
+        CharBuffer out = CharBuffer.allocate((int) (in.remaining() * (double) decoder.maxCharsPerByte()) + 1);
+        decoder.decode(in, out, endOfInput);
+        if (endOfInput)
+            decoder.flush(out);
+        out.flip();
+        pending.append(out);
+
+        if (in.hasRemaining()) {
+            undecoded = ByteBuffer.allocate(in.remaining());
+            undecoded.put(in).flip();
+        }
+    }
+}
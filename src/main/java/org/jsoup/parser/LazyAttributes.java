@@ -0,0 +1,61 @@
+package org.jsoup.parser;
+
+import org.jsoup.nodes.Attributes;
+
+import java.io.StringReader;
+
+/**
+ The unparsed attributes of an element, from a parse with {@link Parser#setLazyAttributes(boolean) lazy attributes}:
+ their source in the input, which is tokenised when the element's attributes are first accessed. Jsoup internal use
+ only, please don't depend on this API.
+ */
+public final class LazyAttributes {
+    private static final ThreadLocal<Tokeniser> tokenisers = new ThreadLocal<>(); // reused, as attributes are often parsed in runs, e.g. in a select
+
+    private final String source;
+    private final ParseSettings settings;
+
+    LazyAttributes(String source, ParseSettings settings) {
+        this.source = source;
+        this.settings = settings;
+    }
+
+    /**
+     Parse the attributes, as they would have been when tokenised with their tag (deduplicated and normalized per the
+     parse settings). (An internal method, visible for Element.)
+     @return the parsed attributes
+     */
+    public Attributes parse() {
+        final Attributes attributes = tokenise(source);
+        attributes.deduplicate(settings);
+        return settings.normalizeAttributes(attributes);
+    }
+
+    /**
+     Tokenise attributes from their source, as in a start tag.
+     @param source the attributes' source, as consumed by {@link CharacterReader#consumeAttributeSource()}
+     @return the attributes, as tokenised (before deduplication or normalization)
+     */
+    static Attributes tokenise(String source) {
+        final String tag = "<a " + source + ">";
+        Tokeniser tokeniser = tokenisers.get();
+        if (tokeniser == null) {
+            tokeniser = new Tokeniser(new CharacterReader(tag), ParseErrorList.noTracking());
+            tokenisers.set(tokeniser);
+        } else {
+            final CharacterReader reader = tokeniser.reader();
+            reader.reset(new StringReader(tag), tag.length());
+            tokeniser.reset(reader, ParseErrorList.noTracking());
+        }
+
+        final Token.StartTag startTag = (Token.StartTag) tokeniser.read();
+        final Attributes attributes = startTag.attributes;
+        startTag.attributes = null; // not retained by the reused tokeniser
+        return attributes != null ? attributes : new Attributes();
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,45 @@
+package org.jsoup.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ A reader of at most a set number of chars from its underlying reader, for the parser's input length limit. Reads past
+ the limit return the end of input, and mark the input as exceeding the limit.
+ @see Parser#setMaxInputLength(int)
+ */
+final class LimitedReader extends Reader {
+    private final Reader in;
+    private int remaining;
+    private boolean exceeded;
+
+    LimitedReader(Reader in, int maxLength) {
+        this.in = in;
+        this.remaining = maxLength;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (remaining == 0) {
+            if (!exceeded && len > 0)
+                exceeded = in.read() != -1; // don't read the rest, just test if there is more
+            return -1;
+        }
+        final int read = in.read(cbuf, off, Math.min(len, remaining));
+        if (read > 0)
+            remaining -= read;
+        return read;
+    }
+
+    /**
+     Check if the underlying input was longer than the limit, so was truncated.
+     */
+    boolean exceeded() {
+        return exceeded;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,87 @@
+package org.jsoup.parser;
+
+import java.util.Arrays;
+
+/**
+ An index of the newlines in the input, built as the input is read, to find the line and column of a position (e.g. of
+ a parse error) without rescanning the input.
+ */
+final class LineIndex {
+    private int[] newlines = new int[64]; // the positions of the newlines, ascending
+    private int size;
+    private int indexedTo; // the position up to which the input has been indexed
+    private int lastFound; // the newlines before the last position found; a hint, as positions are mostly found in order
+
+    /**
+     Create an index of the whole input, e.g. for a parallel parse, where chunks are read out of order.
+     */
+    static LineIndex of(String input) {
+        final LineIndex lines = new LineIndex();
+        final int length = input.length();
+        for (int i = 0; i < length; i++) {
+            if (input.charAt(i) == '\n')
+                lines.add(i);
+        }
+        lines.indexedTo = length;
+        return lines;
+    }
+
+    /**
+     Index the newlines in a read of the input. Reads must be contiguous; parts already indexed (e.g. when a reader
+     continues from another's position) are skipped.
+     @param buf the buffer holding the read chars
+     @param off the offset of the read in the buffer
+     @param len the length of the read
+     @param pos the position in the input of the read's first char
+     */
+    void index(char[] buf, int off, int len, int pos) {
+        final int end = pos + len;
+        if (end <= indexedTo)
+            return;
+        for (int i = off + Math.max(0, indexedTo - pos), last = off + len; i < last; i++) {
+            if (buf[i] == '\n')
+                add(pos + i - off);
+        }
+        indexedTo = end;
+    }
+
+    private void add(int pos) {
+        if (size == newlines.length)
+            newlines = Arrays.copyOf(newlines, size * 2);
+        newlines[size++] = pos;
+    }
+
+    /** The number of newlines before the position. */
+    int newlinesBefore(int pos) {
+        final int last = lastFound; // checked before use, as the index may be shared by threads in a parallel parse
+        if (last <= size && (last == 0 || newlines[last - 1] < pos)) {
+            if (last == size || pos <= newlines[last])
+                return last; // in the same line as the last found
+            if (last + 1 == size || (last + 1 < size && pos <= newlines[last + 1]))
+                return lastFound = last + 1; // in the next line
+        }
+        final int found = Arrays.binarySearch(newlines, 0, size, pos);
+        final int before = found >= 0 ? found : -(found + 1);
+        lastFound = before;
+        return before;
+    }
+
+    /** The position of the start of the line after the given number of newlines. */
+    int lineStart(int newlinesBefore) {
+        return newlinesBefore == 0 ? 0 : newlines[newlinesBefore - 1] + 1;
+    }
+
+    /**
+     Get the line number of the position, counting from 1. A newline is in the line that it ends.
+     */
+    int lineNumber(int pos) {
+        return newlinesBefore(pos) + 1;
+    }
+
+    /**
+     Get the column number of the position in its line, counting from 1.
+     */
+    int columnNumber(int pos) {
+        return pos - lineStart(newlinesBefore(pos)) + 1;
+    }
+}
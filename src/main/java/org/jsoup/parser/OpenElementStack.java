@@ -0,0 +1,259 @@
+package org.jsoup.parser;
+
+import org.jsoup.nodes.Element;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import static org.jsoup.internal.StringUtil.inSorted;
+
+/**
+ The HTML tree builder's stack of open elements, indexed by element name and by scope boundary, so that finding the
+ topmost element with a name, and testing if an element is in a specific scope, take constant time rather than a walk
+ down the stack.
+ <p>The index is kept as the stack is modified through any of the list methods. Pushes and pops at the top are
+ constant time; a change within the stack re-indexes the positions above it, as the list shifts them anyway.</p>
+ */
+final class OpenElementStack extends ArrayList<Element> {
+    // the specific scopes, as bit positions in a name's boundary bits
+    static final int DefaultScope = 0, ListItemScope = 1, ButtonScope = 2, TableScope = 3, SelectScope = 4;
+    private static final int NumScopes = 5;
+
+    /** The index of a tag name on the stack. Kept while the stack is in use, for the names pushed onto it. */
+    private static final class Name {
+        final int boundaries; // bits of the scopes that an element with this name is a boundary of
+        int top = -1; // the position of the topmost element with this name, or -1 if none
+
+        Name(int boundaries) {
+            this.boundaries = boundaries;
+        }
+    }
+
+    private final HashMap<String, Name> names = new HashMap<>();
+    private Name[] positionNames = new Name[32]; // by position, the name the element was indexed by
+    private int[] sameBelow = new int[32]; // by position, the next lower position with the same name, or -1
+    private final int[][] boundaryAtOrBelow = new int[NumScopes][32]; // by scope and position, the nearest boundary, or -1
+
+    OpenElementStack() {
+        super(32);
+    }
+
+    private static int boundaries(String name) {
+        int bits = 0;
+        if (inSorted(name, HtmlTreeBuilder.TagsSearchInScope))
+            bits |= 1 << DefaultScope | 1 << ListItemScope | 1 << ButtonScope;
+        if (inSorted(name, HtmlTreeBuilder.TagSearchList))
+            bits |= 1 << ListItemScope;
+        if (inSorted(name, HtmlTreeBuilder.TagSearchButton))
+            bits |= 1 << ButtonScope;
+        if (inSorted(name, HtmlTreeBuilder.TagSearchTableScope))
+            bits |= 1 << TableScope;
+        if (!inSorted(name, HtmlTreeBuilder.TagSearchSelectScope)) // all elements except
+            bits |= 1 << SelectScope;
+        return bits;
+    }
+
+    /** Index the positions from the given position to the top. */
+    private void index(int from) {
+        final int size = size();
+        if (size > sameBelow.length) {
+            final int capacity = Math.max(size, sameBelow.length * 2);
+            positionNames = Arrays.copyOf(positionNames, capacity);
+            sameBelow = Arrays.copyOf(sameBelow, capacity);
+            for (int s = 0; s < NumScopes; s++)
+                boundaryAtOrBelow[s] = Arrays.copyOf(boundaryAtOrBelow[s], capacity);
+        }
+
+        for (int i = from; i < size; i++) {
+            final String normalName = get(i).normalName();
+            Name name = names.get(normalName);
+            if (name == null) {
+                name = new Name(boundaries(normalName));
+                names.put(normalName, name);
+            }
+            positionNames[i] = name;
+            sameBelow[i] = name.top;
+            name.top = i;
+            for (int s = 0; s < NumScopes; s++) {
+                final int[] boundary = boundaryAtOrBelow[s];
+                boundary[i] = (name.boundaries & 1 << s) != 0 ? i : i > 0 ? boundary[i - 1] : -1;
+            }
+        }
+    }
+
+    /** Remove the positions from the given position to the top from the index. */
+    private void unindex(int from) {
+        for (int i = size() - 1; i >= from; i--) {
+            positionNames[i].top = sameBelow[i];
+            positionNames[i] = null;
+        }
+    }
+
+    /**
+     Get the position of the topmost element with the normal name.
+     @return the position, or -1 if there is none on the stack
+     */
+    int lastIndexOfName(String normalName) {
+        final Name name = names.get(normalName);
+        return name != null ? name.top : -1;
+    }
+
+    /**
+     Get the position of the element on the stack (by identity).
+     @return the position, or -1 if it is not on the stack
+     */
+    int lastIndexOfElement(Element el) {
+        for (int i = lastIndexOfName(el.normalName()); i >= 0; i = sameBelow[i]) {
+            if (get(i) == el)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     Test if an element with the name is in the specific scope: it is on the stack, and no boundary element of the scope
+     is above it.
+     @param normalName the name of the element to find
+     @param scope the scope, e.g. {@link #ButtonScope}
+     @param maxDepth the maximum depth from the top to search to, or -1 for no limit
+     */
+    boolean inScope(String normalName, int scope, int maxDepth) {
+        return inScope(lastIndexOfName(normalName), scope, maxDepth);
+    }
+
+    /**
+     Test if an element with any of the names is in the specific scope.
+     @see #inScope(String, int, int)
+     */
+    boolean inScope(String[] normalNames, int scope, int maxDepth) {
+        int top = -1;
+        for (String normalName : normalNames)
+            top = Math.max(top, lastIndexOfName(normalName));
+        return inScope(top, scope, maxDepth);
+    }
+
+    private boolean inScope(int pos, int scope, int maxDepth) {
+        if (pos < 0)
+            return false;
+        final int bottom = size() - 1;
+        return pos >= boundaryAtOrBelow[scope][bottom] && (maxDepth < 0 || pos >= bottom - maxDepth);
+    }
+
+    // list modifications, keeping the index
+
+    @Override
+    public boolean add(Element el) {
+        super.add(el);
+        index(size() - 1);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Element el) {
+        if (index < size())
+            unindex(index);
+        super.add(index, el);
+        index(index);
+    }
+
+    @Override
+    public Element remove(int index) {
+        unindex(index);
+        final Element removed = super.remove(index);
+        index(index);
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        final int index = indexOf(o);
+        if (index == -1)
+            return false;
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public Element set(int index, Element el) {
+        unindex(index);
+        final Element replaced = super.set(index, el);
+        index(index);
+        return replaced;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        names.clear();
+        Arrays.fill(positionNames, null);
+    }
+
+    // bulk modifications, not used by the tree builder; re-index the whole stack
+
+    @Override
+    public boolean addAll(Collection<? extends Element> c) {
+        final int from = size();
+        final boolean changed = super.addAll(c);
+        index(from);
+        return changed;
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends Element> c) {
+        unindex(0);
+        final boolean changed = super.addAll(index, c);
+        index(0);
+        return changed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        unindex(0);
+        super.removeRange(fromIndex, toIndex);
+        index(0);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        unindex(0);
+        final boolean changed = super.removeAll(c);
+        index(0);
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        unindex(0);
+        final boolean changed = super.retainAll(c);
+        index(0);
+        return changed;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Element> filter) {
+        unindex(0);
+        final boolean changed = super.removeIf(filter);
+        index(0);
+        return changed;
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<Element> operator) {
+        unindex(0);
+        super.replaceAll(operator);
+        index(0);
+    }
+
+    @Override
+    public void sort(@Nullable Comparator<? super Element> c) {
+        unindex(0);
+        super.sort(c);
+        index(0);
+    }
+}
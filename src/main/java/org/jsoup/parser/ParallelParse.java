@@ -0,0 +1,424 @@
+package org.jsoup.parser;
+
+import org.jsoup.UncheckedIOException;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ A parse of a large input, where chunks of the input are tokenised concurrently, and the tree builder then processes
+ their tokens in order.
+ <p>The input is split at tag starts (preferring common repeated elements, like {@code <tr>} and {@code <li>}), and each
+ chunk is tokenised on the executor, speculating that it starts in the data state, and predicting the tokeniser state
+ switches the tree builder will make (e.g. to script data after {@code <script>}). Each chunk records its tokens, and its
+ <i>clean points</i>: the positions between tokens where nothing is pending in the tokeniser, with the tokeniser's state
+ and last start tag there. Tokenising from a clean point depends only on the input from that position, the state, and
+ the last start tag; so where those match the tree builder's tokeniser, the recorded tokens are exactly those it would
+ read itself.</p>
+ <p>Where a speculation was wrong (a chunk started within a script or comment, say, or the tree builder did not switch
+ state as predicted), the recorded tokens are skipped, and the input is tokenised sequentially until it reaches a
+ recorded clean point that matches again. So the document is the same as a sequential parse; the parallel speed-up
+ depends on how well the input splits.</p>
+ */
+final class ParallelParse {
+    private static final String[] preferredTags = {"article", "div", "li", "p", "section", "td", "tr"};
+
+    private final TreeBuilder treeBuilder;
+    private final String input;
+    private final ExecutorService executor;
+    private final int[] starts; // the start positions of the chunks
+    private final @Nullable LineIndex lines; // the lines of the whole input, for the lines of tracked errors
+    private final int maxPending;
+    private final ArrayDeque<Future<Chunk>> pending = new ArrayDeque<>();
+    private int submitted = 0; // chunks submitted to the executor
+    private int chunkIndex = -1; // index of the chunk being replayed
+    private @Nullable Chunk chunk; // the chunk being replayed
+    private int cleanIndex; // index of the next clean point in the chunk
+
+    ParallelParse(TreeBuilder treeBuilder, String input, ExecutorService executor, int chunkSize) {
+        this.treeBuilder = treeBuilder;
+        this.input = input;
+        this.executor = executor;
+        starts = chunkStarts(input, chunkSize);
+        lines = treeBuilder.reader.lines() != null ? LineIndex.of(input) : null; // complete, so shared by the chunks
+        maxPending = Math.max(2, Runtime.getRuntime().availableProcessors() * 2); // bounds the tokens held in memory
+    }
+
+    /**
+     Run the parse, processing all tokens into the tree builder, which has been initialised over an empty reader.
+     */
+    void run() {
+        final TreeBuilder tb = treeBuilder;
+        final Tokeniser tokeniser = tb.tokeniser;
+        final CharacterReader standIn = tb.reader; // reports the positions of replayed tokens
+        CharacterReader live = null; // reads the input, where there are no matching recorded tokens
+        int pos = 0; // the position in the input, while replaying
+        standIn.trackLines(lines);
+
+        try {
+            chunk = nextChunk();
+            tb.replaying = true;
+            while (true) {
+                if (tokeniser.isClean()) {
+                    final int at = live != null ? live.pos() : pos;
+                    if (findCleanPoint(at, tokeniser.getState(), tokeniser.lastStartTag())) {
+                        if (live != null) {
+                            live.close();
+                            live = null;
+                            tb.reader = standIn;
+                            tokeniser.reader(standIn);
+                            tb.replaying = true;
+                        }
+                        pos = replay();
+                        if (pos == -1) // processed EOF
+                            break;
+                        continue;
+                    } else if (live == null) {
+                        live = new CharacterReader(readerFrom(input, at), CharacterReader.maxBufferLen, at);
+                        live.stringCache(standIn.stringCache());
+                        live.trackLines(lines);
+                        tb.reader = live;
+                        tokeniser.reader(live);
+                        tb.replaying = false;
+                    }
+                }
+
+                // read and process a token from the live reader (or one emitted by the tree builder)
+                final Token token = tokeniser.read();
+                tb.processInput(token);
+                token.reset();
+                if (token.type == Token.TokenType.EOF)
+                    break;
+            }
+        } finally {
+            tb.replaying = false;
+            for (Future<Chunk> future : pending)
+                future.cancel(true);
+            pending.clear();
+            chunk = null;
+        }
+    }
+
+    /**
+     Replays the tokens from the current clean point to the next in the chunk.
+     @return the position in the input after the tokens, or -1 if EOF was processed
+     */
+    private int replay() {
+        final TreeBuilder tb = treeBuilder;
+        final Chunk chunk = this.chunk;
+        final ParseErrorList errors = tb.parser.getErrors();
+        final CleanPoint from = chunk.cleanPoints.get(cleanIndex);
+        final CleanPoint to = chunk.cleanPoints.get(cleanIndex + 1);
+        cleanIndex++;
+
+        for (int i = from.tokenIndex; i < to.tokenIndex; i++) {
+            final Token token = chunk.tokens.get(i);
+            tb.reader.replayPos(chunk.tokenPos[i]);
+            for (int e = i == 0 ? 0 : chunk.tokenErrors[i - 1]; e < chunk.tokenErrors[i]; e++)
+                errors.report(e < chunk.errors.size() ? chunk.errors.get(e) : null); // null if counted only
+            if (i == to.tokenIndex - 1) // the last is the token that left the tokeniser clean
+                tb.tokeniser.replayed(token, to.readState);
+            tb.newlineSkipped = false;
+            tb.processInput(token);
+            if (token.type == Token.TokenType.EOF)
+                return -1;
+        }
+
+        int pos = to.pos;
+        if (to.skippedNewline && !tb.newlineSkipped)
+            pos--; // the chunk skipped a newline, but the tree builder did not; so the next tokens must be re-read
+        else if (!to.skippedNewline && tb.newlineSkipped && pos < input.length() && input.charAt(pos) == '\n')
+            pos++;
+        return pos;
+    }
+
+    /**
+     Find a recorded clean point at the position, which matches the tokeniser's state, and has tokens following it.
+     Moves through the chunks as the position passes them.
+     */
+    private boolean findCleanPoint(int pos, TokeniserState state, @Nullable String lastStartTag) {
+        while (chunk != null) {
+            final ArrayList<CleanPoint> points = chunk.cleanPoints;
+            final int last = points.size() - 1; // the last point has no following tokens
+            while (cleanIndex < last && points.get(cleanIndex).pos < pos)
+                cleanIndex++;
+
+            if (cleanIndex < last) {
+                final CleanPoint point = points.get(cleanIndex);
+                if (point.pos == pos && point.state == state
+                    && (state == TokeniserState.Data || sameName(point.lastStartTag, lastStartTag)))
+                    return true;
+                final int nextStart = chunkIndex + 1 < starts.length ? starts[chunkIndex + 1] : Integer.MAX_VALUE;
+                if (pos < nextStart)
+                    return false; // this chunk may match later
+            }
+            chunk = nextChunk();
+            cleanIndex = 0;
+        }
+        return false;
+    }
+
+    private static boolean sameName(@Nullable String a, @Nullable String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private @Nullable Chunk nextChunk() {
+        while (submitted < starts.length && pending.size() < maxPending) {
+            final int start = starts[submitted];
+            final int end = submitted + 1 < starts.length ? starts[submitted + 1] : input.length();
+            pending.add(executor.submit(new ChunkTask(treeBuilder, input, lines, start, end)));
+            submitted++;
+        }
+
+        final Future<Chunk> future = pending.poll();
+        if (future == null)
+            return null;
+        chunkIndex++;
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parse was interrupted", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     Split the input into chunks of about the chunk size, at tag starts.
+     @return the start position of each chunk
+     */
+    static int[] chunkStarts(String input, int chunkSize) {
+        int[] starts = new int[Math.max(1, input.length() / chunkSize)];
+        int count = 1; // the first chunk starts at 0
+        int target = chunkSize;
+        while (target < input.length() - chunkSize / 2) { // don't make a small last chunk
+            final int start = chunkBoundary(input, target, chunkSize / 8);
+            if (start == -1)
+                break;
+            if (count == starts.length)
+                starts = Arrays.copyOf(starts, count * 2);
+            starts[count++] = start;
+            target = start + chunkSize;
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    /**
+     Find the start of a tag at or after the target position; preferring one of the preferred tags within the window.
+     */
+    static int chunkBoundary(String input, int target, int window) {
+        int first = -1;
+        for (int i = input.indexOf('<', target); i != -1 && i < input.length() - 1; i = input.indexOf('<', i + 1)) {
+            if (!isAsciiLetter(input.charAt(i + 1)))
+                continue;
+            if (first == -1)
+                first = i;
+            if (isPreferredTag(input, i + 1) || i - target > window)
+                return i - target > window ? first : i;
+        }
+        return first;
+    }
+
+    private static boolean isPreferredTag(String input, int nameStart) {
+        for (String tag : preferredTags) {
+            final int end = nameStart + tag.length();
+            if (end < input.length() && input.regionMatches(true, nameStart, tag, 0, tag.length())) {
+                final char c = input.charAt(end);
+                if (c == '>' || c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '/')
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static StringReader readerFrom(String input, int pos) {
+        final StringReader reader = new StringReader(input);
+        try {
+            final long skipped = reader.skip(pos);
+            if (skipped != pos)
+                throw new IOException("Could not skip to " + pos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return reader;
+    }
+
+    /** A position between tokens, where the tokeniser had no pending tokens or characters. */
+    static final class CleanPoint {
+        final int pos; // the input position (after any skipped newline)
+        final int tokenIndex; // the index of the next token
+        final TokeniserState readState; // the tokeniser's state after reading the previous token
+        final TokeniserState state; // the state after the predicted tree builder switch
+        final @Nullable String lastStartTag;
+        final boolean skippedNewline; // if a newline was skipped, as predicted for the previous token
+
+        CleanPoint(int pos, int tokenIndex, TokeniserState readState, TokeniserState state, @Nullable String lastStartTag, boolean skippedNewline) {
+            this.pos = pos;
+            this.tokenIndex = tokenIndex;
+            this.readState = readState;
+            this.state = state;
+            this.lastStartTag = lastStartTag;
+            this.skippedNewline = skippedNewline;
+        }
+    }
+
+    /** The tokens and clean points recorded from a chunk of the input. */
+    static final class Chunk {
+        final ArrayList<Token> tokens = new ArrayList<>();
+        int[] tokenPos = new int[256]; // the reader position after each token was read, for error positions
+        int[] tokenErrors = new int[256]; // the count of errors after each token was read
+        final ParseErrorList errors;
+        final ArrayList<CleanPoint> cleanPoints = new ArrayList<>();
+
+        Chunk(ParseErrorList errors) {
+            this.errors = errors;
+        }
+
+        void add(Token token, int pos) {
+            final int i = tokens.size();
+            if (i == tokenPos.length) {
+                tokenPos = Arrays.copyOf(tokenPos, i * 2);
+                tokenErrors = Arrays.copyOf(tokenErrors, i * 2);
+            }
+            tokens.add(token);
+            tokenPos[i] = pos;
+            tokenErrors[i] = errors.getErrorCount();
+        }
+
+        /** Drop the tokens after the last clean point. */
+        void truncate() {
+            final int keep = cleanPoints.get(cleanPoints.size() - 1).tokenIndex;
+            while (tokens.size() > keep)
+                tokens.remove(tokens.size() - 1);
+        }
+    }
+
+    /** Tokenises a chunk, from its start to the first clean point at or after its end. */
+    static final class ChunkTask implements Callable<Chunk> {
+        private final TreeBuilder treeBuilder; // for its state predictions only; not thread-safe
+        private final String input;
+        private final @Nullable LineIndex lines;
+        private final int start;
+        private final int end;
+
+        ChunkTask(TreeBuilder treeBuilder, String input, @Nullable LineIndex lines, int start, int end) {
+            this.treeBuilder = treeBuilder;
+            this.input = input;
+            this.lines = lines;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override public Chunk call() {
+            final Parser parser = treeBuilder.parser;
+            final Chunk chunk = new Chunk(new ParseErrorList(parser.getErrors()));
+            final CharacterReader reader = new CharacterReader(readerFrom(input, start), CharacterReader.maxBufferLen, start);
+            if (parser.interner() != null)
+                reader.stringCache(parser.interner());
+            reader.trackLines(lines);
+            final Tokeniser tokeniser = new Tokeniser(reader, chunk.errors);
+            tokeniser.trackPosition(parser.isTrackPosition());
+            tokeniser.lazyAttributes = parser.isLazyAttributes() && !parser.getErrors().isTracking() && !parser.isTrackPosition();
+            chunk.cleanPoints.add(new CleanPoint(start, 0, TokeniserState.Data, TokeniserState.Data, null, false));
+
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    final Token token = tokeniser.read();
+                    if (reader.containsMissed()) {
+                        // a lookahead depended on the buffer's extent, so a sequential read may differ; stop before it
+                        chunk.truncate();
+                        break;
+                    }
+                    chunk.add(copy(token), reader.pos());
+                    if (token.type == Token.TokenType.EOF)
+                        break;
+                    if (!tokeniser.isClean())
+                        continue;
+
+                    final TokeniserState readState = tokeniser.getState();
+                    boolean skippedNewline = false;
+                    if (token.type == Token.TokenType.StartTag) {
+                        final Token.StartTag startTag = (Token.StartTag) token;
+                        tokeniser.transition(treeBuilder.speculateState(startTag));
+                        if (treeBuilder.speculateSkipsNewline(startTag))
+                            skippedNewline = reader.matchConsume("\n");
+                    }
+                    chunk.cleanPoints.add(new CleanPoint(reader.pos(), chunk.tokens.size(), readState,
+                        tokeniser.getState(), tokeniser.lastStartTag(), skippedNewline));
+                    if (reader.pos() >= end)
+                        break;
+                }
+            } finally {
+                reader.close();
+            }
+            return chunk;
+        }
+
+        /** Copy a token, as the tokeniser reuses its token instances. */
+        private static Token copy(Token token) {
+            switch (token.type) {
+                case StartTag:
+                case EndTag: {
+                    final Token.Tag tag = (Token.Tag) token;
+                    final Token.Tag copy = token.type == Token.TokenType.StartTag ? new Token.StartTag() : new Token.EndTag();
+                    copy.tagName = tag.tagName;
+                    copy.normalName = tag.normalName;
+                    copy.selfClosing = tag.selfClosing;
+                    copy.attributes = tag.attributes; // the tokeniser creates new attributes for each tag
+                    copy.attributeSource = tag.attributeSource;
+                    copy.startPos = tag.startPos;
+                    copy.endPos = tag.endPos;
+                    copy.attributeKeys = tag.attributeKeys; // new arrays for each tag, so shared
+                    copy.attributePositions = tag.attributePositions;
+                    copy.attributePositionCount = tag.attributePositionCount;
+                    return copy;
+                }
+                case Character: {
+                    if (token instanceof Token.CData) // emitted as a new instance
+                        return token;
+                    final Token.Character character = (Token.Character) token;
+                    final Token.Character copy = new Token.Character().data(character.getData());
+                    copy.startPos = character.startPos;
+                    return copy;
+                }
+                case Comment: {
+                    final Token.Comment comment = (Token.Comment) token;
+                    final Token.Comment copy = new Token.Comment();
+                    copy.append(comment.getData());
+                    copy.bogus = comment.bogus;
+                    return copy;
+                }
+                case Doctype: {
+                    final Token.Doctype doctype = (Token.Doctype) token;
+                    final Token.Doctype copy = new Token.Doctype();
+                    copy.name.append(doctype.name);
+                    copy.pubSysKey = doctype.pubSysKey;
+                    copy.publicIdentifier.append(doctype.publicIdentifier);
+                    copy.systemIdentifier.append(doctype.systemIdentifier);
+                    copy.forceQuirks = doctype.forceQuirks;
+                    return copy;
+                }
+                default: // EOF, a new instance
+                    return token;
+            }
+        }
+    }
+}
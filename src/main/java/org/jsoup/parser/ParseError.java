@@ -1,20 +1,61 @@
 package org.jsoup.parser;
 
+import javax.annotation.Nullable;
+
 /**
  * A Parse Error records an error in the input HTML that occurs in either the tokenisation or the tree building phase.
+ * <p>Each error has a {@link Code}, so that errors can be aggregated by kind; and its position in the input, as an offset
+ * and as a line and column number. The message is formatted when first retrieved.</p>
  */
 public class ParseError {
-    private int pos;
-    private String errorMsg;
+    /**
+     The kinds of parse error.
+     */
+    public enum Code {
+        /** An unexpected character in the input, in a tokeniser state. */
+        UnexpectedCharacter("Unexpected character '%s' in input state [%s]"),
+        /** The input ended in a tokeniser state that expected more. */
+        UnexpectedEof("Unexpectedly reached end of file (EOF) in input state [%s]"),
+        /** An invalid character reference, e.g. one missing its semicolon. */
+        InvalidCharacterReference("Invalid character reference: %s"),
+        /** An end tag with attributes. */
+        AttributesOnEndTag("Attributes incorrectly present on end tag"),
+        /** A start tag with the same attribute more than once. */
+        DuplicateAttribute("Duplicate attribute"),
+        /** A self closing start tag for an element that is not void. */
+        SelfClosingNonVoidTag("Tag cannot be self closing; not a void tag"),
+        /** A token that was unexpected in the tree builder's state; the tree was built around it. */
+        UnexpectedToken("Unexpected token [%s] when in state [%s]"),
+        /** The input exceeded a parse limit, and the rest was not parsed. */
+        LimitExceeded("The input exceeded the parser's limit of max %s %d; the rest was not parsed"),
+        /** Any other error, with its own message. */
+        Other("%s");
+
+        private final String format;
+
+        Code(String format) {
+            this.format = format;
+        }
+    }
+
+    private final Code code;
+    private final int pos;
+    private final int line;
+    private final int column;
+    private final Object[] args;
+    private @Nullable String errorMsg; // formatted on first use
 
     ParseError(int pos, String errorMsg) {
-        this.pos = pos;
+        this(Code.Other, pos, -1, -1, errorMsg);
         this.errorMsg = errorMsg;
     }
 
-    ParseError(int pos, String errorFormat, Object... args) {
-        this.errorMsg = String.format(errorFormat, args);
+    ParseError(Code code, int pos, int line, int column, Object... args) {
+        this.code = code;
         this.pos = pos;
+        this.line = line;
+        this.column = column;
+        this.args = args;
     }
 
     /**
@@ -22,9 +63,19 @@ public class ParseError {
      * @return the error message.
      */
     public String getErrorMessage() {
+        if (errorMsg == null)
+            errorMsg = args.length == 0 ? code.format : String.format(code.format, args);
         return errorMsg;
     }
 
+    /**
+     Get the kind of this error.
+     @return the error code
+     */
+    public Code getCode() {
+        return code;
+    }
+
     /**
      * Retrieves the offset of the error.
      * @return error offset within input
@@ -33,8 +84,24 @@ public class ParseError {
         return pos;
     }
 
+    /**
+     Get the line number of the error in the input, counting from 1.
+     @return the line number, or -1 if not known
+     */
+    public int getLineNumber() {
+        return line;
+    }
+
+    /**
+     Get the column number of the error in its line, counting from 1.
+     @return the column number, or -1 if not known
+     */
+    public int getColumnNumber() {
+        return column;
+    }
+
     @Override
     public String toString() {
-        return pos + ": " + errorMsg;
+        return pos + ": " + getErrorMessage();
     }
 }
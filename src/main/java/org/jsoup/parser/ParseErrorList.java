@@ -1,21 +1,32 @@
 package org.jsoup.parser;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 
 /**
  * A container for ParseErrors.
- * 
+ * <p>A list may hold errors up to a maximum size ({@link #tracking(int)}); only count them, without creating or formatting
+ * them ({@link #counting()}); or ignore them ({@link #noTracking()}), in which case the parser does not report them at
+ * all.</p>
+ *
  * @author Jonathan Hedley
  */
 public class ParseErrorList extends ArrayList<ParseError>{
     private static final int INITIAL_CAPACITY = 16;
     private final int initialCapacity;
     private final int maxSize;
-    
+    private final boolean counting;
+    private int count; // the errors reported, including any beyond the max size
+
     ParseErrorList(int initialCapacity, int maxSize) {
+        this(initialCapacity, maxSize, false);
+    }
+
+    private ParseErrorList(int initialCapacity, int maxSize, boolean counting) {
         super(initialCapacity);
         this.initialCapacity = initialCapacity;
         this.maxSize = maxSize;
+        this.counting = counting;
     }
 
     /**
@@ -23,22 +34,85 @@ public class ParseErrorList extends ArrayList<ParseError>{
      @param copy initial and max size details to copy
      */
     ParseErrorList(ParseErrorList copy) {
-        this(copy.initialCapacity, copy.maxSize);
+        this(copy.initialCapacity, copy.maxSize, copy.counting);
     }
-    
+
     boolean canAddError() {
         return size() < maxSize;
     }
 
+    /**
+     Test if errors are to be reported to this list, to be held or counted. If not, the parser skips creating them.
+     */
+    boolean isTracking() {
+        return maxSize > 0 || counting;
+    }
+
+    /**
+     Report an error at the reader's current position: counts it, and holds it if there is room.
+     @param reader the reader, for the position and line
+     @param code the kind of error
+     @param args the arguments for the code's message
+     */
+    void report(CharacterReader reader, ParseError.Code code, Object... args) {
+        count++;
+        if (size() < maxSize)
+            add(new ParseError(code, reader.pos(), reader.lineNumber(), reader.columnNumber(), args));
+    }
+
+    /**
+     Report an error that was found elsewhere, e.g. in a parallel parse's chunk.
+     @param error the error, or null if it was counted but not held there
+     */
+    void report(@Nullable ParseError error) {
+        count++;
+        if (error != null && size() < maxSize)
+            add(error);
+    }
+
+    /**
+     Remove the errors reported after the given count, e.g. when a parse rewinds to re-read input.
+     */
+    void rewind(int toCount) {
+        count = toCount;
+        if (size() > toCount)
+            subList(toCount, size()).clear();
+    }
+
     int getMaxSize() {
         return maxSize;
     }
 
+    /**
+     Check if this list counts errors without holding them.
+     @return true if counting only
+     */
+    public boolean isCounting() {
+        return counting;
+    }
+
+    /**
+     Get the count of errors found in the parse, including any beyond the maximum size held.
+     @return the error count
+     */
+    public int getErrorCount() {
+        return count;
+    }
+
     public static ParseErrorList noTracking() {
         return new ParseErrorList(0, 0);
     }
-    
+
     public static ParseErrorList tracking(int maxSize) {
         return new ParseErrorList(INITIAL_CAPACITY, maxSize);
     }
+
+    /**
+     Create a list that counts the parse errors, without holding them, or formatting their messages.
+     @return a new counting list
+     @see #getErrorCount()
+     */
+    public static ParseErrorList counting() {
+        return new ParseErrorList(0, 0, true);
+    }
 }
@@ -0,0 +1,12 @@
+package org.jsoup.parser;
+
+/**
+ Thrown when the input exceeds one of the parser's limits, if the parser is set to throw rather than to stop parsing and
+ return the document built so far.
+ @see Parser#setThrowOnLimit(boolean)
+ */
+public class ParseLimitException extends IllegalStateException {
+    public ParseLimitException(String msg, Object... params) {
+        super(String.format(msg, params));
+    }
+}
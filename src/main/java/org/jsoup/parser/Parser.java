@@ -1,12 +1,28 @@
 package org.jsoup.parser;
 
+import org.jsoup.helper.Validate;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeVisitor;
+import org.jsoup.select.QueryParser;
 
+import javax.annotation.Nullable;
+
+import org.jsoup.UncheckedIOException;
+import org.jsoup.internal.Normalizer;
+import org.jsoup.internal.StringUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 
 /**
  * Parses HTML into a {@link org.jsoup.nodes.Document}. Generally best to use one of the  more convenient parse methods
@@ -16,6 +32,22 @@ public class Parser {
     private TreeBuilder treeBuilder;
     private ParseErrorList errors;
     private ParseSettings settings;
+    private @Nullable StringInterner interner;
+    private boolean reusable;
+    private @Nullable ExecutorService executor;
+    private int chunkSize = DefaultChunkSize;
+    private boolean lazyAttributes;
+    private boolean retainInput;
+    private boolean namespaceAware;
+    private boolean trackPosition;
+    private boolean detectLegacyCharset;
+    private @Nullable String[] skipContent; // sorted, lower case tag names of elements with content to skip; null if none
+    private boolean skipContentPlaceholder;
+    private int maxDepth, maxNodes, maxAttributes, maxInputLength; // parse limits; 0 if unlimited
+    private boolean throwOnLimit;
+
+    /** The default size of the chunks of input that are tokenised in parallel. */
+    public static final int DefaultChunkSize = 1024 * 1024;
 
     /**
      * Create a new Parser, using the specified TreeBuilder
@@ -39,19 +71,170 @@ public class Parser {
         treeBuilder = copy.treeBuilder.newInstance(); // because extended
         errors = new ParseErrorList(copy.errors); // only copies size, not contents
         settings = new ParseSettings(copy.settings);
+        interner = copy.interner; // shared by design
+        reusable = copy.reusable;
+        executor = copy.executor;
+        chunkSize = copy.chunkSize;
+        lazyAttributes = copy.lazyAttributes;
+        retainInput = copy.retainInput;
+        namespaceAware = copy.namespaceAware;
+        trackPosition = copy.trackPosition;
+        detectLegacyCharset = copy.detectLegacyCharset;
+        skipContent = copy.skipContent; // not modified once set
+        skipContentPlaceholder = copy.skipContentPlaceholder;
+        maxDepth = copy.maxDepth;
+        maxNodes = copy.maxNodes;
+        maxAttributes = copy.maxAttributes;
+        maxInputLength = copy.maxInputLength;
+        throwOnLimit = copy.throwOnLimit;
     }
     
     public Document parseInput(String html, String baseUri) {
-        return treeBuilder.parse(new StringReader(html), baseUri, this);
+        if (executor != null && html.length() >= chunkSize * 2)
+            return treeBuilder.parseParallel(html, baseUri, this, executor, chunkSize);
+        return treeBuilder.parseString(html, baseUri, this);
     }
 
     public Document parseInput(Reader inputHtml, String baseUri) {
+        if (executor != null || retainInput)
+            return parseInput(readFully(inputHtml), baseUri);
         return treeBuilder.parse(inputHtml, baseUri, this);
     }
 
+    /**
+     Parse the input into a Document, and write a log of its tokens to the output stream. The document can later be
+     rebuilt from the log with {@link #parseTokenLog(InputStream, String)}, without tokenising the input again; e.g. to
+     cache pages that are parsed repeatedly. The log is compact binary, and is typically smaller than the input.
+     @param inputHtml input to parse
+     @param baseUri base URI of document (i.e. original fetch location), for resolving relative URLs.
+     @param tokenLog the stream to write the token log to. It is flushed, but not closed.
+     @return parsed Document
+     @throws org.jsoup.UncheckedIOException if the log could not be written
+     */
+    public Document parseRecording(Reader inputHtml, String baseUri, OutputStream tokenLog) {
+        Validate.notNull(tokenLog);
+        return treeBuilder.parseRecording(inputHtml, baseUri, this, new TokenLog.Writer(tokenLog, treeBuilder));
+    }
+
+    /**
+     Build a Document from a token log written by {@link #parseRecording(Reader, String, OutputStream)}. The parser must
+     use the same type of tree builder as the recording parser (i.e. an HTML or an XML parser), and should use the same
+     settings. The document is the same as a parse of the original input; parse errors are not recorded in the log, so
+     only those found by the tree builder are tracked, without input positions.
+     @param tokenLog the token log to read. It is buffered, so may be read beyond the end of the log; it is not closed.
+     @param baseUri base URI of document, for resolving relative URLs.
+     @return rebuilt Document
+     @throws org.jsoup.UncheckedIOException if the log could not be read, or is invalid
+     */
+    public Document parseTokenLog(InputStream tokenLog, String baseUri) {
+        Validate.notNull(tokenLog);
+        return treeBuilder.parseTokenLog(new TokenLog.Reader(tokenLog, treeBuilder), baseUri, this);
+    }
+
+    private static String readFully(Reader reader) {
+        final StringBuilder sb = StringUtil.borrowBuilder();
+        final char[] buffer = new char[8192];
+        try {
+            int read;
+            while ((read = reader.read(buffer)) != -1)
+                sb.append(buffer, 0, read);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return StringUtil.releaseBuilder(sb);
+    }
+
+    /**
+     Parse the input, streaming each node to the visitor as it is parsed, without retaining the full document in memory.
+     <p>The visitor's {@code head} method is called when a node is started, and {@code tail} when it is complete, in the
+     same order and with the same depths as a {@link org.jsoup.select.NodeTraversor} traversal of the parsed document
+     would visit them (starting with the Document at depth 0). Nodes are passed once their position in the tree is
+     final (i.e. after HTML error recovery), and are removed from the document after {@code tail}; so only the open
+     elements, and content that may still be restructured (such as in open tables or formatting elements), are held in
+     memory.</p>
+     <p>An element may be passed to {@code head} while it is still open (before its children are parsed), and should not
+     be modified. By {@code tail}, children that have already been streamed may have been removed from it. Attributes
+     from repeated {@code html} or {@code body} tags, that the parser merges into those elements after they have been
+     streamed, are not reported.</p>
+     @param inputHtml input to parse
+     @param baseUri base URI of document (i.e. original fetch location), for resolving relative URLs.
+     @param visitor the visitor to receive nodes
+     */
+    public void streamInput(Reader inputHtml, String baseUri, NodeVisitor visitor) {
+        treeBuilder.stream(inputHtml, baseUri, this, visitor);
+    }
+
+    /**
+     Parse the input, passing each element that matches the selector to the consumer, without retaining the full document
+     in memory. This is equivalent to (but uses less memory than) parsing the document and then calling {@link
+     Element#select(Evaluator)}, for crawlers and scrapers that run a fixed query over each page.
+     <p>Each element is tested when it is parsed, with its ancestors and previous siblings available to the selector; so
+     queries that depend on an element's descendants, text, or following siblings (such as {@code :has()}, {@code
+     :contains()}, or {@code :last-child}) are not supported. Matched elements are passed to the consumer once they are
+     complete, with their children, in document order. The element is detached from the document after the consumer
+     returns (along with any matching descendants, which are passed after it), and may be retained.</p>
+     <p>Elements that have been parsed are discarded, except for empty copies of the previous siblings of open elements,
+     which are kept for the context of sibling selectors.</p>
+     @param inputHtml input to parse
+     @param baseUri base URI of document (i.e. original fetch location), for resolving relative URLs.
+     @param evaluator the selector to match elements with
+     @param consumer receives each matched element
+     @see org.jsoup.select.QueryParser#parse(String)
+     */
+    public void streamSelect(Reader inputHtml, String baseUri, Evaluator evaluator, Consumer<Element> consumer) {
+        Validate.notNull(evaluator);
+        Validate.notNull(consumer);
+        treeBuilder.streamSelect(inputHtml, baseUri, this, evaluator, consumer);
+    }
+
+    /**
+     Parse the input, passing each element that matches the CSS query to the consumer, without retaining the full
+     document in memory.
+     @param inputHtml input to parse
+     @param baseUri base URI of document (i.e. original fetch location), for resolving relative URLs.
+     @param cssQuery a {@link org.jsoup.select.Selector} CSS-like query
+     @param consumer receives each matched element
+     @see #streamSelect(Reader, String, Evaluator, Consumer)
+     */
+    public void streamSelect(Reader inputHtml, String baseUri, String cssQuery, Consumer<Element> consumer) {
+        streamSelect(inputHtml, baseUri, QueryParser.parse(cssQuery), consumer);
+    }
+
+    /**
+     Parse XML input as a stream of records, passing each element named {@code recordName} to the consumer when it is
+     complete, and then discarding it; e.g. each {@code url} of a sitemap, or each {@code item} of an RSS feed. Memory
+     use is bounded by the size of a record and the depth of the open elements, not by the size of the input.
+     <p>A record is passed in the document (as its only content), and is detached from it after the consumer returns,
+     so it may be retained. A record nested in another is passed as part of the outer record. Content outside of
+     records (such as a feed's title) is discarded. An unclosed record at the end of the input is passed as it is.</p>
+     <p>Only supported by the {@link #xmlParser() XML parser}; as the HTML tree builder may restructure elements after
+     they are closed, use {@link #streamSelect(Reader, String, String, Consumer)} to stream HTML.</p>
+     @param input input to parse
+     @param baseUri base URI of document (i.e. original fetch location), for resolving relative URLs.
+     @param recordName the tag name of the record elements
+     @param consumer receives each record
+     @throws IllegalArgumentException if this is not an XML parser
+     */
+    public void streamRecords(Reader input, String baseUri, String recordName, Consumer<Element> consumer) {
+        Validate.notEmpty(recordName);
+        Validate.notNull(consumer);
+        treeBuilder.streamRecords(input, baseUri, this, recordName, consumer);
+    }
+
     public List<Node> parseFragmentInput(String fragment, Element context, String baseUri) {
         return treeBuilder.parseFragment(fragment, context, baseUri, this);
     }
+
+    /**
+     Create a new incremental parser, which is fed input in chunks as it becomes available, instead of reading it from a
+     blocking Reader. The incremental parser uses a copy of this parser's settings.
+     @param baseUri base URI of document (i.e. original fetch location), for resolving relative URLs.
+     @return a new incremental parser
+     @see IncrementalParser
+     */
+    public IncrementalParser newIncremental(String baseUri) {
+        return new IncrementalParser(newInstance(), baseUri);
+    }
     // gets & sets
     /**
      * Get the TreeBuilder currently in use.
@@ -90,6 +273,372 @@ public class Parser {
         return this;
     }
 
+    /**
+     Check if this parser counts parse errors, without tracking them.
+     @return true if counting errors
+     @see #setCountErrors(boolean)
+     */
+    public boolean isCountErrors() {
+        return errors.isCounting();
+    }
+
+    /**
+     Enable or disable counting parse errors, for the next parse. When counting, the errors are not created or
+     formatted, so the cost is small; get the count with {@link ParseErrorList#getErrorCount()} on {@link #getErrors()}.
+     Counting replaces any {@link #setTrackErrors(int) tracking}, and vice versa. (A tracking list also counts the errors
+     beyond its maximum size.)
+     @param countErrors true to count errors; false to neither count nor track them
+     @return this, for chaining
+     */
+    public Parser setCountErrors(boolean countErrors) {
+        errors = countErrors ? ParseErrorList.counting() : ParseErrorList.noTracking();
+        return this;
+    }
+
+    /**
+     Start a new error list for the next parse, with the same settings. (The last parse's list was passed to its
+     document.)
+     */
+    void resetErrors() {
+        errors = new ParseErrorList(errors);
+    }
+
+    /**
+     Check if this parser retains its buffers and state between parses, for reuse.
+     @return true if reusable
+     @see #setReusable(boolean)
+     */
+    public boolean isReusable() {
+        return reusable;
+    }
+
+    /**
+     Set whether this parser retains its internal buffers and state (the input buffer, tokeniser, and tree builder stacks)
+     between parses, and reuses them in the next parse, vs allocating them each time. That reduces the setup cost of each
+     parse, which can dominate when parsing many small documents (feeds, snippets, etc).
+     <p>A reusable parser must only be used by one thread at a time. Each document it parses refers to its own copy of
+     the parser (which holds the parse's errors), so that documents can be used independently of later parses. Use a
+     {@link ParserPool} to share reusable parsers between threads.</p>
+     @param reusable true to retain and reuse state
+     @return this, for chaining
+     */
+    public Parser setReusable(boolean reusable) {
+        this.reusable = reusable;
+        return this;
+    }
+
+    /**
+     Check if this parser defers the parsing of element attributes until they are accessed.
+     @return true if attributes are parsed lazily
+     @see #setLazyAttributes(boolean)
+     */
+    public boolean isLazyAttributes() {
+        return lazyAttributes;
+    }
+
+    /**
+     Set whether this parser defers the parsing of element attributes until they are first accessed. When set, an
+     element retains its attributes' source from the input, and tokenises it (resolving character references etc.) on
+     the first call to {@link org.jsoup.nodes.Element#attributes()} or another attribute method. That reduces the parse
+     time and memory for documents with many or large attributes, where only a few elements' attributes are used.
+     <p>The attributes of tags that affect tree building (such as {@code html}, {@code body}, and {@code input}) are
+     parsed as usual. Attributes are also parsed as usual when errors are tracked or counted, as their errors are found
+     in tokenising. The parsed attributes are the same as in a usual parse.</p>
+     @param lazyAttributes true to parse attributes on first access
+     @return this, for chaining
+     */
+    public Parser setLazyAttributes(boolean lazyAttributes) {
+        this.lazyAttributes = lazyAttributes;
+        return this;
+    }
+
+    /**
+     Check if this parser retains the input in parsed documents, for text nodes to hold views over.
+     @return true if the input is retained
+     @see #setRetainInput(boolean)
+     */
+    public boolean isRetainInput() {
+        return retainInput;
+    }
+
+    /**
+     Set whether this parser retains the input in parsed documents, and keeps the text of text and data nodes (e.g.
+     script contents) as views over it, instead of copying the text into each node. A node's text is copied out of the
+     input when it is changed, or when {@link org.jsoup.nodes.TextNode#getWholeText()} or {@link
+     org.jsoup.nodes.DataNode#getWholeData()} is called; the input is retained while any node holds a view of it.
+     <p>That reduces the retained memory of documents whose input string is retained anyway, or whose input is
+     dominated by text and data (such as large inline scripts). Short texts, and text that is not in the input as is
+     (e.g. decoded from character references), are copied as usual. A Reader input is read fully into memory.</p>
+     @param retainInput true to retain the input, and hold text as views over it
+     @return this, for chaining
+     */
+    public Parser setRetainInput(boolean retainInput) {
+        this.retainInput = retainInput;
+        return this;
+    }
+
+    /**
+     Check if this parser resolves the namespaces of XML elements.
+     @return true if namespace aware
+     @see #setNamespaceAware(boolean)
+     */
+    public boolean isNamespaceAware() {
+        return namespaceAware;
+    }
+
+    /**
+     Set whether this parser resolves the namespace of each element from the {@code xmlns} declarations in scope, as it
+     is parsed; so that {@link Element#namespace()} returns the namespace URI, and elements can be selected by namespace
+     (e.g. with {@link Element#getElementsByTagNS(String, String)}). Each declared URI is held once, and shared by the
+     elements in its scope. Only used by the {@link #xmlParser() XML parser}; attributes are not lazily parsed in a
+     namespace aware parse.
+     @param namespaceAware true to resolve element namespaces
+     @return this, for chaining
+     */
+    public Parser setNamespaceAware(boolean namespaceAware) {
+        this.namespaceAware = namespaceAware;
+        return this;
+    }
+
+    /**
+     Check if this parser tracks the source positions of elements and their attributes.
+     @return true if tracking positions
+     @see #setTrackPosition(boolean)
+     */
+    public boolean isTrackPosition() {
+        return trackPosition;
+    }
+
+    /**
+     Set whether this parser tracks the source position of each element's start tag, end tag, and attributes, as it is
+     parsed; retrieved with {@link Element#sourceRange()}, {@link Element#endSourceRange()}, and {@link
+     Element#attributeSourceRange(String)}. The line and column numbers are found from an index of the newlines, built
+     as the input is read, so the input is not rescanned. Attributes are not lazily parsed when tracking positions.
+     @param trackPosition true to track positions
+     @return this, for chaining
+     */
+    public Parser setTrackPosition(boolean trackPosition) {
+        this.trackPosition = trackPosition;
+        return this;
+    }
+
+    /**
+     Check if this parser detects a legacy charset for input that does not declare its charset.
+     @return true if detecting legacy charsets
+     @see #setDetectLegacyCharset(boolean)
+     */
+    public boolean isDetectLegacyCharset() {
+        return detectLegacyCharset;
+    }
+
+    /**
+     Set whether input that is parsed from bytes (e.g. a file or a response body), and does not declare its charset
+     (by a BOM, the content type, a meta charset, or an XML declaration), is checked for a legacy charset before it is
+     decoded. If its first bytes are not valid UTF-8, it is decoded as windows-1252, instead of as UTF-8 with replacement
+     characters. By default, undeclared input is decoded as UTF-8.
+     @param detectLegacyCharset true to detect legacy charsets
+     @return this, for chaining
+     */
+    public Parser setDetectLegacyCharset(boolean detectLegacyCharset) {
+        this.detectLegacyCharset = detectLegacyCharset;
+        return this;
+    }
+
+    /**
+     Get the tags whose content this parser skips.
+     @return the tag names (lower case), or an empty array if no content is skipped
+     @see #setSkipContent(String...)
+     */
+    public String[] getSkipContent() {
+        return skipContent != null ? skipContent.clone() : new String[0];
+    }
+
+    /**
+     Set the tags whose content this parser skips, for a faster and lighter parse when the content is not needed: e.g.
+     {@code script}, {@code style}, {@code template}, or {@code noscript}. Elements with these tags are kept in the
+     document, but their content is only scanned as far as needed to find the element's end tag; it is neither
+     tokenised nor buffered, and the elements are left empty (or hold a placeholder; see {@link
+     #setSkipContentPlaceholder(boolean)}).
+     <p>For elements whose content is raw text (like {@code script} and {@code style}), the end tag is found as when
+     parsing the content. For other elements (like {@code template}), the content is scanned as raw text to the first
+     matching end tag; so a nested element with the same tag ends the skip early.</p>
+     @param tagNames the tag names (case insensitive); none to not skip any content
+     @return this, for chaining
+     */
+    public Parser setSkipContent(String... tagNames) {
+        Validate.noNullElements(tagNames);
+        if (tagNames.length == 0) {
+            skipContent = null;
+            return this;
+        }
+        final String[] names = new String[tagNames.length];
+        for (int i = 0; i < tagNames.length; i++) {
+            Validate.notEmpty(tagNames[i]);
+            names[i] = Normalizer.lowerCase(tagNames[i].trim());
+        }
+        Arrays.sort(names);
+        skipContent = names;
+        return this;
+    }
+
+    /**
+     For the tags set with {@link #setSkipContent(String...)}: check if a skipped element holds a placeholder.
+     @return true if skipped content is replaced by a placeholder
+     @see #setSkipContentPlaceholder(boolean)
+     */
+    public boolean isSkipContentPlaceholder() {
+        return skipContentPlaceholder;
+    }
+
+    /**
+     For the tags set with {@link #setSkipContent(String...)}: set whether an element whose content was skipped holds a
+     placeholder in its place, recording the length of the content, as a comment like {@code <!--skipped 1234-->}.
+     Elements with no content are left empty.
+     @param placeholder true to replace skipped content with a placeholder comment
+     @return this, for chaining
+     */
+    public Parser setSkipContentPlaceholder(boolean placeholder) {
+        this.skipContentPlaceholder = placeholder;
+        return this;
+    }
+
+    /**
+     Get the maximum depth of nested elements that this parser builds.
+     @return the maximum depth, or 0 if unlimited
+     @see #setMaxDepth(int)
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     Set the maximum depth of nested elements that this parser builds. Pathological input, such as many thousands of
+     unclosed elements, makes the tree builder's scope checks slow as the stack of open elements grows; this limit
+     bounds that. If the depth is exceeded, parsing stops (or throws); see {@link #setThrowOnLimit(boolean)}.
+     @param maxDepth the maximum depth; or 0 for no limit (the default)
+     @return this, for chaining
+     */
+    public Parser setMaxDepth(int maxDepth) {
+        Validate.isTrue(maxDepth >= 0, "maxDepth must be 0 (unlimited) or greater");
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     Get the maximum number of nodes that this parser builds.
+     @return the maximum number of nodes, or 0 if unlimited
+     @see #setMaxNodes(int)
+     */
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     Set the maximum number of nodes (elements, text, and other nodes) that this parser builds into a document. If the
+     limit is exceeded, parsing stops (or throws); see {@link #setThrowOnLimit(boolean)}.
+     @param maxNodes the maximum number of nodes; or 0 for no limit (the default)
+     @return this, for chaining
+     */
+    public Parser setMaxNodes(int maxNodes) {
+        Validate.isTrue(maxNodes >= 0, "maxNodes must be 0 (unlimited) or greater");
+        this.maxNodes = maxNodes;
+        return this;
+    }
+
+    /**
+     Get the maximum number of attributes, across all elements, that this parser builds.
+     @return the maximum number of attributes, or 0 if unlimited
+     @see #setMaxAttributes(int)
+     */
+    public int getMaxAttributes() {
+        return maxAttributes;
+    }
+
+    /**
+     Set the maximum number of attributes, across all elements, that this parser builds into a document. If the limit
+     is exceeded, parsing stops before the start tag that exceeds it (or throws); see {@link
+     #setThrowOnLimit(boolean)}. Attributes are counted as they are tokenised, so {@link #setLazyAttributes(boolean)
+     lazy attributes} are not used with this limit.
+     @param maxAttributes the maximum number of attributes; or 0 for no limit (the default)
+     @return this, for chaining
+     */
+    public Parser setMaxAttributes(int maxAttributes) {
+        Validate.isTrue(maxAttributes >= 0, "maxAttributes must be 0 (unlimited) or greater");
+        this.maxAttributes = maxAttributes;
+        return this;
+    }
+
+    /**
+     Get the maximum length of input that this parser reads.
+     @return the maximum input length in chars, or 0 if unlimited
+     @see #setMaxInputLength(int)
+     */
+    public int getMaxInputLength() {
+        return maxInputLength;
+    }
+
+    /**
+     Set the maximum length of input that this parser reads. Input past the limit is not read; the document is built
+     from the input up to it, as if the input ended there (or the parse throws; see {@link #setThrowOnLimit(boolean)}).
+     @param maxInputLength the maximum input length, in chars; or 0 for no limit (the default)
+     @return this, for chaining
+     */
+    public Parser setMaxInputLength(int maxInputLength) {
+        Validate.isTrue(maxInputLength >= 0, "maxInputLength must be 0 (unlimited) or greater");
+        this.maxInputLength = maxInputLength;
+        return this;
+    }
+
+    /**
+     Check if this parser throws when the input exceeds one of its limits.
+     @return true if throws; false if parsing stops and returns the document built so far
+     @see #setThrowOnLimit(boolean)
+     */
+    public boolean isThrowOnLimit() {
+        return throwOnLimit;
+    }
+
+    /**
+     Set what this parser does when the input exceeds one of its limits (the {@link #setMaxDepth(int) depth}, {@link
+     #setMaxNodes(int) nodes}, {@link #setMaxAttributes(int) attributes}, and {@link #setMaxInputLength(int) input
+     length}). By default, parsing stops: the rest of the input is not parsed, and the document built so far is
+     returned, with its open elements closed as at the end of input. A parse error notes the limit that was exceeded,
+     if {@link #setTrackErrors(int) errors are tracked}. Or, if set to throw, the parse throws a {@link
+     ParseLimitException}.
+     <p>The limits are checked between tokens, so the document may hold the nodes of the token that exceeded the depth
+     or node limits.</p>
+     @param throwOnLimit true to throw when a limit is exceeded; false to stop parsing and return the document
+     @return this, for chaining
+     */
+    public Parser setThrowOnLimit(boolean throwOnLimit) {
+        this.throwOnLimit = throwOnLimit;
+        return this;
+    }
+
+    /**
+     Check if any of the parse limits are set.
+     */
+    boolean isLimited() {
+        return maxDepth > 0 || maxNodes > 0 || maxAttributes > 0 || maxInputLength > 0;
+    }
+
+    /**
+     Get the sorted tag names to skip the content of, for the tree builder; or null if none.
+     */
+    @Nullable String[] skipContentTags() {
+        return skipContent;
+    }
+
+    /**
+     For a reusable parser, get a (non-reusable) copy to retain in a parsed document, holding that parse's errors.
+     */
+    Parser detachedCopy() {
+        Parser copy = new Parser(this);
+        copy.errors = errors;
+        copy.reusable = false;
+        return copy;
+    }
+
     /**
      * Retrieve the parse errors, if any, from the last parse.
      * @return list of parse errors, up to the size of the maximum errors tracked.
@@ -107,6 +656,57 @@ public class Parser {
         return settings;
     }
 
+    /**
+     Set the string interner to use for the tag names, attribute names, and short values in subsequent parses. By
+     default, each parse uses its own small cache; set a shared interner (e.g. {@link StringInterner#shared()}) to reuse
+     strings across parses and threads, so that retained documents share them. The interner's hit and miss counts are
+     updated as each document parse completes.
+     @param interner the interner to use, or null for a cache per parse
+     @return this, for chaining
+     */
+    public Parser interner(@Nullable StringInterner interner) {
+        this.interner = interner;
+        return this;
+    }
+
+    /**
+     Get the string interner that is shared across parses, if one has been set.
+     @return the interner, or null if each parse uses its own cache
+     */
+    public @Nullable StringInterner interner() {
+        return interner;
+    }
+
+    /**
+     Parse large inputs in parallel, by tokenising chunks of the input concurrently on the executor, while the tree is
+     built from their tokens in order. Inputs of at least twice the chunk size are parsed in parallel; smaller inputs
+     are parsed sequentially. The parsed document is the same as a sequential parse.
+     <p>Each chunk is tokenised speculatively, predicting the tokeniser state at its start; where that is wrong (e.g. a
+     chunk starts within a script), the input is re-tokenised sequentially until the chunk's tokens match again. So the
+     speed-up depends on the input: documents of many repeated elements (like large tables or lists) split well. A
+     Reader input is read fully into memory before parsing.</p>
+     @param executor the executor to tokenise chunks on (e.g. {@link java.util.concurrent.ForkJoinPool#commonPool()}),
+     or null to parse sequentially. It is not shut down by the parser.
+     @param chunkSize the approximate size of each chunk, in chars
+     @return this, for chaining
+     */
+    public Parser parallel(@Nullable ExecutorService executor, int chunkSize) {
+        Validate.isTrue(chunkSize > 0, "Chunk size must be > 0");
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     Parse large inputs in parallel, in chunks of the {@link #DefaultChunkSize default size}.
+     @param executor the executor to tokenise chunks on, or null to parse sequentially
+     @return this, for chaining
+     @see #parallel(ExecutorService, int)
+     */
+    public Parser parallel(@Nullable ExecutorService executor) {
+        return parallel(executor, DefaultChunkSize);
+    }
+
     /**
      (An internal method, visible for Element. For HTML parse, signals that script and style text should be treated as
      Data Nodes).
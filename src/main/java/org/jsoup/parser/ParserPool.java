@@ -0,0 +1,98 @@
+package org.jsoup.parser;
+
+import org.jsoup.helper.Validate;
+import org.jsoup.nodes.Document;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ A pool of {@link Parser#setReusable(boolean) reusable} parsers, that can be shared between threads. Each parse borrows
+ an idle parser (or creates a new one, if none are idle), and returns it to the pool once complete, so that the parser's
+ buffers and state are reused by later parses, on any thread.
+ <p>Usage example:</p>
+ <pre>{@code
+ static final ParserPool pool = new ParserPool(Parser.htmlParser());
+ ...
+ Document doc = pool.parseInput(html, baseUri);
+ }</pre>
+ <p>The pool is thread-safe. Parsed documents are independent of the pool, and of the parser that parsed them.</p>
+ */
+public class ParserPool {
+    private final Parser template;
+    private final ArrayBlockingQueue<Parser> idle;
+
+    /**
+     Create a new pool, of copies of the template parser.
+     @param template the parser to copy (with its tree builder, settings, error tracking, and interner). Later changes to
+     the template apply to parsers created after the change.
+     @param maxIdle the maximum number of idle parsers to retain. Parsers returned beyond this are discarded.
+     */
+    public ParserPool(Parser template, int maxIdle) {
+        Validate.notNull(template);
+        Validate.isTrue(maxIdle > 0, "Max idle must be > 0");
+        this.template = template;
+        idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    /**
+     Create a new pool, of copies of the template parser, retaining up to two idle parsers per available processor.
+     @param template the parser to copy
+     */
+    public ParserPool(Parser template) {
+        this(template, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     Borrow a parser from the pool. It must be returned with {@link #release(Parser)} when done, and not be used after
+     that.
+     @return an idle parser, or a new one if none are idle
+     */
+    public Parser borrow() {
+        Parser parser = idle.poll();
+        return parser != null ? parser : template.newInstance().setReusable(true);
+    }
+
+    /**
+     Return a parser to the pool, to be reused by a later parse.
+     @param parser a parser from {@link #borrow()}
+     */
+    public void release(Parser parser) {
+        Validate.isTrue(parser.isReusable(), "Only reusable parsers can be returned to the pool");
+        idle.offer(parser); // discarded if the pool is full
+    }
+
+    /**
+     Parse HTML into a Document, using a parser from the pool.
+     @param html HTML to parse
+     @param baseUri base URI of document, to resolve relative links against
+     @return parsed Document
+     */
+    public Document parseInput(String html, String baseUri) {
+        return parseInput(new StringReader(html), baseUri);
+    }
+
+    /**
+     Parse HTML into a Document, using a parser from the pool.
+     @param html HTML to parse
+     @param baseUri base URI of document, to resolve relative links against
+     @return parsed Document
+     */
+    public Document parseInput(Reader html, String baseUri) {
+        final Parser parser = borrow();
+        try {
+            return parser.parseInput(html, baseUri);
+        } finally {
+            release(parser);
+        }
+    }
+
+    /**
+     Get the number of idle parsers currently held by the pool.
+     @return count of idle parsers
+     */
+    public int idleCount() {
+        return idle.size();
+    }
+}
@@ -0,0 +1,43 @@
+package org.jsoup.parser;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.function.Consumer;
+
+/**
+ Receives nodes from a streaming parse, and passes the elements that match an evaluator to a consumer. An element is
+ tested when it is started, with its ancestors and previous siblings in place. If it matches, the tree builder holds its
+ children until it is complete; then it and any matching descendants are passed to the consumer, in document order.
+ */
+final class StreamSelector implements NodeVisitor {
+    private final TreeBuilder treeBuilder;
+    private final Evaluator evaluator;
+    private final Consumer<Element> consumer;
+
+    StreamSelector(TreeBuilder treeBuilder, Evaluator evaluator, Consumer<Element> consumer) {
+        this.treeBuilder = treeBuilder;
+        this.evaluator = evaluator;
+        this.consumer = consumer;
+    }
+
+    @Override public void head(Node node, int depth) {
+        if (treeBuilder.streamHeld == null && node instanceof Element && evaluator.matches(treeBuilder.doc, (Element) node))
+            treeBuilder.streamHeld = (Element) node;
+    }
+
+    @Override public void tail(Node node, int depth) {
+        if (node != treeBuilder.streamHeld)
+            return;
+        treeBuilder.streamHeld = null;
+
+        final Element held = (Element) node;
+        consumer.accept(held);
+        for (Element desc : held.getAllElements()) { // includes held, first
+            if (desc != held && evaluator.matches(treeBuilder.doc, desc))
+                consumer.accept(desc);
+        }
+    }
+}
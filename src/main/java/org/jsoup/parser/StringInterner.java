@@ -0,0 +1,152 @@
+package org.jsoup.parser;
+
+import org.jsoup.helper.Validate;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ A bounded cache of strings, used by the parser to reuse (vs re-create) the tag names, attribute names, and short values
+ that occur repeatedly in the input. As well as reducing garbage while parsing, interned strings are shared by the
+ documents that are retained, so e.g. each {@code class} attribute name refers to the same String.
+ <p>By default, each parse uses its own small interner, so the vocabulary is re-learned per document. To share an interner
+ between parses (and threads), set it on the parser with {@link Parser#interner(StringInterner)}; e.g. {@link #shared()}.
+ </p>
+ <p>The interner is a fixed size table, indexed by the string's hash. On a hash collision, the newer string replaces the
+ older, so memory use is bounded by the table size and the maximum length of the strings it holds, regardless of the
+ input. It is thread-safe without locking: as Strings are immutable, a slot read by one thread while it is replaced by
+ another will return either the old or the new string, and both are valid.</p>
+ */
+public class StringInterner {
+    private static final StringInterner shared = new StringInterner(1024 * 4, 64);
+
+    private final String[] table;
+    private final int mask;
+    private final int maxLength;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     Create a new interner.
+     @param size the number of slots in the table; rounded up to a power of two
+     @param maxLength the maximum length of strings to intern. Longer strings are not cached, as they are less likely to
+     repeat, and cost more to hash and compare.
+     */
+    public StringInterner(int size, int maxLength) {
+        Validate.isTrue(size > 0 && size <= 1 << 24, "Size must be between 1 and 2^24");
+        Validate.isTrue(maxLength > 0, "Max length must be > 0");
+        int tableSize = Integer.highestOneBit(size);
+        if (tableSize < size) tableSize <<= 1;
+        table = new String[tableSize];
+        mask = tableSize - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     Get the shared interner: 4096 slots, of strings up to 64 chars long (so at most ~1MB when full).
+     @return the shared interner
+     */
+    public static StringInterner shared() {
+        return shared;
+    }
+
+    /**
+     Get the interned instance of a string. If an equal string is in the table, it is returned; otherwise this string is
+     added (if it is not longer than the maximum length), and returned.
+     @param string the string to intern
+     @return an equal string, the interned instance if there is one
+     */
+    public String intern(String string) {
+        final int count = string.length();
+        if (count > maxLength || count == 0)
+            return string;
+
+        int hash = 31 * count;
+        for (int i = 0; i < count; i++) {
+            hash = 31 * hash + string.charAt(i);
+        }
+        final int index = hash & mask;
+        final String cached = table[index];
+        if (string.equals(cached)) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        table[index] = string;
+        return string;
+    }
+
+    /**
+     Get the number of lookups that found an interned string, since creation or the last {@link #resetStats()}.
+     @return count of hits
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     Get the number of lookups that did not find an interned string (and so added a new one). Strings longer than the
+     maximum length are not counted.
+     @return count of misses
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     Get the ratio of hits to all lookups.
+     @return the hit rate, between 0 and 1; or 0 if there have been no lookups
+     */
+    public double hitRate() {
+        final long hits = hits();
+        final long total = hits + misses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     Reset the hit and miss counts to zero. The interned strings are retained.
+     */
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "StringInterner{size=" + table.length + ", maxLength=" + maxLength + ", hits=" + hits() + ", misses=" + misses() + "}";
+    }
+
+    // The lookups below are used by the CharacterReader, directly on its char buffer without creating a String (unless
+    // missing). The reader counts hits and misses itself, and records them once when closed, so that concurrent parses
+    // don't contend on the counters.
+
+    int maxLength() {
+        return maxLength;
+    }
+
+    static int hash(final char[] charBuf, final int start, final int count) {
+        int hash = 31 * count;
+        int offset = start;
+        for (int i = 0; i < count; i++) {
+            hash = 31 * hash + charBuf[offset++];
+        }
+        return hash;
+    }
+
+    @Nullable String find(final char[] charBuf, final int start, final int count, final int hash) {
+        final String cached = table[hash & mask];
+        return cached != null && CharacterReader.rangeEquals(charBuf, start, count, cached) ? cached : null;
+    }
+
+    String add(final char[] charBuf, final int start, final int count, final int hash) {
+        // replaces any colliding string, as recently used strings are more likely to show up again
+        final String string = new String(charBuf, start, count);
+        table[hash & mask] = string;
+        return string;
+    }
+
+    void record(long hits, long misses) {
+        if (hits > 0) this.hits.addAndGet(hits);
+        if (misses > 0) this.misses.addAndGet(misses);
+    }
+}
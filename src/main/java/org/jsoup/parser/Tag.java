@@ -16,6 +16,7 @@ public class Tag implements Cloneable {
 
     private String tagName;
     private String normalName; // always the lower case version of this tag, regardless of case preservation mode
+    private final int id; // the TagId of the normal name, for the tree builder
     private boolean isBlock = true; // block
     private boolean formatAsBlock = true; // should be formatted as a block
     private boolean empty = false; // can hold nothing; e.g. img
@@ -27,6 +28,7 @@ public class Tag implements Cloneable {
     private Tag(String tagName) {
         this.tagName = tagName;
         normalName = Normalizer.lowerCase(tagName);
+        id = TagId.of(normalName);
     }
 
     /**
@@ -46,6 +48,13 @@ public class Tag implements Cloneable {
         return normalName;
     }
 
+    /**
+     * Get this tag's {@link TagId}, by its normal name.
+     */
+    int id() {
+        return id;
+    }
+
     /**
      * Get a Tag by name. If not previously defined (unknown), returns a new generic tag, that can do anything.
      * <p>
@@ -180,6 +189,19 @@ public class Tag implements Cloneable {
         return formSubmit;
     }
 
+    /**
+     (An internal method, visible for DocumentCodec.) Get a tag by name, marked as self closing; as the parser marks
+     unknown tags that were self closed in the input, so that they are output as such.
+     @param tagName name of the tag. Case sensitive.
+     @return an unregistered tag, marked as self closing
+     */
+    public static Tag valueOfSelfClosing(String tagName) {
+        Tag tag = valueOf(tagName, ParseSettings.preserveCase);
+        if (tags.get(tag.tagName) == tag) // don't modify a known tag
+            tag = tag.clone();
+        return tag.setSelfClosing();
+    }
+
     Tag setSelfClosing() {
         selfClosing = true;
         return this;
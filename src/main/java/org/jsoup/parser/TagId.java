@@ -0,0 +1,92 @@
+package org.jsoup.parser;
+
+import org.jsoup.helper.Validate;
+
+import java.util.HashMap;
+
+/**
+ Integer ids for the tag names that the HTML tree builder acts on, and sets of those names as bit masks. Each token and
+ {@link Tag} resolves its id once, so that the tree builder can switch on the id, and test if it is in a set with a mask,
+ rather than comparing names and searching sorted arrays of them for each token.
+ <p>Names the tree builder does not single out have the id {@link #Unknown}, which is in no set.</p>
+ */
+final class TagId {
+    static final int Unknown = 0, A = 1, Address = 2, Applet = 3, Area = 4, Article = 5, Aside = 6, B = 7, Base = 8,
+        Basefont = 9, Bgsound = 10, Big = 11, Blockquote = 12, Body = 13, Br = 14, Button = 15, Caption = 16,
+        Center = 17, Code = 18, Col = 19, Colgroup = 20, Command = 21, Dd = 22, Details = 23, Dir = 24, Div = 25,
+        Dl = 26, Dt = 27, Em = 28, Embed = 29, Fieldset = 30, Figcaption = 31, Figure = 32, Font = 33, Footer = 34,
+        Form = 35, Frame = 36, Frameset = 37, H1 = 38, H2 = 39, H3 = 40, H4 = 41, H5 = 42, H6 = 43, Head = 44,
+        Header = 45, Hgroup = 46, Hr = 47, Html = 48, I = 49, Iframe = 50, Image = 51, Img = 52, Input = 53,
+        Isindex = 54, Keygen = 55, Label = 56, Li = 57, Link = 58, Listing = 59, Marquee = 60, Math = 61, Menu = 62,
+        Meta = 63, Nav = 64, Nobr = 65, Noembed = 66, Noframes = 67, Noscript = 68, Object = 69, Ol = 70,
+        Optgroup = 71, Option = 72, P = 73, Param = 74, Plaintext = 75, Pre = 76, Rp = 77, Rt = 78, Ruby = 79, S = 80,
+        Sarcasm = 81, Script = 82, Section = 83, Select = 84, Small = 85, Source = 86, Span = 87, Strike = 88,
+        Strong = 89, Style = 90, Summary = 91, Svg = 92, Table = 93, Tbody = 94, Td = 95, Template = 96, Textarea = 97,
+        Tfoot = 98, Th = 99, Thead = 100, Title = 101, Tr = 102, Track = 103, Tt = 104, U = 105, Ul = 106, Wbr = 107,
+        Xmp = 108;
+
+    private static final String[] names = {"", "a", "address", "applet", "area", "article", "aside", "b", "base",
+        "basefont", "bgsound", "big", "blockquote", "body", "br", "button", "caption", "center", "code", "col",
+        "colgroup", "command", "dd", "details", "dir", "div", "dl", "dt", "em", "embed", "fieldset", "figcaption",
+        "figure", "font", "footer", "form", "frame", "frameset", "h1", "h2", "h3", "h4", "h5", "h6", "head", "header",
+        "hgroup", "hr", "html", "i", "iframe", "image", "img", "input", "isindex", "keygen", "label", "li", "link",
+        "listing", "marquee", "math", "menu", "meta", "nav", "nobr", "noembed", "noframes", "noscript", "object", "ol",
+        "optgroup", "option", "p", "param", "plaintext", "pre", "rp", "rt", "ruby", "s", "sarcasm", "script",
+        "section", "select", "small", "source", "span", "strike", "strong", "style", "summary", "svg", "table",
+        "tbody", "td", "template", "textarea", "tfoot", "th", "thead", "title", "tr", "track", "tt", "u", "ul", "wbr",
+        "xmp"};
+
+
+    private static final HashMap<String, Integer> ids = new HashMap<>(names.length * 2);
+    private static final long[] sets = new long[names.length]; // by id, the bits of the sets that the id is in
+    private static int numSets = 0;
+
+    static {
+        for (int id = 1; id < names.length; id++)
+            ids.put(names[id], id);
+    }
+
+    private TagId() {}
+
+    /**
+     Get the id of a normal (lower case) tag name.
+     @param normalName the normal name, e.g. {@code p}
+     @return the id, or {@link #Unknown} if the tree builder does not single out the name
+     */
+    static int of(String normalName) {
+        final Integer id = ids.get(normalName);
+        return id != null ? id : Unknown;
+    }
+
+    /**
+     Get the normal name of an id.
+     */
+    static String name(int id) {
+        return names[id];
+    }
+
+    /**
+     Define a set of tag names. Each set takes one of the 64 bits available.
+     @param setNames the names in the set, all of which must have ids
+     @return the set's mask, to test with {@link #in(int, long)}
+     */
+    static synchronized long set(String... setNames) {
+        Validate.isTrue(numSets < 64, "Too many tag sets");
+        final long set = 1L << numSets++;
+        for (String name : setNames) {
+            final int id = of(name);
+            Validate.isTrue(id != Unknown, "Tag name has no id: " + name);
+            sets[id] |= set;
+        }
+        return set;
+    }
+
+    /**
+     Test if the id is in any of the sets.
+     @param id the tag id
+     @param set the mask of one or more sets (or'ed together)
+     */
+    static boolean in(int id, long set) {
+        return (sets[id] & set) != 0;
+    }
+}
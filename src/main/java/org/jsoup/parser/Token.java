@@ -3,6 +3,9 @@ package org.jsoup.parser;
 import org.jsoup.helper.Validate;
 import org.jsoup.nodes.Attributes;
 
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
 import static org.jsoup.internal.Normalizer.lowerCase;
 
 /**
@@ -75,6 +78,7 @@ abstract class Token {
     static abstract class Tag extends Token {
         protected String tagName;
         protected String normalName; // lc version of tag name, for case insensitive tree build
+        int id = -1; // the TagId of the normal name, resolved on first use
         private String pendingAttributeName; // attribute names are generally caught in one hop, not accumulated
         private StringBuilder pendingAttributeValue = new StringBuilder(); // but values are accumulated, from e.g. & in hrefs
         private String pendingAttributeValueS; // try to get attr vals in one shot, vs Builder
@@ -82,11 +86,20 @@ abstract class Token {
         private boolean hasPendingAttributeValue = false;
         boolean selfClosing = false;
         Attributes attributes; // start tags get attributes on construction. End tags get attributes on first new attribute (but only for parser convenience, not used).
+        @Nullable String attributeSource; // in a lazy attribute parse, the start tag's attributes, untokenised
+        int startPos = -1; // the position of the tag's < in the input, if tracking positions
+        int endPos = -1; // the position after the tag's >
+        @Nullable CharacterReader positionReader; // set if tracking positions, to find the positions of attributes
+        private int attributeStart, attributeEnd; // the position of the pending attribute
+        @Nullable String[] attributeKeys; // by attribute, in the order added: the key, and its start and end positions
+        @Nullable int[] attributePositions;
+        int attributePositionCount;
 
         @Override
         Tag reset() {
             tagName = null;
             normalName = null;
+            id = -1;
             pendingAttributeName = null;
             reset(pendingAttributeValue);
             pendingAttributeValueS = null;
@@ -94,6 +107,12 @@ abstract class Token {
             hasPendingAttributeValue = false;
             selfClosing = false;
             attributes = null;
+            attributeSource = null;
+            startPos = -1;
+            endPos = -1;
+            attributeKeys = null; // not cleared for reuse, as a parallel parse's copies share them
+            attributePositions = null;
+            attributePositionCount = 0;
             return this;
         }
 
@@ -114,6 +133,8 @@ abstract class Token {
                         value = null;
                     // note that we add, not put. So that the first is kept, and rest are deduped, once in a context where case sensitivity is known (the appropriate tree builder).
                     attributes.add(pendingAttributeName, value);
+                    if (positionReader != null)
+                        addAttributePosition(pendingAttributeName);
                 }
             }
             pendingAttributeName = null;
@@ -123,6 +144,30 @@ abstract class Token {
             pendingAttributeValueS = null;
         }
 
+        private void addAttributePosition(String key) {
+            final int count = attributePositionCount;
+            if (attributeKeys == null) {
+                attributeKeys = new String[4];
+                attributePositions = new int[8];
+            } else if (count == attributeKeys.length) {
+                attributeKeys = Arrays.copyOf(attributeKeys, count * 2);
+                attributePositions = Arrays.copyOf(attributePositions, count * 4);
+            }
+            attributeKeys[count] = key;
+            attributePositions[count * 2] = attributeStart;
+            attributePositions[count * 2 + 1] = attributeEnd;
+            attributePositionCount++;
+        }
+
+        /**
+         If tracking positions, extend the pending attribute to the reader's position; e.g. past the closing quote of its
+         value.
+         */
+        final void trackAttributeEnd() {
+            if (positionReader != null)
+                attributeEnd = positionReader.pos();
+        }
+
         final boolean hasAttributes() {
             return attributes != null;
         }
@@ -149,6 +194,13 @@ abstract class Token {
             return normalName;
         }
 
+        /** The {@link TagId} of the normal name; an int to switch on in tree building */
+        final int id() {
+            if (id == -1)
+                id = TagId.of(normalName);
+            return id;
+        }
+
         final String toStringName() {
             return tagName != null ? tagName : "[unset]";
         }
@@ -156,6 +208,7 @@ abstract class Token {
         final Tag name(String name) {
             tagName = name;
             normalName = lowerCase(name);
+            id = -1;
             return this;
         }
 
@@ -167,6 +220,7 @@ abstract class Token {
         final void appendTagName(String append) {
             tagName = tagName == null ? append : tagName.concat(append);
             normalName = lowerCase(tagName);
+            id = -1;
         }
 
         final void appendTagName(char append) {
@@ -174,6 +228,11 @@ abstract class Token {
         }
 
         final void appendAttributeName(String append) {
+            if (positionReader != null) {
+                attributeEnd = positionReader.pos(); // the name was just consumed
+                if (pendingAttributeName == null)
+                    attributeStart = attributeEnd - append.length();
+            }
             pendingAttributeName = pendingAttributeName == null ? append : pendingAttributeName.concat(append);
         }
 
@@ -208,10 +267,12 @@ abstract class Token {
         }
         
         final void setEmptyAttributeValue() {
+            trackAttributeEnd();
             hasEmptyAttributeValue = true;
         }
 
         private void ensureAttributeValue() {
+            trackAttributeEnd();
             hasPendingAttributeValue = true;
             // if on second hit, we'll need to move to the builder
             if (pendingAttributeValueS != null) {
@@ -241,6 +302,7 @@ abstract class Token {
             this.tagName = name;
             this.attributes = attributes;
             normalName = lowerCase(tagName);
+            id = -1;
             return this;
         }
 
@@ -248,6 +310,8 @@ abstract class Token {
         public String toString() {
             if (hasAttributes() && attributes.size() > 0)
                 return "<" + toStringName() + " " + attributes.toString() + ">";
+            else if (attributeSource != null)
+                return "<" + toStringName() + " " + attributeSource.trim() + ">";
             else
                 return "<" + toStringName() + ">";
         }
@@ -318,6 +382,7 @@ abstract class Token {
 
     static class Character extends Token {
         private String data;
+        int startPos = -1; // where the first of the data was read from in the input (checked before use, as may be decoded)
 
         Character() {
             super();
@@ -327,6 +392,7 @@ abstract class Token {
         @Override
         Token reset() {
             data = null;
+            startPos = -1;
             return this;
         }
 
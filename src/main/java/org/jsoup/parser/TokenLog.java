@@ -0,0 +1,179 @@
+package org.jsoup.parser;
+
+import org.jsoup.UncheckedIOException;
+import org.jsoup.internal.BinaryInput;
+import org.jsoup.internal.BinaryOutput;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Attributes;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.jsoup.internal.BinaryInput.invalid;
+
+/**
+ A compact binary log of the tokens processed in a parse, from which the document can be rebuilt by the tree builder
+ without tokenising the input again.
+ <p>The log starts with a header (magic, version, and the tree builder's class name), followed by each token: a type
+ byte and its fields. Strings and names are encoded with {@link BinaryOutput}: chars as varints, so ASCII text takes
+ a byte per char; and tag names, attribute names, and short attribute values are written once, then referenced by
+ index.</p>
+ <p>The tokens are those the tree builder processed, which depend on its switches of tokeniser state (e.g. to script
+ data after a {@code <script>} tag), so the log must be replayed with the same type of tree builder. Tokens that the
+ tree builder emits itself (the end of a self-closing tag) are not recorded, as they are emitted again on replay.</p>
+ */
+final class TokenLog {
+    private static final byte[] Magic = {'j', 's', 't', 'l'};
+    private static final int Version = 1;
+
+    // token types
+    private static final int EOF = 0;
+    private static final int StartTag = 1;
+    private static final int SelfClosingStartTag = 2;
+    private static final int EndTag = 3;
+    private static final int Character = 4;
+    private static final int CData = 5;
+    private static final int Comment = 6;
+    private static final int BogusComment = 7;
+    private static final int Doctype = 8;
+
+    private TokenLog() {}
+
+    /** Writes tokens to a log. */
+    static final class Writer {
+        private final BinaryOutput out;
+
+        Writer(OutputStream out, TreeBuilder treeBuilder) {
+            this.out = new BinaryOutput(out);
+            this.out.writeBytes(Magic);
+            this.out.writeVarint(Version);
+            this.out.writeString(treeBuilder.getClass().getName());
+        }
+
+        void write(Token token) {
+            final BinaryOutput out = this.out;
+            switch (token.type) {
+                case StartTag: {
+                    final Token.StartTag tag = (Token.StartTag) token;
+                    out.writeByte(tag.selfClosing ? SelfClosingStartTag : StartTag);
+                    out.writeName(tag.tagName);
+                    final Attributes attributes = tag.attributeSource != null ? // lazy in the parse, but logged as tokens
+                        LazyAttributes.tokenise(tag.attributeSource) : tag.attributes;
+                    if (attributes == null) {
+                        out.writeVarint(0);
+                    } else {
+                        out.writeVarint(attributes.size());
+                        for (Attribute attribute : attributes) {
+                            out.writeName(attribute.getKey());
+                            out.writeValue(attribute.hasDeclaredValue() ? attribute.getValue() : null);
+                        }
+                    }
+                    break;
+                }
+                case EndTag:
+                    out.writeByte(EndTag);
+                    out.writeName(((Token.EndTag) token).tagName);
+                    break;
+                case Character:
+                    out.writeByte(token instanceof Token.CData ? CData : Character);
+                    out.writeString(((Token.Character) token).getData());
+                    break;
+                case Comment: {
+                    final Token.Comment comment = (Token.Comment) token;
+                    out.writeByte(comment.bogus ? BogusComment : Comment);
+                    out.writeString(comment.getData());
+                    break;
+                }
+                case Doctype: {
+                    final Token.Doctype doctype = (Token.Doctype) token;
+                    out.writeByte(Doctype);
+                    out.writeString(doctype.getName());
+                    out.writeNullableString(doctype.getPubSysKey());
+                    out.writeString(doctype.getPublicIdentifier());
+                    out.writeString(doctype.getSystemIdentifier());
+                    out.writeBoolean(doctype.isForceQuirks());
+                    break;
+                }
+                case EOF:
+                    out.writeByte(EOF);
+                    out.flush();
+                    break;
+            }
+        }
+    }
+
+    /** Reads tokens from a log. Tokens are reused between reads (except for tag attributes), as in the Tokeniser. */
+    static final class Reader {
+        private final BinaryInput in;
+        private final Token.StartTag startTag = new Token.StartTag();
+        private final Token.EndTag endTag = new Token.EndTag();
+        private final Token.Character character = new Token.Character();
+        private final Token.Comment comment = new Token.Comment();
+        private final Token.Doctype doctype = new Token.Doctype();
+
+        Reader(InputStream in, TreeBuilder treeBuilder) {
+            this.in = new BinaryInput(in);
+            for (byte b : Magic) {
+                if (this.in.readByte() != b)
+                    throw invalid("Not a token log");
+            }
+            final int version = this.in.readVarint();
+            if (version != Version)
+                throw invalid("Unsupported token log version " + version);
+            final String recordedWith = this.in.readString();
+            if (!recordedWith.equals(treeBuilder.getClass().getName()))
+                throw invalid("Token log was recorded with " + recordedWith + ", not " + treeBuilder.getClass().getName());
+        }
+
+        /**
+         Read the next token.
+         @throws UncheckedIOException if the log could not be read, or is invalid
+         */
+        Token read() {
+            final BinaryInput in = this.in;
+            final int type = in.readByte();
+            switch (type) {
+                case StartTag:
+                case SelfClosingStartTag: {
+                    startTag.reset();
+                    startTag.name(in.readName());
+                    startTag.selfClosing = type == SelfClosingStartTag;
+                    final int count = in.readVarint();
+                    if (count > 0) {
+                        final Attributes attributes = new Attributes();
+                        for (int i = 0; i < count; i++)
+                            attributes.add(in.readName(), in.readValue());
+                        startTag.attributes = attributes;
+                    }
+                    return startTag;
+                }
+                case EndTag:
+                    endTag.reset();
+                    endTag.name(in.readName());
+                    return endTag;
+                case Character:
+                    return character.data(in.readString());
+                case CData:
+                    return new Token.CData(in.readString());
+                case Comment:
+                case BogusComment:
+                    comment.reset();
+                    comment.append(in.readString());
+                    comment.bogus = type == BogusComment;
+                    return comment;
+                case Doctype:
+                    doctype.reset();
+                    doctype.name.append(in.readString());
+                    doctype.pubSysKey = in.readNullableString();
+                    doctype.publicIdentifier.append(in.readString());
+                    doctype.systemIdentifier.append(in.readString());
+                    doctype.forceQuirks = in.readBoolean();
+                    return doctype;
+                case EOF:
+                    return new Token.EOF();
+                default:
+                    throw invalid("Unknown token type " + type);
+            }
+        }
+    }
+}
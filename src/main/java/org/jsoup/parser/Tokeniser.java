@@ -2,7 +2,6 @@ package org.jsoup.parser;
 
 import org.jsoup.helper.Validate;
 import org.jsoup.internal.StringUtil;
-import org.jsoup.nodes.Entities;
 
 import java.util.Arrays;
 
@@ -12,6 +11,7 @@ import java.util.Arrays;
 final class Tokeniser {
     static final char replacementChar = '\uFFFD'; // replaces null character
     private static final char[] notCharRefCharsSorted = new char[]{'\t', '\n', '\r', '\f', ' ', '<', '&'};
+    private static final String[] eagerAttributeTags = {"base", "body", "html", "input", "isindex"}; // sorted; attributes read in tree building
 
     // Some illegal character escapes are parsed by browsers as windows-1252 instead. See issue #1034
     // https://html.spec.whatwg.org/multipage/parsing.html#numeric-character-reference-end-state
@@ -29,13 +29,14 @@ final class Tokeniser {
         Arrays.sort(notCharRefCharsSorted);
     }
 
-    private final CharacterReader reader; // html input
-    private final ParseErrorList errors; // errors found while tokenising
+    private CharacterReader reader; // html input
+    private ParseErrorList errors; // errors found while tokenising
 
     private TokeniserState state = TokeniserState.Data; // current tokenisation state
     private Token emitPending; // the token we are about to emit on next read
     private boolean isEmitPending = false;
     private String charsString = null; // characters pending an emit. Will fall to charsBuilder if more than one
+    private int charsStart; // the position the pending characters started from, if read as is
     private StringBuilder charsBuilder = new StringBuilder(1024); // buffers characters to output as one token, if more than one emit per read
     StringBuilder dataBuffer = new StringBuilder(1024); // buffers data looking for </script>
 
@@ -46,6 +47,13 @@ final class Tokeniser {
     Token.Doctype doctypePending = new Token.Doctype(); // doctype building up
     Token.Comment commentPending = new Token.Comment(); // comment building up
     private String lastStartTag; // the last start tag emitted, to test appropriate end tag
+    boolean lazyAttributes; // if start tag attributes are kept as source, to be parsed on first access
+    private boolean trackPosition; // if tags record their positions, and their attributes'
+    boolean skipping; // if skipping an element's content, discarding characters instead of emitting them
+    private int skipped; // the length of the content skipped
+    private TokeniserState checkpointState; // state and last start tag at the last checkpoint, for incremental parse rewinds
+    private String checkpointLastStartTag;
+    private int checkpointSkipped;
 
     Tokeniser(CharacterReader reader, ParseErrorList errors) {
         this.reader = reader;
@@ -63,9 +71,11 @@ final class Tokeniser {
             String str = cb.toString();
             cb.delete(0, cb.length());
             charsString = null;
+            charPending.startPos = charsStart;
             return charPending.data(str);
         } else if (charsString != null) {
             Token token = charPending.data(charsString);
+            charPending.startPos = charsStart;
             charsString = null;
             return token;
         } else {
@@ -74,6 +84,118 @@ final class Tokeniser {
         }
     }
 
+    /**
+     For incremental parsing: continue tokenising from a new reader, which picks up where the previous one left off.
+     */
+    void reader(CharacterReader reader) {
+        this.reader = reader;
+        trackPosition(trackPosition);
+    }
+
+    /**
+     Set whether tags record their start and end positions in the input, and the positions of their attributes.
+     @see Parser#setTrackPosition(boolean)
+     */
+    void trackPosition(boolean trackPosition) {
+        this.trackPosition = trackPosition;
+        final CharacterReader positionReader = trackPosition ? reader : null;
+        startPending.positionReader = positionReader;
+        endPending.positionReader = positionReader;
+    }
+
+    /**
+     For a parallel parse: the last start tag emitted, which end tags in rcdata, rawtext, and script states must match.
+     */
+    String lastStartTag() {
+        return lastStartTag;
+    }
+
+    /**
+     For a parallel parse: update the state for a token that was read by another tokeniser, and is being replayed
+     as if read by this one.
+     @param token the replayed token
+     @param readState the other tokeniser's state after reading the token
+     */
+    void replayed(Token token, TokeniserState readState) {
+        if (token.type == Token.TokenType.StartTag)
+            lastStartTag = ((Token.StartTag) token).tagName;
+        state = readState;
+    }
+
+    /**
+     For a reusable parser: reset all state to tokenise new input, keeping the builders and tokens for reuse.
+     */
+    void reset(CharacterReader reader, ParseErrorList errors) {
+        this.reader = reader;
+        trackPosition(false);
+        this.errors = errors;
+        state = TokeniserState.Data;
+        emitPending = null;
+        isEmitPending = false;
+        charsString = null;
+        charsBuilder = resetBuilder(charsBuilder);
+        dataBuffer = resetBuilder(dataBuffer);
+        tagPending = null;
+        startPending.reset();
+        endPending.reset();
+        charPending.reset();
+        doctypePending.reset();
+        commentPending.reset();
+        lastStartTag = null;
+        skipping = false;
+        checkpointState = null;
+        checkpointLastStartTag = null;
+    }
+
+    CharacterReader reader() {
+        return reader;
+    }
+
+    private static final int maxRetainedBuilderSize = 1024 * 8;
+    private static StringBuilder resetBuilder(StringBuilder sb) {
+        if (sb.capacity() > maxRetainedBuilderSize) // don't hold onto a large buffer from e.g. a long script
+            return new StringBuilder(1024);
+        sb.setLength(0);
+        return sb;
+    }
+
+    /**
+     Check if a token is pending emit, e.g. one emitted by the tree builder while processing the last token.
+     */
+    boolean isEmitPending() {
+        return isEmitPending;
+    }
+
+    /**
+     Check if there are no tokens or characters pending emit; i.e., the next read will consume from the input.
+     */
+    boolean isClean() {
+        return !isEmitPending && charsString == null && charsBuilder.length() == 0;
+    }
+
+    /**
+     Record the current state, so that a following read can be undone with {@link #rewindToCheckpoint()}. Only valid
+     when {@link #isClean()}.
+     */
+    void checkpoint() {
+        checkpointState = state;
+        checkpointLastStartTag = lastStartTag;
+        checkpointSkipped = skipped;
+    }
+
+    /**
+     Undo any reads since the last {@link #checkpoint()}. The caller is responsible for rewinding the input.
+     */
+    void rewindToCheckpoint() {
+        state = checkpointState;
+        lastStartTag = checkpointLastStartTag;
+        skipped = checkpointSkipped;
+        emitPending = null;
+        isEmitPending = false;
+        charsString = null;
+        charsBuilder.delete(0, charsBuilder.length());
+    }
+
     void emit(Token token) {
         Validate.isFalse(isEmitPending);
 
@@ -86,15 +208,18 @@ final class Tokeniser {
         } else if (token.type == Token.TokenType.EndTag) {
             Token.EndTag endTag = (Token.EndTag) token;
             if (endTag.hasAttributes())
-                error("Attributes incorrectly present on end tag");
+                error(ParseError.Code.AttributesOnEndTag);
         }
     }
 
     void emit(final String str) {
         // buffer strings up until last string token found, to emit only one token for a run of character refs etc.
         // does not set isEmitPending; read checks that
-        if (charsString == null) {
+        if (skipping) {
+            skipped += str.length();
+        } else if (charsString == null) {
             charsString = str;
+            charsStart = reader.pos() - str.length();
         }
         else {
             if (charsBuilder.length() == 0) { // switching to string builder as more than one emit before read
@@ -106,8 +231,11 @@ final class Tokeniser {
 
     // variations to limit need to create temp strings
     void emit(final StringBuilder str) {
-        if (charsString == null) {
+        if (skipping) {
+            skipped += str.length();
+        } else if (charsString == null) {
             charsString = str.toString();
+            charsStart = reader.pos() - str.length();
         }
         else {
             if (charsBuilder.length() == 0) {
@@ -118,8 +246,11 @@ final class Tokeniser {
     }
 
     void emit(char c) {
-        if (charsString == null) {
+        if (skipping) {
+            skipped++;
+        } else if (charsString == null) {
             charsString = String.valueOf(c);
+            charsStart = reader.pos() - 1;
         }
         else {
             if (charsBuilder.length() == 0) {
@@ -137,6 +268,35 @@ final class Tokeniser {
         emit(new String(codepoints, 0, codepoints.length));
     }
 
+    /**
+     Start skipping the content of the current element: characters are discarded (counting their length) instead of
+     emitted, until {@link #endSkip()}. If in the data state, transitions to the rawtext state, to scan for the element's
+     end tag without tokenising its content as markup.
+     @see Parser#setSkipContent(String...)
+     */
+    void skipContent() {
+        skipping = true;
+        skipped = 0;
+        if (state == TokeniserState.Data)
+            state = TokeniserState.Rawtext;
+    }
+
+    /**
+     While skipping content, count characters that were passed over without being emitted.
+     */
+    void skipped(int length) {
+        skipped += length;
+    }
+
+    /**
+     Stop skipping content.
+     @return the length of the content skipped
+     */
+    int endSkip() {
+        skipping = false;
+        return skipped;
+    }
+
     TokeniserState getState() {
         return state;
     }
@@ -196,13 +356,12 @@ final class Tokeniser {
             }
             return codeRef;
         } else { // named
-            // get as many letters as possible, and look for matching entities.
-            String nameRef = reader.consumeLetterThenDigitSequence();
-            boolean looksLegit = reader.matches(';');
+            // get as many letters as possible, and look for matching entities, in the trie of names over the buffer.
             // found if a base named entity without a ;, or an extended entity with the ;.
-            boolean found = (Entities.isBaseNamedEntity(nameRef) || (Entities.isNamedEntity(nameRef) && looksLegit));
+            int numChars = reader.consumeEntityName(multipointHolder);
+            boolean looksLegit = reader.matches(';');
 
-            if (!found) {
+            if (numChars == 0) {
                 reader.rewindToMark();
                 if (looksLegit) // named with semicolon
                     characterReferenceError("invalid named reference");
@@ -217,14 +376,10 @@ final class Tokeniser {
             reader.unmark();
             if (!reader.matchConsume(";"))
                 characterReferenceError("missing semicolon"); // missing semi
-            int numChars = Entities.codepointsForName(nameRef, multipointHolder);
             if (numChars == 1) {
                 codeRef[0] = multipointHolder[0];
                 return codeRef;
-            } else if (numChars ==2) {
-                return multipointHolder;
             } else {
-                Validate.fail("Unexpected characters returned for " + nameRef);
                 return multipointHolder;
             }
         }
@@ -232,11 +387,37 @@ final class Tokeniser {
 
     Token.Tag createTagPending(boolean start) {
         tagPending = start ? startPending.reset() : endPending.reset();
+        if (trackPosition) // created after the < of a start tag, or the </ of an end tag
+            tagPending.startPos = reader.pos() - (start ? 1 : 2);
         return tagPending;
     }
 
+    /**
+     For a lazy attribute parse, from the tag name state: consume the pending start tag's attributes as their source, and
+     emit the tag. The tags whose attributes are used by the tree builder are tokenised as usual.
+     @return true if consumed; false if the attributes should be tokenised
+     */
+    boolean consumeAttributeSource() {
+        if (tagPending != startPending || Arrays.binarySearch(eagerAttributeTags, tagPending.normalName()) >= 0)
+            return false;
+        final String source = reader.consumeAttributeSource();
+        if (source == null)
+            return false;
+        if (source.length() > 0)
+            tagPending.attributeSource = source;
+        if (reader.matchConsume("/>"))
+            tagPending.selfClosing = true;
+        else
+            reader.matchConsume(">"); // else ends before a '<'
+        emitTagPending();
+        transition(TokeniserState.Data);
+        return true;
+    }
+
     void emitTagPending() {
         tagPending.finaliseTag();
+        if (trackPosition)
+            tagPending.endPos = reader.pos();
         emit(tagPending);
     }
 
@@ -274,23 +455,28 @@ final class Tokeniser {
     }
 
     void error(TokeniserState state) {
-        if (errors.canAddError())
-            errors.add(new ParseError(reader.pos(), "Unexpected character '%s' in input state [%s]", reader.current(), state));
+        if (errors.isTracking())
+            errors.report(reader, ParseError.Code.UnexpectedCharacter, reader.current(), state);
     }
 
     void eofError(TokeniserState state) {
-        if (errors.canAddError())
-            errors.add(new ParseError(reader.pos(), "Unexpectedly reached end of file (EOF) in input state [%s]", state));
+        if (errors.isTracking())
+            errors.report(reader, ParseError.Code.UnexpectedEof, state);
     }
 
     private void characterReferenceError(String message) {
-        if (errors.canAddError())
-            errors.add(new ParseError(reader.pos(), "Invalid character reference: %s", message));
+        if (errors.isTracking())
+            errors.report(reader, ParseError.Code.InvalidCharacterReference, message);
+    }
+
+    void error(ParseError.Code code) {
+        if (errors.isTracking())
+            errors.report(reader, code);
     }
 
     void error(String errorMsg) {
-        if (errors.canAddError())
-            errors.add(new ParseError(reader.pos(), errorMsg));
+        if (errors.isTracking())
+            errors.report(reader, ParseError.Code.Other, errorMsg);
     }
 
     boolean currentNodeInHtmlNS() {
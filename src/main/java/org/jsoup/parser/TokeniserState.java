@@ -155,7 +155,8 @@ enum TokeniserState {
                 case '\r':
                 case '\f':
                 case ' ':
-                    t.transition(BeforeAttributeName);
+                    if (!t.lazyAttributes || !t.consumeAttributeSource())
+                        t.transition(BeforeAttributeName);
                     break;
                 case '/':
                     t.transition(SelfClosingStartTag);
@@ -190,6 +191,7 @@ enum TokeniserState {
                 // diverge from spec: got a start tag, but there's no appropriate end tag (</title>), so rather than
                 // consuming to EOF; break out here
                 t.tagPending = t.createTagPending(false).name(t.appropriateEndTagName());
+                t.tagPending.startPos = -1; // implied, so not in the input
                 t.emitTagPending();
                 r.unconsume(); // undo "<"
                 t.transition(Data);
@@ -355,7 +357,7 @@ enum TokeniserState {
                     t.emit(replacementChar);
                     break;
                 default:
-                    String data = r.consumeToAny('-', '<', nullChar);
+                    String data = r.consumeToAny(scriptDataEscapedDelims);
                     t.emit(data);
             }
         }
@@ -481,7 +483,7 @@ enum TokeniserState {
                     t.transition(Data);
                     break;
                 default:
-                    String data = r.consumeToAny('-', '<', nullChar);
+                    String data = r.consumeToAny(scriptDataEscapedDelims);
                     t.emit(data);
             }
         }
@@ -609,7 +611,7 @@ enum TokeniserState {
     AttributeName {
         // from before attribute name
         void read(Tokeniser t, CharacterReader r) {
-            String name = r.consumeToAnySorted(attributeNameCharsSorted);
+            String name = r.consumeToAny(attributeNameDelims);
             t.tagPending.appendAttributeName(name);
 
             char c = r.consume();
@@ -755,6 +757,7 @@ enum TokeniserState {
             char c = r.consume();
             switch (c) {
                 case '"':
+                    t.tagPending.trackAttributeEnd(); // past the closing quote
                     t.transition(AfterAttributeValue_quoted);
                     break;
                 case '&':
@@ -788,6 +791,7 @@ enum TokeniserState {
             char c = r.consume();
             switch (c) {
                 case '\'':
+                    t.tagPending.trackAttributeEnd(); // past the closing quote
                     t.transition(AfterAttributeValue_quoted);
                     break;
                 case '&':
@@ -812,7 +816,7 @@ enum TokeniserState {
     },
     AttributeValue_unquoted {
         void read(Tokeniser t, CharacterReader r) {
-            String value = r.consumeToAnySorted(attributeValueUnquoted);
+            String value = r.consumeToAny(attributeValueUnquotedDelims);
             if (value.length() > 0)
                 t.tagPending.appendAttributeValue(value);
 
@@ -1017,7 +1021,7 @@ enum TokeniserState {
                     t.transition(Data);
                     break;
                 default:
-                    t.commentPending.append(r.consumeToAny('-', nullChar));
+                    t.commentPending.append(r.consumeToAny(commentDelims));
             }
         }
     },
@@ -1634,6 +1638,11 @@ enum TokeniserState {
     // char searches. must be sorted, used in inSorted. MUST update TokenisetStateTest if more arrays are added.
     static final char[] attributeNameCharsSorted = new char[]{nullChar, '\t', '\n', '\f', '\r', ' ', '"', '\'', '/', '<', '=', '>'};
     static final char[] attributeValueUnquoted = new char[]{nullChar, '\t', '\n', '\f', '\r', ' ', '"', '&', '\'', '<', '=', '>', '`'};
+    // lookups for the CharacterReader scanners
+    static final CharacterReader.Delimiters attributeNameDelims = new CharacterReader.Delimiters(attributeNameCharsSorted);
+    static final CharacterReader.Delimiters attributeValueUnquotedDelims = new CharacterReader.Delimiters(attributeValueUnquoted);
+    static final CharacterReader.Delimiters scriptDataEscapedDelims = new CharacterReader.Delimiters('-', '<', nullChar);
+    static final CharacterReader.Delimiters commentDelims = new CharacterReader.Delimiters('-', nullChar);
 
     private static final char replacementChar = Tokeniser.replacementChar;
     private static final String replacementStr = String.valueOf(Tokeniser.replacementChar);
@@ -1698,8 +1707,12 @@ enum TokeniserState {
                 t.emit(new Token.EOF());
                 break;
             default:
-                String data = r.consumeRawData();
-                t.emit(data);
+                if (t.skipping) { // scan without copying
+                    t.skipped(r.skipRawData());
+                } else {
+                    String data = r.consumeRawData();
+                    t.emit(data);
+                }
                 break;
         }
     }
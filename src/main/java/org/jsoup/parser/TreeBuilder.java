@@ -1,15 +1,28 @@
 package org.jsoup.parser;
 
 import org.jsoup.helper.Validate;
+import org.jsoup.internal.CharSlice;
 import org.jsoup.nodes.Attributes;
+import org.jsoup.nodes.Comment;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
+import org.jsoup.nodes.Range;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+import static org.jsoup.internal.StringUtil.inSorted;
 
 /**
  * @author Jonathan Hedley
@@ -26,6 +39,25 @@ abstract class TreeBuilder {
 
     private Token.StartTag start = new Token.StartTag(); // start tag to process
     private Token.EndTag end  = new Token.EndTag();
+    private @Nullable NodeVisitor streamVisitor; // if streaming, receives nodes as they are completed
+    private ArrayList<Element> streamStarted; // the open elements that have been streamed to the head of the visitor
+    private boolean streamRetainsSiblings; // if streamed elements are kept as empty shells, for the context of later siblings
+    private int[] streamRetained; // by depth - 1, the number of shells kept at the start of the streaming parent's children
+    @Nullable Element streamHeld; // a started element whose children are not streamed until it is complete
+    boolean replaying; // if processing tokens recorded in a parallel parse, vs read from the reader
+    boolean newlineSkipped; // when replaying, if the last token processed skipped a following newline
+    @Nullable String input; // if the parser retains the input, for text nodes as views over it
+    static final int MinViewLength = 16; // shorter texts are copied, as about as small as a view (and may be interned)
+    private @Nullable String[] skipContent; // the sorted tag names of elements to skip the content of; null if none
+    boolean trackPosition; // if elements record the source ranges of their tags and attributes
+    @Nullable Element skipping; // the element whose content is being skipped
+    boolean limited; // if the parser has limits set, to check each token against
+    private int maxDepth, maxNodes, maxAttributes; // the parser's limits, as MAX_VALUE if unlimited
+    int nodes; // the number of nodes inserted, for the node limit
+    private int attributes; // the number of attributes in the start tags processed, for the attribute limit
+    private boolean truncated; // if a limit was exceeded, so the rest of the input is dropped
+    private @Nullable LimitedReader limitedInput; // if the input length is limited
+    private boolean inputExceeded; // if the input length limit truncated a string input
     abstract ParseSettings defaultSettings();
 
     @ParametersAreNonnullByDefault
@@ -34,21 +66,150 @@ abstract class TreeBuilder {
         Validate.notNull(baseUri, "BaseURI must not be null");
         Validate.notNull(parser);
 
+        limitedInput = parser.getMaxInputLength() > 0 ? new LimitedReader(input, parser.getMaxInputLength()) : null;
+        if (limitedInput != null)
+            input = limitedInput;
         doc = new Document(baseUri);
         doc.parser(parser);
         this.parser = parser;
         settings = parser.settings();
-        reader = new CharacterReader(input);
+        if (parser.isReusable() && tokeniser != null) { // reuse the buffers and state retained from the last parse
+            if (parser.getErrors().isTracking()) // the last parse's errors were passed to its document; start a new list
+                parser.resetErrors();
+            reader.reset(input, CharacterReader.maxBufferLen);
+            tokeniser.reset(reader, parser.getErrors());
+            stack.clear();
+        } else {
+            reader = new CharacterReader(input);
+            tokeniser = new Tokeniser(reader, parser.getErrors());
+            stack = newStack();
+        }
+        reader.stringCache(parser.interner());
+        trackPosition = parser.isTrackPosition();
+        reader.trackLines(parser.isTrackErrors() || trackPosition ? new LineIndex() : null); // held errors and ranges have their line and column
+        tokeniser.trackPosition(trackPosition);
+        tokeniser.lazyAttributes = parser.isLazyAttributes() && !parser.getErrors().isTracking() // attribute errors are found when tokenised
+            && parser.getMaxAttributes() == 0 // and attributes are counted when tokenised
+            && !parser.isNamespaceAware() // and namespaces declared when built
+            && !trackPosition; // and attribute positions found when tokenised
         currentToken = null;
-        tokeniser = new Tokeniser(reader, parser.getErrors());
-        stack = new ArrayList<>(32);
         this.baseUri = baseUri;
+        streamVisitor = null;
+        this.input = null;
+        skipContent = parser.skipContentTags();
+        skipping = null;
+        limited = parser.isLimited();
+        maxDepth = limit(parser.getMaxDepth());
+        maxNodes = limit(parser.getMaxNodes());
+        maxAttributes = limit(parser.getMaxAttributes());
+        nodes = 0;
+        attributes = 0;
+        truncated = false;
+        inputExceeded = false;
+    }
+
+    private static int limit(int max) {
+        return max > 0 ? max : Integer.MAX_VALUE;
     }
 
     @ParametersAreNonnullByDefault
     Document parse(Reader input, String baseUri, Parser parser) {
         initialiseParse(input, baseUri, parser);
         runParser();
+        return completeParse();
+    }
+
+    /**
+     Parse the input string; retaining it for text nodes to hold views over, if the parser is set to.
+     @see Parser#setRetainInput(boolean)
+     */
+    Document parseString(String input, String baseUri, Parser parser) {
+        initialiseParse(new StringReader(input), baseUri, parser);
+        if (parser.isRetainInput())
+            this.input = input;
+        runParser();
+        return completeParse();
+    }
+
+    /**
+     Parse the input by tokenising chunks of it concurrently on the executor, and building the tree from their tokens in
+     order. Produces the same document as {@link #parse}.
+     @see ParallelParse
+     */
+    Document parseParallel(String input, String baseUri, Parser parser, ExecutorService executor, int chunkSize) {
+        final int maxLength = parser.getMaxInputLength();
+        final boolean exceeded = maxLength > 0 && input.length() > maxLength;
+        if (exceeded)
+            input = input.substring(0, maxLength);
+        initialiseParse(new StringReader(""), baseUri, parser); // the reader stands in for positions while replaying
+        inputExceeded = exceeded;
+        if (parser.isRetainInput())
+            this.input = input;
+        new ParallelParse(this, input, executor, chunkSize).run();
+        return completeParse();
+    }
+
+    /**
+     Parse the input, writing each token processed to the token log, so that the document can later be rebuilt from the
+     log with {@link #parseTokenLog}.
+     */
+    Document parseRecording(Reader input, String baseUri, Parser parser, TokenLog.Writer log) {
+        initialiseParse(input, baseUri, parser);
+        final Tokeniser tokeniser = this.tokeniser;
+        boolean emitted = false; // if the token was emitted by the tree builder, so will be again on replay
+        while (true) {
+            final Token token = tokeniser.read();
+            if (skipping != null && token.type != Token.TokenType.Character) {
+                // the skipped content's length is not in the log, so log the placeholder, to be inserted on replay
+                final Comment placeholder = endSkip();
+                if (placeholder != null)
+                    log.write(new Token.Comment().append(placeholder.getData()));
+            }
+            if (!emitted)
+                log.write(token);
+            final boolean pending = tokeniser.isEmitPending(); // e.g. a tag read after characters
+            processInput(token);
+            emitted = !pending && tokeniser.isEmitPending();
+            token.reset();
+            if (token.type == Token.TokenType.EOF)
+                break;
+        }
+        return completeParse();
+    }
+
+    /**
+     Build a document from the tokens in a log, without tokenising the input.
+     @see #parseRecording
+     */
+    Document parseTokenLog(TokenLog.Reader log, String baseUri, Parser parser) {
+        initialiseParse(new StringReader(""), baseUri, parser);
+        final Tokeniser tokeniser = this.tokeniser;
+        replaying = true;
+        try {
+            while (true) {
+                final Token token = log.read();
+                processInput(token);
+                while (tokeniser.isEmitPending()) // e.g. the end of a self-closing tag
+                    processInput(tokeniser.read());
+                if (token.type == Token.TokenType.EOF)
+                    break;
+            }
+        } finally {
+            replaying = false;
+        }
+        return completeParse();
+    }
+
+    Document completeParse() {
+        input = null; // held by the document's text nodes, not by this
+        if (parser.isReusable()) {
+            // retain the reader, tokeniser, and stack for the next parse. The document gets its own copy of the parser
+            // (for settings, errors, and fragments), so it doesn't hold these, and this parser can be reused independently
+            reader.release();
+            stack.clear();
+            doc.parser(parser.detachedCopy());
+            return doc;
+        }
 
         // tidy up - as the Parser and Treebuilder are retained in document for settings / fragments
         reader.close();
@@ -59,12 +220,64 @@ abstract class TreeBuilder {
         return doc;
     }
 
+    /**
+     Parse the input, passing each node to the visitor as soon as it has been built and cannot be changed by later
+     input, and then removing it from the document. Only the open elements, and any content that may yet be modified by
+     the HTML error recovery algorithms, are retained in memory.
+     */
+    @ParametersAreNonnullByDefault
+    void stream(Reader input, String baseUri, Parser parser, NodeVisitor visitor) {
+        stream(input, baseUri, parser, visitor, false);
+    }
+
+    /**
+     Parse the input, passing each element that matches the evaluator to the consumer, along with its subtree. Streamed
+     elements are kept in the document as empty shells, so that the evaluator can test the previous siblings of later
+     elements.
+     */
+    @ParametersAreNonnullByDefault
+    void streamSelect(Reader input, String baseUri, Parser parser, Evaluator evaluator, Consumer<Element> consumer) {
+        stream(input, baseUri, parser, new StreamSelector(this, evaluator, consumer), true);
+    }
+
+    /**
+     Parse the input, passing each complete element with the record name to the consumer, detached; and discarding the
+     rest of the document. Supported by the XML tree builder, which doesn't restructure the tree.
+     @see Parser#streamRecords(Reader, String, String, Consumer)
+     */
+    @ParametersAreNonnullByDefault
+    void streamRecords(Reader input, String baseUri, Parser parser, String recordName, Consumer<Element> consumer) {
+        Validate.fail("Record streaming is only supported by the XML parser; use streamSelect for HTML");
+    }
+
+    private void stream(Reader input, String baseUri, Parser parser, NodeVisitor visitor, boolean retainSiblings) {
+        initialiseParse(input, baseUri, parser);
+        streamVisitor = visitor;
+        streamStarted = new ArrayList<>(32);
+        streamRetainsSiblings = retainSiblings;
+        streamRetained = new int[32];
+        streamHeld = null;
+        visitor.head(doc, 0);
+        runParser();
+        completeParse();
+        streamVisitor = null;
+        streamStarted = null;
+        streamRetained = null;
+    }
+
     /**
      Create a new copy of this TreeBuilder
      @return copy, ready for a new parse
      */
     abstract TreeBuilder newInstance();
 
+    /**
+     Create the stack of open elements.
+     */
+    ArrayList<Element> newStack() {
+        return new ArrayList<>(32);
+    }
+
     abstract List<Node> parseFragment(String inputFragment, Element context, String baseUri, Parser parser);
 
     protected void runParser() {
@@ -73,16 +286,212 @@ abstract class TreeBuilder {
 
         while (true) {
             Token token = tokeniser.read();
-            process(token);
+            processInput(token);
             token.reset();
+            if (streamVisitor != null)
+                streamCompleted(token.type == eof);
 
             if (token.type == eof)
                 break;
         }
     }
 
+    /**
+     When streaming, check if the element's start, and its completed children, can be streamed to the visitor: i.e.
+     the element will not be moved, and nodes will not be inserted before its completed children. Tree builders that
+     restructure the tree must override.
+     */
+    boolean canStreamStart(Element el) {
+        return true;
+    }
+
+    /**
+     When streaming, check if the element's open children can be streamed; i.e. they will not be moved.
+     */
+    boolean canStreamDescendants(Element el) {
+        return true;
+    }
+
+    /**
+     Walks down the open elements, streaming each one's start to the visitor, along with the completed child nodes
+     that precede it. Streamed nodes are removed from the document once complete.
+     @param eof if the parse is complete, in which case all nodes are streamed
+     */
+    private void streamCompleted(boolean eof) {
+        if (eof) {
+            streamChildren(doc, null, 1, true);
+            streamVisitor.tail(doc, 0);
+            return;
+        }
+
+        Node parent = doc;
+        int depth = 1; // of the children of parent
+        for (int i = stack.isEmpty() || stack.get(0) != doc ? 0 : 1; ; i++, depth++) { // the xml builder has doc on the stack
+            final Element open = i < stack.size() ? stack.get(i) : null;
+            if (open != null && open.parentNode() != parent)
+                break; // not yet in tree order (e.g. fostered)
+            streamChildren(parent, open, depth, false);
+            if (open == null || !canStreamStart(open))
+                break;
+            if (streamStarted.size() < depth) {
+                if (streamRetained.length <= depth)
+                    streamRetained = Arrays.copyOf(streamRetained, depth * 2);
+                streamRetained[depth] = 0;
+                streamVisitor.head(open, depth);
+                streamStarted.add(open);
+            }
+            if (open == streamHeld || !canStreamDescendants(open))
+                break;
+            parent = open;
+        }
+    }
+
+    private void streamChildren(Node parent, @Nullable Element open, int depth, boolean eof) {
+        final int level = depth - 1; // in streamStarted
+        final boolean held = parent == streamHeld; // held children are kept with their parent, until it is removed
+        int index = streamRetained[level];
+        while (parent.childNodeSize() > index) {
+            Node child = parent.childNode(index);
+            if (child == open || (!eof && child instanceof Element && stack.contains(child)))
+                break;
+
+            if (streamStarted.size() > level && streamStarted.get(level) == child) {
+                streamStartedElements(level);
+            } else {
+                streamDepthOffset = depth;
+                NodeTraversor.traverse(streamOffsetVisitor, child);
+                if (held) {
+                    index++;
+                    continue;
+                }
+                streamRemove(parent.childNode(index), level); // (visitor may have replaced the child)
+            }
+            index = streamRetained[level];
+        }
+    }
+
+    /** Completes the streamed open elements from the level down, which have been closed. */
+    private void streamStartedElements(int level) {
+        for (int i = streamStarted.size() - 1; i >= level; i--) {
+            Element el = streamStarted.remove(i);
+            int depth = i + 1;
+            streamChildren(el, null, depth + 1, true);
+            streamVisitor.tail(el, depth);
+            streamRemove(el, i);
+        }
+    }
+
+    /** Removes a streamed node from the document; or if retaining siblings, replaces an element with an empty copy. */
+    private void streamRemove(Node node, int level) {
+        if (streamRetainsSiblings && node instanceof Element) {
+            node.replaceWith(((Element) node).shallowClone());
+            streamRetained[level]++;
+        } else {
+            node.remove();
+        }
+    }
+
+    private int streamDepthOffset;
+    private final NodeVisitor streamOffsetVisitor = new NodeVisitor() { // streams completed subtrees, at their depth in the doc
+        @Override public void head(Node node, int depth) {
+            streamVisitor.head(node, depth + streamDepthOffset);
+        }
+
+        @Override public void tail(Node node, int depth) {
+            streamVisitor.tail(node, depth + streamDepthOffset);
+        }
+    };
+
+    /**
+     Skip a newline directly following the current token in the input, if present (as for a newline after {@code <pre>}).
+     */
+    void skipNewline() {
+        if (replaying)
+            newlineSkipped = true; // the replay checks that the input had a newline, and that the tokens skipped it
+        else
+            reader.matchConsume("\n");
+    }
+
+    /**
+     For a parallel parse: predict the tokeniser state that processing this start tag will transition to, so that the
+     following input can be tokenised ahead of the tree build. Must not depend on the tree builder's state, as it is
+     called concurrently. Mispredictions are detected when the tokens are replayed.
+     */
+    TokeniserState speculateState(Token.StartTag startTag) {
+        return TokeniserState.Data;
+    }
+
+    /**
+     For a parallel parse: predict if processing this start tag will skip a following newline.
+     @see #skipNewline()
+     */
+    boolean speculateSkipsNewline(Token.StartTag startTag) {
+        return false;
+    }
+
+    /**
+     Runs the parser over a chunk of input, for an incremental parse. Tokens are only processed into the tree if they
+     could not be altered by input that has not yet arrived: if a token reaches within {@link
+     CharacterReader#minReadAheadLen} of the end of the available input (or would otherwise depend on later input), the
+     tokeniser is rewound to the start of that token and the parse pauses until more input is available.
+
+     @param input a reader over the input that has not yet been processed
+     @param end the position of the end of the currently available input
+     @param complete true if there is no more input to come, in which case the parse is run through to EOF
+     @return the position in the input up to which content has been processed into the tree. The next chunk of input
+     must start from that position.
+     */
+    int runParser(CharacterReader input, int end, boolean complete) {
+        final Tokeniser tokeniser = this.tokeniser;
+        final ParseErrorList errors = parser.getErrors();
+        final Token.TokenType eof = Token.TokenType.EOF;
+        final int safeEnd = end - CharacterReader.minReadAheadLen;
+        if (reader != input) { // continue the previous chunk's string cache (so names aren't re-learned) and lines
+            input.stringCache(reader.stringCache());
+            input.trackLines(reader.lines());
+            reader.close();
+        }
+        reader = input;
+        tokeniser.reader(input);
+
+        int processedPos = input.pos();
+        while (true) {
+            final boolean clean = tokeniser.isClean(); // if not clean, the read returns a pending token without consuming input
+            final int numErrors = errors.getErrorCount();
+            if (clean) {
+                processedPos = input.pos();
+                tokeniser.checkpoint();
+            }
+
+            Token token = tokeniser.read();
+            if (clean && !complete && (input.pos() > safeEnd || input.containsMissed())) {
+                tokeniser.rewindToCheckpoint();
+                errors.rewind(numErrors);
+                return processedPos;
+            }
+            processInput(token);
+            token.reset();
+
+            if (token.type == eof)
+                return input.pos();
+        }
+    }
+
     protected abstract boolean process(Token token);
 
+    /**
+     Process a token read from the input (or replayed from another tokeniser or a log), first applying any content skip
+     or parse limits. Tokens that the tree builder processes itself, such as implied tags and reprocessed tokens, go
+     directly to {@link #process(Token)}.
+     */
+    final void processInput(Token token) {
+        if (skipping != null && skipped(token))
+            return;
+        if (limited && limited(token))
+            return;
+        process(token);
+    }
+
     protected boolean processStartTag(String name) {
         final Token.StartTag start = this.start;
         if (currentToken == start) { // don't recycle an in-use token
@@ -114,14 +523,171 @@ abstract class TreeBuilder {
         return size > 0 ? stack.get(size-1) : null;
     }
 
+    /**
+     In a lazy attribute parse, set the element's attributes to be parsed from the start tag's source on first access.
+     */
+    final void lazyAttributes(Element el, Token.StartTag startTag) {
+        if (startTag.attributeSource != null)
+            el.lazyAttributes(new LazyAttributes(startTag.attributeSource, settings));
+    }
+
+    /**
+     If tracking positions, record the source ranges of the element's start tag, and of its attributes.
+     @see Parser#setTrackPosition(boolean)
+     */
+    final void trackPosition(Element el, Token.StartTag startTag) {
+        if (!trackPosition || startTag.startPos < 0) // not tracked, or an implied tag
+            return;
+        el.sourceRange(range(startTag.startPos, startTag.endPos));
+        final String[] keys = startTag.attributeKeys;
+        final int[] positions = startTag.attributePositions;
+        for (int i = 0; i < startTag.attributePositionCount; i++)
+            el.attributeSourceRange(settings.normalizeAttribute(keys[i]), range(positions[i * 2], positions[i * 2 + 1]));
+    }
+
+    /**
+     If tracking positions, record the source range of the end tag that closed the element.
+     */
+    final void trackEndPosition(Element el, Token.EndTag endTag) {
+        if (trackPosition && endTag.startPos >= 0)
+            el.endSourceRange(range(endTag.startPos, endTag.endPos));
+    }
+
+    private Range range(int start, int end) {
+        final LineIndex lines = reader.lines();
+        return new Range(position(lines, start), position(lines, end));
+    }
+
+    private static Range.Position position(LineIndex lines, int pos) {
+        final int before = lines.newlinesBefore(pos);
+        return new Range.Position(pos, before + 1, pos - lines.lineStart(before) + 1);
+    }
+
+    /**
+     If the element's content is set to be skipped, start skipping it: the tokeniser discards its content, until the
+     element's end tag.
+     @see Parser#setSkipContent(String...)
+     */
+    final void skipContent(Element el) {
+        if (skipContent != null && inSorted(el.normalName(), skipContent)) {
+            skipping = el;
+            tokeniser.skipContent();
+        }
+    }
+
+    /**
+     While skipping an element's content, called with each token before it is processed. Character tokens are
+     discarded (as when replaying tokens read by a tokeniser that was not skipping). Any other token is the element's
+     end tag or the end of the input, so stops skipping; or when replaying, a comment is the placeholder logged by
+     {@link #parseRecording}, so is added as is.
+     @return true if the token was consumed, and should not be processed
+     */
+    final boolean skipped(Token token) {
+        if (token.type == Token.TokenType.Character) {
+            tokeniser.skipped(token.asCharacter().getData().length());
+            return true;
+        }
+        if (replaying && token.type == Token.TokenType.Comment) {
+            tokeniser.endSkip();
+            skipping.appendChild(new Comment(token.asComment().getData()));
+            skipping = null;
+            return true;
+        }
+        endSkip();
+        return false;
+    }
+
+    /**
+     Stop skipping the element's content, and add the placeholder if set.
+     @return the placeholder added, or null if none
+     */
+    private @Nullable Comment endSkip() {
+        final int length = tokeniser.endSkip();
+        Comment placeholder = null;
+        if (length > 0 && parser.isSkipContentPlaceholder()) {
+            placeholder = new Comment("skipped " + length);
+            skipping.appendChild(placeholder);
+        }
+        skipping = null;
+        return placeholder;
+    }
+
+    /**
+     With limits set, called with each token before it is processed, to check the limits. Once one is exceeded, the rest
+     of the input is discarded, and any tokens already read are dropped, until the end of input is processed to
+     complete the document; or if the parser is set to throw, throws.
+     @return true if the token was dropped, and should not be processed
+     @throws ParseLimitException if a limit was exceeded, and the parser is set to throw
+     @see Parser#setThrowOnLimit(boolean)
+     */
+    final boolean limited(Token token) {
+        if (token.type == Token.TokenType.EOF) {
+            if (inputExceeded || limitedInput != null && limitedInput.exceeded())
+                exceeded("input length", parser.getMaxInputLength());
+            return false;
+        }
+        if (truncated)
+            return true;
+
+        if (token.type == Token.TokenType.StartTag && token.asStartTag().hasAttributes())
+            attributes += token.asStartTag().attributes.size();
+        if (stack.size() > maxDepth && depth() > maxDepth)
+            exceeded("depth", maxDepth);
+        else if (nodes > maxNodes)
+            exceeded("nodes", maxNodes);
+        else if (attributes > maxAttributes)
+            exceeded("attributes", maxAttributes);
+        return truncated;
+    }
+
+    /**
+     The depth of the open elements: the size of the stack, less the document if that is on it (as in XML).
+     */
+    private int depth() {
+        final int size = stack.size();
+        return size > 0 && stack.get(0) == doc ? size - 1 : size;
+    }
+
+    private void exceeded(String limit, int max) {
+        if (parser.isThrowOnLimit())
+            throw new ParseLimitException("The input exceeded the parser's limit of max %s %d", limit, max);
+        error(ParseError.Code.LimitExceeded, limit, max);
+        truncated = true;
+        reader.discardRemaining();
+    }
+
+    /**
+     If the input is retained, get a view of the character token's text in the input, for a text or data node to hold
+     instead of a copy. The text must be in the input as is (not e.g. decoded from character references).
+     @return the view, or null if the text should be copied
+     */
+    final @Nullable CharSlice inputView(Token.Character token) {
+        final String input = this.input;
+        final String data = token.getData();
+        final int start = token.startPos;
+        if (input == null || start < 0 || data.length() < MinViewLength || start + data.length() > input.length()
+            || !input.regionMatches(start, data, 0, data.length()))
+            return null;
+        return new CharSlice(input, start, start + data.length());
+    }
+
     /**
      * If the parser is tracking errors, add an error at the current position.
      * @param msg error message
      */
     protected void error(String msg) {
-        ParseErrorList errors = parser.getErrors();
-        if (errors.canAddError())
-            errors.add(new ParseError(reader.pos(), msg));
+        error(ParseError.Code.Other, msg);
+    }
+
+    /**
+     If the parser is tracking or counting errors, report an error at the current position.
+     @param code the kind of error
+     @param args the arguments for the code's message
+     */
+    void error(ParseError.Code code, Object... args) {
+        final ParseErrorList errors = parser.getErrors();
+        if (errors.isTracking())
+            errors.report(reader, code, args);
     }
 
     /**
@@ -1,6 +1,9 @@
 package org.jsoup.parser;
 
 import org.jsoup.helper.Validate;
+import org.jsoup.internal.CharSlice;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Attributes;
 import org.jsoup.nodes.CDataNode;
 import org.jsoup.nodes.Comment;
 import org.jsoup.nodes.Document;
@@ -10,10 +13,13 @@ import org.jsoup.nodes.Node;
 import org.jsoup.nodes.TextNode;
 import org.jsoup.nodes.XmlDeclaration;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Use the {@code XmlTreeBuilder} when you want to parse XML without any of the HTML DOM rules being applied to the
@@ -23,6 +29,17 @@ import java.util.List;
  * @author Jonathan Hedley
  */
 public class XmlTreeBuilder extends TreeBuilder {
+    private @Nullable String recordName; // if streaming records, the normalized name of the record elements
+    private @Nullable Consumer<Element> recordConsumer;
+    private @Nullable Element record; // the open record, which is built detached from the document until complete
+
+    private static final String XmlnsKey = "xmlns";
+    private static final String XmlNamespace = "http://www.w3.org/XML/1998/namespace"; // bound to the xml prefix
+    private boolean namespaceAware;
+    private String[] namespaces = new String[16]; // the declared prefix and URI pairs in scope, innermost last
+    private int namespacesSize;
+    private int[] namespaceMarks = new int[16]; // by stack position, the namespacesSize before that element's declarations
+
     ParseSettings defaultSettings() {
         return ParseSettings.preserveCase;
     }
@@ -31,6 +48,11 @@ public class XmlTreeBuilder extends TreeBuilder {
     protected void initialiseParse(Reader input, String baseUri, Parser parser) {
         super.initialiseParse(input, baseUri, parser);
         stack.add(doc); // place the document onto the stack. differs from HtmlTreeBuilder (not on stack)
+        recordName = null;
+        recordConsumer = null;
+        record = null;
+        namespaceAware = parser.isNamespaceAware();
+        namespacesSize = 0;
         doc.outputSettings()
             .syntax(Document.OutputSettings.Syntax.xml)
             .prettyPrint(false); // as XML, we don't understand what whitespace is significant or not
@@ -44,6 +66,17 @@ public class XmlTreeBuilder extends TreeBuilder {
         return parse(new StringReader(input), baseUri, new Parser(this));
     }
 
+    @Override @ParametersAreNonnullByDefault
+    void streamRecords(Reader input, String baseUri, Parser parser, String recordName, Consumer<Element> consumer) {
+        initialiseParse(input, baseUri, parser);
+        this.recordName = settings.normalizeTag(recordName);
+        recordConsumer = consumer;
+        runParser();
+        completeParse();
+        this.recordName = null;
+        recordConsumer = null;
+    }
+
     @Override
     XmlTreeBuilder newInstance() {
         return new XmlTreeBuilder();
@@ -69,6 +102,8 @@ public class XmlTreeBuilder extends TreeBuilder {
                 insert(token.asDoctype());
                 break;
             case EOF: // could put some normalisation here if desired
+                if (record != null) // unclosed at the end of the input, so complete
+                    completeRecord();
                 break;
             default:
                 Validate.fail("Unexpected token type: " + token.type);
@@ -77,7 +112,20 @@ public class XmlTreeBuilder extends TreeBuilder {
     }
 
     private void insertNode(Node node) {
+        if (recordName != null && record == null)
+            return; // streaming records, and outside of one: discarded
         currentElement().appendChild(node);
+        nodes++;
+    }
+
+    /** Passes the completed record to the consumer, and drops it, so that memory is bounded by the open elements. */
+    private void completeRecord() {
+        final Element complete = record;
+        record = null;
+        doc.appendChild(complete); // in the document while consumed, for its output settings and base URI
+        recordConsumer.accept(complete);
+        if (complete.parent() == doc)
+            complete.remove();
     }
 
     Element insert(Token.StartTag startTag) {
@@ -87,16 +135,71 @@ public class XmlTreeBuilder extends TreeBuilder {
             startTag.attributes.deduplicate(settings);
 
         Element el = new Element(tag, null, settings.normalizeAttributes(startTag.attributes));
-        insertNode(el);
+        lazyAttributes(el, startTag);
+        trackPosition(el, startTag);
+        final int namespaceMark = namespacesSize;
+        if (namespaceAware)
+            resolveNamespace(el, startTag.hasAttributes() ? startTag.attributes : null);
+        if (recordName != null && record == null && el.nodeName().equals(recordName)) {
+            record = el; // not inserted, so built detached
+            nodes++;
+        } else {
+            insertNode(el);
+        }
         if (startTag.isSelfClosing()) {
             if (!tag.isKnownTag()) // unknown tag, remember this is self closing for output. see above.
                 tag.setSelfClosing();
+            if (el == record)
+                completeRecord();
+            namespacesSize = namespaceMark; // its declarations are out of scope
         } else {
+            if (namespaceAware) {
+                if (namespaceMarks.length == stack.size())
+                    namespaceMarks = Arrays.copyOf(namespaceMarks, stack.size() * 2);
+                namespaceMarks[stack.size()] = namespaceMark;
+            }
             stack.add(el);
+            skipContent(el);
         }
         return el;
     }
 
+    /**
+     Puts the element's namespace declarations in scope, and then resolves its namespace from its tag's prefix (or the
+     default namespace, if none). The declared URIs are shared by the elements in their scope.
+     */
+    private void resolveNamespace(Element el, @Nullable Attributes attributes) {
+        if (attributes != null) {
+            for (Attribute attr : attributes) {
+                final String key = attr.getKey();
+                if (key.startsWith(XmlnsKey)) {
+                    if (key.length() == XmlnsKey.length())
+                        declareNamespace("", attr.getValue());
+                    else if (key.charAt(XmlnsKey.length()) == ':')
+                        declareNamespace(key.substring(XmlnsKey.length() + 1), attr.getValue());
+                }
+            }
+        }
+
+        final String name = el.tagName();
+        final int prefixLen = Math.max(name.indexOf(':'), 0);
+        for (int i = namespacesSize - 2; i >= 0; i -= 2) { // innermost first
+            final String prefix = namespaces[i];
+            if (prefix.length() == prefixLen && name.startsWith(prefix)) {
+                el.namespace(namespaces[i + 1]);
+                return;
+            }
+        }
+        el.namespace(prefixLen == 3 && name.startsWith("xml") ? XmlNamespace : "");
+    }
+
+    private void declareNamespace(String prefix, String uri) {
+        if (namespacesSize == namespaces.length)
+            namespaces = Arrays.copyOf(namespaces, namespacesSize * 2);
+        namespaces[namespacesSize++] = prefix;
+        namespaces[namespacesSize++] = uri;
+    }
+
     void insert(Token.Comment commentToken) {
         Comment comment = new Comment(commentToken.getData());
         Node insert = comment;
@@ -112,7 +215,14 @@ public class XmlTreeBuilder extends TreeBuilder {
 
     void insert(Token.Character token) {
         final String data = token.getData();
-        insertNode(token.isCData() ? new CDataNode(data) : new TextNode(data));
+        final Node node;
+        if (token.isCData()) {
+            node = new CDataNode(data);
+        } else {
+            final CharSlice view = inputView(token);
+            node = view != null ? TextNode.createFromInput(view) : new TextNode(data);
+        }
+        insertNode(node);
     }
 
     void insert(Token.Doctype d) {
@@ -140,10 +250,15 @@ public class XmlTreeBuilder extends TreeBuilder {
         }
         if (firstFound == null)
             return; // not found, skip
+        trackEndPosition(firstFound, endTag);
 
         for (int pos = stack.size() -1; pos >= 0; pos--) {
             Element next = stack.get(pos);
             stack.remove(pos);
+            if (namespaceAware)
+                namespacesSize = namespaceMarks[pos];
+            if (next == record)
+                completeRecord();
             if (next == firstFound)
                 break;
         }
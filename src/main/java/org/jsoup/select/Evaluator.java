@@ -78,6 +78,56 @@ public abstract class Evaluator {
         }
     }
 
+    /**
+     Evaluator for an element's namespace, as resolved in a namespace aware parse.
+     @see Element#namespace()
+     */
+    public static final class Namespace extends Evaluator {
+        private final String namespace;
+
+        public Namespace(String namespace) {
+            this.namespace = namespace;
+        }
+
+        @Override
+        public boolean matches(Element root, Element element) {
+            return namespace.equals(element.namespace()); // the namespaces of parsed elements are shared, so mostly identical
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{%s}*", namespace);
+        }
+    }
+
+    /**
+     Evaluator for an element's namespace and local name, as resolved in a namespace aware parse. The local name is
+     matched in the tag name, after any prefix, without splitting it.
+     @see Element#getElementsByTagNS(String, String)
+     */
+    public static final class NamespacedTag extends Evaluator {
+        private final String namespace; // or * for any
+        private final String localName;
+
+        public NamespacedTag(String namespace, String localName) {
+            this.namespace = namespace;
+            this.localName = localName;
+        }
+
+        @Override
+        public boolean matches(Element root, Element element) {
+            final String name = element.tagName();
+            final int prefixLen = name.length() - localName.length();
+            return (prefixLen == 0 || (prefixLen > 0 && name.charAt(prefixLen - 1) == ':')) && name.endsWith(localName)
+                && (namespace.equals("*") || namespace.equals(element.namespace()));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{%s}%s", namespace, localName);
+        }
+    }
+
     /**
      * Evaluator for element id
      */
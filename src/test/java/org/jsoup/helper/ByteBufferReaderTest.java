@@ -0,0 +1,59 @@
+package org.jsoup.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteBufferReaderTest {
+    private static ByteBufferReader reader(String content) {
+        return new ByteBufferReader(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+    }
+
+    private static String readAll(Reader reader, int chunk) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buf = new char[chunk];
+        int read;
+        while ((read = reader.read(buf, 0, chunk)) != -1)
+            sb.append(buf, 0, read);
+        return sb.toString();
+    }
+
+    private static String content() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 3000; i++) sb.append("Hello ").append(i).append(" Übergröße 日本語 😀 ");
+        return sb.toString();
+    }
+
+    @Test public void readsUtf8() throws IOException {
+        String content = content();
+        assertEquals(content, readAll(reader(content), 32 * 1024));
+        assertEquals(content, readAll(reader(content), 1)); // surrogate pairs are split across reads
+        assertEquals(content, readAll(reader(content), 7));
+    }
+
+    @Test public void readsDirectBuffer() throws IOException {
+        String content = content();
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(content, readAll(new ByteBufferReader(direct, StandardCharsets.UTF_8), 1000));
+        assertFalse(direct.hasRemaining());
+    }
+
+    @Test public void replacesMalformedInput() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(new byte[]{'a', (byte) 0xC3, 'b', (byte) 0xE6, (byte) 0x97});
+        assertEquals("a�b�", readAll(new ByteBufferReader(bytes, StandardCharsets.UTF_8), 100));
+    }
+
+    @Test public void onlyStatelessCharsets() {
+        assertTrue(ByteBufferReader.canDecode(StandardCharsets.UTF_8));
+        assertTrue(ByteBufferReader.canDecode(StandardCharsets.US_ASCII));
+        assertFalse(ByteBufferReader.canDecode(StandardCharsets.UTF_16));
+        assertThrows(IllegalArgumentException.class, () -> new ByteBufferReader(ByteBuffer.allocate(0), StandardCharsets.UTF_16));
+    }
+}
@@ -0,0 +1,69 @@
+package org.jsoup.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CharsetSnifferTest {
+    private static String sniff(String html) {
+        return CharsetSniffer.declaredCharset(ByteBuffer.wrap(html.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    @Test public void findsMetaCharset() {
+        assertEquals("iso-8859-1", sniff("<html><head><META Charset=ISO-8859-1></head>"));
+        assertEquals("euc-kr", sniff("<meta charset='euc-kr'/><meta charset=utf-8>")); // the first
+        assertEquals("shift_jis", sniff("<meta name=x charset = \"Shift_JIS\" >"));
+        assertEquals("koi8-r", sniff("<body><p>Late <meta charset=koi8-r>")); // anywhere in the bytes
+    }
+
+    @Test public void findsHttpEquivContentType() {
+        assertEquals("euc-kr", sniff("<meta http-equiv=\"Content-Type\" content=\"text/html\">" +
+            "<meta http-equiv=\"Content-Type\" content=\"text/html; charset=euc-kr\">"));
+        assertEquals("iso-8859-1", sniff("<meta content='text/html; charset=iso-8859-1' http-equiv=content-type>"));
+        assertNull(sniff("<meta content='text/html; charset=iso-8859-1'>")); // content alone is not a declaration
+        assertEquals("koi8-u", sniff("<meta content='text/html; charset=iso-8859-1'><meta charset=koi8-u>"));
+    }
+
+    @Test public void skipsCommentsAndAttributes() {
+        assertEquals("koi8-r", sniff("<!-- <meta charset=utf-8> --><meta charset=koi8-r>"));
+        assertEquals("koi8-r", sniff("<!--><meta charset=koi8-r>")); // an empty comment
+        assertNull(sniff("<!-- <meta charset=utf-8>"));
+        assertEquals("koi8-r", sniff("<a title='<meta charset=utf-8>'><meta charset=koi8-r>"));
+        assertEquals("koi8-r", sniff("<!doctype html><?php echo '<' ?></x><meta charset=koi8-r>"));
+        assertNull(sniff("<metadata charset=koi8-r>"));
+        assertNull(sniff("<meta charset="));
+        assertNull(sniff("Hello"));
+    }
+
+    @Test public void utf16IsUtf8() {
+        assertEquals("utf-8", sniff("<meta charset=utf-16le>"));
+    }
+
+    @Test public void findsXmlDeclaration() {
+        assertEquals("iso-8859-1", sniff("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><html>"));
+        assertEquals("windows-1251", sniff("\n <?xml version='1.0' encoding='windows-1251' ?>"));
+        assertEquals("koi8-r", sniff("<?xml version=\"1.0\" encoding=\"iso-8859-1\"?><meta charset=koi8-r>")); // meta first
+        assertNull(sniff("<?xml version=\"1.0\"?>"));
+        assertNull(sniff("<p><?xml version=\"1.0\" encoding=\"iso-8859-1\"?>"));
+    }
+
+    @Test public void doesNotMoveBytes() {
+        ByteBuffer bytes = ByteBuffer.wrap("xx<meta charset=koi8-r>".getBytes(StandardCharsets.US_ASCII));
+        bytes.position(2);
+        assertEquals("koi8-r", CharsetSniffer.declaredCharset(bytes));
+        assertEquals(2, bytes.position());
+    }
+
+    @Test public void testsUtf8() {
+        assertTrue(CharsetSniffer.isUtf8(ByteBuffer.wrap("Hello".getBytes(StandardCharsets.US_ASCII))));
+        assertTrue(CharsetSniffer.isUtf8(ByteBuffer.wrap("Übergröße 日本語 😀".getBytes(StandardCharsets.UTF_8))));
+        assertFalse(CharsetSniffer.isUtf8(ByteBuffer.wrap("Übergröße".getBytes(StandardCharsets.ISO_8859_1))));
+        assertFalse(CharsetSniffer.isUtf8(ByteBuffer.wrap(new byte[]{(byte) 0xc0, (byte) 0x80}))); // overlong
+
+        byte[] cut = "ab日".getBytes(StandardCharsets.UTF_8);
+        assertTrue(CharsetSniffer.isUtf8(ByteBuffer.wrap(cut, 0, cut.length - 1).slice())); // may continue past the first bytes
+    }
+}
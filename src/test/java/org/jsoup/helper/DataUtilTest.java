@@ -6,7 +6,9 @@ import org.jsoup.parser.Parser;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
 import static org.jsoup.integration.ParseTest.getFile;
 import static org.junit.jupiter.api.Assertions.*;
@@ -215,4 +217,109 @@ public class DataUtilTest {
         assertEquals("This is not gzipped", doc.title());
         assertEquals("And should still be readable.", doc.selectFirst("p").text());
     }
+
+    @Test
+    public void parsesByteDataAsInputStream() throws IOException {
+        String[] files = {"/htmltests/news-com-au-home.html.gz", "/htmltests/yahoo-jp.html.gz", "/htmltests/meta-charset-1.html",
+            "/htmltests/large.html", "/htmltests/character-reader-buffer.html.gz", "/htmltests/thumb.jpg", "/bomtests/bom_utf8.html", "/bomtests/bom_utf16be.html"};
+        for (String file : files) {
+            ByteBuffer bytes = readToByteBuffer(file);
+            Document expected = DataUtil.parseInputStream(new ByteArrayInputStream(bytes.array(), 0, bytes.limit()), null, "http://example.com/", Parser.htmlParser());
+            Document doc = DataUtil.parseByteData(bytes, null, "http://example.com/", Parser.htmlParser());
+            assertEquals(expected.outerHtml(), doc.outerHtml(), file);
+            assertEquals(expected.charset(), doc.charset(), file);
+            assertEquals(0, bytes.position()); // not modified
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.limit());
+            direct.put(bytes).flip();
+            bytes.rewind();
+            assertEquals(expected.outerHtml(), DataUtil.parseByteData(direct, null, "http://example.com/", Parser.htmlParser()).outerHtml(), file);
+        }
+    }
+
+    @Test
+    public void parsesByteDataWithCharset() throws IOException {
+        StringBuilder sb = new StringBuilder("\uFEFF<title>One</title>");
+        for (int i = 0; i < 2000; i++) sb.append("<p>Übergrößenträger 日本語 \uD83D\uDE00</p>"); // (past the first read)
+        String html = sb.toString();
+
+        Document doc = DataUtil.parseByteData(ByteBuffer.wrap(html.getBytes(StandardCharsets.UTF_8)), "UTF-8", "", Parser.htmlParser());
+        assertEquals("One", doc.title());
+        assertEquals(Jsoup.parse(html.substring(1)).outerHtml(), doc.outerHtml());
+
+        String latin = "<p>Übergrößenträger</p>";
+        doc = DataUtil.parseByteData(ByteBuffer.wrap(latin.getBytes(StandardCharsets.ISO_8859_1)), "ISO-8859-1", "", Parser.htmlParser());
+        assertEquals("Übergrößenträger", doc.text());
+        assertEquals(StandardCharsets.ISO_8859_1, doc.charset());
+    }
+
+    @Test
+    public void loadsMappedFile() throws IOException {
+        StringBuilder sb = new StringBuilder("<meta charset=utf-8><title>Large</title>");
+        for (int i = 0; sb.length() <= DataUtil.mappedFileThreshold; i++)
+            sb.append("<p id=p").append(i).append(">Übergrößenträger 日本語 😀 &amp; text</p>\n");
+        String html = sb.toString();
+
+        File file = File.createTempFile("jsoup-mapped", ".html");
+        file.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(html.getBytes(StandardCharsets.UTF_8));
+        }
+        ByteBuffer bytes = DataUtil.readFile(file);
+        assertTrue(bytes.isDirect()); // mapped
+        assertEquals(file.length(), bytes.remaining());
+
+        Document doc = Jsoup.parse(file, null);
+        assertEquals("Large", doc.title());
+        assertEquals(StandardCharsets.UTF_8, doc.charset());
+        assertEquals(Jsoup.parse(html).outerHtml(), doc.outerHtml());
+    }
+
+    @Test
+    public void readsSmallFileToHeap() throws IOException {
+        File in = getFile("/htmltests/large.html");
+        ByteBuffer bytes = DataUtil.readFile(in);
+        assertTrue(bytes.hasArray());
+        assertEquals(in.length(), bytes.remaining());
+    }
+
+    @Test
+    public void usesCharsetDeclaredAfterFirstDecode() throws IOException {
+        // a meta charset late in the first bytes, after a comment and an attribute that look like declarations
+        String html = "<html><head><!-- <meta charset=utf-8> --><title a='<meta charset=utf-8>'>Ölçü</title>" +
+            "<meta charset=iso-8859-9></head><body>Ğüş</body></html>";
+        Document doc = DataUtil.parseInputStream(stream(html, "ISO-8859-9"), null, "", Parser.htmlParser());
+        assertEquals("ISO-8859-9", doc.charset().name());
+        assertEquals("Ölçü", doc.title());
+        assertEquals("Ğüş", doc.body().text());
+    }
+
+    @Test
+    public void detectsLegacyCharsetWhenNotUtf8() throws IOException {
+        String html = "<html><head><title>Caf\u00e9</title></head><body>\u201cQuoted\u201d</body></html>";
+
+        Document utf8 = DataUtil.parseInputStream(stream(html, "windows-1252"), null, "", Parser.htmlParser());
+        assertEquals("UTF-8", utf8.charset().name()); // the default
+        assertEquals("Caf\uFFFD", utf8.title());
+
+        Parser parser = Parser.htmlParser().setDetectLegacyCharset(true);
+        assertTrue(parser.newInstance().isDetectLegacyCharset());
+        Document legacy = DataUtil.parseInputStream(stream(html, "windows-1252"), null, "", parser);
+        assertEquals("windows-1252", legacy.charset().name());
+        assertEquals("Caf\u00e9", legacy.title());
+        assertEquals("\u201cQuoted\u201d", legacy.body().text());
+
+        Document stillUtf8 = DataUtil.parseInputStream(stream(html), null, "", parser); // valid UTF-8 is kept
+        assertEquals("UTF-8", stillUtf8.charset().name());
+        assertEquals("Caf\u00e9", stillUtf8.title());
+
+        Document declared = DataUtil.parseInputStream(stream("<meta charset=iso-8859-1>" + html, "ISO-8859-1"), null, "", parser);
+        assertEquals("ISO-8859-1", declared.charset().name()); // a declaration beats detection
+    }
+
+    private static ByteBuffer readToByteBuffer(String file) throws IOException {
+        try (InputStream in = file.endsWith(".gz") ? new GZIPInputStream(new FileInputStream(getFile(file))) : new FileInputStream(getFile(file))) {
+            return DataUtil.readToByteBuffer(in, 0);
+        }
+    }
 }
@@ -4,6 +4,7 @@ import org.jsoup.Jsoup;
 import org.jsoup.TextUtil;
 import org.jsoup.integration.ParseTest;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
 import org.junit.jupiter.api.Test;
 import org.w3c.dom.Document;
 import org.w3c.dom.DocumentType;
@@ -20,6 +21,7 @@ import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
@@ -112,6 +114,28 @@ public class W3CDomTest {
         assertEquals(doc.location(), wDoc.getDocumentURI());
     }
 
+    @Test
+    public void usesNamespacesResolvedInParse() throws IOException {
+        File in = ParseTest.getFile("/htmltests/namespaces.xhtml");
+        String expected = namespaces(new W3CDom().fromJsoup(Jsoup.parse(new FileInputStream(in), "UTF-8", "",
+            Parser.xmlParser())));
+        org.jsoup.nodes.Document aware = Jsoup.parse(new FileInputStream(in), "UTF-8", "",
+            Parser.xmlParser().setNamespaceAware(true));
+        assertEquals("http://www.idpf.org/2007/ops", aware.selectFirst("epub|title").namespace());
+        assertEquals(expected, namespaces(new W3CDom().fromJsoup(aware)));
+        assertTrue(expected.contains("epub:title http://www.idpf.org/2007/ops"));
+    }
+
+    private static String namespaces(Node node) {
+        StringBuilder sb = new StringBuilder();
+        if (node.getNodeType() == Node.ELEMENT_NODE)
+            sb.append(node.getNodeName()).append(' ').append(node.getNamespaceURI()).append('\n');
+        NodeList children = node.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++)
+            sb.append(namespaces(children.item(i)));
+        return sb.toString();
+    }
+
     @Test
     public void namespacePreservation() throws IOException {
         File in = ParseTest.getFile("/htmltests/namespaces.xhtml");
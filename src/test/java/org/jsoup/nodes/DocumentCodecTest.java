@@ -0,0 +1,161 @@
+package org.jsoup.nodes;
+
+import org.jsoup.Jsoup;
+import org.jsoup.integration.ParseTest;
+import org.jsoup.parser.ParseSettings;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.Tag;
+import org.jsoup.parser.XmlTreeBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentCodecTest {
+    private static Document roundTrip(Document doc, boolean compress) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DocumentCodec.write(doc, out, compress);
+        Document copy = DocumentCodec.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(doc.outerHtml(), copy.outerHtml());
+        assertEquals(doc.location(), copy.location());
+        return copy;
+    }
+
+    private static Document roundTrip(Document doc) throws IOException {
+        roundTrip(doc, true);
+        return roundTrip(doc, false);
+    }
+
+    @Test public void roundTripsFiles() throws IOException {
+        String[] files = {"/htmltests/news-com-au-home.html.gz", "/htmltests/nyt-article-1.html.gz",
+            "/htmltests/google-ipod.html.gz", "/htmltests/xwiki-edit.html.gz", "/htmltests/upload-form.html",
+            "/htmltests/table-polymer-template.html", "/htmltests/comments.html"};
+        for (String file : files) {
+            Document doc = Jsoup.parse(ParseTest.getFile(file), null, "https://example.com/" + file);
+            Document copy = roundTrip(doc);
+            assertEquals(doc.getAllElements().size(), copy.getAllElements().size());
+            assertEquals(doc.text(), copy.text());
+        }
+    }
+
+    @Test public void keepsNodeTypes() throws IOException {
+        String html = "<!doctype html><html><head><title>One</title><script>if (a < b) x()</script><style>p {}</style></head>" +
+            "<body><!-- comment --><p id=1 class='a b' hidden data-empty=''>Two &amp; <b>Three</b></p><foo/><bar />" +
+            "<svg><path d='M0 0'/><![CDATA[<four>]]></svg><textarea>\n Five</textarea><pre> Six\n</pre></body></html>";
+        Document copy = roundTrip(Jsoup.parse(html));
+        assertTrue(copy.selectFirst("script").childNode(0) instanceof DataNode);
+        assertTrue(copy.childNode(0) instanceof DocumentType);
+        assertEquals("html", ((DocumentType) copy.childNode(0)).name());
+        assertTrue(copy.body().childNode(0) instanceof Comment);
+        assertTrue(copy.selectFirst("svg").childNode(1) instanceof CDataNode);
+        assertEquals("", copy.selectFirst("p").attr("hidden"));
+        assertFalse(copy.selectFirst("p").attributes().hasDeclaredValueForKey("hidden"));
+        assertTrue(copy.selectFirst("p").attributes().hasDeclaredValueForKey("data-empty"));
+        assertSame(Jsoup.parse("<p>").selectFirst("p").tag(), copy.selectFirst("p").tag()); // known tags are shared
+        assertTrue(copy.selectFirst("foo").tag().isSelfClosing());
+        assertTrue(Tag.valueOfSelfClosing("div").isSelfClosing());
+        assertFalse(Tag.valueOf("div").isSelfClosing()); // known tags not modified
+        assertTrue(copy.selectFirst("bar").tag().isSelfClosing());
+    }
+
+    @Test public void keepsDocumentSettings() throws IOException {
+        Document doc = Jsoup.parse("<p>One ∑ &nbsp;", "https://example.com/");
+        doc.outputSettings().charset("ascii").escapeMode(Entities.EscapeMode.extended).prettyPrint(false).indentAmount(3).outline(true);
+        doc.quirksMode(Document.QuirksMode.limitedQuirks);
+        doc.updateMetaCharsetElement(true);
+        doc.selectFirst("p").setBaseUri("https://example.com/other/");
+
+        Document copy = roundTrip(doc);
+        Document.OutputSettings settings = copy.outputSettings();
+        assertEquals("US-ASCII", settings.charset().name());
+        assertEquals(Entities.EscapeMode.extended, settings.escapeMode());
+        assertFalse(settings.prettyPrint());
+        assertTrue(settings.outline());
+        assertEquals(3, settings.indentAmount());
+        assertEquals(Document.QuirksMode.limitedQuirks, copy.quirksMode());
+        assertTrue(copy.updateMetaCharsetElement());
+        assertEquals("https://example.com/", copy.baseUri());
+        assertEquals("https://example.com/other/", copy.selectFirst("p").baseUri());
+        assertEquals("https://example.com/", copy.body().baseUri());
+    }
+
+    @Test public void keepsXmlDocuments() throws IOException {
+        String xml = "<?xml version='1.0' encoding='UTF-8'?><!DOCTYPE feed><Feed xmlns:a='urn:a'><Item A='1'>One<br/></Item>" +
+            "<![CDATA[<Two>]]><?php echo 'three' ?></Feed>";
+        Document doc = Jsoup.parse(xml, "", Parser.xmlParser().settings(ParseSettings.preserveCase));
+        Document copy = roundTrip(doc);
+        assertTrue(copy.childNode(0) instanceof XmlDeclaration);
+        assertEquals(Document.OutputSettings.Syntax.xml, copy.outputSettings().syntax());
+        assertTrue(copy.parser().getTreeBuilder() instanceof XmlTreeBuilder);
+        assertTrue(copy.parser().settings().preserveTagCase());
+        copy.selectFirst("Feed").append("<Five>5</Five>"); // parses fragment with xml parser
+        assertEquals("<Five>5</Five>", copy.selectFirst("Five").outerHtml());
+    }
+
+    @Test public void keepsFormControls() throws IOException {
+        String html = "<form id=one><input name=a value=1><table><tr><td><input name=b value=2></table></form>" +
+            "<div><form id=two></div><input name=c value=3><select name=d><option selected>4</select>";
+        Document doc = Jsoup.parse(html);
+        Document copy = roundTrip(doc);
+        FormElement one = (FormElement) copy.getElementById("one");
+        FormElement two = (FormElement) copy.getElementById("two");
+        assertEquals(((FormElement) doc.getElementById("one")).formData().toString(), one.formData().toString());
+        assertEquals(((FormElement) doc.getElementById("two")).formData().toString(), two.formData().toString());
+        assertEquals(2, two.elements().size()); // associated, but not descendants
+        assertSame(copy.selectFirst("input[name=c]"), two.elements().get(0));
+    }
+
+    @Test public void keepsLeafAttributes() throws IOException {
+        Document doc = Jsoup.parse("<p>One</p>");
+        TextNode text = (TextNode) doc.selectFirst("p").childNode(0);
+        text.attr("data-x", "y");
+        Document copy = roundTrip(doc);
+        Node copied = copy.selectFirst("p").childNode(0);
+        assertEquals("One", ((TextNode) copied).text());
+        assertEquals("y", copied.attr("data-x"));
+    }
+
+    @Test public void handlesDeepDocuments() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) sb.append("<div>");
+        sb.append("Deep");
+        Document doc = Jsoup.parse(sb.toString());
+        Document copy = roundTrip(doc, false);
+        assertEquals(10000, copy.select("div").size());
+    }
+
+    @Test public void compresses() throws IOException {
+        Document doc = Jsoup.parse(ParseTest.getFile("/htmltests/news-com-au-home.html.gz"), null);
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        DocumentCodec.write(doc, raw, false);
+        DocumentCodec.write(doc, compressed, true);
+        assertTrue(raw.size() < doc.outerHtml().getBytes(StandardCharsets.UTF_8).length);
+        assertTrue(compressed.size() < raw.size() / 2);
+    }
+
+    @Test public void rejectsInvalidInput() throws IOException {
+        assertThrows(IOException.class, () -> DocumentCodec.read(new ByteArrayInputStream("<p>One".getBytes())));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DocumentCodec.write(Jsoup.parse("<p>One<p>Two"), out);
+        byte[] bytes = out.toByteArray();
+        byte[] truncated = new byte[bytes.length - 4];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class, () -> DocumentCodec.read(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test public void keepsNamespaces() throws IOException {
+        String xml = "<feed xmlns='http://www.w3.org/2005/Atom' xmlns:m='urn:m'><entry><m:a/><b xmlns=''/></entry></feed>";
+        Document doc = Parser.xmlParser().setNamespaceAware(true).parseInput(xml, "");
+        Document copy = roundTrip(doc);
+        assertEquals(doc.html(), copy.html());
+        assertEquals("http://www.w3.org/2005/Atom", copy.selectFirst("entry").namespace());
+        assertSame(copy.selectFirst("feed").namespace(), copy.selectFirst("entry").namespace());
+        assertEquals("urn:m", copy.selectFirst("m|a").namespace());
+        assertEquals("", copy.selectFirst("b").namespace());
+    }
+}
@@ -2039,4 +2039,25 @@ public class ElementTest {
         els.add(new Element("a"));
         assertEquals(1, els.size());
     }
+
+    @Test void getElementsByTagNS() {
+        String xml = "<rss xmlns:media='http://search.yahoo.com/mrss/' xmlns:m='http://search.yahoo.com/mrss/'><item>" +
+            "<media:content id=1 /><m:content id=2 /><content id=3 /><media:thumbnail id=4 /><m:contents id=5 /></item></rss>";
+        Document doc = Parser.xmlParser().setNamespaceAware(true).parseInput(xml, "");
+        assertEquals("1 2", doc.getElementsByTagNS("http://search.yahoo.com/mrss/", "content").eachAttr("id")
+            .stream().reduce((a, b) -> a + " " + b).orElse(""));
+        assertEquals(4, doc.getElementsByTagNS("http://search.yahoo.com/mrss/", "*").size());
+        assertEquals(3, doc.getElementsByTagNS("*", "content").size());
+        assertEquals(0, doc.getElementsByTagNS("urn:other", "content").size());
+        assertEquals(8, doc.getElementsByTagNS("*", "*").size()); // including the document
+
+        Element el = new Element("x:a").namespace("urn:x");
+        assertEquals("urn:x", el.namespace());
+        assertEquals("a", el.localName());
+        assertEquals("urn:x", el.shallowClone().namespace());
+        assertEquals("urn:x", el.clone().namespace());
+        assertTrue(new Evaluator.NamespacedTag("urn:x", "a").matches(el, el));
+        assertFalse(new Evaluator.NamespacedTag("urn:y", "a").matches(el, el));
+        assertEquals("", new Element("a").namespace());
+    }
 }
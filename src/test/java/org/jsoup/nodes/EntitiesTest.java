@@ -150,4 +150,35 @@ public class EntitiesTest {
         doc.outputSettings().escapeMode(xhtml);
         assertEquals("<a title=\"&lt;p>One&lt;/p>\">One</a>", element.outerHtml());
     }
+
+    @Test public void namesFoundFromChars() {
+        int[] codepoints = new int[2];
+        int count = 0;
+        for (String entry : EntitiesData.fullPoints.split("&")) {
+            String name = entry.substring(0, entry.indexOf('='));
+            char[] chars = ("x" + name + "y").toCharArray(); // found within the chars, as in the reader's buffer
+            int numChars = Entities.codepointsForName(chars, 1, name.length(), true, codepoints);
+            assertEquals(Entities.getByName(name), new String(codepoints, 0, numChars), name);
+            assertEquals(Entities.isBaseNamedEntity(name) ? numChars : 0,
+                Entities.codepointsForName(chars, 1, name.length(), false, codepoints), name);
+            count++;
+        }
+        assertEquals(2125, count);
+
+        char[] chars = "notin;nota;no;".toCharArray();
+        assertEquals(1, Entities.codepointsForName(chars, 0, 5, true, codepoints)); // notin
+        assertEquals(0x2209, codepoints[0]);
+        assertEquals(0, Entities.codepointsForName(chars, 6, 4, true, codepoints)); // nota: a prefix is not, but not the name
+        assertEquals(0, Entities.codepointsForName(chars, 11, 2, true, codepoints)); // no: only a prefix of names
+        assertEquals(0, Entities.codepointsForName(chars, 0, 0, true, codepoints));
+        assertEquals(1, Entities.codepointsForName(chars, 0, 3, false, codepoints)); // not, in base
+        assertEquals(0xAC, codepoints[0]);
+        assertEquals(0, Entities.codepointsForName(chars, 0, 5, false, codepoints)); // notin, needs its semicolon
+    }
+
+    @Test public void unescapesOnlyWholeNames() {
+        // the tokeniser takes the whole letter then digit run as the name, and doesn't back off to a shorter one
+        assertEquals("¬ &notin ∉ &notit; &notit ⋹̸ ½3 ½ &frac123;",
+            Entities.unescape("&not &notin &notin; &notit; &notit &notinE; &frac12;3 &frac12 &frac123;"));
+    }
 }
@@ -0,0 +1,153 @@
+package org.jsoup.nodes;
+
+import org.jsoup.integration.ParseTest;
+import org.jsoup.internal.CharSlice;
+import org.jsoup.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ Tests parsing with {@link Parser#setRetainInput(boolean)}, where text and data nodes hold views of the input.
+ */
+public class RetainedInputTest {
+    private static final String script = "function one() { return \"<two>\" + 3 < 4; }\n";
+    private static final String text = "Some text that is long enough to be held as a view";
+
+    private static Document parse(String html) {
+        return Parser.htmlParser().setRetainInput(true).parseInput(html, "https://example.com/");
+    }
+
+    private static boolean isView(LeafNode node) {
+        return node.value instanceof CharSlice;
+    }
+
+    @Test public void holdsTextAndDataAsViews() {
+        String html = "<script>" + script + "</script><style>p { color: red }</style><p>" + text + "</p><p>Short</p>";
+        Document doc = parse(html);
+        DataNode data = (DataNode) doc.selectFirst("script").childNode(0);
+        TextNode textNode = (TextNode) doc.selectFirst("p").childNode(0);
+        assertTrue(isView(data));
+        assertTrue(isView(textNode));
+        assertFalse(isView((LeafNode) doc.select("p").get(1).childNode(0))); // short
+
+        // reads don't copy into the node
+        assertEquals(Parser.htmlParser().parseInput(html, "https://example.com/").outerHtml(), doc.outerHtml());
+        assertEquals(text + " Short", doc.text());
+        assertEquals(script, doc.selectFirst("script").data());
+        assertFalse(textNode.isBlank());
+        assertTrue(isView(data));
+        assertTrue(isView(textNode));
+
+        assertEquals(script, data.getWholeData());
+        assertEquals(text, textNode.getWholeText());
+        assertFalse(isView(data));
+        assertFalse(isView(textNode));
+    }
+
+    @Test public void copiesDecodedText() {
+        Document doc = parse("<p>" + text + " &amp; more</p><script>" + script + "\u0000</script><pre>\n" + text + "</pre>");
+        TextNode decoded = (TextNode) doc.selectFirst("p").childNode(0);
+        assertFalse(isView(decoded));
+        assertEquals(text + " & more", decoded.text());
+        DataNode nulled = (DataNode) doc.selectFirst("script").childNode(0);
+        assertFalse(isView(nulled));
+        assertEquals(script + "�", nulled.getWholeData());
+        TextNode pre = (TextNode) doc.selectFirst("pre").childNode(0);
+        assertTrue(isView(pre)); // the skipped newline is not in the view
+        assertEquals(text, pre.getWholeText());
+    }
+
+    @Test public void changesAreCopied() {
+        Document doc = parse("<div><p>" + text + "</p></div><script>" + script + "</script>");
+        Element div = doc.selectFirst("div");
+        Element clone = div.clone();
+        TextNode textNode = (TextNode) div.selectFirst("p").childNode(0);
+        TextNode clonedText = (TextNode) clone.selectFirst("p").childNode(0);
+        assertTrue(isView(clonedText));
+
+        textNode.text("Changed");
+        assertFalse(isView(textNode));
+        assertEquals("<p>Changed</p>", div.selectFirst("p").outerHtml());
+        assertEquals("<p>" + text + "</p>", clone.selectFirst("p").outerHtml());
+
+        TextNode tail = clonedText.splitText(4);
+        assertEquals("Some", clonedText.getWholeText());
+        assertEquals(text.substring(4), tail.getWholeText());
+
+        DataNode data = (DataNode) doc.selectFirst("script").childNode(0);
+        data.attr("id", "x");
+        assertEquals(script, data.getWholeData());
+        assertEquals("x", data.attr("id"));
+    }
+
+    @Test public void parsesFilesSame() throws IOException {
+        String[] files = {"/htmltests/news-com-au-home.html.gz", "/htmltests/google-ipod.html.gz",
+            "/htmltests/yahoo-jp.html.gz", "/htmltests/xwiki-edit.html.gz", "/htmltests/table-polymer-template.html"};
+        for (String file : files) {
+            String html = ParseTest.getFileAsString(ParseTest.getFile(file));
+            Document expected = Parser.htmlParser().parseInput(html, "https://example.com/");
+            Document doc = parse(html);
+            assertEquals(expected.outerHtml(), doc.outerHtml());
+            assertEquals(expected.text(), doc.text());
+            assertEquals(expected.select("script").eachText(), doc.select("script").eachText());
+        }
+    }
+
+    @Test public void retainsReaderAndXmlInput() {
+        String xml = "<doc><item>" + text + "</item><item>" + text + " &lt; escaped</item></doc>";
+        Document doc = Parser.xmlParser().setRetainInput(true).parseInput(new StringReader(xml), "");
+        assertTrue(isView((LeafNode) doc.select("item").get(0).childNode(0)));
+        assertFalse(isView((LeafNode) doc.select("item").get(1).childNode(0)));
+        assertEquals(Parser.xmlParser().parseInput(xml, "").outerHtml(), doc.outerHtml());
+    }
+
+    @Test public void retainsInParallelAndReusableParses() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            sb.append("<div><script>").append(script).append("</script><p>").append(text).append("</p></div>");
+        String html = sb.toString();
+        String expected = Parser.htmlParser().parseInput(html, "").outerHtml();
+
+        Parser reusable = Parser.htmlParser().setRetainInput(true).setReusable(true);
+        for (int i = 0; i < 2; i++) {
+            Document doc = reusable.parseInput(html, "");
+            assertEquals(expected, doc.outerHtml());
+            assertTrue(isView((LeafNode) doc.select("p").last().childNode(0)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Document doc = Parser.htmlParser().setRetainInput(true).parallel(executor, 1000).parseInput(html, "");
+            assertEquals(expected, doc.outerHtml());
+            for (Element script : doc.select("script"))
+                assertTrue(isView((LeafNode) script.childNode(0)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test public void notRetainedByDefault() {
+        assertFalse(Parser.htmlParser().isRetainInput());
+        assertTrue(Parser.htmlParser().setRetainInput(true).newInstance().isRetainInput());
+        Document doc = Parser.htmlParser().parseInput("<p>" + text, "");
+        assertFalse(isView((LeafNode) doc.selectFirst("p").childNode(0)));
+    }
+
+    @Test public void charSliceViewsRange() {
+        CharSlice slice = new CharSlice("One two three", 4, 7);
+        assertEquals(3, slice.length());
+        assertEquals('w', slice.charAt(1));
+        assertEquals("two", slice.toString());
+        assertEquals("w", slice.subSequence(1, 2).toString());
+        assertFalse(slice.isBlank());
+        assertTrue(new CharSlice("One two", 3, 4).isBlank());
+        assertThrows(IndexOutOfBoundsException.class, () -> slice.charAt(3));
+        assertThrows(IllegalArgumentException.class, () -> new CharSlice("One", 2, 4));
+    }
+}
@@ -160,6 +160,37 @@ public class CharacterReaderTest {
         assertEquals(" qux", r.consumeToAny('&', ';'));
     }
 
+    @Test public void consumeToAnyDelimiters() {
+        CharacterReader.Delimiters delims = new CharacterReader.Delimiters('&', ';');
+        CharacterReader r = new CharacterReader("One &bar; qux ünïcödé");
+        assertEquals("One ", r.consumeToAny(delims));
+        assertEquals('&', r.consume());
+        assertEquals("bar", r.consumeToAny(delims));
+        assertEquals(';', r.consume());
+        assertEquals(" qux ünïcödé", r.consumeToAny(delims));
+        assertTrue(r.isEmpty());
+        assertEquals("", r.consumeToAny(delims));
+
+        assertTrue(delims.contains(';'));
+        assertFalse(delims.contains('<')); // past the end of the table
+        assertFalse(delims.contains('\u0126')); // Ħ, which truncates to '&'
+        assertThrows(IllegalArgumentException.class, () -> new CharacterReader.Delimiters('a', 'é'));
+    }
+
+    @Test public void consumeScansMatchDelimiters() {
+        CharacterReader r = new CharacterReader("data&amp<p attr='one\"two'>raw\u0000</p>");
+        assertEquals("data", r.consumeData());
+        r.advance();
+        assertEquals("amp", r.consumeData());
+        r.advance();
+        assertEquals("p", r.consumeTagName());
+        r.consumeTo('\'');
+        r.advance();
+        assertEquals("one\"two", r.consumeAttributeQuoted(true));
+        r.advance();
+        assertEquals(">raw", r.consumeRawData());
+    }
+
     @Test public void consumeLetterSequence() {
         CharacterReader r = new CharacterReader("One &bar; qux");
         assertEquals("One", r.consumeLetterSequence());
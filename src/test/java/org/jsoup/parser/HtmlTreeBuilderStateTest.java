@@ -11,6 +11,8 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HtmlTreeBuilderStateTest {
     static List<Object[]> findConstantArrays(Class aClass) {
@@ -43,7 +45,57 @@ public class HtmlTreeBuilderStateTest {
     public void ensureArraysAreSorted() {
         List<Object[]> constants = findConstantArrays(Constants.class);
         ensureSorted(constants);
-        assertEquals(38, constants.size());
+        assertEquals(2, constants.size()); // the heading names to search the stack for, and attribute names
+    }
+
+    @Test
+    public void tagSetsAreDistinctBits() throws IllegalAccessException {
+        long seen = 0;
+        int count = 0;
+        for (Field field : Constants.class.getDeclaredFields()) {
+            if (field.getType() == long.class) {
+                long set = field.getLong(null);
+                assertEquals(1, Long.bitCount(set), field.getName());
+                assertEquals(0, seen & set, field.getName());
+                seen |= set;
+                count++;
+            }
+        }
+        assertEquals(37, count);
+        assertTrue(TagId.in(TagId.B, Constants.Formatters));
+        assertTrue(TagId.in(TagId.Td, Constants.InCellNames | Constants.Formatters));
+        assertFalse(TagId.in(TagId.Span, Constants.Formatters));
+        assertFalse(TagId.in(TagId.Unknown, seen));
+    }
+
+    @Test
+    public void tagIdsMatchNames() throws IllegalAccessException {
+        int count = 0;
+        for (Field field : TagId.class.getDeclaredFields()) {
+            if (field.getType() == int.class && Modifier.isStatic(field.getModifiers()) && !Modifier.isPrivate(field.getModifiers())) {
+                int id = field.getInt(null);
+                if (id == TagId.Unknown)
+                    continue;
+                String name = field.getName().toLowerCase();
+                assertEquals(name, TagId.name(id));
+                assertEquals(id, TagId.of(name));
+                count++;
+            }
+        }
+        assertEquals(108, count);
+        assertEquals(TagId.Unknown, TagId.of("custom"));
+        assertEquals(TagId.Unknown, TagId.of("P")); // ids are by normal name
+
+        Token.StartTag start = new Token.StartTag();
+        start.name("TD");
+        assertEquals(TagId.Td, start.id());
+        start.name("image");
+        assertEquals(TagId.Image, start.id());
+        start.reset();
+        start.nameAttr("Xmp", null);
+        assertEquals(TagId.Xmp, start.id());
+        assertEquals(TagId.Nobr, Tag.valueOf("NOBR", ParseSettings.preserveCase).id());
+        assertEquals(TagId.Unknown, Tag.valueOf("custom").id());
     }
 
 }
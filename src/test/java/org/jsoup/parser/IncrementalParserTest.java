@@ -0,0 +1,130 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.integration.ParseTest;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalParserTest {
+    private static Document feedInChunks(Parser parser, String html, int chunkSize) {
+        IncrementalParser incremental = parser.newIncremental("http://example.com/");
+        for (int i = 0; i < html.length(); i += chunkSize) {
+            incremental.feed(html.subSequence(i, Math.min(i + chunkSize, html.length())));
+        }
+        return incremental.finish();
+    }
+
+    private static void assertSameAsFullParse(String html) {
+        String expected = Jsoup.parse(html, "http://example.com/").outerHtml();
+        for (int chunkSize : new int[]{1, 3, 100, 1500, 4096}) {
+            assertEquals(expected, feedInChunks(Parser.htmlParser(), html, chunkSize).outerHtml(), "Chunk size " + chunkSize);
+        }
+    }
+
+    @Test public void parsesChunkedInput() {
+        assertSameAsFullParse("<!doctype html><html><head><title>One &amp; Two</title></head><body><p class=one>Hello <b>there</b></p><p>Two</body></html>");
+    }
+
+    @Test public void parsesAcrossTokenBoundaries() {
+        // entities, comments, attributes, script, and rcdata that will be split across feeds
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append("<div id=d").append(i).append(" title='A &amp; B &notin C'>Text &amp &copy; &ampere; &#x41;")
+                .append("<!-- a comment --><script>if (a < b && c) { x = '</p>'; }</script>")
+                .append("<textarea>Some <b>text</b></textarea><title>Hi <i></title></div>");
+        }
+        assertSameAsFullParse(sb.toString());
+    }
+
+    @Test public void parsesUnclosedLongTokens() {
+        StringBuilder sb = new StringBuilder("<p>One<!-- ");
+        for (int i = 0; i < 10000; i++) sb.append("long comment ");
+        assertSameAsFullParse(sb.toString());
+        assertSameAsFullParse("<p>One<script>" + sb);
+        assertSameAsFullParse("<p id='" + sb);
+    }
+
+    @Test public void parsesCorpusInChunks() throws IOException {
+        String html = ParseTest.getFileAsString(ParseTest.getFile("/htmltests/news-com-au-home.html.gz"));
+        String expected = Jsoup.parse(html, "http://example.com/").outerHtml();
+        assertEquals(expected, feedInChunks(Parser.htmlParser(), html, 1024).outerHtml());
+        assertEquals(expected, feedInChunks(Parser.htmlParser(), html, 8192).outerHtml());
+    }
+
+    @Test public void parsesXmlInChunks() {
+        String xml = "<?xml version=\"1.0\"?><feed><entry id=1><title>One &amp; Two</title></entry><entry id=2><![CDATA[<b>]]></entry></feed>";
+        Document expected = Parser.xmlParser().parseInput(xml, "http://example.com/");
+        assertEquals(expected.outerHtml(), feedInChunks(Parser.xmlParser(), xml, 5).outerHtml());
+    }
+
+    @Test public void buildsDocumentAsInputArrives() {
+        StringBuilder sb = new StringBuilder("<ul>");
+        for (int i = 0; i < 1000; i++) sb.append("<li>Item ").append(i);
+
+        IncrementalParser incremental = Parser.htmlParser().newIncremental("");
+        incremental.feed(sb);
+        int soFar = incremental.document().select("li").size();
+        assertTrue(soFar > 0 && soFar < 1000); // the last items are held back until more input, or finish
+
+        Document doc = incremental.finish();
+        assertEquals(1000, doc.select("li").size());
+        assertSame(doc, incremental.document());
+    }
+
+    @Test public void decodesSplitMultiByteChars() {
+        String html = "<p>Hello 日本語 – Καλημέρα</p>";
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        IncrementalParser incremental = Parser.htmlParser().newIncremental("");
+        for (byte b : bytes) {
+            incremental.feed(ByteBuffer.wrap(new byte[]{b}));
+        }
+        assertEquals("Hello 日本語 – Καλημέρα", incremental.finish().selectFirst("p").text());
+    }
+
+    @Test public void decodesWithCharset() {
+        Charset charset = Charset.forName("ISO-8859-1");
+        ByteBuffer bytes = ByteBuffer.wrap("<p>Café</p>".getBytes(charset));
+        Document doc = Parser.htmlParser().newIncremental("").charset(charset).feed(bytes).finish();
+        assertEquals("Café", doc.selectFirst("p").text());
+        assertFalse(bytes.hasRemaining());
+    }
+
+    @Test public void feedsCharArraysAndBuffers() {
+        CharBuffer buffer = CharBuffer.wrap("<p>Two</p>");
+        Document doc = Parser.htmlParser().newIncremental("")
+            .feed("<p>One</p>xxx".toCharArray(), 0, 10)
+            .feed(buffer)
+            .finish();
+        assertEquals("<p>One</p><p>Two</p>", doc.body().html().replace("\n", ""));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test public void tracksErrorPositions() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 300; i++) sb.append("<p>One</p>\n<p>Two</b>\n</div>&bogus;");
+        String html = sb.toString();
+        Parser full = Parser.htmlParser().setTrackErrors(1000);
+        full.parseInput(html, "");
+        assertEquals(900, full.getErrors().size());
+
+        Parser parser = Parser.htmlParser().setTrackErrors(1000);
+        Document doc = feedInChunks(parser, html, 7);
+        assertEquals(full.getErrors().toString(), doc.parser().getErrors().toString());
+    }
+
+    @Test public void cannotFeedAfterFinish() {
+        IncrementalParser incremental = Parser.htmlParser().newIncremental("");
+        incremental.feed("<p>One");
+        incremental.finish();
+        assertThrows(IllegalArgumentException.class, () -> incremental.feed("<p>Two"));
+        assertThrows(IllegalArgumentException.class, incremental::finish);
+    }
+}
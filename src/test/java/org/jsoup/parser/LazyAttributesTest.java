@@ -0,0 +1,198 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.integration.ParseTest;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyAttributesTest {
+    private static final String[] tags = {
+        "<p a=1 b='two' c=\"three\">", "<p a=\"x>y\" b='z/>' c=d/>", "<p a=b/>", "<p / a=1 / >", "<p a=1 <b>",
+        "<p a='1'b=2>", "<p a='1'/b=2>", "<p a &amp;=1 b=&lt;c>", "<p a=&amp;&#x41;&notit;&#65 b=\"&quot;\">",
+        "<p a = 1 b\t=\n'2' c>", "<p \"a\"=1 'b'=2 =c d<e=3>", "<p a=`1` b==2 c=<>", "<p a=\"", "<p a=", "<p a",
+        "<p a='1' A='2' a=3>", "<p a=\u0000 \u0000b=1>", "<p a=1/ b=2>", "<p a/>", "<p\ta>", "<p   >", "<p />",
+        "<p a='1'\u0000>", "<foo:bar Foo:Bar=1 xmlns:foo=urn:foo/>", "<input type=hidden a=1>", "<html lang=en>",
+    };
+
+    private static Document parse(Parser parser, String html) {
+        return parser.parseInput(html, "https://example.com/");
+    }
+
+    private static void assertParsesSame(Parser parser, String html) {
+        Document expected = parse(parser.newInstance().setLazyAttributes(false), html);
+        Document doc = parse(parser.newInstance().setLazyAttributes(true), html);
+        assertEquals(expected.outerHtml(), doc.outerHtml(), html);
+    }
+
+    @Test public void parsesSameAsEager() {
+        for (Parser parser : Arrays.asList(Parser.htmlParser(), Parser.xmlParser(),
+            Parser.htmlParser().settings(ParseSettings.preserveCase))) {
+            for (String tag : tags) {
+                assertParsesSame(parser, tag);
+                assertParsesSame(parser, tag + "Text</p>");
+                assertParsesSame(parser, "<div>" + tag + "<span a=1>Text</span></div>");
+            }
+        }
+    }
+
+    @Test public void parsesFilesSameAsEager() throws IOException {
+        String[] files = {"/htmltests/news-com-au-home.html.gz", "/htmltests/nyt-article-1.html.gz",
+            "/htmltests/google-ipod.html.gz", "/htmltests/xwiki-edit.html.gz", "/htmltests/yahoo-jp.html.gz",
+            "/htmltests/upload-form.html", "/htmltests/table-polymer-template.html"};
+        for (String file : files) {
+            String html = ParseTest.getFileAsString(ParseTest.getFile(file));
+            assertParsesSame(Parser.htmlParser(), html);
+
+            Document doc = parse(Parser.htmlParser().setLazyAttributes(true), html);
+            Document expected = parse(Parser.htmlParser(), html);
+            assertEquals(expected.select("[href]").eachAttr("abs:href"), doc.select("[href]").eachAttr("abs:href"));
+        }
+    }
+
+    @Test public void tokenisesToSource() {
+        Tokeniser tokeniser = new Tokeniser(new CharacterReader("<p id=1 class='a b'>One<br/><img src=x />" +
+            "<input type=text><p >"), ParseErrorList.noTracking());
+        tokeniser.lazyAttributes = true;
+
+        Token.StartTag p = (Token.StartTag) tokeniser.read();
+        assertEquals("id=1 class='a b'", p.attributeSource);
+        assertNull(p.attributes);
+        assertFalse(p.selfClosing);
+        assertEquals("One", tokeniser.read().asCharacter().getData());
+
+        Token.StartTag br = (Token.StartTag) tokeniser.read();
+        assertNull(br.attributeSource); // no attributes
+        assertTrue(br.selfClosing);
+
+        Token.StartTag img = (Token.StartTag) tokeniser.read();
+        assertEquals("src=x ", img.attributeSource);
+        assertTrue(img.selfClosing);
+
+        Token.StartTag input = (Token.StartTag) tokeniser.read();
+        assertNull(input.attributeSource); // used in tree building, so tokenised
+        assertEquals("text", input.attributes.get("type"));
+
+        Token.StartTag empty = (Token.StartTag) tokeniser.read();
+        assertNull(empty.attributeSource);
+        assertNull(empty.attributes);
+    }
+
+    @Test public void tokenisesSource() {
+        assertEquals(" a=\"&amp;\" b=\"A\" c", LazyAttributes.tokenise("a=&amp; b='&#65;' c").html());
+        assertEquals("", LazyAttributes.tokenise("").html());
+    }
+
+    @Test public void parsesOnAccess() {
+        Document doc = Jsoup.parse("<div id=one class='a b' data-x=&lt;1>One</div><p>Two</p>", "",
+            Parser.htmlParser().setLazyAttributes(true));
+        Element div = doc.selectFirst("#one");
+        assertNotNull(div);
+        assertTrue(div.hasClass("b"));
+        assertEquals("<1", div.attr("data-x"));
+        assertEquals("<1", div.dataset().get("x"));
+        assertEquals(3, div.attributes().size());
+        assertEquals(0, doc.selectFirst("p").attributes().size());
+        assertEquals("", doc.selectFirst("p").id());
+
+        Element clone = div.clone();
+        div.attr("data-x", "2");
+        assertEquals("<1", clone.attr("data-x"));
+        assertEquals("one", div.shallowClone().id());
+        div.clearAttributes();
+        assertEquals(0, div.attributes().size());
+        assertEquals("", div.id());
+    }
+
+    @Test public void lazyAttributesAreIndependent() {
+        Document doc = Jsoup.parse("<a href=/one>One</a>", "https://example.com/",
+            Parser.htmlParser().setLazyAttributes(true));
+        Element a = doc.selectFirst("a");
+        Element clone = a.clone();
+        a.after(clone);
+        clone.attr("href", "/two");
+        assertEquals("https://example.com/one", a.absUrl("href"));
+        assertEquals("https://example.com/two", clone.absUrl("href"));
+        a.setBaseUri("https://example.org/");
+        assertEquals("https://example.org/one", a.absUrl("href"));
+        assertEquals("<a href=\"/one\">One</a>", a.outerHtml());
+    }
+
+    @Test public void keepsTreeBuildingAttributes() {
+        String html = "<html lang=en><body class=x><table><input type=hidden name=a><input type=text name=b></table>" +
+            "<body id=y><isindex prompt=Search action=/s>";
+        assertParsesSame(Parser.htmlParser(), html);
+        Document doc = Jsoup.parse(html, "", Parser.htmlParser().setLazyAttributes(true));
+        assertEquals("en", doc.selectFirst("html").attr("lang"));
+        assertEquals("y", doc.body().id());
+    }
+
+    @Test public void handlesAttributesLargerThanBuffer() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < CharacterReader.maxBufferLen / 4; i++)
+            sb.append("&lt;x ");
+        String html = "<p>One</p><div data-large='" + sb + "' id=two>Two</div><p class=three>Three</p>";
+        assertParsesSame(Parser.htmlParser(), html);
+        Document doc = Jsoup.parse(html, "", Parser.htmlParser().setLazyAttributes(true));
+        assertEquals("two", doc.selectFirst("div").id());
+        assertTrue(doc.selectFirst("div").attr("data-large").startsWith("<x <x"));
+    }
+
+    @Test public void tracksErrorsWhenTokenised() {
+        String html = "<p a=1 a=2 b=\"3\"c>One<p d=<e>";
+        Parser eager = Parser.htmlParser().setTrackErrors(10);
+        Parser lazy = Parser.htmlParser().setTrackErrors(10).setLazyAttributes(true);
+        assertEquals(parse(eager, html).outerHtml(), parse(lazy, html).outerHtml());
+        assertEquals(eager.getErrors().toString(), lazy.getErrors().toString());
+        assertTrue(lazy.getErrors().size() > 0);
+    }
+
+    @Test public void settingIsCopied() {
+        Parser parser = Parser.htmlParser();
+        assertFalse(parser.isLazyAttributes());
+        assertTrue(parser.setLazyAttributes(true).newInstance().isLazyAttributes());
+    }
+
+    @Test public void worksWithReusableAndParallelParsers() {
+        String html = "<div class=item data-id=1>One</div><div class=item data-id=2>Two</div>";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++)
+            sb.append(html);
+        String input = sb.toString();
+        String expected = parse(Parser.htmlParser(), input).outerHtml();
+
+        Parser reusable = Parser.htmlParser().setLazyAttributes(true).setReusable(true);
+        assertEquals(expected, parse(reusable, input).outerHtml());
+        assertEquals(expected, parse(reusable, input).outerHtml());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Document doc = parse(Parser.htmlParser().setLazyAttributes(true).parallel(executor, 500), input);
+            assertEquals(expected, doc.outerHtml());
+            Elements items = doc.select("div.item[data-id=2]");
+            assertEquals(200, items.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test public void recordsTokenLog() {
+        String html = "<div id=one class='a b'>One</div><img src=x />";
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        Document doc = Parser.htmlParser().setLazyAttributes(true).parseRecording(new StringReader(html), "", log);
+        Document replayed = Parser.htmlParser().parseTokenLog(new ByteArrayInputStream(log.toByteArray()), "");
+        assertEquals(doc.outerHtml(), replayed.outerHtml());
+        assertEquals("one", replayed.selectFirst("div").id());
+    }
+}
@@ -0,0 +1,163 @@
+package org.jsoup.parser;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.jsoup.internal.StringUtil.inSorted;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ Tests the indexed stack of open elements, against a walk down the stack as the tree builder used to do.
+ */
+public class OpenElementStackTest {
+    private static final String[] names = {"html", "body", "div", "p", "li", "ul", "ol", "button", "table", "tr", "td",
+        "select", "optgroup", "option", "b", "template", "span"};
+
+    private static String[] boundaries(int scope) {
+        switch (scope) {
+            case OpenElementStack.ListItemScope: return concat(HtmlTreeBuilder.TagsSearchInScope, HtmlTreeBuilder.TagSearchList);
+            case OpenElementStack.ButtonScope: return concat(HtmlTreeBuilder.TagsSearchInScope, HtmlTreeBuilder.TagSearchButton);
+            case OpenElementStack.TableScope: return HtmlTreeBuilder.TagSearchTableScope;
+            default: return HtmlTreeBuilder.TagsSearchInScope;
+        }
+    }
+
+    private static String[] concat(String[] a, String[] b) {
+        String[] both = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, both, a.length, b.length);
+        Arrays.sort(both);
+        return both;
+    }
+
+    /** The linear scope search, from the spec. */
+    private static boolean linearInScope(List<Element> stack, String name, int scope, int maxDepth) {
+        final int bottom = stack.size() - 1;
+        final int top = maxDepth >= 0 && bottom > maxDepth ? bottom - maxDepth : 0;
+        for (int pos = bottom; pos >= top; pos--) {
+            final String elName = stack.get(pos).normalName();
+            if (elName.equals(name))
+                return true;
+            if (scope == OpenElementStack.SelectScope) {
+                if (!inSorted(elName, HtmlTreeBuilder.TagSearchSelectScope))
+                    return false;
+            } else if (inSorted(elName, boundaries(scope))) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static void assertIndexed(OpenElementStack stack, List<Element> expected) {
+        assertEquals(expected, stack);
+        for (String name : names) {
+            int last = -1;
+            for (int i = expected.size() - 1; i >= 0; i--) {
+                if (expected.get(i).normalName().equals(name)) {
+                    last = i;
+                    break;
+                }
+            }
+            assertEquals(last, stack.lastIndexOfName(name), name);
+            for (int scope = OpenElementStack.DefaultScope; scope <= OpenElementStack.SelectScope; scope++) {
+                assertEquals(linearInScope(expected, name, scope, -1), stack.inScope(name, scope, -1), name);
+                assertEquals(linearInScope(expected, name, scope, 3), stack.inScope(name, scope, 3), name);
+            }
+        }
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals(i, stack.lastIndexOfElement(expected.get(i)));
+        assertEquals(-1, stack.lastIndexOfElement(new Element("div")));
+    }
+
+    @Test public void indexMatchesLinearSearch() {
+        Random random = new Random(17);
+        OpenElementStack stack = new OpenElementStack();
+        List<Element> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Element el = new Element(names[random.nextInt(names.length)]);
+            int op = random.nextInt(10);
+            if (op < 5 || expected.isEmpty()) {
+                stack.add(el);
+                expected.add(el);
+            } else if (op < 7) {
+                stack.remove(stack.size() - 1);
+                expected.remove(expected.size() - 1);
+            } else if (op == 7) {
+                int pos = random.nextInt(expected.size());
+                stack.remove(pos);
+                expected.remove(pos);
+            } else if (op == 8) {
+                int pos = random.nextInt(expected.size() + 1);
+                stack.add(pos, el);
+                expected.add(pos, el);
+            } else {
+                int pos = random.nextInt(expected.size());
+                stack.set(pos, el);
+                expected.set(pos, el);
+            }
+            assertIndexed(stack, expected);
+        }
+
+        stack.clear();
+        expected.clear();
+        assertIndexed(stack, expected);
+    }
+
+    @Test public void bulkChangesReindex() {
+        OpenElementStack stack = new OpenElementStack();
+        List<Element> expected = new ArrayList<>();
+        for (String name : names)
+            expected.add(new Element(name));
+        stack.addAll(expected);
+        assertIndexed(stack, expected);
+
+        stack.subList(2, 5).clear();
+        expected.subList(2, 5).clear();
+        assertIndexed(stack, expected);
+
+        stack.removeIf(el -> el.normalName().equals("table"));
+        expected.removeIf(el -> el.normalName().equals("table"));
+        assertIndexed(stack, expected);
+
+        Element li = new Element("li");
+        List<Element> added = Arrays.asList(li, new Element("p"));
+        stack.addAll(1, added);
+        expected.addAll(1, added);
+        assertIndexed(stack, expected);
+        assertTrue(stack.remove(li));
+        assertTrue(expected.remove(li));
+        assertIndexed(stack, expected);
+    }
+
+    @Test public void indexesDeepStacks() {
+        OpenElementStack stack = new OpenElementStack();
+        stack.add(new Element("html"));
+        Element p = new Element("p");
+        stack.add(p);
+        for (int i = 0; i < 500; i++)
+            stack.add(new Element("span"));
+        assertEquals(1, stack.lastIndexOfElement(p));
+        assertTrue(stack.inScope("p", OpenElementStack.DefaultScope, -1));
+        assertFalse(stack.inScope("p", OpenElementStack.DefaultScope, HtmlTreeBuilder.MaxScopeSearchDepth));
+        stack.add(new Element("button"));
+        assertFalse(stack.inScope("p", OpenElementStack.ButtonScope, -1));
+        assertTrue(stack.inScope("button", OpenElementStack.ButtonScope, -1));
+    }
+
+    @Test public void parsesDeeplyNestedBlocks() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+            sb.append("<div><ul><li><p>").append(i);
+        sb.append("<button>One</button></p>");
+        Document doc = Parser.htmlParser().parseInput(sb.toString(), "");
+        assertEquals(5000, doc.select("div").size());
+        assertEquals(5000, doc.select("li").size());
+        assertEquals("One", doc.selectFirst("button").text());
+        assertEquals("p", doc.selectFirst("button").parent().normalName());
+    }
+}
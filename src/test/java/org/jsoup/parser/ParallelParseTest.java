@@ -0,0 +1,124 @@
+package org.jsoup.parser;
+
+import org.jsoup.integration.ParseTest;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelParseTest {
+    private static ExecutorService executor;
+
+    @BeforeAll public static void setup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll public static void teardown() {
+        executor.shutdown();
+    }
+
+    private static void assertParsesSame(Parser parser, String input, int chunkSize) {
+        Parser sequential = parser.newInstance().parallel(null).setTrackErrors(1000);
+        Parser parallel = parser.newInstance().parallel(executor, chunkSize).setTrackErrors(1000);
+        Document expected = sequential.parseInput(input, "https://example.com/");
+        Document doc = parallel.parseInput(input, "https://example.com/");
+        assertEquals(expected.outerHtml(), doc.outerHtml());
+        assertEquals(sequential.getErrors().toString(), parallel.getErrors().toString());
+    }
+
+    private static void assertParsesSame(String input) {
+        for (int chunkSize : new int[]{1, 7, 16, 50, 128})
+            assertParsesSame(Parser.htmlParser(), input, chunkSize);
+    }
+
+    @Test public void parsesFilesSameAsSequential() throws IOException {
+        String[] files = {"/htmltests/news-com-au-home.html.gz", "/htmltests/nyt-article-1.html.gz",
+            "/htmltests/google-ipod.html.gz", "/htmltests/xwiki-edit.html.gz", "/htmltests/large.html",
+            "/htmltests/table-polymer-template.html", "/htmltests/comments.html"};
+        for (String file : files) {
+            String html = ParseTest.getFileAsString(ParseTest.getFile(file));
+            for (int chunkSize : new int[]{512, 4096, 20000})
+                assertParsesSame(Parser.htmlParser(), html, chunkSize);
+        }
+    }
+
+    @Test public void parsesTablesAndLists() {
+        StringBuilder sb = new StringBuilder("<table>");
+        for (int i = 0; i < 500; i++)
+            sb.append("<tr class=row><td>").append(i).append("<td><a href='/").append(i).append("'>Link</a>");
+        sb.append("</table><ul>");
+        for (int i = 0; i < 500; i++)
+            sb.append("<li>Item <b>").append(i).append("<i>formatted</b></i>\n");
+        String html = sb.toString();
+        assertParsesSame(Parser.htmlParser(), html, 1000);
+        assertParsesSame(Parser.htmlParser(), html, 97);
+    }
+
+    @Test public void chunksStartingInRawContent() {
+        // chunks may start within these, so are speculated wrong, and must be re-read
+        assertParsesSame("<p>One</p><script>if (a<b) { document.write('<p>Two</p>') }</script><p>Three</p>");
+        assertParsesSame("<div><!-- <p>One</p> <div>Two</div> --><p>Three</div>");
+        assertParsesSame("<textarea><p>One</p><b>Two</textarea><p>Three <title>Four<b>Five</b></title><p>Six");
+        assertParsesSame("<style>p { color: red } <div> </style><p>One <xmp><p>Two</xmp>");
+        assertParsesSame("<p>One<plaintext><p>Two</p><div>Three</div>");
+        assertParsesSame("<p>One<script/><p>Two</p></script><p>Three");
+        assertParsesSame("<p>One</p><noscript><p>Two</p></noscript><iframe><p>Three</iframe><p>Four");
+        assertParsesSame("<svg><script>a<b</script><p>Two</p></svg><p>Three</p>");
+    }
+
+    @Test public void skipsNewlinesAsTreeBuilder() {
+        assertParsesSame("<pre>\n<p>One</p></pre><listing>\n\nTwo</listing><p><pre>\nThree</pre>");
+        assertParsesSame("<table><pre>\n<td>One</table><pre>\n</pre>\n<p>Two");
+    }
+
+    @Test public void parsesUnclosedAndErrors() {
+        assertParsesSame("<p>One <b>Two <i>Three</b> Four</i><table><p>Foster<tr><td>Five</table></p></div>");
+        assertParsesSame("<!doctype html><html><head><title>One</title><body><p>&amp; &notin; &copy &#x41; &bogus;</p><p id=a id=b>");
+        assertParsesSame("<p>One<!-- unclosed comment <p>Two</p>");
+        assertParsesSame("<div><p id='unclosed>One</p><p>Two</p></div>");
+    }
+
+    @Test public void parsesXmlSameAsSequential() throws IOException {
+        String xml = ParseTest.getFileAsString(ParseTest.getFile("/htmltests/test-rss.xml"));
+        for (int chunkSize : new int[]{1, 50, 500})
+            assertParsesSame(Parser.xmlParser(), xml, chunkSize);
+        assertParsesSame(Parser.xmlParser(), "<?xml version='1.0'?><doc><script><a>One</a></script><![CDATA[<b>Two</b>]]></doc>", 5);
+    }
+
+    @Test public void parsesReaderAndReusable() throws IOException {
+        String html = ParseTest.getFileAsString(ParseTest.getFile("/htmltests/news-com-au-home.html.gz"));
+        String expected = Parser.htmlParser().parseInput(html, "").outerHtml();
+        Parser parser = Parser.htmlParser().parallel(executor, 8192).setReusable(true);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected, parser.parseInput(new StringReader(html), "").outerHtml());
+            assertEquals("<p>Small</p>", parser.parseInput("<p>Small", "").body().html());
+        }
+        assertEquals(expected, parser.newInstance().parseInput(html, "").outerHtml()); // settings copied
+    }
+
+    @Test public void splitsAtTagStarts() {
+        String html = "<div>Some text < 1 and <br> more text <li>An item <p>Para</p><tr><td>Cell</td>";
+        int[] starts = ParallelParse.chunkStarts(html, 20);
+        assertEquals(0, starts[0]);
+        assertTrue(starts.length > 1);
+        for (int i = 1; i < starts.length; i++) {
+            assertEquals('<', html.charAt(starts[i]));
+            assertTrue(Character.isLetter(html.charAt(starts[i] + 1)));
+            assertTrue(starts[i] > starts[i - 1]);
+        }
+        assertEquals(html.indexOf("<li>"), ParallelParse.chunkBoundary(html, 20, 20)); // preferred over <br>
+        assertEquals(html.indexOf("<br>"), ParallelParse.chunkBoundary(html, 20, 2));
+        assertEquals(-1, ParallelParse.chunkBoundary("No tags < here", 0, 10));
+    }
+
+    @Test public void validatesChunkSize() {
+        assertThrows(IllegalArgumentException.class, () -> Parser.htmlParser().parallel(executor, 0));
+    }
+}
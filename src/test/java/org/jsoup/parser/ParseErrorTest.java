@@ -0,0 +1,150 @@
+package org.jsoup.parser;
+
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ Tests the parse error codes and positions, and the tracking, counting, and no tracking error lists.
+ */
+public class ParseErrorTest {
+    private static final String html = "<p>One</p href='no'>\n<!DOCTYPE html>\n  &arrgh;<font />\n<br /><foo";
+
+    private static String located(List<ParseError> errors) {
+        StringBuilder sb = new StringBuilder();
+        for (ParseError error : errors) {
+            sb.append(error.getCode()).append(' ').append(error.getPosition()).append(' ')
+                .append(error.getLineNumber()).append(':').append(error.getColumnNumber()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Test public void errorsHaveCodesAndLines() {
+        Parser parser = Parser.htmlParser().setTrackErrors(10);
+        parser.parseInput(html, "");
+        ParseErrorList errors = parser.getErrors();
+        assertEquals(5, errors.size());
+        assertEquals(5, errors.getErrorCount());
+
+        ParseError error = errors.get(0);
+        assertEquals(ParseError.Code.AttributesOnEndTag, error.getCode());
+        assertEquals("Attributes incorrectly present on end tag", error.getErrorMessage());
+        assertEquals(1, error.getLineNumber());
+        assertEquals(21, error.getColumnNumber());
+
+        error = errors.get(2);
+        assertEquals(ParseError.Code.InvalidCharacterReference, error.getCode());
+        assertEquals("40: Invalid character reference: invalid named reference", error.toString());
+        assertEquals(3, error.getLineNumber());
+        assertEquals(4, error.getColumnNumber()); // after the &
+
+        assertEquals("AttributesOnEndTag 20 1:21\nUnexpectedToken 36 2:16\nInvalidCharacterReference 40 3:4\n" +
+            "SelfClosingNonVoidTag 54 3:18\nUnexpectedEof 66 4:12\n", located(errors));
+        assertEquals("Unexpected token [Doctype] when in state [InBody]", errors.get(1).getErrorMessage());
+    }
+
+    @Test public void countsWithoutHolding() {
+        Parser parser = Parser.htmlParser().setCountErrors(true);
+        assertTrue(parser.isCountErrors());
+        assertFalse(parser.isTrackErrors());
+        Document doc = parser.parseInput(html, "");
+        assertEquals(0, parser.getErrors().size());
+        assertEquals(5, parser.getErrors().getErrorCount());
+        assertEquals(5, doc.parser().getErrors().getErrorCount());
+
+        assertTrue(parser.newInstance().isCountErrors());
+        assertFalse(parser.setTrackErrors(5).isCountErrors());
+        assertFalse(parser.setCountErrors(true).setCountErrors(false).isCountErrors());
+    }
+
+    @Test public void trackingCountsBeyondMaxSize() {
+        Parser parser = Parser.htmlParser().setTrackErrors(2);
+        parser.parseInput(html, "");
+        assertEquals(2, parser.getErrors().size());
+        assertEquals(5, parser.getErrors().getErrorCount());
+    }
+
+    @Test public void noTrackingByDefault() {
+        Parser parser = Parser.htmlParser();
+        parser.parseInput(html, "");
+        assertEquals(0, parser.getErrors().size());
+        assertEquals(0, parser.getErrors().getErrorCount());
+        assertFalse(parser.getErrors().isTracking());
+        assertFalse(parser.isCountErrors());
+    }
+
+    @Test public void sameErrorsFromReaderIncrementalAndParallelParses() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++)
+            sb.append("<div>\n<p>One</p x=y>\n  &bogus; <b>Two</i>\n</div>");
+        String input = sb.toString();
+        Parser parser = Parser.htmlParser().setTrackErrors(10000);
+        parser.parseInput(input, "");
+        String expected = located(parser.getErrors());
+        assertEquals(8000, parser.getErrors().size());
+
+        Parser reader = Parser.htmlParser().setTrackErrors(10000);
+        reader.parseInput(new StringReader(input), ""); // the buffer is refilled as read
+        assertEquals(expected, located(reader.getErrors()));
+
+        IncrementalParser incremental = Parser.htmlParser().setTrackErrors(10000).newIncremental("");
+        for (int i = 0; i < input.length(); i += 5000)
+            incremental.feed(input.substring(i, Math.min(i + 5000, input.length())));
+        assertEquals(expected, located(incremental.finish().parser().getErrors()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Parser parallel = Parser.htmlParser().setTrackErrors(10000).parallel(executor, 4000);
+            parallel.parseInput(input, "");
+            assertEquals(expected, located(parallel.getErrors()));
+
+            Parser counting = Parser.htmlParser().setCountErrors(true).parallel(executor, 4000);
+            counting.parseInput(input, "");
+            assertEquals(8000, counting.getErrors().getErrorCount());
+        } finally {
+            executor.shutdown();
+        }
+
+        IncrementalParser countingIncremental = Parser.htmlParser().setCountErrors(true).newIncremental("");
+        for (int i = 0; i < input.length(); i += 777)
+            countingIncremental.feed(input.substring(i, Math.min(i + 777, input.length())));
+        assertEquals(8000, countingIncremental.finish().parser().getErrors().getErrorCount());
+    }
+
+    @Test public void reusableParserCountsEachParse() {
+        Parser parser = Parser.htmlParser().setCountErrors(true).setReusable(true);
+        for (int i = 0; i < 2; i++) {
+            Document doc = parser.parseInput(html, "");
+            assertEquals(5, doc.parser().getErrors().getErrorCount());
+        }
+    }
+
+    @Test public void lineIndexFindsLinesAndColumns() {
+        LineIndex lines = LineIndex.of("One\nTwo\n\nThree");
+        assertEquals(1, lines.lineNumber(0));
+        assertEquals(1, lines.columnNumber(0));
+        assertEquals(1, lines.lineNumber(3)); // the newline ends line 1
+        assertEquals(4, lines.columnNumber(3));
+        assertEquals(2, lines.lineNumber(4));
+        assertEquals(1, lines.columnNumber(4));
+        assertEquals(3, lines.lineNumber(8));
+        assertEquals(4, lines.lineNumber(11));
+        assertEquals(3, lines.columnNumber(11));
+
+        LineIndex read = new LineIndex(); // indexed as read, with overlapping reads
+        char[] chars = "One\nTwo\n\nThree".toCharArray();
+        read.index(chars, 0, 6, 0);
+        read.index(chars, 4, 6, 4);
+        read.index(chars, 8, 6, 8);
+        for (int pos = 0; pos < chars.length; pos++) {
+            assertEquals(lines.lineNumber(pos), read.lineNumber(pos));
+            assertEquals(lines.columnNumber(pos), read.columnNumber(pos));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.jsoup.parser;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ Tests the parser's limits on depth, nodes, attributes, and input length.
+ */
+public class ParseLimitsTest {
+    private static String repeat(String html, int times) {
+        StringBuilder sb = new StringBuilder(html.length() * times);
+        for (int i = 0; i < times; i++)
+            sb.append(html);
+        return sb.toString();
+    }
+
+    private static int depth(Document doc) {
+        final int[] max = {0};
+        NodeTraversor.traverse(new NodeVisitor() {
+            @Override public void head(Node node, int depth) {
+                max[0] = Math.max(max[0], depth);
+            }
+            @Override public void tail(Node node, int depth) {}
+        }, doc);
+        return max[0];
+    }
+
+    @Test public void stopsAtMaxDepth() {
+        String html = repeat("<div>", 100000) + "Deep";
+        Parser parser = Parser.htmlParser().setMaxDepth(100).setTrackErrors(10);
+        Document doc = parser.parseInput(html, "");
+        assertEquals(99, doc.select("div").size()); // with html and body, and the div that exceeded
+        assertEquals(101, depth(doc)); // html at 1, body at 2, and the divs to 101
+        assertEquals("", doc.text());
+        assertEquals("The input exceeded the parser's limit of max depth 100; the rest was not parsed",
+            parser.getErrors().get(parser.getErrors().size() - 1).getErrorMessage());
+    }
+
+    @Test public void stopsAtMaxNodes() {
+        Parser parser = Parser.htmlParser().setMaxNodes(50);
+        Document doc = parser.parseInput(repeat("<p>One</p>", 1000), "");
+        assertEquals(24, doc.select("p").size()); // html, head, body, then 24 p and text
+        assertEquals("One", doc.select("p").last().text());
+
+        // unclosed formatting elements, reconstructed in each paragraph
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+            sb.append("<p><b id=").append(i).append(">").append(i).append("</p>");
+        doc = Parser.htmlParser().setMaxNodes(10000).parseInput(sb.toString(), "");
+        assertTrue(doc.getAllElements().size() < 10000);
+    }
+
+    @Test public void stopsAtMaxAttributes() {
+        Parser parser = Parser.htmlParser().setMaxAttributes(5).setLazyAttributes(true);
+        Document doc = parser.parseInput("<p a=1 b=2>One</p><p c=3 d=4 e=5>Two</p><p f=6>Three</p><p>Four</p>", "");
+        assertEquals("One Two", doc.text()); // stops before the start tag that exceeds
+        assertEquals(5, doc.select("[a], [b], [c], [d], [e]").stream().mapToInt(el -> el.attributes().size()).sum());
+    }
+
+    @Test public void stopsAtMaxInputLength() {
+        String html = "<p>One</p><p>Two</p><p>Three</p>";
+        Parser parser = Parser.htmlParser().setMaxInputLength(16).setTrackErrors(10);
+        Document doc = parser.parseInput(html, "");
+        assertEquals("<p>One</p>\n<p>Two</p>", doc.body().html());
+        assertEquals("The input exceeded the parser's limit of max input length 16; the rest was not parsed",
+            parser.getErrors().get(0).getErrorMessage());
+
+        doc = Parser.htmlParser().setMaxInputLength(15).parseInput(new StringReader(html), "");
+        assertEquals("<p>One</p>\n<p>Tw</p>", doc.body().html());
+        parser = Parser.htmlParser().setMaxInputLength(html.length()).setTrackErrors(10);
+        assertEquals("One Two Three", parser.parseInput(html, "").text());
+        assertEquals(0, parser.getErrors().size());
+    }
+
+    @Test public void throwsIfSet() {
+        Parser parser = Parser.htmlParser().setMaxDepth(10).setThrowOnLimit(true);
+        ParseLimitException e = assertThrows(ParseLimitException.class,
+            () -> parser.parseInput(repeat("<span>", 20), ""));
+        assertEquals("The input exceeded the parser's limit of max depth 10", e.getMessage());
+        assertEquals(9, parser.parseInput(repeat("<span>", 6), "").select("span").size() + 3);
+
+        assertThrows(ParseLimitException.class, () -> Parser.htmlParser().setMaxNodes(10).setThrowOnLimit(true)
+            .parseInput(repeat("<p>One", 10), ""));
+        assertThrows(ParseLimitException.class, () -> Parser.htmlParser().setMaxAttributes(1).setThrowOnLimit(true)
+            .parseInput("<p a=1 b=2>", ""));
+        assertThrows(ParseLimitException.class, () -> Parser.htmlParser().setMaxInputLength(5).setThrowOnLimit(true)
+            .parseInput("<p>One</p>", ""));
+    }
+
+    @Test public void limitsXml() {
+        Parser parser = Parser.xmlParser().setMaxDepth(3);
+        Document doc = parser.parseInput("<a><b><c><d><e>Deep</e></d></c></b></a><f/>", "");
+        assertEquals("<a><b><c><d></d></c></b></a>", doc.html());
+        assertEquals(0, doc.select("f").size());
+    }
+
+    @Test public void reusableParserResetsCounts() {
+        Parser parser = Parser.htmlParser().setMaxNodes(20).setReusable(true);
+        String html = repeat("<p>One</p>", 5);
+        for (int i = 0; i < 3; i++)
+            assertEquals(5, parser.parseInput(html, "").select("p").size());
+        assertEquals(9, parser.parseInput(repeat("<p>One</p>", 100), "").select("p").size());
+        assertEquals(5, parser.parseInput(html, "").select("p").size());
+    }
+
+    @Test public void limitsParallelParse() {
+        String html = repeat("<div><p>One</p></div>", 2000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Parser parser = Parser.htmlParser().setMaxNodes(1000).parallel(executor, 2000);
+            Document expected = Parser.htmlParser().setMaxNodes(1000).parseInput(html, "");
+            assertEquals(expected.outerHtml(), parser.parseInput(html, "").outerHtml());
+
+            parser = Parser.htmlParser().setMaxInputLength(10000).parallel(executor, 2000);
+            expected = Parser.htmlParser().setMaxInputLength(10000).parseInput(html, "");
+            assertEquals(expected.outerHtml(), parser.parseInput(html, "").outerHtml());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test public void settingsAreCopiedAndValidated() {
+        Parser parser = Parser.htmlParser();
+        assertEquals(0, parser.getMaxDepth());
+        assertEquals(0, parser.getMaxNodes());
+        assertEquals(0, parser.getMaxAttributes());
+        assertEquals(0, parser.getMaxInputLength());
+        assertFalse(parser.isThrowOnLimit());
+
+        Parser copy = parser.setMaxDepth(1).setMaxNodes(2).setMaxAttributes(3).setMaxInputLength(4)
+            .setThrowOnLimit(true).newInstance();
+        assertEquals(1, copy.getMaxDepth());
+        assertEquals(2, copy.getMaxNodes());
+        assertEquals(3, copy.getMaxAttributes());
+        assertEquals(4, copy.getMaxInputLength());
+        assertTrue(copy.isThrowOnLimit());
+        assertThrows(IllegalArgumentException.class, () -> parser.setMaxDepth(-1));
+    }
+
+    @Test public void unlimitedByDefault() {
+        Element body = Parser.htmlParser().parseInput(repeat("<div>", 5000), "").body();
+        assertEquals(5000, body.select("div").size());
+    }
+}
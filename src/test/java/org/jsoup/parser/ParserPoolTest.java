@@ -0,0 +1,140 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.integration.ParseTest;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParserPoolTest {
+    static final String[] inputs = {
+        "<p>One <b>Two</b>",
+        "<!doctype html><title>Hello</title><table><tr><td>One<td>Two</table><p>Fostered?",
+        "<script>if (a < b) document.write('</p>')</script><textarea>Some <b>text",
+        "<p><b>One<i>Two</b>Three</i><p>Four &amp; &notin; &copy",
+        "<svg><path d='M 0 0'/></svg><math><mi>x</mi></math><frameset>",
+        "<!-- an unclosed comment <p>",
+        "<div id=a class='b c'",
+    };
+
+    @Test public void reusableParserParsesSameAsNew() throws IOException {
+        Parser parser = Parser.htmlParser().setReusable(true);
+        assertTrue(parser.isReusable());
+        String large = ParseTest.getFileAsString(ParseTest.getFile("/htmltests/news-com-au-home.html.gz"));
+
+        for (int i = 0; i < 3; i++) {
+            for (String html : inputs) {
+                assertEquals(Jsoup.parse(html).outerHtml(), parser.parseInput(html, "").outerHtml());
+            }
+            assertEquals(Jsoup.parse(large).outerHtml(), parser.parseInput(large, "").outerHtml());
+        }
+    }
+
+    @Test public void reusableXmlParser() {
+        Parser parser = Parser.xmlParser().setReusable(true);
+        String xml = "<?xml version='1.0'?><feed><Entry id=1>One</entry><entry>Two</feed>";
+        Document expected = Parser.xmlParser().parseInput(xml, "");
+        assertEquals("<unclosed><a><b></b></a></unclosed>", parser.parseInput("<unclosed><a><b>", "").outerHtml());
+        assertEquals(expected.outerHtml(), parser.parseInput(xml, "").outerHtml());
+    }
+
+    @Test public void documentsAreIndependentOfReusedParser() {
+        Parser parser = Parser.htmlParser().setReusable(true).setTrackErrors(10);
+        Document one = parser.parseInput("<p>One</b>", "");
+        assertEquals(1, parser.getErrors().size());
+        Document two = parser.parseInput("<p>Two</p></div></div>", "");
+        assertEquals(2, parser.getErrors().size()); // only the last parse's errors
+
+        assertNotSame(parser, one.parser());
+        assertNotSame(one.parser(), two.parser());
+        assertFalse(one.parser().isReusable());
+        assertEquals(1, one.parser().getErrors().size());
+        assertEquals(2, two.parser().getErrors().size());
+        assertSame(two.parser().getErrors(), parser.getErrors());
+
+        // fragment parsing via the document's parser doesn't touch the reusable parser's state
+        one.body().html("<p>Three</p><table><td>Four");
+        assertEquals("<p>Three</p><table><tbody><tr><td>Four</td></tr></tbody></table>", one.body().html().replace("\n", "").replace(" ", ""));
+        assertEquals(2, parser.getErrors().size());
+        assertEquals("<p>Five</p>", parser.parseInput("<p>Five", "").body().html());
+    }
+
+    @Test public void reusableIncrementalAndStreamingParses() {
+        Parser parser = Parser.htmlParser().setReusable(true);
+        String html = "<ul><li>One<li>Two<li>Three</ul>";
+        String expected = Jsoup.parse(html).outerHtml();
+
+        IncrementalParser incremental = parser.newIncremental("");
+        for (int i = 0; i < html.length(); i += 5)
+            incremental.feed(html.substring(i, Math.min(i + 5, html.length())));
+        assertEquals(expected, incremental.finish().outerHtml());
+
+        List<String> items = new ArrayList<>();
+        parser.streamSelect(new StringReader(html), "", "li", el -> items.add(el.text()));
+        assertEquals(3, items.size());
+        assertEquals(expected, parser.parseInput(html, "").outerHtml());
+    }
+
+    @Test public void reusesStateAfterFailedParse() {
+        Parser parser = Parser.htmlParser().setReusable(true);
+        IncrementalParser incremental = parser.newIncremental("");
+        incremental.feed("<div><p>Abandoned <!-- mid comment"); // never finished
+        assertEquals("<p>One</p>", parser.parseInput("<p>One", "").body().html());
+    }
+
+    @Test public void poolReusesParsers() {
+        ParserPool pool = new ParserPool(Parser.htmlParser(), 2);
+        Parser one = pool.borrow();
+        Parser two = pool.borrow();
+        Parser three = pool.borrow();
+        assertTrue(one.isReusable());
+        assertNotSame(one, two);
+        pool.release(one);
+        pool.release(two);
+        pool.release(three); // over max idle
+        assertEquals(2, pool.idleCount());
+        assertSame(one, pool.borrow());
+
+        assertThrows(IllegalArgumentException.class, () -> pool.release(Parser.htmlParser()));
+        assertThrows(IllegalArgumentException.class, () -> new ParserPool(Parser.htmlParser(), 0));
+    }
+
+    @Test public void poolCopiesTemplate() {
+        ParserPool pool = new ParserPool(Parser.xmlParser().settings(ParseSettings.preserveCase));
+        Document doc = pool.parseInput("<Feed><Item>One</Item></Feed>", "");
+        assertEquals("<Feed><Item>One</Item></Feed>", doc.html());
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test public void poolIsThreadSafe() throws Exception {
+        ParserPool pool = new ParserPool(Parser.htmlParser().interner(new StringInterner(256, 32)), 3);
+        List<String> expected = new ArrayList<>();
+        for (String html : inputs) expected.add(Jsoup.parse(html).outerHtml());
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 12; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        int index = i % inputs.length;
+                        assertEquals(expected.get(index), pool.parseInput(inputs[index], "").outerHtml());
+                    }
+                }));
+            }
+            for (Future<?> result : results) result.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(pool.idleCount() <= 3);
+    }
+}
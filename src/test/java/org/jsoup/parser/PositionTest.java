@@ -0,0 +1,171 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Range;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ Tests the source ranges of elements and attributes, when the parser tracks positions.
+ */
+public class PositionTest {
+    private static final Parser TrackingParser = Parser.htmlParser().setTrackPosition(true);
+
+    private static String ranges(Document doc) {
+        StringBuilder sb = new StringBuilder();
+        for (Element el : doc.getAllElements()) {
+            if (el == doc)
+                continue;
+            sb.append(el.tagName()).append(' ').append(el.sourceRange()).append(' ').append(el.endSourceRange());
+            for (org.jsoup.nodes.Attribute attribute : el.attributes())
+                sb.append(' ').append(attribute.getKey()).append('=').append(el.attributeSourceRange(attribute.getKey()));
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Test public void tracksElementsAndAttributes() {
+        String html = "<p id=one>Hello\n<b Class=\"x\" title='' hidden>there</b></p>\n<img src=a.png><br/>";
+        Document doc = Jsoup.parse(html, "", TrackingParser);
+
+        Element p = doc.selectFirst("p");
+        assertEquals("1,1:0-1,11:10", p.sourceRange().toString());
+        assertEquals("2,39:54-2,43:58", p.endSourceRange().toString());
+        assertEquals("1,4:3-1,10:9", p.attributeSourceRange("id").toString());
+        assertEquals("<p id=one>", html.substring(p.sourceRange().start().pos(), p.sourceRange().end().pos()));
+
+        Element b = doc.selectFirst("b");
+        assertEquals(2, b.sourceRange().start().lineNumber());
+        assertEquals(1, b.sourceRange().start().columnNumber());
+        assertFalse(b.attributeSourceRange("Class").isTracked());
+        assertEquals("Class=\"x\"", source(html, b.attributeSourceRange("class")));
+        assertEquals("title=''", source(html, b.attributeSourceRange("title")));
+        assertEquals("hidden", source(html, b.attributeSourceRange("hidden")));
+        assertEquals("</b>", source(html, b.endSourceRange()));
+
+        Element img = doc.selectFirst("img");
+        assertEquals("<img src=a.png>", source(html, img.sourceRange()));
+        assertEquals("src=a.png", source(html, img.attributeSourceRange("src")));
+        assertFalse(img.endSourceRange().isTracked()); // void
+        Element br = doc.selectFirst("br");
+        assertEquals("<br/>", source(html, br.sourceRange()));
+        assertFalse(br.endSourceRange().isTracked());
+    }
+
+    private static String source(String input, Range range) {
+        if (!range.isTracked())
+            return "";
+        return input.substring(range.start().pos(), range.end().pos());
+    }
+
+    @Test public void impliedElementsAreUntracked() {
+        Document doc = Jsoup.parse("<table><td>One<p>Two<p>Three</table>", "", TrackingParser);
+        assertFalse(doc.selectFirst("html").sourceRange().isTracked());
+        assertFalse(doc.selectFirst("tbody").sourceRange().isTracked());
+        assertFalse(doc.selectFirst("tr").sourceRange().isTracked());
+        assertEquals("1,8:7-1,12:11", doc.selectFirst("td").sourceRange().toString());
+        assertFalse(doc.selectFirst("td").endSourceRange().isTracked()); // closed by the </table>
+        assertFalse(doc.selectFirst("p").endSourceRange().isTracked()); // closed by the next <p>
+        assertEquals("1,29:28-1,37:36", doc.selectFirst("table").endSourceRange().toString());
+        assertSame(Range.Untracked, new Element("p").sourceRange());
+        assertEquals(-1, Range.Untracked.start().lineNumber());
+    }
+
+    @Test public void misnestedEndTags() {
+        String html = "<div><b>One<i>Two</b>Three</i></div>";
+        Document doc = Jsoup.parse(html, "", TrackingParser);
+        Element b = doc.selectFirst("b");
+        assertEquals("<b>", source(html, b.sourceRange()));
+        assertEquals("</b>", source(html, b.endSourceRange()));
+        assertEquals("</div>", source(html, doc.selectFirst("div").endSourceRange()));
+        assertEquals(2, doc.select("i").size()); // the adoption agency's clone of the i is implied
+        assertEquals("<i>", source(html, doc.select("i").get(0).sourceRange()));
+        assertFalse(doc.select("i").get(1).sourceRange().isTracked());
+    }
+
+    @Test public void tracksRawTextAndScriptEndTags() {
+        String html = "<title>A &amp; B</title><script>if (a<b) x();</script><textarea>\n<b></textarea>";
+        Document doc = Jsoup.parse(html, "", TrackingParser);
+        assertEquals("</title>", source(html, doc.selectFirst("title").endSourceRange()));
+        assertEquals("</script>", source(html, doc.selectFirst("script").endSourceRange()));
+        assertEquals("<textarea>", source(html, doc.selectFirst("textarea").sourceRange()));
+        assertEquals("</textarea>", source(html, doc.selectFirst("textarea").endSourceRange()));
+
+        Document unclosed = Jsoup.parse("<title>One<p>", "", TrackingParser); // the title's end is implied
+        assertFalse(unclosed.selectFirst("title").endSourceRange().isTracked());
+    }
+
+    @Test public void noTrackingByDefault() {
+        Document doc = Jsoup.parse("<p id=1>One</p>");
+        Element p = doc.selectFirst("p");
+        assertFalse(p.sourceRange().isTracked());
+        assertFalse(p.endSourceRange().isTracked());
+        assertFalse(p.attributeSourceRange("id").isTracked());
+        assertFalse(Parser.htmlParser().isTrackPosition());
+        assertTrue(TrackingParser.newInstance().isTrackPosition());
+    }
+
+    @Test public void tracksInXml() {
+        String xml = "<feed>\n  <entry id=\"1\"><title>One</title></entry>\n  <entry id=\"2\"/>\n</feed>";
+        Document doc = Jsoup.parse(xml, "", Parser.xmlParser().setTrackPosition(true));
+        Element entry = doc.selectFirst("entry");
+        assertEquals("2,3:9-2,17:23", entry.sourceRange().toString());
+        assertEquals("</entry>", source(xml, entry.endSourceRange()));
+        assertEquals("id=\"1\"", source(xml, entry.attributeSourceRange("id")));
+        Element second = doc.select("entry").get(1);
+        assertEquals("<entry id=\"2\"/>", source(xml, second.sourceRange()));
+        assertFalse(second.endSourceRange().isTracked());
+        assertEquals("4,1:68-4,8:75", doc.selectFirst("feed").endSourceRange().toString());
+    }
+
+    @Test public void clonesKeepRanges() {
+        Document doc = Jsoup.parse("<div id=1><p>One</p></div>", "", TrackingParser);
+        Element div = doc.selectFirst("div");
+        Element clone = div.clone();
+        assertEquals(div.sourceRange(), clone.sourceRange());
+        assertEquals(div.attributeSourceRange("id"), clone.attributeSourceRange("id"));
+        assertEquals(div.selectFirst("p").endSourceRange(), clone.selectFirst("p").endSourceRange());
+        assertEquals(div.sourceRange(), div.shallowClone().sourceRange());
+    }
+
+    @Test public void sameRangesFromReaderIncrementalAndParallelParses() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++)
+            sb.append("<div class=row>\n<p title=\"").append(i).append("\">One</p>\n  <b>Two</b><br></div>");
+        String input = sb.toString();
+        String expected = ranges(Jsoup.parse(input, "", TrackingParser));
+
+        Parser reader = Parser.htmlParser().setTrackPosition(true);
+        assertEquals(expected, ranges(reader.parseInput(new StringReader(input), ""))); // the buffer is refilled as read
+
+        IncrementalParser incremental = Parser.htmlParser().setTrackPosition(true).newIncremental("");
+        for (int i = 0; i < input.length(); i += 5000)
+            incremental.feed(input.substring(i, Math.min(i + 5000, input.length())));
+        assertEquals(expected, ranges(incremental.finish()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Parser parallel = Parser.htmlParser().setTrackPosition(true).parallel(executor, 4000);
+            assertEquals(expected, ranges(parallel.parseInput(input, "")));
+        } finally {
+            executor.shutdown();
+        }
+
+        Parser reusable = Parser.htmlParser().setTrackPosition(true).setReusable(true);
+        for (int i = 0; i < 2; i++)
+            assertEquals(expected, ranges(reusable.parseInput(input, "")));
+    }
+
+    @Test public void trackingDisablesLazyAttributes() {
+        Parser parser = Parser.htmlParser().setTrackPosition(true).setLazyAttributes(true);
+        Document doc = parser.parseInput("<a href=/one>One</a>", "");
+        assertEquals("href=/one", source("<a href=/one>One</a>", doc.selectFirst("a").attributeSourceRange("href")));
+    }
+}
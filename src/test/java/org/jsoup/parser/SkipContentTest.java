@@ -0,0 +1,147 @@
+package org.jsoup.parser;
+
+import org.jsoup.integration.ParseTest;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ Tests parsing with {@link Parser#setSkipContent(String...)}.
+ */
+public class SkipContentTest {
+    private static final String[] skipped = {"script", "style", "template", "noscript"};
+
+    private static Document parse(String html) {
+        return Parser.htmlParser().setSkipContent(skipped).parseInput(html, "");
+    }
+
+    @Test public void skipsRawTextContent() {
+        String html = "<head><script>var a = '<p>' + 1 < 2;</script><style>p { color: red }</style><title>One</title>" +
+            "</head><body><p>Two<script src=x></script><script>document.write('</scr' + 'ipt>')</script>Three</p>";
+        Document doc = parse(html);
+        assertEquals("<script></script><style></style><title>One</title>", doc.head().html().replace("\n", ""));
+        Element p = doc.selectFirst("p");
+        assertEquals("<p>Two<script src=\"x\"></script><script></script>Three</p>", p.outerHtml());
+        assertEquals("x", p.selectFirst("script").attr("src"));
+        assertEquals("Two Three", doc.body().text());
+    }
+
+    @Test public void skipsMarkupContentToEndTag() {
+        Document doc = parse("<template><div>One</div><p>Two</template><noscript><img src=x></noscript><p>Three");
+        assertEquals(0, doc.select("template").first().childNodeSize());
+        assertEquals(0, doc.select("noscript").first().childNodeSize());
+        assertEquals(0, doc.select("div, img").size());
+        assertEquals(1, doc.select("p").size());
+        assertEquals("Three", doc.text());
+        assertEquals("body", doc.selectFirst("p").parent().normalName());
+    }
+
+    @Test public void findsScriptEndAsWhenParsed() {
+        // the escaped and double escaped script states don't end at </script>
+        String[] scripts = {"a<!--b</script>c", "<!--<script>x</script>y</script>z-->", "a</scripty>b</script >c",
+            "a</SCRIPT>b", "a</script/>b", "a<\u0000b</script>c"};
+        for (String script : scripts) {
+            String html = "<div><script>" + script + "</script><p>After</p></div>";
+            Document expected = Parser.htmlParser().parseInput(html, "");
+            expected.select("script").empty();
+            assertEquals(expected.body().html(), parse(html).body().html(), script);
+        }
+    }
+
+    @Test public void addsPlaceholders() {
+        Document doc = Parser.htmlParser().setSkipContent("SCRIPT", "Style").setSkipContentPlaceholder(true)
+            .parseInput("<script>var a = 1;</script><style></style><script><!--<script>a</script>b--></script>", "");
+        Elements scripts = doc.select("script");
+        assertEquals("<script><!--skipped 10--></script>", scripts.get(0).outerHtml());
+        assertEquals("skipped 10", ((Comment) scripts.get(0).childNode(0)).getData());
+        assertEquals(0, doc.selectFirst("style").childNodeSize()); // nothing skipped
+        assertEquals("skipped 26", ((Comment) scripts.get(1).childNode(0)).getData());
+    }
+
+    @Test public void skipsToEndOfInput() {
+        Document doc = Parser.htmlParser().setSkipContent("script").setSkipContentPlaceholder(true)
+            .parseInput("<p>One<script>var a = '<p>Two';", "");
+        assertEquals("<p>One<script><!--skipped 17--></script></p>", doc.body().html());
+    }
+
+    @Test public void skipsInXml() {
+        Document doc = Parser.xmlParser().setSkipContent("blob")
+            .parseInput("<doc><blob><a>One</a><![CDATA[x]]></blob><blob/><item>Two</item></doc>", "");
+        assertEquals("<doc><blob></blob><blob /><item>Two</item></doc>", doc.html());
+    }
+
+    @Test public void skipsLargeContent() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < CharacterReader.maxBufferLen / 8; i++)
+            sb.append("a<b && c;\n");
+        Document doc = Parser.htmlParser().setSkipContent("script").setSkipContentPlaceholder(true)
+            .parseInput("<script>" + sb + "</script><p>One", "");
+        assertEquals("skipped " + sb.length(), ((Comment) doc.selectFirst("script").childNode(0)).getData());
+        assertEquals("One", doc.selectFirst("p").text());
+    }
+
+    @Test public void parsesFilesSameExceptSkipped() throws IOException {
+        String[] files = {"/htmltests/news-com-au-home.html.gz", "/htmltests/google-ipod.html.gz",
+            "/htmltests/yahoo-jp.html.gz", "/htmltests/xwiki-edit.html.gz", "/htmltests/table-polymer-template.html"};
+        for (String file : files) {
+            String html = ParseTest.getFileAsString(ParseTest.getFile(file));
+            Document expected = Parser.htmlParser().parseInput(html, "");
+            expected.select("script, style").empty();
+            Document doc = Parser.htmlParser().setSkipContent("script", "style").parseInput(html, "");
+            assertEquals(expected.outerHtml(), doc.outerHtml(), file);
+        }
+    }
+
+    @Test public void skipsInReusableParallelRecordingAndStreamingParses() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++)
+            sb.append("<div><script>var a = '<p>';</script><template><p>x</p></template><p>One</p></div>");
+        String html = sb.toString();
+        Parser parser = Parser.htmlParser().setSkipContent(skipped).setSkipContentPlaceholder(true);
+        String expected = parser.newInstance().parseInput(html, "").outerHtml();
+        assertEquals(200, parser.parseInput(html, "").select("p").size());
+
+        Parser reusable = parser.newInstance().setReusable(true);
+        assertEquals(expected, reusable.parseInput(html, "").outerHtml());
+        assertEquals(expected, reusable.parseInput(html, "").outerHtml());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            assertEquals(expected, parser.newInstance().parallel(executor, 1000).parseInput(html, "").outerHtml());
+        } finally {
+            executor.shutdown();
+        }
+
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        assertEquals(expected, parser.newInstance().parseRecording(new StringReader(html), "", log).outerHtml());
+        Document replayed = parser.newInstance().parseTokenLog(new ByteArrayInputStream(log.toByteArray()), "");
+        assertEquals(expected, replayed.outerHtml());
+
+        StringBuilder streamed = new StringBuilder();
+        parser.newInstance().streamSelect(new StringReader("<div><script>var a = '<p>';</script><p>One</p></div>"), "",
+            "script, p", el -> streamed.append(el.outerHtml()));
+        assertEquals("<script><!--skipped 14--></script><p>One</p>", streamed.toString());
+    }
+
+    @Test public void settingsAreCopied() {
+        Parser parser = Parser.htmlParser();
+        assertEquals(0, parser.getSkipContent().length);
+        assertFalse(parser.isSkipContentPlaceholder());
+        Parser copy = parser.setSkipContent("Style", "script").setSkipContentPlaceholder(true).newInstance();
+        assertArrayEquals(new String[]{"script", "style"}, copy.getSkipContent());
+        assertTrue(copy.isSkipContentPlaceholder());
+        assertEquals(0, copy.setSkipContent().getSkipContent().length);
+        assertThrows(IllegalArgumentException.class, () -> parser.setSkipContent("script", ""));
+    }
+}
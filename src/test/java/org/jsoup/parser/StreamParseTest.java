@@ -0,0 +1,108 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.integration.ParseTest;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ Tests streaming parses, via {@link Parser#streamInput}.
+ */
+public class StreamParseTest {
+    /** Records head and tail visits, for comparison between a traversal of the full doc and a stream. */
+    static class RecordingVisitor implements NodeVisitor {
+        final List<String> events = new ArrayList<>();
+
+        @Override public void head(Node node, int depth) {
+            events.add(depth + " <" + node.nodeName() + node.attributes().html()); // (leaf node values are attributes)
+        }
+
+        @Override public void tail(Node node, int depth) {
+            events.add(depth + " >" + node.nodeName());
+        }
+    }
+
+    static List<String> traverse(Document doc) {
+        RecordingVisitor visitor = new RecordingVisitor();
+        NodeTraversor.traverse(visitor, doc);
+        return visitor.events;
+    }
+
+    static List<String> stream(Parser parser, String html) {
+        RecordingVisitor visitor = new RecordingVisitor();
+        parser.streamInput(new StringReader(html), "http://example.com/", visitor);
+        return visitor.events;
+    }
+
+    static void assertStreamsAsParsed(String html) {
+        assertEquals(traverse(Jsoup.parse(html, "http://example.com/")), stream(Parser.htmlParser(), html));
+    }
+
+    @Test public void streamsSimpleDoc() {
+        String html = "<!doctype html><title>One</title><p class=x>Hello <b>there</b><p>Two<!-- comment --><script>a<b</script>";
+        RecordingVisitor visitor = new RecordingVisitor();
+        Parser.htmlParser().streamInput(new StringReader(html), "", visitor);
+        assertEquals("0 <#document", visitor.events.get(0));
+        assertEquals("0 >#document", visitor.events.get(visitor.events.size() - 1));
+        assertStreamsAsParsed(html);
+    }
+
+    @Test public void streamsRecoveredStructure() {
+        assertStreamsAsParsed("<p><b>One<i>Two<p>Three</b>Four</i>Five"); // adoption agency
+        assertStreamsAsParsed("<b><div><p>One</p>Two</b>Three</div>Four");
+        assertStreamsAsParsed("<div><p>One<table><tr><td>Two</td>Foster<b>Bold</b></tr>Three</table>Four</div>"); // foster parenting
+        assertStreamsAsParsed("<html><head><title>One</title></head>\n<meta name=late><body>Two"); // content after head
+        assertStreamsAsParsed("<html><head></head><body></body><frameset><frame src=x></frameset></html>");
+        assertStreamsAsParsed("<ul><li>One<li>Two<ul><li>Three</ul></ul><dl><dt>A<dd>B</dl><select><option>1<option>2</select>");
+        assertStreamsAsParsed("<p>One</p></body></html><!-- after --><p>Two");
+    }
+
+    @Test public void streamsCorpus() throws IOException {
+        for (String name : new String[]{"news-com-au-home.html.gz", "yahoo-jp.html.gz", "smh-biz-article-1.html.gz", "large.html"}) {
+            String html = ParseTest.getFileAsString(ParseTest.getFile("/htmltests/" + name));
+            assertStreamsAsParsed(html);
+        }
+    }
+
+    @Test public void streamsXml() {
+        String xml = "<?xml version=\"1.0\"?><feed><entry id=1><title>One</title></entry><entry id=2>Two</entry></feed>";
+        Document doc = Parser.xmlParser().parseInput(xml, "http://example.com/");
+        assertEquals(traverse(doc), stream(Parser.xmlParser(), xml));
+    }
+
+    @Test public void doesNotRetainCompletedNodes() {
+        StringBuilder sb = new StringBuilder("<body><div id=outer>");
+        for (int i = 0; i < 1000; i++) sb.append("<p>Para ").append(i).append(" <b>bold</b></p>");
+        sb.append("</div>");
+
+        final int[] maxSiblings = {0};
+        final int[] paras = {0};
+        final int[] bolds = {0};
+        Parser.htmlParser().streamInput(new StringReader(sb.toString()), "", new NodeVisitor() {
+            @Override public void head(Node node, int depth) {
+                if (node.parentNode() != null)
+                    maxSiblings[0] = Math.max(maxSiblings[0], node.parentNode().childNodeSize());
+            }
+
+            @Override public void tail(Node node, int depth) {
+                if (node.nodeName().equals("p"))
+                    paras[0]++;
+                else if (node.nodeName().equals("b"))
+                    bolds[0]++;
+            }
+        });
+        assertEquals(1000, paras[0]);
+        assertEquals(1000, bolds[0]);
+        assertTrue(maxSiblings[0] < 5);
+    }
+}
@@ -0,0 +1,122 @@
+package org.jsoup.parser;
+
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ Tests streaming XML records, via {@link Parser#streamRecords}.
+ */
+public class StreamRecordsTest {
+    private static final String sitemap = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+        "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n" +
+        "<url><loc>https://example.com/one</loc><lastmod>2021-01-01</lastmod></url>\n" +
+        "<!-- two --><url><loc>https://example.com/two</loc></url>\n" +
+        "</urlset>";
+
+    static List<String> streamRecords(String xml, String recordName) {
+        List<String> records = new ArrayList<>();
+        Parser.xmlParser().streamRecords(new StringReader(xml), "", recordName, record -> records.add(record.outerHtml()));
+        return records;
+    }
+
+    @Test public void streamsRecords() {
+        assertEquals("[<url><loc>https://example.com/one</loc><lastmod>2021-01-01</lastmod></url>, " +
+            "<url><loc>https://example.com/two</loc></url>]", streamRecords(sitemap, "url").toString());
+    }
+
+    @Test public void detachesRecordsAfterConsumed() {
+        List<Element> records = new ArrayList<>();
+        Parser.xmlParser().streamRecords(new StringReader(sitemap), "", "url", record -> {
+            assertNotNull(record.ownerDocument());
+            records.add(record);
+        });
+        assertEquals(2, records.size());
+        Element one = records.get(0);
+        assertNull(one.parent());
+        assertEquals("https://example.com/one", one.selectFirst("loc").text());
+    }
+
+    @Test public void nestedRecordsArePartOfOuter() {
+        String xml = "<rss><channel><title>Feed</title><item id=1><title>One</title><item id=\"2\"/></item>" +
+            "<item id=3>Three</item></channel></rss>";
+        List<String> records = streamRecords(xml, "item");
+        assertEquals(2, records.size());
+        assertEquals("<item id=\"1\"><title>One</title><item id=\"2\" /></item>", records.get(0));
+        assertEquals("<item id=\"3\">Three</item>", records.get(1));
+    }
+
+    @Test public void selfClosingAndUnclosedRecords() {
+        List<String> records = streamRecords("<feed><entry a=\"1\"/><entry a=2><b>Two</feed><entry a=3>Three", "entry");
+        assertEquals(3, records.size());
+        assertEquals("<entry a=\"1\" />", records.get(0));
+        assertEquals("<entry a=\"2\"><b>Two</b></entry>", records.get(1)); // closed by the feed end tag
+        assertEquals("<entry a=\"3\">Three</entry>", records.get(2)); // unclosed at the end
+    }
+
+    @Test public void recordNameIsCaseSensitiveInXml() {
+        assertEquals(1, streamRecords("<a><Item>One</Item><item>Two</item></a>", "Item").size());
+        List<Element> records = new ArrayList<>(); // normalized names, so case insensitive
+        Parser.xmlParser().settings(ParseSettings.htmlDefault)
+            .streamRecords(new StringReader("<a><Item>One</Item><item>Two</item></a>"), "", "ITEM", records::add);
+        assertEquals(2, records.size());
+    }
+
+    @Test public void resolvesUrlsInRecords() {
+        List<String> urls = new ArrayList<>();
+        Parser.xmlParser().streamRecords(new StringReader("<links><link href=/one /></links>"), "https://example.com/",
+            "link", record -> urls.add(record.absUrl("href")));
+        assertEquals("[https://example.com/one]", urls.toString());
+    }
+
+    @Test public void holdsOnlyOpenElements() {
+        XmlTreeBuilder treeBuilder = new XmlTreeBuilder();
+        int[] count = {0};
+        new Parser(treeBuilder).streamRecords(new GeneratedSitemap(10000), "", "url", record -> {
+            assertEquals(1, treeBuilder.doc.childNodeSize()); // just the record, and not the urlset
+            assertEquals(2, treeBuilder.stack.size()); // doc and urlset
+            assertEquals("https://example.com/" + count[0], record.selectFirst("loc").text());
+            count[0]++;
+        });
+        assertEquals(10000, count[0]);
+    }
+
+    @Test public void rejectsHtmlParser() {
+        assertThrows(IllegalArgumentException.class, () ->
+            Parser.htmlParser().streamRecords(new StringReader(sitemap), "", "url", record -> {}));
+    }
+
+    /** A sitemap of n urls, generated as read. */
+    static class GeneratedSitemap extends Reader {
+        private final int urls;
+        private int url = -1;
+        private String pending = "<urlset>";
+        private int pendingPos;
+
+        GeneratedSitemap(int urls) {
+            this.urls = urls;
+        }
+
+        @Override public int read(char[] buf, int off, int len) {
+            if (pendingPos == pending.length()) {
+                if (url == urls)
+                    return -1;
+                url++;
+                pending = url < urls ? "<url><loc>https://example.com/" + url + "</loc></url>\n" : "</urlset>";
+                pendingPos = 0;
+            }
+            int n = Math.min(len, pending.length() - pendingPos);
+            pending.getChars(pendingPos, pendingPos + n, buf, off);
+            pendingPos += n;
+            return n;
+        }
+
+        @Override public void close() {}
+    }
+}
@@ -0,0 +1,102 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.integration.ParseTest;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.QueryParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ Tests streaming selects, via {@link Parser#streamSelect}.
+ */
+public class StreamSelectTest {
+    static List<String> streamSelect(Parser parser, String html, String query) {
+        List<String> matches = new ArrayList<>();
+        parser.streamSelect(new StringReader(html), "http://example.com/", query, el -> matches.add(el.outerHtml()));
+        return matches;
+    }
+
+    static void assertSelectsAsParsed(String html, String... queries) {
+        for (String query : queries) {
+            List<String> expected = new ArrayList<>();
+            for (Element el : Jsoup.parse(html, "http://example.com/").select(query))
+                expected.add(el.outerHtml());
+            assertEquals(expected, streamSelect(Parser.htmlParser(), html, query), query);
+        }
+    }
+
+    @Test public void selectsMatchesWithSubtree() {
+        String html = "<div id=1><p>One <a href=/one>link</a></p><div class=x><p>Two</p></div></div><p>Three";
+        List<Element> matches = new ArrayList<>();
+        Parser.htmlParser().streamSelect(new StringReader(html), "http://example.com/", "div", matches::add);
+        assertEquals(2, matches.size());
+        Element outer = matches.get(0);
+        assertNull(outer.parent()); // detached from the streaming document
+        assertEquals("1", outer.id());
+        assertEquals("One link Two", outer.text());
+        assertEquals("x", matches.get(1).className());
+        assertSame(matches.get(1), outer.selectFirst("div.x"));
+
+        assertSelectsAsParsed(html, "div", "p", "a[href]", "div > p", "div p", "body > p", "[id=1] a");
+    }
+
+    @Test public void selectsWithSiblingContext() {
+        StringBuilder sb = new StringBuilder("<h1>Title</h1>");
+        for (int i = 0; i < 20; i++) {
+            sb.append("<h2>Section ").append(i).append("</h2><p>Intro ").append(i).append("<p>More");
+            sb.append("<ul><li>One<li class=two>Two<li>Three</ul>");
+        }
+        assertSelectsAsParsed(sb.toString(), "h2 + p", "h2 ~ p", "h1 ~ ul", "li:first-child", "li:nth-child(2)",
+            "p:nth-of-type(2n)", "li.two + li", "ul li:not(:first-child)", "body > *");
+    }
+
+    @Test public void selectsInRecoveredStructure() {
+        assertSelectsAsParsed("<p><b>One<i>Two</b>Three</i><p>Four", "b", "i", "p > i", "p");
+        assertSelectsAsParsed("<table><tr><td>One</td><td>Two</td>Fostered<tr><td>Three</table>",
+            "td", "td + td", "tr:nth-child(2) td", "table", "tbody > tr");
+        assertSelectsAsParsed("<title>One</title><meta property=og:title content=One><p>Hi<meta property=og:url content=/>",
+            "meta[property^=og:]", "head meta", "body meta");
+    }
+
+    @Test public void selectsCorpus() throws IOException {
+        String html = ParseTest.getFileAsString(ParseTest.getFile("/htmltests/news-com-au-home.html.gz"));
+        assertSelectsAsParsed(html, "a[href]", "meta[property^=og:]", "div > a", "li + li", "img[src$=.jpg]", "script");
+    }
+
+    @Test public void selectsXml() {
+        String xml = "<?xml version=\"1.0\"?><feed><entry id=1><title>One</title></entry><entry id=2><title>Two</title></entry></feed>";
+        List<String> matches = new ArrayList<>();
+        Parser.xmlParser().streamSelect(new StringReader(xml), "", QueryParser.parse("entry"), el -> matches.add(el.id() + el.text()));
+        assertEquals(2, matches.size());
+        assertEquals("1One", matches.get(0));
+        assertEquals("2Two", matches.get(1));
+    }
+
+    @Test public void doesNotRetainParsedContent() {
+        StringBuilder sb = new StringBuilder("<div id=root>");
+        for (int i = 0; i < 1000; i++) sb.append("<section><p>Para ").append(i).append(" <a href=/").append(i).append(">link</a></section>");
+        Parser parser = Parser.htmlParser();
+        List<Element> links = new ArrayList<>();
+        parser.streamSelect(new StringReader(sb.toString()), "", "section a", el -> {
+            Element current = el.parent().parent();
+            Element root = current.parent();
+            assertEquals("section", current.tagName());
+            assertEquals("root", root.id());
+            for (Element section : root.children()) {
+                if (section != current)
+                    assertEquals(0, section.childNodeSize()); // previous sections are retained only as empty shells
+            }
+            links.add(el);
+        });
+        assertEquals(1000, links.size());
+        assertEquals("/999", links.get(999).attr("href"));
+        assertNull(links.get(0).parent()); // detached
+    }
+}
@@ -0,0 +1,119 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.integration.ParseTest;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringInternerTest {
+    private static Attribute firstAttribute(Document doc, String query) {
+        Element el = doc.selectFirst(query);
+        assertNotNull(el);
+        return el.attributes().asList().get(0);
+    }
+
+    @Test public void internsStrings() {
+        StringInterner interner = new StringInterner(16, 8);
+        String one = new String("class");
+        String two = new String("class");
+        assertNotSame(one, two);
+        assertSame(one, interner.intern(one));
+        assertSame(one, interner.intern(two));
+        assertEquals(1, interner.hits());
+        assertEquals(1, interner.misses());
+        assertEquals(0.5, interner.hitRate());
+
+        String longer = "a string longer than the max";
+        assertSame(longer, interner.intern(longer));
+        assertEquals(1, interner.misses()); // not counted
+        assertSame("", interner.intern(""));
+
+        interner.resetStats();
+        assertEquals(0, interner.hits());
+        assertEquals(0, interner.hitRate());
+        assertSame(one, interner.intern(new String("class"))); // retained
+    }
+
+    @Test public void sharesStringsAcrossParses() {
+        StringInterner interner = new StringInterner(256, 32);
+        Parser parser = Parser.htmlParser().interner(interner);
+        assertSame(interner, parser.interner());
+        assertSame(interner, parser.newInstance().interner());
+
+        Document one = parser.parseInput("<p class='one two'>One</p>", "");
+        Document two = parser.parseInput("<div><p class='one two'>Two</p></div>", "");
+        Attribute a1 = firstAttribute(one, "p");
+        Attribute a2 = firstAttribute(two, "p");
+        assertSame(a1.getKey(), a2.getKey());
+        assertSame(a1.getValue(), a2.getValue());
+        assertTrue(interner.hits() > 0);
+        assertTrue(interner.misses() > 0);
+
+        // without an interner, each parse has its own cache
+        Document three = Parser.htmlParser().parseInput("<p class='one two'>Three</p>", "");
+        assertNotSame(a1.getValue(), firstAttribute(three, "p").getValue());
+    }
+
+    @Test public void recordsStatsPerParse() throws IOException {
+        StringInterner interner = new StringInterner(4096, 64);
+        Parser parser = Parser.htmlParser().interner(interner);
+        String html = ParseTest.getFileAsString(ParseTest.getFile("/htmltests/news-com-au-home.html.gz"));
+        parser.parseInput(html, "");
+        long firstHits = interner.hits();
+        long firstMisses = interner.misses();
+        assertTrue(firstMisses > 0);
+
+        parser.parseInput(html, "");
+        long secondHits = interner.hits() - firstHits;
+        long secondMisses = interner.misses() - firstMisses;
+        assertTrue(secondMisses < firstMisses); // the vocabulary was already learned
+        assertTrue(secondHits > firstHits);
+    }
+
+    @Test public void sharedAcrossIncrementalFeeds() {
+        StringInterner interner = new StringInterner(256, 32);
+        IncrementalParser incremental = Parser.htmlParser().interner(interner).newIncremental("");
+        for (int i = 0; i < 100; i++) incremental.feed("<p class=item>Item " + i);
+        Document doc = incremental.finish();
+        assertEquals(100, doc.select("p.item").size());
+        assertSame(firstAttribute(doc, "p").getValue(), doc.select("p").last().attributes().asList().get(0).getValue());
+        assertTrue(interner.hitRate() > 0.5);
+    }
+
+    @Test public void isThreadSafe() throws Exception {
+        String html = ParseTest.getFileAsString(ParseTest.getFile("/htmltests/news-com-au-home.html.gz"));
+        String expected = Jsoup.parse(html).outerHtml();
+        StringInterner interner = new StringInterner(64, 16); // small, so lots of replacement across threads
+        Parser parser = Parser.htmlParser().interner(interner);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                results.add(executor.submit(() -> parser.newInstance().parseInput(html, "").outerHtml()));
+            for (Future<String> result : results)
+                assertEquals(expected, result.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(interner.hits() > 0);
+    }
+
+    @Test public void roundsSizeToPowerOfTwo() {
+        assertTrue(new StringInterner(100, 10).toString().contains("size=128"));
+        assertTrue(new StringInterner(128, 10).toString().contains("size=128"));
+        assertThrows(IllegalArgumentException.class, () -> new StringInterner(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new StringInterner(10, 0));
+    }
+}
@@ -0,0 +1,101 @@
+package org.jsoup.parser;
+
+import org.jsoup.UncheckedIOException;
+import org.jsoup.integration.ParseTest;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenLogTest {
+    private static byte[] record(Parser parser, String input) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document doc = parser.parseRecording(new StringReader(input), "https://example.com/", out);
+        assertEquals(parser.newInstance().parseInput(input, "https://example.com/").outerHtml(), doc.outerHtml());
+        return out.toByteArray();
+    }
+
+    private static void assertRebuildsSame(Parser parser, String input) {
+        byte[] log = record(parser.newInstance(), input);
+        Document expected = parser.newInstance().parseInput(input, "https://example.com/");
+        Document doc = parser.newInstance().parseTokenLog(new ByteArrayInputStream(log), "https://example.com/");
+        assertEquals(expected.outerHtml(), doc.outerHtml());
+        assertEquals("https://example.com/", doc.location());
+    }
+
+    @Test public void rebuildsFiles() throws IOException {
+        String[] files = {"/htmltests/news-com-au-home.html.gz", "/htmltests/nyt-article-1.html.gz",
+            "/htmltests/google-ipod.html.gz", "/htmltests/xwiki-edit.html.gz", "/htmltests/table-polymer-template.html",
+            "/htmltests/comments.html"};
+        for (String file : files) {
+            String html = ParseTest.getFileAsString(ParseTest.getFile(file));
+            assertRebuildsSame(Parser.htmlParser(), html);
+        }
+    }
+
+    @Test public void logIsCompact() throws IOException {
+        String html = ParseTest.getFileAsString(ParseTest.getFile("/htmltests/news-com-au-home.html.gz"));
+        byte[] log = record(Parser.htmlParser(), html);
+        assertTrue(log.length < html.length() * 0.9, "log size " + log.length);
+    }
+
+    @Test public void rebuildsTokenTypes() {
+        assertRebuildsSame(Parser.htmlParser(), "<!doctype html PUBLIC '-//W3C//DTD HTML 4.01//EN' 'http://www.w3.org/TR/html4/strict.dtd'>" +
+            "<title>One &amp; Two</title><!-- comment --><?bogus comment><p id=1 class='a b' hidden data-empty=''>Three</P>" +
+            "<pre>\nFour</pre><script>if (a<b) document.write('</p>')</script><textarea><b>Five</textarea>" +
+            "<svg><path d='M0 0'/><![CDATA[<six>]]></svg><br/><img src=/a.png/>Ünicode ☃ 💩");
+        assertRebuildsSame(Parser.htmlParser(), "");
+        assertRebuildsSame(Parser.htmlParser(), "<!doctype html><table><p>Foster<tr><td>One<td>Two</table><b><i>Three</b>Four</i>");
+    }
+
+    @Test public void rebuildsXml() throws IOException {
+        String xml = ParseTest.getFileAsString(ParseTest.getFile("/htmltests/test-rss.xml"));
+        assertRebuildsSame(Parser.xmlParser(), xml);
+        assertRebuildsSame(Parser.xmlParser(), "<?xml version='1.0'?><!DOCTYPE doc><doc><Item id=1/><![CDATA[<a>]]><script><b>One</b></script></doc>");
+        assertRebuildsSame(Parser.xmlParser().settings(ParseSettings.preserveCase), "<Feed><Item A=1>One</Item></Feed>");
+    }
+
+    @Test public void sharesNames() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) sb.append("<div class=row><span class=cell>").append(i).append("</span></div>");
+        String html = sb.toString();
+        byte[] log = record(Parser.htmlParser(), html);
+        assertTrue(log.length < html.length() / 2, "log size " + log.length);
+    }
+
+    @Test public void tracksTreeBuilderErrors() {
+        String html = "<p>One</b></div>";
+        byte[] log = record(Parser.htmlParser(), html);
+        Parser parser = Parser.htmlParser().setTrackErrors(10);
+        parser.parseTokenLog(new ByteArrayInputStream(log), "");
+        assertEquals(2, parser.getErrors().size());
+    }
+
+    @Test public void rejectsInvalidLogs() {
+        byte[] log = record(Parser.htmlParser(), "<p>One");
+        assertThrows(UncheckedIOException.class, () ->
+            Parser.xmlParser().parseTokenLog(new ByteArrayInputStream(log), ""));
+        assertThrows(UncheckedIOException.class, () ->
+            Parser.htmlParser().parseTokenLog(new ByteArrayInputStream("<p>One".getBytes()), ""));
+        byte[] truncated = new byte[log.length - 2];
+        System.arraycopy(log, 0, truncated, 0, truncated.length);
+        assertThrows(UncheckedIOException.class, () ->
+            Parser.htmlParser().parseTokenLog(new ByteArrayInputStream(truncated), ""));
+    }
+
+    @Test public void reusableParserRecordsAndRebuilds() {
+        Parser parser = Parser.htmlParser().setReusable(true);
+        String html = "<ul><li>One<li>Two</ul>";
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            parser.parseRecording(new StringReader(html), "", out);
+            assertEquals(parser.parseInput(html, "").outerHtml(),
+                parser.parseTokenLog(new ByteArrayInputStream(out.toByteArray()), "").outerHtml());
+        }
+    }
+}
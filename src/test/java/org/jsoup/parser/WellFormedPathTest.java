@@ -0,0 +1,97 @@
+package org.jsoup.parser;
+
+import org.jsoup.integration.ParseTest;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ Tests that the HTML tree builder's short path for well-formed input builds the same tree, with the same errors, as the
+ full tree construction; including where it falls back to the full construction for input that needs recovery.
+ */
+public class WellFormedPathTest {
+    private static Parser parser(boolean wellFormedPath) {
+        HtmlTreeBuilder treeBuilder = new HtmlTreeBuilder();
+        treeBuilder.wellFormedPath = wellFormedPath;
+        return new Parser(treeBuilder).setTrackErrors(1000);
+    }
+
+    private static void assertSameParse(String html) {
+        Parser full = parser(false);
+        Parser wellFormed = parser(true);
+        Document expected = full.parseInput(html, "");
+        Document doc = wellFormed.parseInput(html, "");
+        assertEquals(expected.outerHtml(), doc.outerHtml(), html);
+        assertEquals(full.getErrors().toString(), wellFormed.getErrors().toString(), html);
+    }
+
+    @Test public void parsesWellFormedInput() {
+        String html = "<!DOCTYPE html><html><head><title>One</title></head><body><div id=a><p>One <b>two</b> <i>three" +
+            "</i></p><ul><li><a href=/>Four</a></li><li>Five<br><img src=x></li></ul><h2>Six</h2><!-- seven -->" +
+            "<dl><dt>Eight</dt><dd>Nine</dd></dl><span><em>Ten</em></span><custom-el>Eleven</custom-el></div></body></html>";
+        assertSameParse(html);
+        assertEquals("<p>One <b>two</b> <i>three</i></p>", parser(true).parseInput(html, "").selectFirst("p").outerHtml());
+    }
+
+    @Test public void fallsBackForRecovery() {
+        String[] inputs = {
+            "<p><b>One<i>Two</b>Three</i></p>", // misnested formatting, adoption agency
+            "<b>One<p>Two</b>Three</p>", // formatting closed by a block
+            "<div><b>One</div>Two<p>Three", // formatting elements to reconstruct
+            "<table><tr><td>One</td></tr><b>Two</b><tr><td>Three</table>", // foster parenting
+            "<table><b>One<td>Two</table>",
+            "<a href=1>One<a href=2>Two</a>", // a in a
+            "<p><b><b><b><b>One</b></b></b></b>Two<p>Three", // noah's ark
+            "<p><b class=x><b class=x><b class=x><b class=x>One</b></b>Two</p>Three",
+            "<p>One<div>Two</div>", // p closed by a block
+            "<p>One</div>Two</p>", "</p>One", "<span>One</b>Two</span>", // stray end tags
+            "<ul><li>One<li>Two</ul><dl><dt>Three<dd>Four</dl>", // implied end tags
+            "<h1>One<h2>Two</h1>Three", "<object><b>One</object>Two", "<nobr>One<nobr>Two</nobr>",
+            "<p>One\u0000Two</p>", "<frameset></frameset>", " <frameset></frameset>", "<p><frameset>",
+            "<button><p>One</button>", "<select><option>One<b>Two</select>Three", "<svg><b>One</svg>",
+            "<div/>One<b/>Two<br/>Three", "<p id=a id=b>One</p>", "<pre>\nOne</pre><textarea>Two</textarea>",
+            "<body><b>One</body>Two</html><i>Three",
+        };
+        for (String html : inputs)
+            assertSameParse(html);
+    }
+
+    @Test public void parsesFilesSame() throws IOException {
+        String[] files = {"/htmltests/news-com-au-home.html.gz", "/htmltests/google-ipod.html.gz",
+            "/htmltests/yahoo-jp.html.gz", "/htmltests/xwiki-edit.html.gz", "/htmltests/table-polymer-template.html",
+            "/htmltests/smh-biz-article-1.html.gz", "/htmltests/nyt-article-1.html.gz", "/htmltests/baidu-cn-home.html",
+            "/htmltests/namespaces.xhtml", "/htmltests/large.html", "/htmltests/table-invalid-elements.html"};
+        for (String file : files)
+            assertSameParse(ParseTest.getFileAsString(ParseTest.getFile(file)));
+    }
+
+    @Test public void parsesRandomMarkupSame() {
+        String[] tags = {"div", "p", "b", "i", "a", "span", "li", "ul", "table", "tr", "td", "h1", "em", "br", "dd",
+            "nobr", "form", "button", "x-y", "select", "option", "object", "img"};
+        Random random = new Random(19);
+        for (int n = 0; n < 200; n++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 60; i++) {
+                String tag = tags[random.nextInt(tags.length)];
+                int op = random.nextInt(4);
+                if (op == 0)
+                    sb.append("</").append(tag).append('>');
+                else if (op == 1)
+                    sb.append(i % 7 == 0 ? " " : "text");
+                else
+                    sb.append('<').append(tag).append(i % 5 == 0 ? " class=c>" : ">");
+            }
+            assertSameParse(sb.toString());
+        }
+    }
+
+    @Test public void reusesParser() {
+        Parser parser = parser(true).setReusable(true);
+        assertEquals("<p><b>Two</b></p>", parser.parseInput("<div><b>One</div><p>Two", "").selectFirst("p").outerHtml());
+        assertEquals("<p><b>One</b></p>", parser.parseInput("<p><b>One</b></p>", "").body().html());
+    }
+}
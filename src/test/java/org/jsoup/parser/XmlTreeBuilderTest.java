@@ -262,4 +262,38 @@ public class XmlTreeBuilderTest {
         assertNull(treeBuilder.tokeniser);
     }
 
+    @Test public void resolvesNamespacesWhenAware() {
+        String xml = "<feed xmlns='http://www.w3.org/2005/Atom' xmlns:media='http://search.yahoo.com/mrss/'>" +
+            "<entry><title>One</title><media:content url='/one.jpg'/>" +
+            "<x:a xmlns:x='urn:a'><x:b xmlns:x='urn:b'/><x:c xml:lang='en' xmlns=''><d/></x:c></x:a><x:e/><xml:f/></entry></feed>";
+        Parser parser = Parser.xmlParser().setNamespaceAware(true);
+        assertTrue(parser.isNamespaceAware());
+        Document doc = parser.parseInput(xml, "");
+
+        Element feed = doc.selectFirst("feed");
+        assertEquals("http://www.w3.org/2005/Atom", feed.namespace());
+        assertEquals("feed", feed.localName());
+        assertSame(feed.namespace(), doc.selectFirst("title").namespace()); // the declared URI is shared in its scope
+        Element content = doc.selectFirst("media|content");
+        assertEquals("http://search.yahoo.com/mrss/", content.namespace());
+        assertEquals("content", content.localName());
+        assertEquals("media:content", content.tagName());
+
+        assertEquals("urn:a", doc.selectFirst("x|a").namespace());
+        assertEquals("urn:b", doc.selectFirst("x|b").namespace()); // redeclared
+        assertEquals("urn:a", doc.selectFirst("x|c").namespace()); // the self closed redeclaration is out of scope
+        assertEquals("", doc.selectFirst("d").namespace()); // default undeclared
+        assertEquals("", doc.selectFirst("x|e").namespace()); // out of scope, so undeclared prefix
+        assertEquals("http://www.w3.org/XML/1998/namespace", doc.selectFirst("xml|f").namespace());
+
+        assertEquals("", Parser.xmlParser().parseInput(xml, "").selectFirst("feed").namespace()); // not aware by default
+        assertTrue(parser.newInstance().isNamespaceAware());
+    }
+
+    @Test public void namespaceAwareParseIsNotLazy() {
+        Parser parser = Parser.xmlParser().setNamespaceAware(true).setLazyAttributes(true);
+        Document doc = parser.parseInput("<a xmlns:b='urn:b'><b:c id=1 /></a>", "");
+        assertEquals("urn:b", doc.selectFirst("b|c").namespace());
+        assertEquals("1", doc.selectFirst("b|c").id());
+    }
 }